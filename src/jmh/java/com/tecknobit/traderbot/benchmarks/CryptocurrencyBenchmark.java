@@ -0,0 +1,67 @@
+package com.tecknobit.traderbot.benchmarks;
+
+import com.tecknobit.traderbot.records.portfolio.Cryptocurrency;
+import com.tecknobit.traderbot.records.portfolio.Cryptocurrency.TradingConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code CryptocurrencyBenchmark} class is useful to measure the cost-basis methods of a {@link Cryptocurrency}
+ * with a growing number of first prices inserted
+ *
+ * @author Tecknobit N7ghtm4r3
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CryptocurrencyBenchmark {
+
+    /**
+     * {@code firstPrices} is the number of first prices inserted in the cryptocurrency
+     **/
+    @Param({"1", "100", "10000"})
+    public int firstPrices;
+
+    /**
+     * {@code cryptocurrency} is instance that memorizes cryptocurrency measured
+     **/
+    private Cryptocurrency cryptocurrency;
+
+    /**
+     * This method is used to create the cryptocurrency measured <br>
+     * Any params required
+     **/
+    @Setup
+    public void setUp() {
+        ArrayList<Double> prices = new ArrayList<>(firstPrices);
+        for (int j = 0; j < firstPrices; j++)
+            prices.add(20000.0 + j % 100);
+        cryptocurrency = new Cryptocurrency("BTC", "Bitcoin", 1, "BTCBUSD", 21000, 2.5, 8, 1.3,
+                "BUSD", new TradingConfig(1, 1, 1, 8, 1, -5, 10), prices);
+    }
+
+    /**
+     * This method is used to measure {@link Cryptocurrency#getFirstPrice()} <br>
+     * Any params required
+     *
+     * @return first price computed
+     **/
+    @Benchmark
+    public double getFirstPrice() {
+        return cryptocurrency.getFirstPrice();
+    }
+
+    /**
+     * This method is used to measure {@link Cryptocurrency#getIncomePercent()} <br>
+     * Any params required
+     *
+     * @return income percent computed
+     **/
+    @Benchmark
+    public double getIncomePercent() {
+        return cryptocurrency.getIncomePercent();
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.tecknobit.traderbot.benchmarks;
+
+import com.tecknobit.binancemanager.managers.signedmanagers.wallet.BinanceWalletManager;
+import com.tecknobit.traderbot.records.portfolio.Coin;
+import com.tecknobit.traderbot.traders.interfaces.BinanceTraderBot;
+
+/**
+ * The {@code OfflineBinanceTraderBot} class is useful to run the routines of a {@link BinanceTraderBot} on symbols,
+ * prices and coins inserted offline, without creating the exchange managers
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the routines that request data to the exchange cannot be called on this trader
+ **/
+class OfflineBinanceTraderBot extends BinanceTraderBot {
+
+    /**
+     * Constructor to init {@link OfflineBinanceTraderBot} <br>
+     * Any params required
+     **/
+    OfflineBinanceTraderBot() {
+        super((BinanceWalletManager) null, null, null);
+    }
+
+    /**
+     * This method is used to insert a symbol with its price
+     *
+     * @param symbol:     symbol of the pair es. BTCBUSD
+     * @param baseAsset:  base asset of the pair es. BTC
+     * @param quoteAsset: quote asset of the pair es. BUSD
+     * @param lastPrice:  last price of the symbol
+     **/
+    void putPrice(String symbol, String baseAsset, String quoteAsset, double lastPrice) {
+        priceBook.putPrice(symbol, baseAsset, quoteAsset, lastPrice, 0);
+    }
+
+    /**
+     * This method is used to insert a symbol with its price and its trading rules
+     *
+     * @param symbol:      symbol of the pair es. BTCBUSD
+     * @param baseAsset:   base asset of the pair es. BTC
+     * @param quoteAsset:  quote asset of the pair es. BUSD
+     * @param lastPrice:   last price of the symbol
+     * @param stepSize:    step of the quantity
+     * @param minQuantity: min quantity of an order
+     * @param maxQuantity: max quantity of an order
+     * @param minNotional: min notional value of an order
+     * @param tickSize:    step of the price
+     **/
+    void putSymbol(String symbol, String baseAsset, String quoteAsset, double lastPrice, double stepSize,
+                   double minQuantity, double maxQuantity, double minNotional, double tickSize) {
+        putPrice(symbol, baseAsset, quoteAsset, lastPrice);
+        symbolRules.putRules(symbol, stepSize, minQuantity, maxQuantity, minNotional, tickSize);
+    }
+
+    /**
+     * This method is used to insert a coin of the wallet
+     *
+     * @param coin: coin to insert
+     **/
+    void putCoin(Coin coin) {
+        coins.put(coin.getAssetIndex(), coin);
+    }
+
+    /**
+     * This method is used to compute the wallet balance with the coins and the prices inserted <br>
+     * Any params required
+     *
+     * @return wallet balance in USD value
+     **/
+    double valueWallet() throws Exception {
+        return computeWalletBalance();
+    }
+
+}
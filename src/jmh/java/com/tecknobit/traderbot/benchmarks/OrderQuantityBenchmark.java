@@ -0,0 +1,155 @@
+package com.tecknobit.traderbot.benchmarks;
+
+import com.tecknobit.traderbot.records.portfolio.SymbolRules;
+import com.tecknobit.traderbot.traders.interfaces.BinanceTraderBot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.Math.floor;
+
+/**
+ * The {@code OrderQuantityBenchmark} class is useful to measure the suggested quantities of a buy round over synthetic
+ * symbols, parsing the filters of each symbol at every call as the traders did with the exchange information and
+ * through {@link BinanceTraderBot#getSuggestedOrderQuantity(String, double)} with its {@link SymbolRules}
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the trader is an {@link OfflineBinanceTraderBot} filled with the synthetic symbols, while the parsing of
+ * the filters reproduces the previous implementation on the string values returned by the exchange
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderQuantityBenchmark {
+
+    /**
+     * {@code QUOTE_ASSET} is the quote asset of the symbols
+     **/
+    private static final String QUOTE_ASSET = "BUSD";
+
+    /**
+     * {@code QUOTE_BALANCE} is the balance of the quote asset used to buy each symbol
+     **/
+    private static final double QUOTE_BALANCE = 100;
+
+    /**
+     * {@code symbolsCount} is the number of symbols of the buy round
+     **/
+    @Param({"100", "500"})
+    public int symbolsCount;
+
+    /**
+     * {@code symbols} is instance that memorizes symbols of the buy round
+     **/
+    private String[] symbols;
+
+    /**
+     * {@code filters} is a map that contains symbol as key {@link String} and its filters as value, each filter
+     * is a map with the name of the value as key and the value as returned by the exchange
+     **/
+    private HashMap<String, HashMap<String, HashMap<String, String>>> filters;
+
+    /**
+     * {@code lastPrices} is instance that memorizes last prices of the {@link #symbols}
+     **/
+    private double[] lastPrices;
+
+    /**
+     * {@code testQuantities} is instance that memorizes quantities of base asset bought with the {@link #QUOTE_BALANCE}
+     * for each of the {@link #symbols}
+     **/
+    private double[] testQuantities;
+
+    /**
+     * {@code trader} is instance that memorizes trader filled with the same values of {@link #filters}
+     **/
+    private OfflineBinanceTraderBot trader;
+
+    /**
+     * This method is used to create the synthetic symbols, filters and prices <br>
+     * Any params required
+     **/
+    @Setup
+    public void setUp() {
+        symbols = new String[symbolsCount];
+        filters = new HashMap<>();
+        lastPrices = new double[symbolsCount];
+        testQuantities = new double[symbolsCount];
+        trader = new OfflineBinanceTraderBot();
+        for (int j = 0; j < symbolsCount; j++) {
+            String assetIndex = "C" + j;
+            String symbol = assetIndex + QUOTE_ASSET;
+            double stepSize = 1 / Math.pow(10, j % 6);
+            double minQuantity = stepSize;
+            double maxQuantity = 90000000;
+            double minNotional = 10;
+            double tickSize = 1 / Math.pow(10, j % 4 + 2);
+            HashMap<String, HashMap<String, String>> symbolFilters = new HashMap<>();
+            HashMap<String, String> lotSize = new HashMap<>();
+            lotSize.put("stepSize", String.valueOf(stepSize));
+            lotSize.put("minQty", String.valueOf(minQuantity));
+            lotSize.put("maxQty", String.valueOf(maxQuantity));
+            symbolFilters.put("LOT_SIZE", lotSize);
+            HashMap<String, String> notional = new HashMap<>();
+            notional.put("minNotional", String.valueOf(minNotional));
+            symbolFilters.put("MIN_NOTIONAL", notional);
+            HashMap<String, String> priceFilter = new HashMap<>();
+            priceFilter.put("tickSize", String.valueOf(tickSize));
+            symbolFilters.put("PRICE_FILTER", priceFilter);
+            filters.put(symbol, symbolFilters);
+            double lastPrice = 0.5 + j;
+            trader.putSymbol(symbol, assetIndex, QUOTE_ASSET, lastPrice, stepSize, minQuantity, maxQuantity, minNotional,
+                    tickSize);
+            symbols[j] = symbol;
+            lastPrices[j] = lastPrice;
+            testQuantities[j] = QUOTE_BALANCE / lastPrice;
+        }
+    }
+
+    /**
+     * This method is used to measure the suggested quantities parsing the filters of each symbol at every call <br>
+     * Any params required
+     *
+     * @return sum of the quantities suggested
+     **/
+    @Benchmark
+    public double parsedFilters() {
+        double quantities = 0;
+        for (int j = 0; j < symbols.length; j++) {
+            HashMap<String, HashMap<String, String>> symbolFilters = filters.get(symbols[j]);
+            HashMap<String, String> lotSize = symbolFilters.get("LOT_SIZE");
+            double stepSize = Double.parseDouble(lotSize.get("stepSize"));
+            double minQuantity = Double.parseDouble(lotSize.get("minQty"));
+            double maxQuantity = Double.parseDouble(lotSize.get("maxQty"));
+            double minNotional = Double.parseDouble(symbolFilters.get("MIN_NOTIONAL").get("minNotional"));
+            double lastPrice = lastPrices[j];
+            double quantity = Math.min(testQuantities[j], maxQuantity);
+            if (quantity >= minQuantity) {
+                quantity = minQuantity + floor((quantity - minQuantity) / stepSize) * stepSize;
+                if (quantity * lastPrice >= minNotional)
+                    quantities += quantity;
+            }
+        }
+        return quantities;
+    }
+
+    /**
+     * This method is used to measure the suggested quantities through
+     * {@link BinanceTraderBot#getSuggestedOrderQuantity(String, double)} <br>
+     * Any params required
+     *
+     * @return sum of the quantities suggested
+     **/
+    @Benchmark
+    public double symbolRules() throws Exception {
+        double quantities = 0;
+        for (int j = 0; j < symbols.length; j++) {
+            double quantity = trader.getSuggestedOrderQuantity(symbols[j], testQuantities[j]);
+            if (quantity > 0)
+                quantities += quantity;
+        }
+        return quantities;
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.tecknobit.traderbot.benchmarks;
+
+import com.tecknobit.apimanager.apis.encryption.aes.ClientCipher;
+import com.tecknobit.traderbot.routines.android.ServerRequest;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.KeyGenerator;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import static com.tecknobit.apimanager.apis.encryption.aes.ClientCipher.Algorithm.CBC_ALGORITHM;
+import static com.tecknobit.traderbot.routines.interfaces.TraderBotConstants.*;
+
+/**
+ * The {@code ServerRequestBenchmark} class is useful to measure the serialization and the encryption made by a
+ * {@link ServerRequest} before writing a token request
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the request is not written on any socket, so the benchmark runs offline
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServerRequestBenchmark {
+
+    /**
+     * {@code walletSize} is the number of assets inserted in the request
+     **/
+    @Param({"1", "20", "200"})
+    public int walletSize;
+
+    /**
+     * {@code clientCipher} is instance that memorizes cipher used to encrypt the requests
+     **/
+    private ClientCipher clientCipher;
+
+    /**
+     * {@code wallet} is instance that memorizes wallet inserted in the request
+     **/
+    private JSONArray wallet;
+
+    /**
+     * This method is used to create the cipher and the wallet of the request <br>
+     * Any params required
+     **/
+    @Setup
+    public void setUp() throws Exception {
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        keyGenerator.init(256);
+        Base64.Encoder encoder = Base64.getEncoder();
+        String secretKey = encoder.encodeToString(keyGenerator.generateKey().getEncoded());
+        String ivSpec = encoder.encodeToString(new byte[16]);
+        clientCipher = new ClientCipher(ivSpec, secretKey, CBC_ALGORITHM);
+        wallet = new JSONArray();
+        for (int j = 0; j < walletSize; j++) {
+            wallet.put(new JSONObject().put(BASE_ASSET_KEY, "C" + j)
+                    .put(LAST_PRICE_KEY, 1.0 + j)
+                    .put(PRICE_CHANGE_PERCENT_KEY, 0.5)
+                    .put(INCOME_PERCENT_KEY, 1.5));
+        }
+    }
+
+    /**
+     * This method is used to measure the message assembled by {@link ServerRequest#sendTokenRequest(JSONObject, String)}
+     * for an {@code INSERT_REFRESHED_PRICES} operation <br>
+     * Any params required
+     *
+     * @return message ciphered
+     **/
+    @Benchmark
+    public String encryptTokenRequest() throws Exception {
+        JSONObject message = new JSONObject().put(CRYPTOCURRENCY_KEY, wallet);
+        message.put("ope", INSERT_REFRESHED_PRICES);
+        message.put(AUTH_TOKEN_KEY, "authToken");
+        return clientCipher.encrypt(message.toString()) + "#token";
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.tecknobit.traderbot.benchmarks;
+
+import com.tecknobit.traderbot.candles.CandleSeries;
+import com.tecknobit.traderbot.candles.CandleSeries.Column;
+import com.tecknobit.traderbot.candles.CandleStore;
+import com.tecknobit.traderbot.routines.autonomous.TPTOPEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.tecknobit.traderbot.candles.CandleStore.DAILY_INTERVAL;
+import static com.tecknobit.traderbot.routines.autonomous.ForecastCache.ONE_DAY;
+
+/**
+ * The {@code TPTOPEngineBenchmark} class is useful to measure the forecasts of a set of symbols computed by the
+ * {@link TPTOPEngine} from synthetic daily candles, incrementally and scanning all the history of each symbol
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the candles are stored in a temporary {@link CandleStore} deleted at the end of the benchmark
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TPTOPEngineBenchmark {
+
+    /**
+     * {@code CANDLES_COUNT} is the number of daily candles of each symbol
+     **/
+    private static final int CANDLES_COUNT = 1000;
+
+    /**
+     * {@code DAYS_GAP} is the days gap of the forecasts
+     **/
+    private static final int DAYS_GAP = 7;
+
+    /**
+     * {@code WASTE_RANGE} is the waste range of the forecasts
+     **/
+    private static final double WASTE_RANGE = 1;
+
+    /**
+     * {@code symbolsCount} is the number of symbols to forecast
+     **/
+    @Param({"100", "500"})
+    public int symbolsCount;
+
+    /**
+     * {@code directory} is the temporary directory of the candles
+     **/
+    private Path directory;
+
+    /**
+     * {@code candleStore} is the store of the synthetic candles
+     **/
+    private CandleStore candleStore;
+
+    /**
+     * {@code tptopEngine} is the engine used to compute the forecasts incrementally
+     **/
+    private TPTOPEngine tptopEngine;
+
+    /**
+     * This method is used to store the synthetic candles and to index them in the {@link #tptopEngine} <br>
+     * Any params required
+     **/
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("candles");
+        candleStore = new CandleStore(directory);
+        tptopEngine = new TPTOPEngine(candleStore);
+        Random random = new Random(symbolsCount);
+        for (int j = 0; j < symbolsCount; j++) {
+            CandleSeries candleSeries = candleStore.getSeries("C" + j, DAILY_INTERVAL);
+            double close = 1 + j;
+            for (int k = 0; k < CANDLES_COUNT; k++) {
+                double nextClose = close * (1 + random.nextGaussian() * 0.03);
+                candleSeries.append(k * ONE_DAY, close, Math.max(close, nextClose), Math.min(close, nextClose),
+                        nextClose, 1);
+                close = nextClose;
+            }
+            tptopEngine.computeTPTOPIndex("C" + j, DAILY_INTERVAL, DAYS_GAP, WASTE_RANGE);
+        }
+    }
+
+    /**
+     * This method is used to measure the forecasts computed incrementally by the {@link TPTOPEngine} <br>
+     * Any params required
+     *
+     * @return sum of the forecasts computed
+     **/
+    @Benchmark
+    public double incremental() throws IOException {
+        double forecasts = 0;
+        for (int j = 0; j < symbolsCount; j++)
+            forecasts += tptopEngine.computeTPTOPIndex("C" + j, DAILY_INTERVAL, DAYS_GAP, WASTE_RANGE);
+        return forecasts;
+    }
+
+    /**
+     * This method is used to measure the forecasts computed scanning all the history of each symbol <br>
+     * Any params required
+     *
+     * @return sum of the forecasts computed
+     **/
+    @Benchmark
+    public double fullScan() throws IOException {
+        double forecasts = 0;
+        for (int j = 0; j < symbolsCount; j++) {
+            CandleSeries candleSeries = candleStore.getSeries("C" + j, DAILY_INTERVAL);
+            int candles = candleSeries.size();
+            double lastPercent = (candleSeries.getValues(Column.CLOSE, candles - 1, candles).get(0)
+                    / candleSeries.getValues(Column.CLOSE, candles - 2, candles - 1).get(0) - 1) * 100;
+            forecasts += TPTOPEngine.computeTPTOPIndex(candleSeries.getValues(Column.CLOSE, 0, candles), DAYS_GAP,
+                    lastPercent, WASTE_RANGE);
+        }
+        return forecasts;
+    }
+
+    /**
+     * This method is used to close the {@link #candleStore} and to delete its candles <br>
+     * Any params required
+     **/
+    @TearDown
+    public void tearDown() throws IOException {
+        candleStore.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+}
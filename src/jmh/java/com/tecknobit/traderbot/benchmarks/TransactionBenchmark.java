@@ -0,0 +1,63 @@
+package com.tecknobit.traderbot.benchmarks;
+
+import com.tecknobit.traderbot.records.portfolio.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.tecknobit.traderbot.routines.interfaces.TraderBotConstants.Side.BUY;
+
+/**
+ * The {@code TransactionBenchmark} class is useful to measure the construction of a {@link Transaction} from a
+ * formatted date and from a timestamp
+ *
+ * @author Tecknobit N7ghtm4r3
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionBenchmark {
+
+    /**
+     * {@code transactionDate} is instance that memorizes formatted date of the transactions created
+     **/
+    private String transactionDate;
+
+    /**
+     * {@code transactionTimestamp} is instance that memorizes timestamp of the transactions created
+     **/
+    private long transactionTimestamp;
+
+    /**
+     * This method is used to create the dates of the transactions <br>
+     * Any params required
+     **/
+    @Setup
+    public void setUp() {
+        transactionTimestamp = 1665000000000L;
+        transactionDate = Transaction.getDate(transactionTimestamp);
+    }
+
+    /**
+     * This method is used to measure the construction of a {@link Transaction} that parses its date <br>
+     * Any params required
+     *
+     * @return transaction created
+     **/
+    @Benchmark
+    public Transaction fromFormattedDate() {
+        return new Transaction("BTCBUSD", BUY, transactionDate, 21000, 1, "BUSD", "BTC");
+    }
+
+    /**
+     * This method is used to measure the construction of a {@link Transaction} that formats its timestamp <br>
+     * Any params required
+     *
+     * @return transaction created
+     **/
+    @Benchmark
+    public Transaction fromTimestamp() {
+        return new Transaction("BTCBUSD", BUY, transactionTimestamp, 21000, 1, "BUSD", "BTC");
+    }
+
+}
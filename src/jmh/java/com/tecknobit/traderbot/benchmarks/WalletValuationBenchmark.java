@@ -0,0 +1,99 @@
+package com.tecknobit.traderbot.benchmarks;
+
+import com.tecknobit.traderbot.records.portfolio.Coin;
+import com.tecknobit.traderbot.records.portfolio.PriceBook;
+import com.tecknobit.traderbot.traders.interfaces.BinanceTraderBot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code WalletValuationBenchmark} class is useful to measure the wallet balance loop of the traders over
+ * synthetic coins and prices, looking up the prices by concatenated symbol as the traders did with their tickers map
+ * and through the {@link PriceBook} of a {@link BinanceTraderBot}
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the trader is an {@link OfflineBinanceTraderBot} filled with the synthetic coins and prices, while the
+ * lookup by concatenated symbol reproduces the previous implementation on in-memory data
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WalletValuationBenchmark {
+
+    /**
+     * {@code QUOTE_ASSET} is the quote asset used to value the coins
+     **/
+    private static final String QUOTE_ASSET = "BUSD";
+
+    /**
+     * {@code coinsCount} is the number of coins of the wallet
+     **/
+    @Param({"10", "100", "1000"})
+    public int coinsCount;
+
+    /**
+     * {@code coins} is a map that contains asset index as key {@link String} and the coin as value
+     **/
+    private HashMap<String, Coin> coins;
+
+    /**
+     * {@code lastPrices} is a map that contains symbol as key {@link String} and its last price as value
+     **/
+    private HashMap<String, Double> lastPrices;
+
+    /**
+     * {@code trader} is instance that memorizes trader filled with the same coins of {@link #coins} and the same prices
+     * of {@link #lastPrices}
+     **/
+    private OfflineBinanceTraderBot trader;
+
+    /**
+     * This method is used to create the synthetic coins and prices <br>
+     * Any params required
+     **/
+    @Setup
+    public void setUp() {
+        coins = new HashMap<>();
+        lastPrices = new HashMap<>();
+        trader = new OfflineBinanceTraderBot();
+        for (int j = 0; j < coinsCount; j++) {
+            String assetIndex = "C" + j;
+            double lastPrice = 1 + j;
+            Coin coin = new Coin(assetIndex, assetIndex, j % 7 + 1, true);
+            coins.put(assetIndex, coin);
+            lastPrices.put(assetIndex + QUOTE_ASSET, lastPrice);
+            trader.putCoin(coin);
+            trader.putPrice(assetIndex + QUOTE_ASSET, assetIndex, QUOTE_ASSET, lastPrice);
+        }
+    }
+
+    /**
+     * This method is used to measure the wallet balance looking up the prices by concatenated symbol <br>
+     * Any params required
+     *
+     * @return wallet balance computed
+     **/
+    @Benchmark
+    public double symbolLookup() {
+        double balance = 0;
+        for (Coin coin : coins.values())
+            if (coin.isTradingEnabled())
+                balance += coin.getQuantity() * lastPrices.get(coin.getAssetIndex() + QUOTE_ASSET);
+        return balance;
+    }
+
+    /**
+     * This method is used to measure the wallet balance of the trader, that looks up the prices through its
+     * {@link PriceBook} <br>
+     * Any params required
+     *
+     * @return wallet balance computed
+     **/
+    @Benchmark
+    public double priceBookLookup() throws Exception {
+        return trader.valueWallet();
+    }
+
+}
@@ -0,0 +1,319 @@
+package com.tecknobit.traderbot.candles;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * The {@code CandleSeries} class defines the OHLCV candles of a symbol with an interval stored on disk. <br>
+ * Each value of the candles is stored in its own column file and the columns are memory-mapped, so the ranges of the
+ * candles are read as views on the mapped files without copying them in memory.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote candles are only appended in ascending order of open time, and the open time column is written after
+ * the other columns, so a candle partially written is discarded when the series is opened again
+ **/
+public class CandleSeries implements Closeable {
+
+    /**
+     * {@code NO_CANDLES} is the value returned as open time when the series has no candles
+     **/
+    public static final long NO_CANDLES = -1;
+
+    /**
+     * {@code OPEN_TIME_FILE} is the name of the file of the open times column
+     **/
+    private static final String OPEN_TIME_FILE = "open_time.bin";
+
+    /**
+     * {@code VALUE_BYTES} is the number of bytes of a value of a column
+     **/
+    private static final int VALUE_BYTES = Long.BYTES;
+
+    /**
+     * {@code Column} list of the value columns of a candle
+     **/
+    public enum Column {
+
+        /**
+         * {@code OPEN} column of the open prices
+         **/
+        OPEN,
+
+        /**
+         * {@code HIGH} column of the high prices
+         **/
+        HIGH,
+
+        /**
+         * {@code LOW} column of the low prices
+         **/
+        LOW,
+
+        /**
+         * {@code CLOSE} column of the close prices
+         **/
+        CLOSE,
+
+        /**
+         * {@code VOLUME} column of the volumes
+         **/
+        VOLUME;
+
+        /**
+         * This method is used to get the name of the file of the column <br>
+         * Any params required
+         *
+         * @return name of the file of the column as {@link String}
+         **/
+        private String getFileName() {
+            return name().toLowerCase() + ".bin";
+        }
+
+    }
+
+    /**
+     * {@code openTimeChannel} is instance that memorizes channel of the open times column
+     **/
+    private final FileChannel openTimeChannel;
+
+    /**
+     * {@code valueChannels} is instance that memorizes channels of the value columns indexed by {@link Column} ordinal
+     **/
+    private final FileChannel[] valueChannels;
+
+    /**
+     * {@code size} is instance that memorizes number of candles stored
+     **/
+    private volatile int size;
+
+    /**
+     * {@code lastOpenTime} is instance that memorizes open time of the last candle stored
+     **/
+    private volatile long lastOpenTime;
+
+    /**
+     * {@code mapping} is instance that memorizes last mapping of the columns
+     **/
+    private volatile Mapping mapping;
+
+    /**
+     * Constructor to init {@link CandleSeries}
+     *
+     * @param directory: directory where the columns of the series are stored
+     **/
+    public CandleSeries(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        openTimeChannel = FileChannel.open(directory.resolve(OPEN_TIME_FILE), CREATE, READ, WRITE);
+        size = (int) (openTimeChannel.size() / VALUE_BYTES);
+        openTimeChannel.truncate((long) size * VALUE_BYTES);
+        Column[] columns = Column.values();
+        valueChannels = new FileChannel[columns.length];
+        for (Column column : columns) {
+            FileChannel valueChannel = FileChannel.open(directory.resolve(column.getFileName()), CREATE, READ, WRITE);
+            if (valueChannel.size() > (long) size * VALUE_BYTES)
+                valueChannel.truncate((long) size * VALUE_BYTES);
+            else if (valueChannel.size() < (long) size * VALUE_BYTES)
+                throw new IOException("Column " + column + " of the series is corrupted");
+            valueChannels[column.ordinal()] = valueChannel;
+        }
+        lastOpenTime = NO_CANDLES;
+        if (size > 0) {
+            ByteBuffer lastValue = ByteBuffer.allocate(VALUE_BYTES);
+            openTimeChannel.read(lastValue, (long) (size - 1) * VALUE_BYTES);
+            lastOpenTime = lastValue.getLong(0);
+        }
+        mapping = new Mapping(0, LongBuffer.allocate(0), new DoubleBuffer[0]);
+    }
+
+    /**
+     * This method is used to append a candle to the series
+     *
+     * @param openTime: open time of the candle in millis
+     * @param open:     open price of the candle
+     * @param high:     high price of the candle
+     * @param low:      low price of the candle
+     * @param close:    close price of the candle
+     * @param volume:   volume of the candle
+     * @return true if the candle is appended, false if its open time is not after the last candle stored
+     **/
+    public synchronized boolean append(long openTime, double open, double high, double low, double close,
+                                       double volume) throws IOException {
+        if (openTime <= lastOpenTime)
+            return false;
+        long position = (long) size * VALUE_BYTES;
+        writeValue(valueChannels[Column.OPEN.ordinal()], position, Double.doubleToRawLongBits(open));
+        writeValue(valueChannels[Column.HIGH.ordinal()], position, Double.doubleToRawLongBits(high));
+        writeValue(valueChannels[Column.LOW.ordinal()], position, Double.doubleToRawLongBits(low));
+        writeValue(valueChannels[Column.CLOSE.ordinal()], position, Double.doubleToRawLongBits(close));
+        writeValue(valueChannels[Column.VOLUME.ordinal()], position, Double.doubleToRawLongBits(volume));
+        writeValue(openTimeChannel, position, openTime);
+        lastOpenTime = openTime;
+        size++;
+        return true;
+    }
+
+    /**
+     * This method is used to write a value in a column
+     *
+     * @param channel:  channel of the column
+     * @param position: position in bytes where write the value
+     * @param value:    bits of the value to write
+     **/
+    private void writeValue(FileChannel channel, long position, long value) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(VALUE_BYTES).putLong(0, value);
+        while (buffer.hasRemaining())
+            position += channel.write(buffer, position);
+    }
+
+    /**
+     * This method is used to get the open times of a range of candles
+     *
+     * @param from: index of the first candle of the range, inclusive
+     * @param to:   index of the last candle of the range, exclusive
+     * @return open times of the candles as read-only {@link LongBuffer} view of the mapped column
+     **/
+    public LongBuffer getOpenTimes(int from, int to) throws IOException {
+        Mapping mapping = getMapping(from, to);
+        return mapping.openTimes.duplicate().position(from).limit(to).slice();
+    }
+
+    /**
+     * This method is used to get the values of a column of a range of candles
+     *
+     * @param column: column of the values
+     * @param from:   index of the first candle of the range, inclusive
+     * @param to:     index of the last candle of the range, exclusive
+     * @return values of the candles as read-only {@link DoubleBuffer} view of the mapped column
+     **/
+    public DoubleBuffer getValues(Column column, int from, int to) throws IOException {
+        Mapping mapping = getMapping(from, to);
+        return mapping.values[column.ordinal()].duplicate().position(from).limit(to).slice();
+    }
+
+    /**
+     * This method is used to get the index of the first candle opened at or after a time
+     *
+     * @param openTime: open time in millis to search
+     * @return index of the first candle opened at or after {@code openTime} as int, {@link #size()} if any candle
+     * is opened after it
+     **/
+    public int indexOf(long openTime) throws IOException {
+        int size = this.size;
+        LongBuffer openTimes = getMapping(0, size).openTimes;
+        int low = 0, high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (openTimes.get(middle) < openTime)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * This method is used to get the mapping of the columns that contains a range of candles
+     *
+     * @param from: index of the first candle of the range, inclusive
+     * @param to:   index of the last candle of the range, exclusive
+     * @return mapping of the columns as {@link Mapping}
+     * @throws IllegalArgumentException if the range is not valid
+     **/
+    private Mapping getMapping(int from, int to) throws IOException {
+        if (from < 0 || from > to || to > size)
+            throw new IllegalArgumentException("Range of the candles is not valid");
+        Mapping mapping = this.mapping;
+        if (to > mapping.size) {
+            synchronized (this) {
+                mapping = this.mapping;
+                if (to > mapping.size) {
+                    int mappedSize = size;
+                    long mappedBytes = (long) mappedSize * VALUE_BYTES;
+                    DoubleBuffer[] values = new DoubleBuffer[valueChannels.length];
+                    for (int j = 0; j < valueChannels.length; j++)
+                        values[j] = valueChannels[j].map(READ_ONLY, 0, mappedBytes).asDoubleBuffer();
+                    mapping = new Mapping(mappedSize, openTimeChannel.map(READ_ONLY, 0, mappedBytes).asLongBuffer(),
+                            values);
+                    this.mapping = mapping;
+                }
+            }
+        }
+        return mapping;
+    }
+
+    /**
+     * This method is used to get open time of the last candle stored <br>
+     * Any params required
+     *
+     * @return open time of the last candle in millis as long, {@link #NO_CANDLES} if the series has no candles
+     **/
+    public long getLastOpenTime() {
+        return lastOpenTime;
+    }
+
+    /**
+     * This method is used to get number of candles stored <br>
+     * Any params required
+     *
+     * @return number of candles stored as int
+     **/
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method is used to close the columns of the series <br>
+     * Any params required
+     **/
+    @Override
+    public synchronized void close() throws IOException {
+        openTimeChannel.close();
+        for (FileChannel valueChannel : valueChannels)
+            valueChannel.close();
+    }
+
+    /**
+     * The {@code Mapping} class defines the columns mapped up to a number of candles
+     **/
+    private static final class Mapping {
+
+        /**
+         * {@code size} is instance that memorizes number of candles mapped
+         **/
+        private final int size;
+
+        /**
+         * {@code openTimes} is instance that memorizes open times column mapped
+         **/
+        private final LongBuffer openTimes;
+
+        /**
+         * {@code values} is instance that memorizes value columns mapped indexed by {@link Column} ordinal
+         **/
+        private final DoubleBuffer[] values;
+
+        /**
+         * Constructor to init {@link Mapping}
+         *
+         * @param size:      number of candles mapped
+         * @param openTimes: open times column mapped
+         * @param values:    value columns mapped
+         **/
+        private Mapping(int size, LongBuffer openTimes, DoubleBuffer[] values) {
+            this.size = size;
+            this.openTimes = openTimes;
+            this.values = values;
+        }
+
+    }
+
+}
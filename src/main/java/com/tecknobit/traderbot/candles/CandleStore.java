@@ -0,0 +1,309 @@
+package com.tecknobit.traderbot.candles;
+
+import com.tecknobit.traderbot.candles.CandleSeries.Column;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+
+import static com.tecknobit.traderbot.candles.CandleSeries.NO_CANDLES;
+import static com.tecknobit.traderbot.routines.autonomous.ForecastCache.*;
+import static java.lang.System.currentTimeMillis;
+
+/**
+ * The {@code CandleStore} class is useful to store on disk the candles history of the symbols traded by an auto trader<br>
+ * Only daily candles are fetched from the exchange, and only the candles closed after the last one stored, while the
+ * three-days and monthly candles are derived locally from the daily candles stored.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote each series of candles is stored in {@code directory/symbol/interval} as a {@link CandleSeries}
+ **/
+public class CandleStore implements Closeable {
+
+    /**
+     * {@code DAILY_INTERVAL} is the interval of the daily candles
+     **/
+    public static final String DAILY_INTERVAL = "1d";
+
+    /**
+     * {@code THREE_DAYS_INTERVAL} is the interval of the three-days candles
+     **/
+    public static final String THREE_DAYS_INTERVAL = "3d";
+
+    /**
+     * {@code MONTHLY_INTERVAL} is the interval of the monthly candles
+     **/
+    public static final String MONTHLY_INTERVAL = "1M";
+
+    /**
+     * {@code SEED_SEPARATOR} is the separator of the values of a candle in a seed file
+     **/
+    private static final String SEED_SEPARATOR = ",";
+
+    /**
+     * {@code directory} is instance that memorizes directory where the candles are stored
+     **/
+    private final Path directory;
+
+    /**
+     * {@code series} is a map that contains symbol and interval as key {@link String} and its {@link CandleSeries} as value
+     **/
+    private final HashMap<String, CandleSeries> series;
+
+    /**
+     * Constructor to init {@link CandleStore}
+     *
+     * @param directory: directory where the candles are stored
+     **/
+    public CandleStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        series = new HashMap<>();
+    }
+
+    /**
+     * This method is used to get the series of candles of a symbol with an interval
+     *
+     * @param symbol:   symbol of the candles es. BTCBUSD or BTC-USD
+     * @param interval: interval of the candles, {@link #DAILY_INTERVAL}, {@link #THREE_DAYS_INTERVAL} or {@link #MONTHLY_INTERVAL}
+     * @return series of candles as {@link CandleSeries}, opened if not opened yet
+     * @throws IllegalArgumentException if the interval is not supported
+     **/
+    public synchronized CandleSeries getSeries(String symbol, String interval) throws IOException {
+        if (!interval.equals(DAILY_INTERVAL) && !interval.equals(THREE_DAYS_INTERVAL)
+                && !interval.equals(MONTHLY_INTERVAL)) {
+            throw new IllegalArgumentException("Interval of the candles is not supported");
+        }
+        String key = symbol + "/" + interval;
+        CandleSeries candleSeries = series.get(key);
+        if (candleSeries == null) {
+            candleSeries = new CandleSeries(directory.resolve(symbol).resolve(interval));
+            series.put(key, candleSeries);
+        }
+        return candleSeries;
+    }
+
+    /**
+     * This method is used to fetch the daily candles of a symbol closed after the last one stored and to derive
+     * from them the three-days and monthly candles
+     *
+     * @param symbol:  symbol of the candles es. BTCBUSD or BTC-USD
+     * @param fetcher: fetcher of the daily candles from the exchange
+     * @return number of daily candles appended as int
+     **/
+    public int sync(String symbol, CandlesFetcher fetcher) throws Exception {
+        CandleSeries dailySeries = getSeries(symbol, DAILY_INTERVAL);
+        long now = currentTimeMillis();
+        long lastOpenTime = dailySeries.getLastOpenTime();
+        long startTime = lastOpenTime == NO_CANDLES ? 0 : lastOpenTime + ONE_DAY;
+        int appended = 0;
+        if (startTime + ONE_DAY <= now) {
+            for (double[] candle : fetcher.fetchCandles(symbol, startTime)) {
+                long openTime = (long) candle[0];
+                if (openTime + ONE_DAY <= now && append(dailySeries, candle))
+                    appended++;
+            }
+        }
+        if (appended > 0) {
+            derive(symbol, THREE_DAYS_INTERVAL);
+            derive(symbol, MONTHLY_INTERVAL);
+        }
+        return appended;
+    }
+
+    /**
+     * This method is used to seed a series of candles from a file <br>
+     * Each line of the file is a candle formatted as "openTime,open,high,low,close,volume" with the open time in millis,
+     * lines blank or that start with "#" are skipped
+     *
+     * @param symbol:   symbol of the candles es. BTCBUSD or BTC-USD
+     * @param interval: interval of the candles, {@link #DAILY_INTERVAL}, {@link #THREE_DAYS_INTERVAL} or {@link #MONTHLY_INTERVAL}
+     * @param seedFile: file with the candles to seed
+     * @return number of candles appended as int
+     * @implNote when daily candles are seeded the three-days and monthly candles are derived from them
+     **/
+    public int seed(String symbol, String interval, Path seedFile) throws IOException {
+        CandleSeries candleSeries = getSeries(symbol, interval);
+        int appended = 0;
+        try (BufferedReader reader = Files.newBufferedReader(seedFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+                String[] values = line.split(SEED_SEPARATOR);
+                if (values.length != 6)
+                    throw new IOException("Candle is not valid: " + line);
+                double[] candle = new double[values.length];
+                for (int j = 0; j < values.length; j++)
+                    candle[j] = Double.parseDouble(values[j].trim());
+                if (append(candleSeries, candle))
+                    appended++;
+            }
+        }
+        if (appended > 0 && interval.equals(DAILY_INTERVAL)) {
+            derive(symbol, THREE_DAYS_INTERVAL);
+            derive(symbol, MONTHLY_INTERVAL);
+        }
+        return appended;
+    }
+
+    /**
+     * This method is used to derive from the daily candles stored the candles of an interval not derived yet
+     *
+     * @param symbol:   symbol of the candles es. BTCBUSD or BTC-USD
+     * @param interval: interval to derive, {@link #THREE_DAYS_INTERVAL} or {@link #MONTHLY_INTERVAL}
+     * @return number of candles derived as int
+     * @throws IllegalArgumentException if the interval cannot be derived
+     * @implNote only the candles already closed and stored from their open are derived, open is the open of the first
+     * daily candle, close is the close of the last one, high and low are the extremes and volume is the sum of the volumes
+     **/
+    public int derive(String symbol, String interval) throws IOException {
+        if (!interval.equals(THREE_DAYS_INTERVAL) && !interval.equals(MONTHLY_INTERVAL))
+            throw new IllegalArgumentException("Interval of the candles cannot be derived");
+        CandleSeries dailySeries = getSeries(symbol, DAILY_INTERVAL);
+        CandleSeries derivedSeries = getSeries(symbol, interval);
+        long lastDerived = derivedSeries.getLastOpenTime();
+        int from = lastDerived == NO_CANDLES ? 0 : dailySeries.indexOf(getBucketClose(lastDerived, interval));
+        int to = dailySeries.size();
+        LongBuffer openTimes = dailySeries.getOpenTimes(from, to);
+        DoubleBuffer opens = dailySeries.getValues(Column.OPEN, from, to);
+        DoubleBuffer highs = dailySeries.getValues(Column.HIGH, from, to);
+        DoubleBuffer lows = dailySeries.getValues(Column.LOW, from, to);
+        DoubleBuffer closes = dailySeries.getValues(Column.CLOSE, from, to);
+        DoubleBuffer volumes = dailySeries.getValues(Column.VOLUME, from, to);
+        long lastClosed = to == from ? NO_CANDLES : openTimes.get(to - from - 1) + ONE_DAY;
+        int derived = 0;
+        int j = 0;
+        while (j < to - from) {
+            long bucketOpen = getBucketOpen(openTimes.get(j), interval);
+            long bucketClose = getBucketClose(bucketOpen, interval);
+            if (bucketClose > lastClosed)
+                break;
+            boolean complete = openTimes.get(j) == bucketOpen;
+            double open = opens.get(j);
+            double high = highs.get(j);
+            double low = lows.get(j);
+            double close = closes.get(j);
+            double volume = 0;
+            while (j < to - from && openTimes.get(j) < bucketClose) {
+                high = Math.max(high, highs.get(j));
+                low = Math.min(low, lows.get(j));
+                close = closes.get(j);
+                volume += volumes.get(j);
+                j++;
+            }
+            if (complete && derivedSeries.append(bucketOpen, open, high, low, close, volume))
+                derived++;
+        }
+        return derived;
+    }
+
+    /**
+     * This method is used to convert a gap in days to the number of candles of an interval that cover it
+     *
+     * @param interval: interval of the candles, {@link #DAILY_INTERVAL}, {@link #THREE_DAYS_INTERVAL} or {@link #MONTHLY_INTERVAL}
+     * @param daysGap:  gap in days to convert
+     * @return number of candles that cover the gap as int, at least one
+     * @throws IllegalArgumentException if the interval is not supported
+     * @implNote the monthly candles are counted as thirty days long
+     **/
+    public static int getCandlesGap(String interval, int daysGap) {
+        double candleDays;
+        if (interval.equals(DAILY_INTERVAL))
+            candleDays = 1;
+        else if (interval.equals(THREE_DAYS_INTERVAL))
+            candleDays = 3;
+        else if (interval.equals(MONTHLY_INTERVAL))
+            candleDays = 30;
+        else
+            throw new IllegalArgumentException("Interval of the candles is not supported");
+        return Math.max(1, (int) Math.ceil(daysGap / candleDays));
+    }
+
+    /**
+     * This method is used to append a candle to a series
+     *
+     * @param candleSeries: series where append the candle
+     * @param candle:       candle formatted as {openTime, open, high, low, close, volume}
+     * @return true if the candle is appended, false if not
+     **/
+    private boolean append(CandleSeries candleSeries, double[] candle) throws IOException {
+        return candleSeries.append((long) candle[0], candle[1], candle[2], candle[3], candle[4], candle[5]);
+    }
+
+    /**
+     * This method is used to get the open time of the candle of an interval that contains a time
+     *
+     * @param time:     time in millis
+     * @param interval: interval of the candle, {@link #THREE_DAYS_INTERVAL} or {@link #MONTHLY_INTERVAL}
+     * @return open time of the candle in millis as long
+     **/
+    private long getBucketOpen(long time, String interval) {
+        if (interval.equals(THREE_DAYS_INTERVAL))
+            return time - Math.floorMod(time, THREE_DAYS);
+        return Instant.ofEpochMilli(time).atZone(ZoneOffset.UTC).toLocalDate().withDayOfMonth(1)
+                .atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    /**
+     * This method is used to get the close time of the candle of an interval opened at a time
+     *
+     * @param openTime: open time in millis of the candle
+     * @param interval: interval of the candle, {@link #THREE_DAYS_INTERVAL} or {@link #MONTHLY_INTERVAL}
+     * @return close time of the candle in millis as long
+     **/
+    private long getBucketClose(long openTime, String interval) {
+        if (interval.equals(THREE_DAYS_INTERVAL))
+            return getCandleClose(openTime, THREE_DAYS);
+        return getMonthlyCandleClose(openTime);
+    }
+
+    /**
+     * This method is used to close all the series opened <br>
+     * Any params required
+     **/
+    @Override
+    public synchronized void close() throws IOException {
+        for (CandleSeries candleSeries : series.values())
+            candleSeries.close();
+        series.clear();
+    }
+
+    /**
+     * Method to get {@link #directory} instance <br>
+     * Any params required
+     *
+     * @return {@link #directory} instance as {@link Path}
+     **/
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * The {@code CandlesFetcher} interface defines the fetcher of the daily candles from an exchange
+     **/
+    @FunctionalInterface
+    public interface CandlesFetcher {
+
+        /**
+         * This method is used to fetch the daily candles of a symbol
+         *
+         * @param symbol:    symbol of the candles es. BTCBUSD or BTC-USD
+         * @param startTime: open time in millis of the first candle to fetch
+         * @return candles formatted as {openTime, open, high, low, close, volume} and sorted by open time as
+         * {@link List} of double array
+         **/
+        List<double[]> fetchCandles(String symbol, long startTime) throws Exception;
+
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.tecknobit.traderbot.feeds;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * The {@code BinanceTickerFeed} class is useful to receive the tickers of all the symbols of Binance from its
+ * WebSocket stream of the 24h rolling window tickers<br>
+ * The symbols of the tickers are in the same form used by {@link com.tecknobit.traderbot.traders.interfaces.BinanceTraderBot}
+ * es. BTCBUSD.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the stream pushes only the tickers changed in the last second
+ **/
+public class BinanceTickerFeed extends WebSocketTickerFeed {
+
+    /**
+     * {@code DEFAULT_STREAM_ENDPOINT} is the default endpoint of the stream of all the tickers
+     **/
+    public static final String DEFAULT_STREAM_ENDPOINT = "wss://stream.binance.com:9443/ws/!ticker@arr";
+
+    /**
+     * {@code streamEndpoint} is instance that memorizes endpoint of the stream
+     **/
+    private final String streamEndpoint;
+
+    /**
+     * Constructor to init {@link BinanceTickerFeed} <br>
+     * Any params required
+     **/
+    public BinanceTickerFeed() {
+        this(DEFAULT_STREAM_ENDPOINT);
+    }
+
+    /**
+     * Constructor to init {@link BinanceTickerFeed}
+     *
+     * @param streamEndpoint: endpoint of the stream es. wss://testnet.binance.vision/ws/!ticker@arr
+     **/
+    public BinanceTickerFeed(String streamEndpoint) {
+        this.streamEndpoint = streamEndpoint;
+    }
+
+    /**
+     * This method is used to get the endpoint of the stream <br>
+     * Any params required
+     *
+     * @return endpoint of the stream as {@link String}
+     **/
+    @Override
+    protected String getEndpoint() {
+        return streamEndpoint;
+    }
+
+    /**
+     * This method is used to parse a message of the stream and send its tickers to the {@link #tickerListener}
+     *
+     * @param message: message received
+     * @return number of tickers sent as int
+     **/
+    @Override
+    protected int parseMessage(String message) {
+        JSONArray tickers = new JSONArray(message);
+        for (int j = 0; j < tickers.length(); j++) {
+            JSONObject ticker = tickers.getJSONObject(j);
+            tickerListener.onTicker(ticker.getString("s"), ticker.getDouble("c"), ticker.getDouble("P"));
+        }
+        return tickers.length();
+    }
+
+}
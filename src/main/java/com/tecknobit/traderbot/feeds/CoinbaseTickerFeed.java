@@ -0,0 +1,112 @@
+package com.tecknobit.traderbot.feeds;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * The {@code CoinbaseTickerFeed} class is useful to receive the tickers of a list of products of Coinbase from the
+ * ticker channel of its WebSocket feed<br>
+ * The symbols of the tickers are in the same form used by {@link com.tecknobit.traderbot.traders.interfaces.CoinbaseTraderBot}
+ * es. BTC-USD.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the price change percent is computed from the open price of the last 24h
+ **/
+public class CoinbaseTickerFeed extends WebSocketTickerFeed {
+
+    /**
+     * {@code DEFAULT_FEED_ENDPOINT} is the default endpoint of the feed
+     **/
+    public static final String DEFAULT_FEED_ENDPOINT = "wss://ws-feed.exchange.coinbase.com";
+
+    /**
+     * {@code feedEndpoint} is instance that memorizes endpoint of the feed
+     **/
+    private final String feedEndpoint;
+
+    /**
+     * {@code productIds} is instance that memorizes list of the products subscribed es. BTC-USD
+     **/
+    private final ArrayList<String> productIds;
+
+    /**
+     * Constructor to init {@link CoinbaseTickerFeed}
+     *
+     * @param productIds: list of the products to subscribe es. BTC-USD
+     **/
+    public CoinbaseTickerFeed(Collection<String> productIds) {
+        this(DEFAULT_FEED_ENDPOINT, productIds);
+    }
+
+    /**
+     * Constructor to init {@link CoinbaseTickerFeed}
+     *
+     * @param feedEndpoint: endpoint of the feed es. wss://ws-feed-public.sandbox.exchange.coinbase.com
+     * @param productIds:   list of the products to subscribe es. BTC-USD
+     * @throws IllegalArgumentException if {@code productIds} is empty
+     **/
+    public CoinbaseTickerFeed(String feedEndpoint, Collection<String> productIds) {
+        if (productIds.isEmpty())
+            throw new IllegalArgumentException("Products to subscribe must be at least one");
+        this.feedEndpoint = feedEndpoint;
+        this.productIds = new ArrayList<>(productIds);
+    }
+
+    /**
+     * This method is used to get the endpoint of the stream <br>
+     * Any params required
+     *
+     * @return endpoint of the stream as {@link String}
+     **/
+    @Override
+    protected String getEndpoint() {
+        return feedEndpoint;
+    }
+
+    /**
+     * This method is used to subscribe the ticker channel of the {@link #productIds}
+     *
+     * @param webSocket: connection opened
+     **/
+    @Override
+    protected void subscribe(WebSocket webSocket) {
+        webSocket.sendText(new JSONObject().put("type", "subscribe")
+                .put("product_ids", new JSONArray(productIds))
+                .put("channels", new JSONArray().put("ticker")).toString(), true);
+    }
+
+    /**
+     * This method is used to parse a message of the stream and send its ticker to the {@link #tickerListener}
+     *
+     * @param message: message received
+     * @return number of tickers sent as int
+     **/
+    @Override
+    protected int parseMessage(String message) {
+        JSONObject ticker = new JSONObject(message);
+        if (!ticker.optString("type").equals("ticker"))
+            return 0;
+        double lastPrice = ticker.getDouble("price");
+        double openPrice = ticker.optDouble("open_24h", 0);
+        double priceChangePercent = 0;
+        if (openPrice > 0)
+            priceChangePercent = (lastPrice - openPrice) / openPrice * 100;
+        tickerListener.onTicker(ticker.getString("product_id"), lastPrice, priceChangePercent);
+        return 1;
+    }
+
+    /**
+     * Method to get {@link #productIds} instance <br>
+     * Any params required
+     *
+     * @return {@link #productIds} instance as {@link ArrayList} of {@link String}
+     **/
+    public ArrayList<String> getProductIds() {
+        return new ArrayList<>(productIds);
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.tecknobit.traderbot.feeds;
+
+/**
+ * The {@code MarketDataFeed} interface defines base methods of a feed that pushes the tickers of the market to a
+ * trader as soon as they change, instead of being polled at each refresh.<br>
+ * @author Tecknobit N7ghtm4r3
+ * **/
+public interface MarketDataFeed {
+
+    /**
+     * This method is used to start to receive the tickers of the feed
+     * @param tickerListener: listener that receives each ticker update
+     * **/
+    void start(TickerListener tickerListener) throws Exception;
+
+    /**
+     * This method is used to stop to receive the tickers of the feed <br>
+     * Any params required
+     * **/
+    void stop();
+
+    /**
+     * This method is used to get if the feed is receiving tickers <br>
+     * Any params required
+     * @return true if the feed is receiving tickers, false if not
+     * **/
+    boolean isRunning();
+
+    /**
+     * This method is used to get last time that a ticker is received <br>
+     * Any params required
+     * @return last time that a ticker is received in millis as long, 0 if any ticker has been received
+     * **/
+    long getLastUpdateTime();
+
+    /**
+     * This method is used to get number of tickers received <br>
+     * Any params required
+     * @return number of tickers received as long
+     * **/
+    long getReceivedTickers();
+
+    /**
+     * The {@code TickerListener} interface defines the listener of the tickers pushed by a {@link MarketDataFeed}
+     * **/
+    @FunctionalInterface
+    interface TickerListener {
+
+        /**
+         * This method is used to receive a ticker update
+         * @param symbol: symbol of the ticker es. BTCBUSD or BTC-USD
+         * @param lastPrice: last price of the symbol
+         * @param priceChangePercent: price change percent of the symbol
+         * **/
+        void onTicker(String symbol, double lastPrice, double priceChangePercent);
+
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.tecknobit.traderbot.feeds;
+
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.tecknobit.traderbot.feeds.TickerReplayServer.*;
+import static java.lang.System.currentTimeMillis;
+
+/**
+ * The {@code SocketTickerFeed} class is useful to receive the tickers pushed over a socket one per line, in the form
+ * served by a {@link TickerReplayServer}<br>
+ * The feed stops when the stream of the socket ends, while a line not valid or not applied by the listener is counted
+ * and skipped.
+ *
+ * @author Tecknobit N7ghtm4r3
+ **/
+public class SocketTickerFeed implements MarketDataFeed {
+
+    /**
+     * {@code host} is instance that memorizes host of the socket
+     **/
+    private final String host;
+
+    /**
+     * {@code port} is instance that memorizes port of the socket
+     **/
+    private final int port;
+
+    /**
+     * {@code receivedTickers} is instance that memorizes number of tickers received
+     **/
+    private final AtomicLong receivedTickers;
+
+    /**
+     * {@code failedTickers} is instance that memorizes number of lines not parsed or not applied by the listener
+     **/
+    private final AtomicLong failedTickers;
+
+    /**
+     * {@code socket} is instance that memorizes socket currently opened
+     **/
+    private volatile Socket socket;
+
+    /**
+     * {@code lastUpdateTime} is instance that memorizes last time that a ticker is received
+     **/
+    private volatile long lastUpdateTime;
+
+    /**
+     * Constructor to init {@link SocketTickerFeed}
+     *
+     * @param host: host of the socket es. localhost
+     * @param port: port of the socket
+     **/
+    public SocketTickerFeed(String host, int port) {
+        this.host = host;
+        this.port = port;
+        receivedTickers = new AtomicLong();
+        failedTickers = new AtomicLong();
+    }
+
+    /**
+     * This method is used to start to receive the tickers of the feed
+     *
+     * @param tickerListener: listener that receives each ticker update
+     **/
+    @Override
+    public synchronized void start(TickerListener tickerListener) throws IOException {
+        if (isRunning())
+            throw new IllegalStateException("Feed is already running");
+        Socket feedSocket = new Socket(host, port);
+        socket = feedSocket;
+        Thread reader = new Thread(() -> {
+            try (feedSocket; BufferedReader input = new BufferedReader(new InputStreamReader(
+                    feedSocket.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = input.readLine()) != null) {
+                    if (line.isBlank())
+                        continue;
+                    try {
+                        JSONObject ticker = new JSONObject(line);
+                        tickerListener.onTicker(ticker.getString(SYMBOL_KEY), ticker.getDouble(LAST_PRICE_KEY),
+                                ticker.getDouble(PRICE_CHANGE_PERCENT_KEY));
+                        receivedTickers.incrementAndGet();
+                        lastUpdateTime = currentTimeMillis();
+                    } catch (RuntimeException e) {
+                        failedTickers.incrementAndGet();
+                    }
+                }
+            } catch (IOException ignored) {
+            } finally {
+                if (socket == feedSocket)
+                    socket = null;
+            }
+        }, "socket-ticker-feed");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * This method is used to stop to receive the tickers of the feed <br>
+     * Any params required
+     **/
+    @Override
+    public synchronized void stop() {
+        Socket feedSocket = socket;
+        socket = null;
+        if (feedSocket != null) {
+            try {
+                feedSocket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * This method is used to get if the feed is receiving tickers <br>
+     * Any params required
+     *
+     * @return true if the feed is receiving tickers, false if not
+     **/
+    @Override
+    public boolean isRunning() {
+        return socket != null;
+    }
+
+    /**
+     * This method is used to get last time that a ticker is received <br>
+     * Any params required
+     *
+     * @return last time that a ticker is received in millis as long, 0 if any ticker has been received
+     **/
+    @Override
+    public long getLastUpdateTime() {
+        return lastUpdateTime;
+    }
+
+    /**
+     * This method is used to get number of tickers received <br>
+     * Any params required
+     *
+     * @return number of tickers received as long
+     **/
+    @Override
+    public long getReceivedTickers() {
+        return receivedTickers.get();
+    }
+
+    /**
+     * This method is used to get number of lines not parsed or not applied by the listener, skipped without
+     * stopping the feed <br>
+     * Any params required
+     *
+     * @return number of lines failed as long
+     **/
+    public long getFailedTickers() {
+        return failedTickers.get();
+    }
+
+}
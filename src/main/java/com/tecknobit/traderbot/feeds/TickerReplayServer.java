@@ -0,0 +1,184 @@
+package com.tecknobit.traderbot.feeds;
+
+import com.tecknobit.traderbot.feeds.MarketDataFeed.TickerListener;
+import org.json.JSONObject;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.lang.System.currentTimeMillis;
+
+/**
+ * The {@code TickerReplayServer} class is useful to serve a recorded stream of tickers over a local socket, so a
+ * {@link SocketTickerFeed} can replay it offline as if it was pushed by an exchange<br>
+ * Each line of the recording is a ticker in the form {"t":timestamp,"s":symbol,"c":lastPrice,"P":priceChangePercent}
+ * and the gaps between the timestamps of the tickers are replayed scaled by the {@link #speed}.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote a recording can be made wrapping the listener of any feed with {@link #record(TickerListener, Writer)}
+ **/
+public class TickerReplayServer implements Closeable {
+
+    /**
+     * {@code TIMESTAMP_KEY} is instance for timestamp key of a ticker recorded
+     **/
+    public static final String TIMESTAMP_KEY = "t";
+
+    /**
+     * {@code SYMBOL_KEY} is instance for symbol key of a ticker recorded
+     **/
+    public static final String SYMBOL_KEY = "s";
+
+    /**
+     * {@code LAST_PRICE_KEY} is instance for last price key of a ticker recorded
+     **/
+    public static final String LAST_PRICE_KEY = "c";
+
+    /**
+     * {@code PRICE_CHANGE_PERCENT_KEY} is instance for price change percent key of a ticker recorded
+     **/
+    public static final String PRICE_CHANGE_PERCENT_KEY = "P";
+
+    /**
+     * {@code recording} is instance that memorizes path of the recording served
+     **/
+    private final Path recording;
+
+    /**
+     * {@code speed} is instance that memorizes speed of the replay, 1 replays in real time and 0 replays without waits
+     **/
+    private final double speed;
+
+    /**
+     * {@code serverSocket} is instance that memorizes socket that accepts the clients
+     **/
+    private ServerSocket serverSocket;
+
+    /**
+     * Constructor to init {@link TickerReplayServer}
+     *
+     * @param recording: path of the recording to serve
+     * @param speed:     speed of the replay, 1 replays in real time, 2 twice as fast and 0 without waits
+     * @throws IllegalArgumentException if {@code speed} value is negative
+     **/
+    public TickerReplayServer(Path recording, double speed) {
+        if (speed < 0)
+            throw new IllegalArgumentException("Speed value cannot be less than 0");
+        this.recording = recording;
+        this.speed = speed;
+    }
+
+    /**
+     * This method is used to start to accept the clients on the loopback address
+     *
+     * @param port: port to bind, 0 to bind an ephemeral port
+     * @return port bound as int
+     **/
+    public synchronized int start(int port) throws IOException {
+        if (serverSocket != null)
+            throw new IllegalStateException("Server is already started");
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        ServerSocket acceptingSocket = serverSocket;
+        Thread acceptor = new Thread(() -> {
+            while (!acceptingSocket.isClosed()) {
+                try {
+                    Socket client = acceptingSocket.accept();
+                    Thread replayer = new Thread(() -> replay(client), "ticker-replay-" + client.getPort());
+                    replayer.setDaemon(true);
+                    replayer.start();
+                } catch (IOException ignored) {
+                }
+            }
+        }, "ticker-replay-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * This method is used to write the recording to a client
+     *
+     * @param client: client to serve
+     **/
+    private void replay(Socket client) {
+        try (client; BufferedReader reader = Files.newBufferedReader(recording, StandardCharsets.UTF_8);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(),
+                     StandardCharsets.UTF_8))) {
+            long firstTimestamp = -1, replayStart = currentTimeMillis();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank())
+                    continue;
+                if (speed > 0) {
+                    long timestamp = new JSONObject(line).getLong(TIMESTAMP_KEY);
+                    if (firstTimestamp == -1)
+                        firstTimestamp = timestamp;
+                    long wait = replayStart + (long) ((timestamp - firstTimestamp) / speed) - currentTimeMillis();
+                    if (wait > 0) {
+                        writer.flush();
+                        Thread.sleep(wait);
+                    }
+                }
+                writer.write(line);
+                writer.write('\n');
+            }
+        } catch (IOException ignored) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This method is used to get the port bound <br>
+     * Any params required
+     *
+     * @return port bound as int, -1 if the server is not started
+     **/
+    public synchronized int getPort() {
+        if (serverSocket == null)
+            return -1;
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * This method is used to stop to accept the clients <br>
+     * Any params required
+     **/
+    @Override
+    public synchronized void close() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+            serverSocket = null;
+        }
+    }
+
+    /**
+     * This method is used to wrap a listener to record the tickers that it receives
+     *
+     * @param tickerListener: listener to wrap
+     * @param writer:         writer where record the tickers
+     * @return listener that records each ticker and then sends it to {@code tickerListener} as {@link TickerListener}
+     **/
+    public static TickerListener record(TickerListener tickerListener, Writer writer) {
+        return (symbol, lastPrice, priceChangePercent) -> {
+            String line = new JSONObject().put(TIMESTAMP_KEY, currentTimeMillis())
+                    .put(SYMBOL_KEY, symbol)
+                    .put(LAST_PRICE_KEY, lastPrice)
+                    .put(PRICE_CHANGE_PERCENT_KEY, priceChangePercent).toString();
+            synchronized (writer) {
+                try {
+                    writer.write(line);
+                    writer.write('\n');
+                } catch (IOException ignored) {
+                }
+            }
+            tickerListener.onTicker(symbol, lastPrice, priceChangePercent);
+        };
+    }
+
+}
@@ -0,0 +1,264 @@
+package com.tecknobit.traderbot.feeds;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.System.currentTimeMillis;
+
+/**
+ * The {@code WebSocketTickerFeed} class is useful to receive the tickers of an exchange from its WebSocket stream<br>
+ * When the connection is lost it is opened again with an exponential backoff until the feed is stopped.
+ *
+ * @author Tecknobit N7ghtm4r3
+ **/
+public abstract class WebSocketTickerFeed implements MarketDataFeed, WebSocket.Listener {
+
+    /**
+     * {@code INITIAL_BACKOFF} is the initial wait in millis before opening again a connection lost
+     **/
+    public static final long INITIAL_BACKOFF = 1000;
+
+    /**
+     * {@code MAX_BACKOFF} is the max wait in millis before opening again a connection lost
+     **/
+    public static final long MAX_BACKOFF = 60000;
+
+    /**
+     * {@code httpClient} is instance that memorizes client used to open the connections
+     **/
+    private final HttpClient httpClient;
+
+    /**
+     * {@code message} is instance that memorizes parts of the message received not completed yet
+     **/
+    private final StringBuilder message;
+
+    /**
+     * {@code receivedTickers} is instance that memorizes number of tickers received
+     **/
+    private final AtomicLong receivedTickers;
+
+    /**
+     * {@code tickerListener} is instance that memorizes listener that receives the tickers
+     **/
+    protected volatile TickerListener tickerListener;
+
+    /**
+     * {@code webSocket} is instance that memorizes connection currently opened
+     **/
+    private volatile WebSocket webSocket;
+
+    /**
+     * {@code running} is instance that memorizes flag that indicates if the feed is running
+     **/
+    private volatile boolean running;
+
+    /**
+     * {@code backoff} is instance that memorizes wait in millis before opening again the connection
+     **/
+    private long backoff;
+
+    /**
+     * {@code lastUpdateTime} is instance that memorizes last time that a ticker is received
+     **/
+    private volatile long lastUpdateTime;
+
+    /**
+     * {@code reconnections} is instance that memorizes number of connections opened again after being lost
+     **/
+    private final AtomicLong reconnections;
+
+    /**
+     * Constructor to init {@link WebSocketTickerFeed} <br>
+     * Any params required
+     **/
+    public WebSocketTickerFeed() {
+        httpClient = HttpClient.newHttpClient();
+        message = new StringBuilder();
+        receivedTickers = new AtomicLong();
+        reconnections = new AtomicLong();
+        backoff = INITIAL_BACKOFF;
+    }
+
+    /**
+     * This method is used to start to receive the tickers of the feed
+     *
+     * @param tickerListener: listener that receives each ticker update
+     **/
+    @Override
+    public synchronized void start(TickerListener tickerListener) throws Exception {
+        if (running)
+            throw new IllegalStateException("Feed is already running");
+        this.tickerListener = tickerListener;
+        running = true;
+        try {
+            webSocket = httpClient.newWebSocketBuilder().buildAsync(URI.create(getEndpoint()), this).join();
+        } catch (Exception e) {
+            running = false;
+            throw e;
+        }
+    }
+
+    /**
+     * This method is used to stop to receive the tickers of the feed <br>
+     * Any params required
+     **/
+    @Override
+    public synchronized void stop() {
+        running = false;
+        WebSocket openedWebSocket = webSocket;
+        webSocket = null;
+        if (openedWebSocket != null)
+            openedWebSocket.abort();
+    }
+
+    /**
+     * This method is used to get if the feed is receiving tickers <br>
+     * Any params required
+     *
+     * @return true if the feed is receiving tickers, false if not
+     **/
+    @Override
+    public boolean isRunning() {
+        return running && webSocket != null;
+    }
+
+    /**
+     * This method is used to get the endpoint of the stream <br>
+     * Any params required
+     *
+     * @return endpoint of the stream as {@link String}
+     **/
+    protected abstract String getEndpoint();
+
+    /**
+     * This method is used to send the subscriptions required by the stream when the connection is opened
+     *
+     * @param webSocket: connection opened
+     **/
+    protected void subscribe(WebSocket webSocket) {
+    }
+
+    /**
+     * This method is used to parse a message of the stream and send its tickers to the {@link #tickerListener}
+     *
+     * @param message: message received
+     * @return number of tickers sent as int
+     **/
+    protected abstract int parseMessage(String message);
+
+    /**
+     * {@inheritDoc}
+     **/
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        subscribe(webSocket);
+        webSocket.request(1);
+    }
+
+    /**
+     * {@inheritDoc}
+     **/
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        message.append(data);
+        if (last) {
+            try {
+                int tickers = parseMessage(message.toString());
+                if (tickers > 0) {
+                    receivedTickers.addAndGet(tickers);
+                    lastUpdateTime = currentTimeMillis();
+                }
+                backoff = INITIAL_BACKOFF;
+            } catch (Exception ignored) {
+            } finally {
+                message.setLength(0);
+            }
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     **/
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        reconnect();
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     **/
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        reconnect();
+    }
+
+    /**
+     * This method is used to open again the connection lost after the {@link #backoff} wait <br>
+     * Any params required
+     **/
+    private void reconnect() {
+        if (!running)
+            return;
+        message.setLength(0);
+        long wait = backoff;
+        backoff = Math.min(backoff * 2, MAX_BACKOFF);
+        Thread reconnector = new Thread(() -> {
+            try {
+                Thread.sleep(wait);
+                synchronized (this) {
+                    if (running) {
+                        reconnections.incrementAndGet();
+                        webSocket = httpClient.newWebSocketBuilder().buildAsync(URI.create(getEndpoint()), this)
+                                .join();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                reconnect();
+            }
+        }, "ticker-feed-reconnector");
+        reconnector.setDaemon(true);
+        reconnector.start();
+    }
+
+    /**
+     * This method is used to get last time that a ticker is received <br>
+     * Any params required
+     *
+     * @return last time that a ticker is received in millis as long, 0 if any ticker has been received
+     **/
+    @Override
+    public long getLastUpdateTime() {
+        return lastUpdateTime;
+    }
+
+    /**
+     * This method is used to get number of tickers received <br>
+     * Any params required
+     *
+     * @return number of tickers received as long
+     **/
+    @Override
+    public long getReceivedTickers() {
+        return receivedTickers.get();
+    }
+
+    /**
+     * This method is used to get number of connections opened again after being lost <br>
+     * Any params required
+     *
+     * @return number of connections opened again as long
+     **/
+    public long getReconnections() {
+        return reconnections.get();
+    }
+
+}
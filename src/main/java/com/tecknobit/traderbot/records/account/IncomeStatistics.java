@@ -0,0 +1,618 @@
+package com.tecknobit.traderbot.records.account;
+
+import org.json.JSONObject;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.lang.Math.*;
+
+/**
+ * The {@code IncomeStatistics} class defines income statistics object. <br>
+ * This object is useful to update in constant time the statistics of the incomes of the orders of a
+ * {@link TraderAccount}, so they do not need to walk the whole list of incomes.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote two statistics can be merged, the statistics merged are considered as inserted after the incomes of this
+ * statistics, the statistics can be saved with {@link #toJSON()} and restored with
+ * {@link #IncomeStatistics(JSONObject)} and all the methods are synchronized, so the incomes can be inserted by the
+ * routines of the traders while the statistics are read
+ **/
+public class IncomeStatistics {
+
+    /**
+     * {@code COUNT_KEY} is the key of the {@link #count} in the saved statistics
+     **/
+    private static final String COUNT_KEY = "count";
+
+    /**
+     * {@code SUM_KEY} is the key of the {@link #sum} in the saved statistics
+     **/
+    private static final String SUM_KEY = "sum";
+
+    /**
+     * {@code MEAN_KEY} is the key of the {@link #mean} in the saved statistics
+     **/
+    private static final String MEAN_KEY = "mean";
+
+    /**
+     * {@code SQUARED_DEVIATIONS_KEY} is the key of the {@link #squaredDeviations} in the saved statistics
+     **/
+    private static final String SQUARED_DEVIATIONS_KEY = "squared_deviations";
+
+    /**
+     * {@code MIN_KEY} is the key of the {@link #min} in the saved statistics
+     **/
+    private static final String MIN_KEY = "min";
+
+    /**
+     * {@code MAX_KEY} is the key of the {@link #max} in the saved statistics
+     **/
+    private static final String MAX_KEY = "max";
+
+    /**
+     * {@code WINS_KEY} is the key of the {@link #wins} in the saved statistics
+     **/
+    private static final String WINS_KEY = "wins";
+
+    /**
+     * {@code EQUITY_KEY} is the key of the {@link #equity} in the saved statistics
+     **/
+    private static final String EQUITY_KEY = "equity";
+
+    /**
+     * {@code PEAK_EQUITY_KEY} is the key of the {@link #peakEquity} in the saved statistics
+     **/
+    private static final String PEAK_EQUITY_KEY = "peak_equity";
+
+    /**
+     * {@code MIN_EQUITY_KEY} is the key of the {@link #minEquity} in the saved statistics
+     **/
+    private static final String MIN_EQUITY_KEY = "min_equity";
+
+    /**
+     * {@code MAX_DRAWDOWN_KEY} is the key of the {@link #maxDrawdown} in the saved statistics
+     **/
+    private static final String MAX_DRAWDOWN_KEY = "max_drawdown";
+
+    /**
+     * {@code SKETCH_KEY} is the key of the {@link #sketch} in the saved statistics
+     **/
+    private static final String SKETCH_KEY = "sketch";
+
+    /**
+     * {@code count} is instance that memorizes number of incomes inserted
+     **/
+    private long count;
+
+    /**
+     * {@code sum} is instance that memorizes sum of incomes inserted
+     **/
+    private double sum;
+
+    /**
+     * {@code mean} is instance that memorizes running mean of incomes inserted
+     **/
+    private double mean;
+
+    /**
+     * {@code squaredDeviations} is instance that memorizes sum of squared deviations from the {@link #mean}
+     **/
+    private double squaredDeviations;
+
+    /**
+     * {@code min} is instance that memorizes min income inserted
+     **/
+    private double min;
+
+    /**
+     * {@code max} is instance that memorizes max income inserted
+     **/
+    private double max;
+
+    /**
+     * {@code wins} is instance that memorizes number of incomes greater than 0
+     **/
+    private long wins;
+
+    /**
+     * {@code equity} is instance that memorizes equity obtained compounding the incomes inserted starting from 1
+     **/
+    private double equity;
+
+    /**
+     * {@code peakEquity} is instance that memorizes max value reached by the {@link #equity}
+     **/
+    private double peakEquity;
+
+    /**
+     * {@code minEquity} is instance that memorizes min value reached by the {@link #equity}
+     **/
+    private double minEquity;
+
+    /**
+     * {@code maxDrawdown} is instance that memorizes max drawdown of the {@link #equity} as fraction of its peak
+     **/
+    private double maxDrawdown;
+
+    /**
+     * {@code sketch} is instance that memorizes sketch used to estimate the quantiles of the incomes
+     **/
+    private final QuantileSketch sketch;
+
+    /**
+     * Constructor to init {@link IncomeStatistics} <br>
+     * Any params required
+     **/
+    public IncomeStatistics() {
+        min = Double.NaN;
+        max = Double.NaN;
+        equity = 1;
+        peakEquity = 1;
+        minEquity = 1;
+        sketch = new QuantileSketch();
+    }
+
+    /**
+     * Constructor to init {@link IncomeStatistics}
+     *
+     * @param statistics: statistics saved with {@link #toJSON()}
+     **/
+    public IncomeStatistics(JSONObject statistics) {
+        count = statistics.getLong(COUNT_KEY);
+        sum = statistics.getDouble(SUM_KEY);
+        mean = statistics.getDouble(MEAN_KEY);
+        squaredDeviations = statistics.getDouble(SQUARED_DEVIATIONS_KEY);
+        min = count == 0 ? Double.NaN : statistics.getDouble(MIN_KEY);
+        max = count == 0 ? Double.NaN : statistics.getDouble(MAX_KEY);
+        wins = statistics.getLong(WINS_KEY);
+        equity = statistics.getDouble(EQUITY_KEY);
+        peakEquity = statistics.getDouble(PEAK_EQUITY_KEY);
+        minEquity = statistics.getDouble(MIN_EQUITY_KEY);
+        maxDrawdown = statistics.getDouble(MAX_DRAWDOWN_KEY);
+        sketch = new QuantileSketch(statistics.getJSONObject(SKETCH_KEY));
+    }
+
+    /**
+     * Constructor to init {@link IncomeStatistics} as copy of other statistics
+     *
+     * @param statistics: statistics to copy
+     **/
+    private IncomeStatistics(IncomeStatistics statistics) {
+        synchronized (statistics) {
+            count = statistics.count;
+            sum = statistics.sum;
+            mean = statistics.mean;
+            squaredDeviations = statistics.squaredDeviations;
+            min = statistics.min;
+            max = statistics.max;
+            wins = statistics.wins;
+            equity = statistics.equity;
+            peakEquity = statistics.peakEquity;
+            minEquity = statistics.minEquity;
+            maxDrawdown = statistics.maxDrawdown;
+            sketch = new QuantileSketch();
+            sketch.merge(statistics.sketch);
+        }
+    }
+
+    /**
+     * This method is used to insert an income
+     *
+     * @param income: income percent of an order es. 1.5 or -2
+     **/
+    public synchronized void addIncome(double income) {
+        count++;
+        sum += income;
+        double delta = income - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (income - mean);
+        min = count == 1 ? income : Math.min(min, income);
+        max = count == 1 ? income : Math.max(max, income);
+        if (income > 0)
+            wins++;
+        equity *= 1 + income / 100;
+        if (equity > peakEquity)
+            peakEquity = equity;
+        if (equity < minEquity)
+            minEquity = equity;
+        maxDrawdown = Math.max(maxDrawdown, 1 - equity / peakEquity);
+        sketch.add(income);
+    }
+
+    /**
+     * This method is used to merge the incomes of other statistics in these statistics
+     *
+     * @param statistics: statistics to merge, considered as inserted after the incomes of these statistics
+     **/
+    public void merge(IncomeStatistics statistics) {
+        IncomeStatistics merged = new IncomeStatistics(statistics);
+        if (merged.count == 0)
+            return;
+        synchronized (this) {
+            mergeStatistics(merged);
+        }
+    }
+
+    /**
+     * This method is used to merge the incomes of other statistics in these statistics
+     *
+     * @param statistics: statistics to merge not shared with other threads
+     **/
+    private void mergeStatistics(IncomeStatistics statistics) {
+        if (count == 0) {
+            min = statistics.min;
+            max = statistics.max;
+        } else {
+            min = Math.min(min, statistics.min);
+            max = Math.max(max, statistics.max);
+        }
+        long mergedCount = count + statistics.count;
+        double delta = statistics.mean - mean;
+        squaredDeviations += statistics.squaredDeviations + delta * delta * count * statistics.count / mergedCount;
+        mean += delta * statistics.count / mergedCount;
+        count = mergedCount;
+        sum += statistics.sum;
+        wins += statistics.wins;
+        maxDrawdown = Math.max(Math.max(maxDrawdown, statistics.maxDrawdown),
+                1 - equity * statistics.minEquity / peakEquity);
+        minEquity = Math.min(minEquity, equity * statistics.minEquity);
+        peakEquity = Math.max(peakEquity, equity * statistics.peakEquity);
+        equity *= statistics.equity;
+        sketch.merge(statistics.sketch);
+    }
+
+    /**
+     * This method is used to get number of incomes inserted <br>
+     * Any params required
+     *
+     * @return number of incomes inserted as long
+     **/
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * This method is used to get sum of incomes inserted <br>
+     * Any params required
+     *
+     * @return sum of incomes inserted as double
+     **/
+    public synchronized double getSum() {
+        return sum;
+    }
+
+    /**
+     * This method is used to get mean of incomes inserted <br>
+     * Any params required
+     *
+     * @return mean of incomes inserted as double, {@link Double#NaN} if any income has been inserted
+     **/
+    public synchronized double getMean() {
+        return sum / count;
+    }
+
+    /**
+     * This method is used to get variance of incomes inserted <br>
+     * Any params required
+     *
+     * @return sample variance of incomes inserted as double, 0 if less than two incomes have been inserted
+     **/
+    public synchronized double getVariance() {
+        if (count < 2)
+            return 0;
+        return squaredDeviations / (count - 1);
+    }
+
+    /**
+     * This method is used to get standard deviation of incomes inserted <br>
+     * Any params required
+     *
+     * @return sample standard deviation of incomes inserted as double
+     **/
+    public synchronized double getStandardDeviation() {
+        return sqrt(getVariance());
+    }
+
+    /**
+     * This method is used to get min income inserted <br>
+     * Any params required
+     *
+     * @return min income inserted as double, {@link Double#NaN} if any income has been inserted
+     **/
+    public synchronized double getMin() {
+        return min;
+    }
+
+    /**
+     * This method is used to get max income inserted <br>
+     * Any params required
+     *
+     * @return max income inserted as double, {@link Double#NaN} if any income has been inserted
+     **/
+    public synchronized double getMax() {
+        return max;
+    }
+
+    /**
+     * This method is used to get win rate of incomes inserted <br>
+     * Any params required
+     *
+     * @return percent of incomes greater than 0 as double es. 65.5, 0 if any income has been inserted
+     **/
+    public synchronized double getWinRate() {
+        if (count == 0)
+            return 0;
+        return wins * 100.0 / count;
+    }
+
+    /**
+     * This method is used to get max drawdown of the incomes inserted compounded one after the other <br>
+     * Any params required
+     *
+     * @return max drawdown as percent of the peak reached es. 12.5
+     **/
+    public synchronized double getMaxDrawdown() {
+        return maxDrawdown * 100;
+    }
+
+    /**
+     * This method is used to get an estimation of a quantile of the incomes inserted
+     *
+     * @param quantile: quantile to estimate from 0 to 1 es. 0.5 for the median
+     * @return estimation of the quantile as double with a relative error of {@link QuantileSketch#RELATIVE_ACCURACY}
+     * , {@link Double#NaN} if any income has been inserted
+     * @throws IllegalArgumentException if {@code quantile} value is not between 0 and 1
+     **/
+    public synchronized double getQuantile(double quantile) {
+        return sketch.getQuantile(quantile);
+    }
+
+    /**
+     * This method is used to get the statistics to save them <br>
+     * Any params required
+     *
+     * @return statistics as {@link JSONObject}, they can be restored with {@link #IncomeStatistics(JSONObject)}
+     **/
+    public synchronized JSONObject toJSON() {
+        JSONObject statistics = new JSONObject()
+                .put(COUNT_KEY, count)
+                .put(SUM_KEY, sum)
+                .put(MEAN_KEY, mean)
+                .put(SQUARED_DEVIATIONS_KEY, squaredDeviations)
+                .put(WINS_KEY, wins)
+                .put(EQUITY_KEY, equity)
+                .put(PEAK_EQUITY_KEY, peakEquity)
+                .put(MIN_EQUITY_KEY, minEquity)
+                .put(MAX_DRAWDOWN_KEY, maxDrawdown)
+                .put(SKETCH_KEY, sketch.toJSON());
+        if (count > 0) {
+            statistics.put(MIN_KEY, min);
+            statistics.put(MAX_KEY, max);
+        }
+        return statistics;
+    }
+
+    /**
+     * The {@code QuantileSketch} class is useful to estimate the quantiles of a stream of values with a bounded
+     * relative error and a memory that grows with the logarithm of the range of the values<br>
+     * Two sketches can be merged summing the counts of their buckets.
+     *
+     * @implNote the sketch is not synchronized, the {@link IncomeStatistics} that holds it guards its accesses
+     **/
+    public static final class QuantileSketch {
+
+        /**
+         * {@code POSITIVE_BUCKETS_KEY} is the key of the {@link #positiveBuckets} in the saved sketch
+         **/
+        private static final String POSITIVE_BUCKETS_KEY = "positive_buckets";
+
+        /**
+         * {@code NEGATIVE_BUCKETS_KEY} is the key of the {@link #negativeBuckets} in the saved sketch
+         **/
+        private static final String NEGATIVE_BUCKETS_KEY = "negative_buckets";
+
+        /**
+         * {@code ZERO_COUNT_KEY} is the key of the {@link #zeroCount} in the saved sketch
+         **/
+        private static final String ZERO_COUNT_KEY = "zero_count";
+
+        /**
+         * {@code RELATIVE_ACCURACY} is the max relative error of the quantiles estimated
+         **/
+        public static final double RELATIVE_ACCURACY = 0.01;
+
+        /**
+         * {@code MIN_INDEXABLE_VALUE} is the min absolute value inserted in a bucket, lower values are counted as 0
+         **/
+        private static final double MIN_INDEXABLE_VALUE = 1e-9;
+
+        /**
+         * {@code GAMMA} is the ratio between the bounds of a bucket
+         **/
+        private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+
+        /**
+         * {@code LOG_GAMMA} is the natural logarithm of {@link #GAMMA}
+         **/
+        private static final double LOG_GAMMA = log(GAMMA);
+
+        /**
+         * {@code positiveBuckets} is a map that contains bucket index as key {@link Integer} and number of positive
+         * values inserted in it as value
+         **/
+        private final TreeMap<Integer, Long> positiveBuckets;
+
+        /**
+         * {@code negativeBuckets} is a map that contains bucket index as key {@link Integer} and number of negative
+         * values inserted in it as value
+         **/
+        private final TreeMap<Integer, Long> negativeBuckets;
+
+        /**
+         * {@code zeroCount} is instance that memorizes number of values inserted counted as 0
+         **/
+        private long zeroCount;
+
+        /**
+         * {@code count} is instance that memorizes number of values inserted
+         **/
+        private long count;
+
+        /**
+         * Constructor to init {@link QuantileSketch} <br>
+         * Any params required
+         **/
+        public QuantileSketch() {
+            positiveBuckets = new TreeMap<>();
+            negativeBuckets = new TreeMap<>();
+        }
+
+        /**
+         * Constructor to init {@link QuantileSketch}
+         *
+         * @param sketch: sketch saved with {@link #toJSON()}
+         **/
+        public QuantileSketch(JSONObject sketch) {
+            this();
+            zeroCount = sketch.getLong(ZERO_COUNT_KEY);
+            count = zeroCount;
+            count += loadBuckets(sketch.getJSONObject(POSITIVE_BUCKETS_KEY), positiveBuckets);
+            count += loadBuckets(sketch.getJSONObject(NEGATIVE_BUCKETS_KEY), negativeBuckets);
+        }
+
+        /**
+         * This method is used to insert a value
+         *
+         * @param value: value to insert
+         **/
+        public void add(double value) {
+            count++;
+            if (value > MIN_INDEXABLE_VALUE)
+                positiveBuckets.merge(getBucketIndex(value), 1L, Long::sum);
+            else if (value < -MIN_INDEXABLE_VALUE)
+                negativeBuckets.merge(getBucketIndex(-value), 1L, Long::sum);
+            else
+                zeroCount++;
+        }
+
+        /**
+         * This method is used to merge the values of another sketch in this sketch
+         *
+         * @param sketch: sketch to merge
+         **/
+        public void merge(QuantileSketch sketch) {
+            for (Map.Entry<Integer, Long> bucket : sketch.positiveBuckets.entrySet())
+                positiveBuckets.merge(bucket.getKey(), bucket.getValue(), Long::sum);
+            for (Map.Entry<Integer, Long> bucket : sketch.negativeBuckets.entrySet())
+                negativeBuckets.merge(bucket.getKey(), bucket.getValue(), Long::sum);
+            zeroCount += sketch.zeroCount;
+            count += sketch.count;
+        }
+
+        /**
+         * This method is used to get an estimation of a quantile of the values inserted
+         *
+         * @param quantile: quantile to estimate from 0 to 1 es. 0.5 for the median
+         * @return estimation of the quantile as double, {@link Double#NaN} if any value has been inserted
+         * @throws IllegalArgumentException if {@code quantile} value is not between 0 and 1
+         **/
+        public double getQuantile(double quantile) {
+            if (quantile < 0 || quantile > 1)
+                throw new IllegalArgumentException("Quantile value must be between 0 and 1");
+            if (count == 0)
+                return Double.NaN;
+            long rank = (long) (quantile * (count - 1));
+            long seen = 0;
+            for (Map.Entry<Integer, Long> bucket : negativeBuckets.descendingMap().entrySet()) {
+                seen += bucket.getValue();
+                if (seen > rank)
+                    return -getBucketValue(bucket.getKey());
+            }
+            seen += zeroCount;
+            if (seen > rank)
+                return 0;
+            for (Map.Entry<Integer, Long> bucket : positiveBuckets.entrySet()) {
+                seen += bucket.getValue();
+                if (seen > rank)
+                    return getBucketValue(bucket.getKey());
+            }
+            return Double.NaN;
+        }
+
+        /**
+         * This method is used to get number of values inserted <br>
+         * Any params required
+         *
+         * @return number of values inserted as long
+         **/
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * This method is used to get the sketch to save it <br>
+         * Any params required
+         *
+         * @return sketch as {@link JSONObject}, it can be restored with {@link #QuantileSketch(JSONObject)}
+         **/
+        public JSONObject toJSON() {
+            return new JSONObject()
+                    .put(POSITIVE_BUCKETS_KEY, saveBuckets(positiveBuckets))
+                    .put(NEGATIVE_BUCKETS_KEY, saveBuckets(negativeBuckets))
+                    .put(ZERO_COUNT_KEY, zeroCount);
+        }
+
+        /**
+         * This method is used to save the buckets of the sketch
+         *
+         * @param buckets: buckets to save
+         * @return buckets as {@link JSONObject} with the index of each bucket as key and its count as value
+         **/
+        private static JSONObject saveBuckets(TreeMap<Integer, Long> buckets) {
+            JSONObject savedBuckets = new JSONObject();
+            for (Map.Entry<Integer, Long> bucket : buckets.entrySet())
+                savedBuckets.put(String.valueOf(bucket.getKey()), bucket.getValue());
+            return savedBuckets;
+        }
+
+        /**
+         * This method is used to load the buckets of a saved sketch
+         *
+         * @param savedBuckets: buckets saved with {@link #saveBuckets(TreeMap)}
+         * @param buckets: buckets where insert the buckets loaded
+         * @return number of values of the buckets loaded as long
+         **/
+        private static long loadBuckets(JSONObject savedBuckets, TreeMap<Integer, Long> buckets) {
+            long values = 0;
+            for (String index : savedBuckets.keySet()) {
+                long bucketCount = savedBuckets.getLong(index);
+                buckets.put(Integer.parseInt(index), bucketCount);
+                values += bucketCount;
+            }
+            return values;
+        }
+
+        /**
+         * This method is used to get index of the bucket of a value
+         *
+         * @param value: positive value
+         * @return index of the bucket as int
+         **/
+        private static int getBucketIndex(double value) {
+            return (int) ceil(log(value) / LOG_GAMMA);
+        }
+
+        /**
+         * This method is used to get the value that represents a bucket
+         *
+         * @param index: index of the bucket
+         * @return value that represents the bucket as double
+         **/
+        private static double getBucketValue(int index) {
+            return 2 * pow(GAMMA, index) / (GAMMA + 1);
+        }
+
+    }
+
+}
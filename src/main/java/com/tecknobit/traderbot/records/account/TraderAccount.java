@@ -11,17 +11,21 @@ import org.json.JSONObject;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static com.tecknobit.apimanager.trading.TradingTools.roundValue;
 import static com.tecknobit.apimanager.trading.TradingTools.textualizeAssetPercent;
+import static com.tecknobit.traderbot.records.portfolio.Cryptocurrency.LEGACY_COST_BASIS_VERSION;
 import static com.tecknobit.traderbot.records.portfolio.Cryptocurrency.TradingConfig.*;
+import static com.tecknobit.traderbot.records.portfolio.Cryptocurrency.getFirstPricesSum;
 import static com.tecknobit.traderbot.routines.android.AndroidWorkflow.*;
 import static com.tecknobit.traderbot.routines.android.ServerRequest.*;
 import static com.tecknobit.traderbot.routines.autonomous.AutoTraderCoreRoutines.ASSET_NOT_TRADABLE;
 import static com.tecknobit.traderbot.routines.interfaces.TraderBotConstants.*;
 import static java.lang.System.currentTimeMillis;
 import static java.lang.System.out;
+import static java.util.concurrent.TimeUnit.DAYS;
 
 /**
  * The {@code TraderAccount} class is useful to contains reports of trading. <br>
@@ -66,6 +70,23 @@ public final class TraderAccount extends TecknobitBot implements RecordDetails {
      * **/
     private double totalIncome;
 
+    /**
+     * {@code incomeStatistics} is instance that memorizes statistics of all incomes from orders
+     * **/
+    private final IncomeStatistics incomeStatistics = new IncomeStatistics();
+
+    /**
+     * {@code dailyStatistics} is a map that contains epoch day as key {@link Long} and statistics of the incomes
+     * inserted in that day as value
+     * **/
+    private final TreeMap<Long, IncomeStatistics> dailyStatistics = new TreeMap<>();
+
+    /**
+     * {@code weeklyStatistics} is a map that contains epoch day of the monday of the week as key {@link Long} and
+     * statistics of the incomes inserted in that week as value
+     * **/
+    private final TreeMap<Long, IncomeStatistics> weeklyStatistics = new TreeMap<>();
+
     /** Constructor to init {@link TraderAccount}
      * @param salesAtLoss: sales at loss for account
      * @param salesAtGain: sales at gain for account
@@ -89,6 +110,9 @@ public final class TraderAccount extends TecknobitBot implements RecordDetails {
      * @param salesAtPair: sales at pair for account
      * @param activationDate: date when trader has been activated
      * @param incomes: list of past incomes
+     * @implNote the past incomes are rolled up only in {@link #getIncomeStatistics()} because their dates are not
+     * known, use {@link #TraderAccount(int, int, int, long, ArrayList, JSONObject)} to restore also the daily and
+     * weekly statistics
      * **/
     public TraderAccount(int salesAtLoss, int salesAtGain, int salesAtPair, long activationDate,
                          ArrayList<Double> incomes) {
@@ -97,6 +121,30 @@ public final class TraderAccount extends TecknobitBot implements RecordDetails {
         this.salesAtPair = salesAtPair;
         this.activationDate = activationDate;
         this.incomes = incomes;
+        for (double income : incomes)
+            incomeStatistics.addIncome(income);
+        cryptocurrencies = null;
+        initTimeFormatters();
+    }
+
+    /** Constructor to init {@link TraderAccount}
+     * @param salesAtLoss: sales at loss for account
+     * @param salesAtGain: sales at gain for account
+     * @param salesAtPair: sales at pair for account
+     * @param activationDate: date when trader has been activated
+     * @param incomes: list of the most recent incomes kept after {@link #compactIncomes(int)}
+     * @param statistics: statistics of all the past incomes saved with {@link #getStatistics()}
+     * @implNote the incomes are not inserted again in the statistics because they are already counted in the
+     * {@code statistics}
+     * **/
+    public TraderAccount(int salesAtLoss, int salesAtGain, int salesAtPair, long activationDate,
+                         ArrayList<Double> incomes, JSONObject statistics) {
+        this.salesAtLoss = salesAtLoss;
+        this.salesAtGain = salesAtGain;
+        this.salesAtPair = salesAtPair;
+        this.activationDate = activationDate;
+        this.incomes = incomes;
+        loadStatistics(statistics);
         cryptocurrencies = null;
         initTimeFormatters();
     }
@@ -105,7 +153,9 @@ public final class TraderAccount extends TecknobitBot implements RecordDetails {
      * Constructor to init {@link TraderAccount}
      *
      * @param credentials: is object that contains your Tecknobit's account credentials, not your private exchange keys
-     * @implNote is useful for Android's use
+     * @implNote is useful for Android's use, if the server returns the statistics saved with {@link #getStatistics()}
+     * they are restored and the incomes returned are not inserted again, else all the incomes are inserted in
+     * {@link #getIncomeStatistics()}
      **/
     public TraderAccount(Credentials credentials) throws Exception {
         cryptocurrencies = new ConcurrentHashMap<>();
@@ -119,9 +169,16 @@ public final class TraderAccount extends TecknobitBot implements RecordDetails {
                 salesAtPair = response.getInt(PAIRS_KEY);
                 activationDate = response.getLong(ACTIVATION_DATE_KEY);
                 incomes = new ArrayList<>();
+                boolean statisticsSaved = response.has(INCOME_STATISTICS_KEY);
+                if (statisticsSaved)
+                    loadStatistics(response);
                 JSONArray incomesList = response.getJSONArray(INCOMES_KEY);
-                for (int j=0; j < incomesList.length(); j++)
-                    incomes.add(incomesList.getDouble(j));
+                for (int j=0; j < incomesList.length(); j++) {
+                    double income = incomesList.getDouble(j);
+                    incomes.add(income);
+                    if (!statisticsSaved)
+                        incomeStatistics.addIncome(income);
+                }
                 JSONArray cryptocurrencies = response.getJSONArray(CRYPTOCURRENCY_KEY);
                 for (int j=0; j < cryptocurrencies.length(); j++){
                     JSONObject crypto = cryptocurrencies.getJSONObject(j);
@@ -146,7 +203,9 @@ public final class TraderAccount extends TecknobitBot implements RecordDetails {
                             crypto.getDouble(TPTOP_INDEX_KEY),
                             jsonHelper.get(CANDLE_GAP_KEY),
                             crypto.getString(QUOTE_ASSET_KEY),
-                            crypto.getDouble(FIRST_PRICES_SUM_KEY),
+                            getFirstPricesSum(crypto.getDouble(FIRST_PRICES_SUM_KEY),
+                                    crypto.getInt(FIRST_PRICES_SIZE_KEY),
+                                    crypto.optInt(COST_BASIS_VERSION_KEY, LEGACY_COST_BASIS_VERSION)),
                             crypto.getInt(FIRST_PRICES_SIZE_KEY)
                     ));
                 }
@@ -248,8 +307,16 @@ public final class TraderAccount extends TecknobitBot implements RecordDetails {
         return timeFormat.format(new Date(activationDate));
     }
 
-    public ArrayList<Double> getIncomes() {
-        return incomes;
+    /**
+     * This method is used to get list of incomes from orders <br>
+     * Any params required
+     *
+     * @return copy of the {@link #incomes} list as {@link ArrayList} of {@link Double}
+     **/
+    public synchronized ArrayList<Double> getIncomes() {
+        if (incomes == null)
+            return null;
+        return new ArrayList<>(incomes);
     }
 
     /**
@@ -257,16 +324,127 @@ public final class TraderAccount extends TecknobitBot implements RecordDetails {
      * @param newIncome: new income to insert
      * **/
     public void addIncome(double newIncome){
+        addIncome(newIncome, currentTimeMillis());
+    }
+
+    /**
+     * This method is used to add increment in {@link #incomes} list
+     * @param newIncome: new income to insert
+     * @param timestamp: timestamp of the order of the income
+     * @implNote epoch day 0 is a thursday, so the monday of its week is epoch day -3
+     * **/
+    public synchronized void addIncome(double newIncome, long timestamp){
         if(newIncome < -100)
             throw new IllegalArgumentException("Income value cannot be less than -100");
         incomes.add(newIncome);
+        incomeStatistics.addIncome(newIncome);
+        long epochDay = Math.floorDiv(timestamp, DAYS.toMillis(1));
+        dailyStatistics.computeIfAbsent(epochDay, day -> new IncomeStatistics()).addIncome(newIncome);
+        long epochMonday = epochDay - Math.floorMod(epochDay + 3, 7);
+        weeklyStatistics.computeIfAbsent(epochMonday, week -> new IncomeStatistics()).addIncome(newIncome);
+    }
+
+    /**
+     * This method is used to remove the oldest incomes from {@link #incomes} list, their values remain counted in
+     * {@link #getIncomeStatistics()} and in the daily and weekly statistics
+     * @param keepLast: number of most recent incomes to keep
+     * @throws IllegalArgumentException if {@code keepLast} value is negative
+     * @implNote save the statistics with {@link #getStatistics()} to keep the incomes removed counted on the next start
+     * **/
+    public synchronized void compactIncomes(int keepLast){
+        if(keepLast < 0)
+            throw new IllegalArgumentException("Number of incomes to keep cannot be negative");
+        if(incomes != null && incomes.size() > keepLast)
+            incomes.subList(0, incomes.size() - keepLast).clear();
+    }
+
+    /**
+     * This method is used to get statistics of all incomes from orders <br>
+     * Any params required
+     *
+     * @return statistics of all incomes as {@link IncomeStatistics}
+     * @implNote incomes of the {@link #TraderAccount(int, int, int, long, double)} constructor are not available
+     **/
+    public IncomeStatistics getIncomeStatistics() {
+        return incomeStatistics;
+    }
+
+    /**
+     * This method is used to get statistics of the incomes inserted day by day <br>
+     * Any params required
+     *
+     * @return copy of the map that contains epoch day as key and statistics of the incomes inserted in that day as value
+     * @implNote only incomes inserted with {@link #addIncome(double)} or restored from the saved statistics are rolled
+     * up by day
+     **/
+    public synchronized TreeMap<Long, IncomeStatistics> getDailyStatistics() {
+        return new TreeMap<>(dailyStatistics);
+    }
+
+    /**
+     * This method is used to get statistics of the incomes inserted week by week <br>
+     * Any params required
+     *
+     * @return copy of the map that contains epoch day of the monday of the week as key and statistics of the incomes
+     * inserted in that week as value
+     * @implNote only incomes inserted with {@link #addIncome(double)} or restored from the saved statistics are rolled
+     * up by week
+     **/
+    public synchronized TreeMap<Long, IncomeStatistics> getWeeklyStatistics() {
+        return new TreeMap<>(weeklyStatistics);
+    }
+
+    /**
+     * This method is used to get the statistics of all incomes and their daily and weekly roll up to save them <br>
+     * Any params required
+     *
+     * @return statistics as {@link JSONObject}, they can be restored with
+     * {@link #TraderAccount(int, int, int, long, ArrayList, JSONObject)}
+     **/
+    public synchronized JSONObject getStatistics() {
+        return new JSONObject()
+                .put(INCOME_STATISTICS_KEY, incomeStatistics.toJSON())
+                .put(DAILY_STATISTICS_KEY, saveStatistics(dailyStatistics))
+                .put(WEEKLY_STATISTICS_KEY, saveStatistics(weeklyStatistics));
+    }
+
+    /**
+     * This method is used to save statistics rolled up by day or by week
+     * @param statistics: statistics to save
+     * @return statistics as {@link JSONObject} with the epoch day as key and the statistics as value
+     * **/
+    private static JSONObject saveStatistics(TreeMap<Long, IncomeStatistics> statistics) {
+        JSONObject savedStatistics = new JSONObject();
+        for (Long epochDay : statistics.keySet())
+            savedStatistics.put(String.valueOf(epochDay), statistics.get(epochDay).toJSON());
+        return savedStatistics;
+    }
+
+    /**
+     * This method is used to restore the statistics saved with {@link #getStatistics()}
+     * @param statistics: statistics saved
+     * **/
+    private synchronized void loadStatistics(JSONObject statistics) {
+        incomeStatistics.merge(new IncomeStatistics(statistics.getJSONObject(INCOME_STATISTICS_KEY)));
+        loadStatistics(statistics.getJSONObject(DAILY_STATISTICS_KEY), dailyStatistics);
+        loadStatistics(statistics.getJSONObject(WEEKLY_STATISTICS_KEY), weeklyStatistics);
+    }
+
+    /**
+     * This method is used to restore statistics rolled up by day or by week
+     * @param savedStatistics: statistics saved with {@link #saveStatistics(TreeMap)}
+     * @param statistics: map where insert the statistics restored
+     * **/
+    private static void loadStatistics(JSONObject savedStatistics, TreeMap<Long, IncomeStatistics> statistics) {
+        for (String epochDay : savedStatistics.keySet())
+            statistics.put(Long.parseLong(epochDay), new IncomeStatistics(savedStatistics.getJSONObject(epochDay)));
     }
 
     /**
      * This method is used to print all income from {@link #incomes} list <br>
      * Any params required
      * **/
-    public void printIncomes() {
+    public synchronized void printIncomes() {
         for (double income : incomes)
             out.print(getIncomeColorLine("## Income: ", income));
     }
@@ -277,12 +455,8 @@ public final class TraderAccount extends TecknobitBot implements RecordDetails {
      * @return general profit of account
      * **/
     public double computeTotalIncome(){
-        if(totalIncome == ASSET_NOT_TRADABLE || incomes != null){
-            double totalIncome = 0;
-            for (double income : incomes)
-                totalIncome += income;
-            return totalIncome / incomes.size();
-        }
+        if(totalIncome == ASSET_NOT_TRADABLE || incomes != null)
+            return incomeStatistics.getMean();
         return totalIncome;
     }
 
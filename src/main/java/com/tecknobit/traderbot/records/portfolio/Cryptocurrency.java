@@ -20,15 +20,28 @@ import static java.lang.System.out;
  * **/
 public class Cryptocurrency extends Token implements RecordDetails {
 
+    /**
+     * {@code COST_BASIS_VERSION} is the version of the cost basis persisted, from this version {@code FIRST_PRICES_SUM_KEY}
+     * holds the sum of the first prices
+     **/
+    public static final int COST_BASIS_VERSION = 2;
+
+    /**
+     * {@code LEGACY_COST_BASIS_VERSION} is the version of the cost basis persisted when {@code FIRST_PRICES_SUM_KEY} held
+     * the average of the first prices
+     **/
+    public static final int LEGACY_COST_BASIS_VERSION = 1;
+
     /**
      * {@code symbol} is instance that memorizes symbol of cryptocurrency es. BTCBUSD or BTC-USD
      * **/
     private final String symbol;
 
     /**
-     * {@code firstPrice} is instance that memorizes first inserted price of cryptocurrency and not more changeable
+     * {@code costBasisTracked} is instance that memorizes flag that indicates if first prices of cryptocurrency are
+     * tracked to compute its cost basis
      * **/
-    private final ArrayList<Double> firstPrices;
+    private final boolean costBasisTracked;
 
     /**
      * {@code lastPrice} is instance that memorizes last inserted price of cryptocurrency and is constantly refreshed
@@ -68,18 +81,24 @@ public class Cryptocurrency extends Token implements RecordDetails {
     /**
      * {@code firstPricesSum} is instance that memorizes sum of first prices of order for cryptocurrency
      * **/
-    private final double firstPricesSum;
+    private double firstPricesSum;
+
+    /**
+     * {@code firstPricesSize} is instance that memorizes size of first prices of order for cryptocurrency
+     * **/
+    private int firstPricesSize;
 
     /**
-     * {@code previousFirstPricesSize} is instance that memorizes size of first prices of order for cryptocurrency <br>
-     * passed by previous first prices list
+     * {@code weightedFirstPricesSum} is instance that memorizes sum of first prices of order for cryptocurrency
+     * multiplied by the quantity of each order
      * **/
-    private final int previousFirstPricesSize;
+    private double weightedFirstPricesSum;
 
     /**
-     * {@code firstPricesSize} is instance that memorizes size of first prices of order for cryptocurrency
+     * {@code firstPricesQuantity} is instance that memorizes sum of the quantities of the orders inserted with
+     * {@link #addFirstPrice(double, double)}
      * **/
-    private int firstPricesSize;
+    private double firstPricesQuantity;
 
     /** Constructor to init {@link Cryptocurrency}
      * @param assetIndex: index of cryptocurrency es. BTC
@@ -104,9 +123,7 @@ public class Cryptocurrency extends Token implements RecordDetails {
         this.priceChangePercent = priceChangePercent;
         this.quoteAsset = quoteAsset;
         this.tradingConfig = tradingConfig;
-        firstPrices = new ArrayList<>();
-        firstPricesSum = 0;
-        previousFirstPricesSize = 0;
+        costBasisTracked = true;
     }
 
     /** Constructor to init {@link Cryptocurrency}
@@ -120,7 +137,7 @@ public class Cryptocurrency extends Token implements RecordDetails {
      * @param candleGap: previous day percent gap of trend of cryptocurrency
      * @param priceChangePercent: previous day percent gap of trend of cryptocurrency
      * @param quoteAsset: quote asset to buy this cryptocurrency es. USD
-     * @param incomePercent: trend that this asset is having compare to {@link #firstPrices} and {@link #lastPrice}
+     * @param incomePercent: trend that this asset is having compare to first prices and {@link #lastPrice}
      * @param tradingConfig: model of trading to use for this cryptocurrency
      * **/
     public Cryptocurrency(String assetIndex, String assetName, double quantity, String symbol, double lastPrice,
@@ -135,9 +152,7 @@ public class Cryptocurrency extends Token implements RecordDetails {
         this.quoteAsset = quoteAsset;
         this.incomePercent = incomePercent;
         this.tradingConfig = tradingConfig;
-        firstPrices = null;
-        firstPricesSum = 0;
-        previousFirstPricesSize = 0;
+        costBasisTracked = false;
     }
 
     /** Constructor to init {@link Cryptocurrency}
@@ -164,9 +179,10 @@ public class Cryptocurrency extends Token implements RecordDetails {
         this.priceChangePercent = priceChangePercent;
         this.quoteAsset = quoteAsset;
         this.tradingConfig = tradingConfig;
-        this.firstPrices = firstPrices;
-        firstPricesSum = 0;
-        previousFirstPricesSize = 0;
+        costBasisTracked = firstPrices != null;
+        if (costBasisTracked)
+            for (double firstPrice : firstPrices)
+                addFirstPrice(firstPrice);
     }
 
     /** Constructor to init {@link Cryptocurrency}
@@ -187,9 +203,27 @@ public class Cryptocurrency extends Token implements RecordDetails {
         this.candleGap = candleGap;
         this.quoteAsset = quoteAsset;
         this.tradingConfig = tradingConfig;
-        firstPrices = new ArrayList<>();
+        costBasisTracked = true;
         this.firstPricesSum = firstPricesSum;
-        this.previousFirstPricesSize = previousFirstPricesSize;
+        firstPricesSize = previousFirstPricesSize;
+    }
+
+    /**
+     * This method is used to get the sum of the first prices from a record persisted, migrating the records persisted
+     * before {@link #COST_BASIS_VERSION}
+     *
+     * @param storedSum:        value persisted with {@code FIRST_PRICES_SUM_KEY}
+     * @param firstPricesSize:  value persisted with {@code FIRST_PRICES_SIZE_KEY}
+     * @param costBasisVersion: value persisted with {@code COST_BASIS_VERSION_KEY}, {@link #LEGACY_COST_BASIS_VERSION}
+     *                          if not persisted
+     * @return sum of the first prices as double
+     * @implNote records persisted before {@link #COST_BASIS_VERSION} hold the average of the first prices instead of
+     * their sum, so it is multiplied by the size, the records are recognized only by their version
+     **/
+    public static double getFirstPricesSum(double storedSum, int firstPricesSize, int costBasisVersion) {
+        if (costBasisVersion < COST_BASIS_VERSION)
+            return storedSum * firstPricesSize;
+        return storedSum;
     }
 
     /**
@@ -209,16 +243,8 @@ public class Cryptocurrency extends Token implements RecordDetails {
      * @return first price value as double
      **/
     public double getFirstPrice() {
-        if (firstPrices != null) {
-            firstPricesSize = firstPrices.size() + previousFirstPricesSize;
-            if (firstPricesSize > 0) {
-                double firstPrice = 0;
-                for (double price : firstPrices)
-                    firstPrice += price;
-                if (firstPrice > 0)
-                    return ((firstPrice + firstPricesSum) / firstPricesSize);
-            }
-        }
+        if (costBasisTracked && firstPricesSize > 0 && firstPricesSum > 0)
+            return firstPricesSum / firstPricesSize;
         return lastPrice;
     }
 
@@ -233,13 +259,44 @@ public class Cryptocurrency extends Token implements RecordDetails {
 
     /**
      * This method is used to add new first price
-     * @param firstPrice: first price to add at {@link #firstPrices} list <br>
+     * @param firstPrice: first price to add at the cost basis of cryptocurrency <br>
      * **/
     public void addFirstPrice(double firstPrice) {
         if (firstPrice < 0)
             throw new IllegalArgumentException("First price cannot be less than 0");
-        if (firstPrices != null)
-            firstPrices.add(firstPrice);
+        if (costBasisTracked) {
+            firstPricesSum += firstPrice;
+            firstPricesSize++;
+        }
+    }
+
+    /**
+     * This method is used to add new first price weighted by the quantity of its order
+     * @param firstPrice: first price of the order
+     * @param quantity: quantity of the order
+     * @throws IllegalArgumentException if {@code firstPrice} or {@code quantity} values are less than 0
+     * **/
+    public void addFirstPrice(double firstPrice, double quantity) {
+        if (quantity < 0)
+            throw new IllegalArgumentException("Quantity cannot be less than 0");
+        addFirstPrice(firstPrice);
+        if (costBasisTracked) {
+            weightedFirstPricesSum += firstPrice * quantity;
+            firstPricesQuantity += quantity;
+        }
+    }
+
+    /**
+     * Method to get first price value weighted by the quantities of the orders <br>
+     * Any params required
+     *
+     * @return first price value weighted by the quantities of the orders inserted with
+     * {@link #addFirstPrice(double, double)}, {@link #getFirstPrice()} if any quantity has been inserted
+     **/
+    public double getWeightedFirstPrice() {
+        if (costBasisTracked && firstPricesQuantity > 0)
+            return weightedFirstPricesSum / firstPricesQuantity;
+        return getFirstPrice();
     }
 
     /**
@@ -371,7 +428,7 @@ public class Cryptocurrency extends Token implements RecordDetails {
      * @return {@link #incomePercent} instance as double
      **/
     public double getIncomePercent() {
-        if (firstPrices != null)
+        if (costBasisTracked)
             return incomePercent = computeAssetPercent(getFirstPrice(), lastPrice);
         return incomePercent;
     }
@@ -482,8 +539,9 @@ public class Cryptocurrency extends Token implements RecordDetails {
         crypto.put(INCOME_PERCENT_KEY, getIncomePercent());
         if (tradingConfig != null)
             crypto.put(MODEL_ID_KEY, tradingConfig.getModelId());
-        crypto.put(FIRST_PRICES_SUM_KEY, getFirstPrice());
+        crypto.put(FIRST_PRICES_SUM_KEY, firstPricesSum);
         crypto.put(FIRST_PRICES_SIZE_KEY, firstPricesSize);
+        crypto.put(COST_BASIS_VERSION_KEY, COST_BASIS_VERSION);
         return crypto;
     }
 
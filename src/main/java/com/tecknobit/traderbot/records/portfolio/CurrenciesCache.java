@@ -0,0 +1,206 @@
+package com.tecknobit.traderbot.records.portfolio;
+
+import com.tecknobit.coinbasemanager.exchangepro.currencies.CoinbaseCurrenciesManager;
+import com.tecknobit.coinbasemanager.exchangepro.currencies.records.Currency;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.System.currentTimeMillis;
+
+/**
+ * The {@code CurrenciesCache} class defines currencies cache object. <br>
+ * This object is useful to store the details of the currencies of Coinbase (min size, max precision, status) loaded
+ * in bulk, so the order sizing does not request them to the exchange at each call. <br>
+ * When the details are older than their time to live they are reloaded in background while the cached ones
+ * keep being served.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote currencies not found in the cache are requested one by one and inserted in the cache
+ **/
+public class CurrenciesCache {
+
+    /**
+     * {@code DEFAULT_CURRENCIES_TTL} is the default time to live in millis of the currencies cached
+     **/
+    public static final long DEFAULT_CURRENCIES_TTL = 6 * 3600 * 1000L;
+
+    /**
+     * {@code coinbaseCurrenciesManager} is instance of {@link CoinbaseCurrenciesManager} used to load the currencies
+     **/
+    private final CoinbaseCurrenciesManager coinbaseCurrenciesManager;
+
+    /**
+     * {@code currencies} is a map that contains currency id (es. BTC) as key {@link String} and its details as value
+     **/
+    private final ConcurrentHashMap<String, Currency> currencies;
+
+    /**
+     * {@code reloading} is instance that memorizes flag that indicates if a background reload is running
+     **/
+    private final AtomicBoolean reloading;
+
+    /**
+     * {@code currenciesTTL} is instance that memorizes time to live in millis of the currencies cached
+     **/
+    private volatile long currenciesTTL;
+
+    /**
+     * {@code lastReload} is instance that memorizes last time that the currencies are reloaded
+     **/
+    private volatile long lastReload;
+
+    /**
+     * {@code hits} is instance that memorizes number of currencies served from the cache
+     **/
+    private final AtomicLong hits;
+
+    /**
+     * {@code misses} is instance that memorizes number of currencies requested because not cached
+     **/
+    private final AtomicLong misses;
+
+    /**
+     * {@code failedReloads} is instance that memorizes number of reloads failed
+     **/
+    private final AtomicLong failedReloads;
+
+    /**
+     * Constructor to init {@link CurrenciesCache}
+     *
+     * @param coinbaseCurrenciesManager: manager used to load the currencies
+     **/
+    public CurrenciesCache(CoinbaseCurrenciesManager coinbaseCurrenciesManager) {
+        this.coinbaseCurrenciesManager = coinbaseCurrenciesManager;
+        currencies = new ConcurrentHashMap<>();
+        reloading = new AtomicBoolean();
+        currenciesTTL = DEFAULT_CURRENCIES_TTL;
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+        failedReloads = new AtomicLong();
+    }
+
+    /**
+     * This method is used to load in bulk the details of all the currencies <br>
+     * Any params required
+     *
+     * @implNote a failed reload is counted in {@link #getFailedReloads()}, until the next reload the currencies not
+     * cached are requested one by one
+     **/
+    public void reload() throws Exception {
+        try {
+            for (Currency currency : coinbaseCurrenciesManager.getAllKnownCurrencies())
+                currencies.put(currency.getId(), currency);
+        } catch (Exception e) {
+            failedReloads.incrementAndGet();
+            throw e;
+        }
+        lastReload = currentTimeMillis();
+    }
+
+    /**
+     * This method is used to get the details of a currency
+     *
+     * @param currencyId: id of the currency es. BTC
+     * @return details of the currency as {@link Currency}, null if the exchange does not return the currency
+     * @implNote if the currencies cached are expired a background reload is started and the cached details are returned
+     **/
+    public Currency getCurrency(String currencyId) throws Exception {
+        if (currentTimeMillis() - lastReload >= currenciesTTL)
+            reloadInBackground();
+        Currency currency = currencies.get(currencyId);
+        if (currency != null) {
+            hits.incrementAndGet();
+            return currency;
+        }
+        misses.incrementAndGet();
+        currency = coinbaseCurrenciesManager.getCurrency(currencyId);
+        if (currency != null)
+            currencies.put(currencyId, currency);
+        return currency;
+    }
+
+    /**
+     * This method is used to start a background reload of the currencies if any reload is running <br>
+     * Any params required
+     **/
+    private void reloadInBackground() {
+        if (reloading.compareAndSet(false, true)) {
+            Thread reloader = new Thread(() -> {
+                try {
+                    reload();
+                } catch (Exception e) {
+                    lastReload = currentTimeMillis();
+                } finally {
+                    reloading.set(false);
+                }
+            }, "currencies-cache-reloader");
+            reloader.setDaemon(true);
+            reloader.start();
+        }
+    }
+
+    /**
+     * This method is used to set time to live of the currencies cached
+     *
+     * @param currenciesTTL: time to live in millis of the currencies cached
+     * @throws IllegalArgumentException if {@code currenciesTTL} value is less than 1
+     **/
+    public void setCurrenciesTTL(long currenciesTTL) {
+        if (currenciesTTL < 1)
+            throw new IllegalArgumentException("Currencies time to live must be at least 1 millis");
+        this.currenciesTTL = currenciesTTL;
+    }
+
+    /**
+     * This method is used to get time to live of the currencies cached <br>
+     * Any params required
+     *
+     * @return time to live in millis of the currencies cached as long
+     **/
+    public long getCurrenciesTTL() {
+        return currenciesTTL;
+    }
+
+    /**
+     * This method is used to get number of currencies served from the cache <br>
+     * Any params required
+     *
+     * @return number of currencies served from the cache as long
+     **/
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * This method is used to get number of currencies requested because not cached <br>
+     * Any params required
+     *
+     * @return number of currencies requested because not cached as long
+     **/
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * This method is used to get number of reloads failed, also the first one made by the trader <br>
+     * Any params required
+     *
+     * @return number of reloads failed as long
+     **/
+    public long getFailedReloads() {
+        return failedReloads.get();
+    }
+
+    /**
+     * This method is used to get number of currencies cached <br>
+     * Any params required
+     *
+     * @return number of currencies cached as int
+     **/
+    public int size() {
+        return currencies.size();
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.tecknobit.traderbot.records.portfolio;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The {@code MarketSnapshot} class defines market snapshot object. <br>
+ * This object is useful to publish in a single step the prices, the coins and the trading pairs fetched by a refresh
+ * of the latest prices, so the routines that read them take a consistent view of the market without any lock while
+ * the next refresh builds a new snapshot.
+ *
+ * @param <P> type of the prices of the symbols
+ * @param <T> type of the trading pairs
+ * @author Tecknobit N7ghtm4r3
+ * @implNote maps inserted in a snapshot must not be modified after its creation, and the lists of the latest
+ * prices are computed once for each snapshot and shared by all the routines that request them
+ **/
+public final class MarketSnapshot<P, T> {
+
+    /**
+     * {@code NOT_ROUNDED} is the key of the latest prices list not rounded
+     **/
+    private static final int NOT_ROUNDED = -1;
+
+    /**
+     * {@code prices} is a map that contains symbol as key {@link String} and its price as value
+     **/
+    private final Map<String, P> prices;
+
+    /**
+     * {@code coins} is a map that contains asset index (es. BTC) as key {@link String} and its {@link Coin} as value
+     **/
+    private final Map<String, Coin> coins;
+
+    /**
+     * {@code tradingPairs} is a map that contains symbol as key {@link String} and its trading pair as value
+     **/
+    private final Map<String, T> tradingPairs;
+
+    /**
+     * {@code epoch} is instance that memorizes number of the snapshot, incremented at each snapshot published
+     **/
+    private final long epoch;
+
+    /**
+     * {@code fetchTime} is instance that memorizes time when the data of the snapshot are fetched
+     **/
+    private final long fetchTime;
+
+    /**
+     * {@code latestPrices} is a map that contains decimal digits as key and latest prices list rounded with them as value
+     **/
+    private final ConcurrentHashMap<Integer, ArrayList<MarketCoin>> latestPrices;
+
+    /**
+     * Constructor to init {@link MarketSnapshot}
+     *
+     * @param prices:       map of the prices of the symbols
+     * @param coins:        map of the coins of the wallet
+     * @param tradingPairs: map of the trading pairs
+     * @param epoch:        number of the snapshot
+     * @param fetchTime:    time when the data of the snapshot are fetched
+     **/
+    public MarketSnapshot(HashMap<String, P> prices, HashMap<String, Coin> coins, HashMap<String, T> tradingPairs,
+                          long epoch, long fetchTime) {
+        this.prices = Collections.unmodifiableMap(prices);
+        this.coins = Collections.unmodifiableMap(coins);
+        this.tradingPairs = Collections.unmodifiableMap(tradingPairs);
+        this.epoch = epoch;
+        this.fetchTime = fetchTime;
+        latestPrices = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Method to get {@link #prices} instance <br>
+     * Any params required
+     *
+     * @return {@link #prices} instance as unmodifiable {@link Map}
+     **/
+    public Map<String, P> getPrices() {
+        return prices;
+    }
+
+    /**
+     * Method to get {@link #coins} instance <br>
+     * Any params required
+     *
+     * @return {@link #coins} instance as unmodifiable {@link Map}
+     **/
+    public Map<String, Coin> getCoins() {
+        return coins;
+    }
+
+    /**
+     * Method to get {@link #tradingPairs} instance <br>
+     * Any params required
+     *
+     * @return {@link #tradingPairs} instance as unmodifiable {@link Map}
+     **/
+    public Map<String, T> getTradingPairs() {
+        return tradingPairs;
+    }
+
+    /**
+     * Method to get {@link #epoch} instance <br>
+     * Any params required
+     *
+     * @return {@link #epoch} instance as long
+     **/
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Method to get {@link #fetchTime} instance <br>
+     * Any params required
+     *
+     * @return {@link #fetchTime} instance as long
+     **/
+    public long getFetchTime() {
+        return fetchTime;
+    }
+
+    /**
+     * This method is used to get the list of the latest prices of the snapshot
+     *
+     * @param marketCoinMapper: function to convert a price in a {@link MarketCoin}
+     * @return latest prices as {@link ArrayList} of {@link MarketCoin}, the same list for each call on this snapshot
+     **/
+    public ArrayList<MarketCoin> getLatestPrices(Function<P, MarketCoin> marketCoinMapper) {
+        return latestPrices.computeIfAbsent(NOT_ROUNDED, key -> assembleLatestPrices(marketCoinMapper));
+    }
+
+    /**
+     * This method is used to get the list of the latest prices of the snapshot
+     *
+     * @param decimals:         number of digits to round the prices
+     * @param marketCoinMapper: function to convert a price in a {@link MarketCoin} rounded with {@code decimals}
+     * @return latest prices as {@link ArrayList} of {@link MarketCoin}, the same list for each call on this snapshot
+     * with the same {@code decimals}
+     * @throws IllegalArgumentException if decimal digits are negative
+     **/
+    public ArrayList<MarketCoin> getLatestPrices(int decimals, Function<P, MarketCoin> marketCoinMapper) {
+        if (decimals < 0)
+            throw new IllegalArgumentException("Decimal digits cannot be negative");
+        return latestPrices.computeIfAbsent(decimals, key -> assembleLatestPrices(marketCoinMapper));
+    }
+
+    /**
+     * This method is used to assemble the list of the latest prices of the snapshot
+     *
+     * @param marketCoinMapper: function to convert a price in a {@link MarketCoin}
+     * @return latest prices as {@link ArrayList} of {@link MarketCoin}
+     **/
+    private ArrayList<MarketCoin> assembleLatestPrices(Function<P, MarketCoin> marketCoinMapper) {
+        ArrayList<MarketCoin> latestPrices = new ArrayList<>(prices.size());
+        for (P price : prices.values())
+            latestPrices.add(marketCoinMapper.apply(price));
+        return latestPrices;
+    }
+
+}
@@ -0,0 +1,376 @@
+package com.tecknobit.traderbot.records.portfolio;
+
+import com.tecknobit.binancemanager.managers.signedmanagers.trade.commons.Order.Status;
+import com.tecknobit.binancemanager.managers.signedmanagers.trade.spot.records.orders.response.SpotOrderStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.tecknobit.binancemanager.managers.signedmanagers.trade.commons.Order.Status.*;
+import static java.lang.System.currentTimeMillis;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * The {@code OrderHistory} class defines order history object. <br>
+ * This object is useful to store locally the filled orders of each symbol and a cursor with the last order fetched,
+ * so each synchronization fetches only the orders newer than the cursor instead of the whole history. <br>
+ * The symbols are synchronized in parallel, bounded by a request weight budget per minute to respect the
+ * request weight limits of the exchange.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the orders still open are fetched again at each synchronization until they are closed, so their fills
+ * are not lost
+ **/
+public class OrderHistory {
+
+    /**
+     * {@code ORDERS_PAGE_LIMIT} is the max number of orders fetched with a single request
+     **/
+    public static final int ORDERS_PAGE_LIMIT = 1000;
+
+    /**
+     * {@code ORDERS_REQUEST_WEIGHT} is the request weight of a single orders request
+     **/
+    public static final int ORDERS_REQUEST_WEIGHT = 10;
+
+    /**
+     * {@code DEFAULT_WEIGHT_BUDGET} is the default request weight that the synchronizations can use each minute
+     * @implNote it is half of the request weight limit of the exchange to leave room for the other requests of the trader
+     **/
+    public static final int DEFAULT_WEIGHT_BUDGET = 600;
+
+    /**
+     * {@code DEFAULT_MAX_IN_FLIGHT} is the default max number of symbols synchronized at the same time
+     **/
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    /**
+     * {@code WEIGHT_WINDOW} is the window in millis of the {@link #weightBudget}
+     **/
+    private static final long WEIGHT_WINDOW = 60000;
+
+    /**
+     * {@code ordersFetcher} is instance that memorizes fetcher used to request the orders to the exchange
+     **/
+    private final OrdersFetcher ordersFetcher;
+
+    /**
+     * {@code histories} is a map that contains symbol as key {@link String} and its history as value
+     **/
+    private final ConcurrentHashMap<String, SymbolHistory> histories;
+
+    /**
+     * {@code syncExecutor} is instance that memorizes executor used to synchronize the symbols
+     **/
+    private final ThreadPoolExecutor syncExecutor;
+
+    /**
+     * {@code syncLock} is instance that memorizes lock used to run a synchronization at a time
+     **/
+    private final Object syncLock = new Object();
+
+    /**
+     * {@code weightBudget} is instance that memorizes request weight that the synchronizations can use each minute
+     **/
+    private int weightBudget;
+
+    /**
+     * {@code usedWeight} is instance that memorizes request weight used in the current window
+     **/
+    private int usedWeight;
+
+    /**
+     * {@code windowStart} is instance that memorizes start of the current window of the {@link #weightBudget}
+     **/
+    private long windowStart;
+
+    /**
+     * {@code sentRequests} is instance that memorizes number of orders requests sent
+     **/
+    private final AtomicLong sentRequests;
+
+    /**
+     * {@code fetchedOrders} is instance that memorizes number of orders fetched
+     **/
+    private final AtomicLong fetchedOrders;
+
+    /**
+     * {@code failedSyncs} is instance that memorizes number of symbols synchronizations failed
+     **/
+    private final AtomicLong failedSyncs;
+
+    /**
+     * Constructor to init {@link OrderHistory}
+     *
+     * @param ordersFetcher: fetcher used to request the orders to the exchange
+     **/
+    public OrderHistory(OrdersFetcher ordersFetcher) {
+        this(ordersFetcher, DEFAULT_MAX_IN_FLIGHT, DEFAULT_WEIGHT_BUDGET);
+    }
+
+    /**
+     * Constructor to init {@link OrderHistory}
+     *
+     * @param ordersFetcher: fetcher used to request the orders to the exchange
+     * @param maxInFlight:   max number of symbols synchronized at the same time
+     * @param weightBudget:  request weight that the synchronizations can use each minute
+     * @throws IllegalArgumentException if {@code maxInFlight} value is less than 1 or {@code weightBudget} value is
+     *                                  less than {@link #ORDERS_REQUEST_WEIGHT}
+     **/
+    public OrderHistory(OrdersFetcher ordersFetcher, int maxInFlight, int weightBudget) {
+        if (maxInFlight < 1)
+            throw new IllegalArgumentException("Max symbols in flight value must be at least 1");
+        checkWeightBudget(weightBudget);
+        this.ordersFetcher = ordersFetcher;
+        this.weightBudget = weightBudget;
+        histories = new ConcurrentHashMap<>();
+        sentRequests = new AtomicLong();
+        fetchedOrders = new AtomicLong();
+        failedSyncs = new AtomicLong();
+        AtomicInteger threadsCounter = new AtomicInteger();
+        syncExecutor = new ThreadPoolExecutor(maxInFlight, maxInFlight, 60, SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "order-history-sync-" + threadsCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * This method is used to fetch the new orders of a list of symbols
+     *
+     * @param symbols: symbols to synchronize es. BTCBUSD
+     * @return number of new filled orders stored as int
+     * @implNote symbols whose synchronization failed keep their cursor and will be synchronized again next time
+     **/
+    public int sync(Collection<String> symbols) throws InterruptedException {
+        synchronized (syncLock) {
+            return syncSymbols(symbols);
+        }
+    }
+
+    /**
+     * This method is used to fetch in parallel the new orders of a list of symbols
+     *
+     * @param symbols: symbols to synchronize es. BTCBUSD
+     * @return number of new filled orders stored as int
+     **/
+    private int syncSymbols(Collection<String> symbols) throws InterruptedException {
+        ArrayList<Future<Integer>> syncs = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            SymbolHistory history = histories.computeIfAbsent(symbol, s -> new SymbolHistory());
+            syncs.add(syncExecutor.submit(() -> syncSymbol(symbol, history)));
+        }
+        int newFills = 0;
+        for (Future<Integer> sync : syncs) {
+            try {
+                newFills += sync.get();
+            } catch (ExecutionException e) {
+                failedSyncs.incrementAndGet();
+            }
+        }
+        return newFills;
+    }
+
+    /**
+     * This method is used to fetch the new orders of a symbol
+     *
+     * @param symbol:  symbol to synchronize es. BTCBUSD
+     * @param history: history of the symbol
+     * @return number of new filled orders stored as int
+     **/
+    private int syncSymbol(String symbol, SymbolHistory history) throws Exception {
+        int newFills = 0;
+        long fromOrderId = history.cursor + 1;
+        long firstOpenOrderId = -1;
+        ArrayList<SpotOrderStatus> orders;
+        do {
+            acquireWeight();
+            orders = ordersFetcher.fetch(symbol, fromOrderId, ORDERS_PAGE_LIMIT);
+            sentRequests.incrementAndGet();
+            fetchedOrders.addAndGet(orders.size());
+            synchronized (history) {
+                for (SpotOrderStatus order : orders) {
+                    long orderId = order.getOrderId();
+                    Status status = order.getStatus();
+                    if (status == NEW || status == PARTIALLY_FILLED || status == PENDING_CANCEL) {
+                        if (firstOpenOrderId == -1)
+                            firstOpenOrderId = orderId;
+                    } else {
+                        if (status == FILLED && history.filledOrders.put(orderId, order) == null)
+                            newFills++;
+                        if (firstOpenOrderId == -1)
+                            history.cursor = orderId;
+                    }
+                    fromOrderId = Math.max(fromOrderId, orderId + 1);
+                }
+            }
+        } while (orders.size() == ORDERS_PAGE_LIMIT);
+        return newFills;
+    }
+
+    /**
+     * This method is used to wait until the {@link #weightBudget} of the current window has room for a request <br>
+     * Any params required
+     **/
+    private synchronized void acquireWeight() throws InterruptedException {
+        while (true) {
+            long now = currentTimeMillis();
+            if (now - windowStart >= WEIGHT_WINDOW) {
+                windowStart = now;
+                usedWeight = 0;
+            }
+            if (usedWeight + ORDERS_REQUEST_WEIGHT <= weightBudget) {
+                usedWeight += ORDERS_REQUEST_WEIGHT;
+                return;
+            }
+            wait(WEIGHT_WINDOW - (now - windowStart));
+        }
+    }
+
+    /**
+     * This method is used to get the filled orders of a symbol stored
+     *
+     * @param symbol: symbol of the orders es. BTCBUSD
+     * @return filled orders sorted by order id as {@link ArrayList} of {@link SpotOrderStatus}
+     **/
+    public ArrayList<SpotOrderStatus> getFilledOrders(String symbol) {
+        SymbolHistory history = histories.get(symbol);
+        if (history == null)
+            return new ArrayList<>();
+        synchronized (history) {
+            return new ArrayList<>(history.filledOrders.values());
+        }
+    }
+
+    /**
+     * This method is used to get the cursor of a symbol
+     *
+     * @param symbol: symbol of the cursor es. BTCBUSD
+     * @return id of the last order closed before any open order as long, -1 if the symbol has not been synchronized
+     **/
+    public long getCursor(String symbol) {
+        SymbolHistory history = histories.get(symbol);
+        if (history == null)
+            return -1;
+        return history.cursor;
+    }
+
+    /**
+     * This method is used to remove the orders stored of a symbol, they will be fetched again at the next
+     * synchronization
+     *
+     * @param symbol: symbol to remove es. BTCBUSD
+     **/
+    public void invalidate(String symbol) {
+        histories.remove(symbol);
+    }
+
+    /**
+     * This method is used to set request weight that the synchronizations can use each minute
+     *
+     * @param weightBudget: request weight that the synchronizations can use each minute
+     * @throws IllegalArgumentException if {@code weightBudget} value is less than {@link #ORDERS_REQUEST_WEIGHT}
+     **/
+    public synchronized void setWeightBudget(int weightBudget) {
+        checkWeightBudget(weightBudget);
+        this.weightBudget = weightBudget;
+        notifyAll();
+    }
+
+    /**
+     * This method is used to get request weight that the synchronizations can use each minute <br>
+     * Any params required
+     *
+     * @return request weight that the synchronizations can use each minute as int
+     **/
+    public synchronized int getWeightBudget() {
+        return weightBudget;
+    }
+
+    /**
+     * This method is used to get number of orders requests sent <br>
+     * Any params required
+     *
+     * @return number of orders requests sent as long
+     **/
+    public long getSentRequests() {
+        return sentRequests.get();
+    }
+
+    /**
+     * This method is used to get number of orders fetched <br>
+     * Any params required
+     *
+     * @return number of orders fetched as long
+     **/
+    public long getFetchedOrders() {
+        return fetchedOrders.get();
+    }
+
+    /**
+     * This method is used to get number of symbols synchronizations failed <br>
+     * Any params required
+     *
+     * @return number of symbols synchronizations failed as long
+     **/
+    public long getFailedSyncs() {
+        return failedSyncs.get();
+    }
+
+    /**
+     * This method is used to check validity of a request weight budget
+     *
+     * @param weightBudget: request weight budget to check
+     * @throws IllegalArgumentException if {@code weightBudget} value is less than {@link #ORDERS_REQUEST_WEIGHT}
+     **/
+    private void checkWeightBudget(int weightBudget) {
+        if (weightBudget < ORDERS_REQUEST_WEIGHT)
+            throw new IllegalArgumentException("Weight budget must be at least " + ORDERS_REQUEST_WEIGHT);
+    }
+
+    /**
+     * The {@code SymbolHistory} class is useful to store the filled orders and the cursor of a symbol
+     **/
+    private static final class SymbolHistory {
+
+        /**
+         * {@code filledOrders} is a map that contains order id as key {@link Long} and the filled order as value
+         **/
+        private final TreeMap<Long, SpotOrderStatus> filledOrders = new TreeMap<>();
+
+        /**
+         * {@code cursor} is instance that memorizes id of the last order closed before any open order
+         **/
+        private volatile long cursor = -1;
+
+    }
+
+    /**
+     * The {@code OrdersFetcher} interface defines the request of the orders of a symbol to the exchange
+     **/
+    @FunctionalInterface
+    public interface OrdersFetcher {
+
+        /**
+         * This method is used to fetch the orders of a symbol starting from an order id
+         *
+         * @param symbol:      symbol of the orders es. BTCBUSD
+         * @param fromOrderId: id of the first order to fetch
+         * @param limit:       max number of orders to fetch
+         * @return orders sorted by order id as {@link ArrayList} of {@link SpotOrderStatus}
+         **/
+        ArrayList<SpotOrderStatus> fetch(String symbol, long fromOrderId, int limit) throws Exception;
+
+    }
+
+}
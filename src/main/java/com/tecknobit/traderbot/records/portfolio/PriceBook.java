@@ -0,0 +1,278 @@
+package com.tecknobit.traderbot.records.portfolio;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code PriceBook} class defines price book object. <br>
+ * This object is useful to store last prices of the symbols in primitive arrays where each symbol and each asset
+ * is interned to an int identifier, so price lookups during wallet valuation do not allocate any object.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote prices must be inserted by a single refreshing routine at a time, while lookups can be made concurrently
+ **/
+public class PriceBook {
+
+    /**
+     * {@code NOT_FOUND} is the identifier returned when a symbol or an asset is not inserted in the price book
+     **/
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * {@code INITIAL_CAPACITY} is the initial capacity of the arrays of the price book
+     **/
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * {@code symbolsIds} is a map that contains symbol (es. BTCBUSD) as key {@link String} and its identifier as value
+     **/
+    private final ConcurrentHashMap<String, Integer> symbolsIds;
+
+    /**
+     * {@code assetsIds} is a map that contains asset index (es. BTC) as key {@link String} and its identifier as value
+     **/
+    private final ConcurrentHashMap<String, Integer> assetsIds;
+
+    /**
+     * {@code lastPrices} is instance that memorizes last prices of the symbols indexed by symbol identifier
+     **/
+    private volatile double[] lastPrices;
+
+    /**
+     * {@code priceChangePercents} is instance that memorizes price change percents of the symbols indexed by
+     * symbol identifier
+     **/
+    private volatile double[] priceChangePercents;
+
+    /**
+     * {@code pairsTable} is instance that memorizes symbol identifier of each pair indexed by quote asset identifier
+     * and then by base asset identifier
+     **/
+    private volatile int[][] pairsTable;
+
+    /**
+     * Constructor to init {@link PriceBook} <br>
+     * Any params required
+     **/
+    public PriceBook() {
+        symbolsIds = new ConcurrentHashMap<>();
+        assetsIds = new ConcurrentHashMap<>();
+        lastPrices = new double[INITIAL_CAPACITY];
+        priceChangePercents = new double[INITIAL_CAPACITY];
+        pairsTable = new int[INITIAL_CAPACITY][];
+    }
+
+    /**
+     * This method is used to insert or update price of a symbol
+     *
+     * @param symbol:             symbol of the pair es. BTCBUSD or BTC-USD
+     * @param baseAsset:          base asset of the pair es. BTC
+     * @param quoteAsset:         quote asset of the pair es. BUSD
+     * @param lastPrice:          last price of the symbol
+     * @param priceChangePercent: price change percent of the symbol
+     * @return identifier of the symbol as int
+     **/
+    public synchronized int putPrice(String symbol, String baseAsset, String quoteAsset, double lastPrice,
+                                     double priceChangePercent) {
+        Integer internedId = symbolsIds.get(symbol);
+        int symbolId = internedId != null ? internedId : reserveSymbolId();
+        lastPrices[symbolId] = lastPrice;
+        priceChangePercents[symbolId] = priceChangePercent;
+        if (internedId == null)
+            symbolsIds.put(symbol, symbolId);
+        int baseAssetId = internAsset(baseAsset);
+        int quoteAssetId = internAsset(quoteAsset);
+        int[] quoteRow = pairsTable[quoteAssetId];
+        if (quoteRow == null || quoteRow.length <= baseAssetId) {
+            int[] resizedRow = new int[pairsTable.length];
+            Arrays.fill(resizedRow, NOT_FOUND);
+            if (quoteRow != null)
+                System.arraycopy(quoteRow, 0, resizedRow, 0, quoteRow.length);
+            pairsTable[quoteAssetId] = quoteRow = resizedRow;
+        }
+        quoteRow[baseAssetId] = symbolId;
+        return symbolId;
+    }
+
+    /**
+     * This method is used to update price of a symbol already inserted
+     *
+     * @param symbolId:           identifier of the symbol
+     * @param lastPrice:          last price of the symbol
+     * @param priceChangePercent: price change percent of the symbol
+     * @throws IllegalArgumentException if the symbol identifier is not valid
+     **/
+    public synchronized void updatePrice(int symbolId, double lastPrice, double priceChangePercent) {
+        lastPrices[checkSymbolId(symbolId)] = lastPrice;
+        priceChangePercents[symbolId] = priceChangePercent;
+    }
+
+    /**
+     * This method is used to apply a ticker to a symbol already inserted
+     *
+     * @param symbol:             symbol of the ticker es. BTCBUSD or BTC-USD
+     * @param lastPrice:          last price of the symbol
+     * @param priceChangePercent: price change percent of the symbol
+     * @return true if the symbol is inserted and its price has been updated, false if the ticker has been ignored
+     **/
+    public boolean applyTicker(String symbol, double lastPrice, double priceChangePercent) {
+        int symbolId = getSymbolId(symbol);
+        if (symbolId == NOT_FOUND)
+            return false;
+        updatePrice(symbolId, lastPrice, priceChangePercent);
+        return true;
+    }
+
+    /**
+     * This method is used to get identifier of a symbol
+     *
+     * @param symbol: symbol of the pair es. BTCBUSD or BTC-USD
+     * @return identifier of the symbol as int, {@link #NOT_FOUND} if the symbol is not inserted
+     **/
+    public int getSymbolId(String symbol) {
+        Integer symbolId = symbolsIds.get(symbol);
+        if (symbolId == null)
+            return NOT_FOUND;
+        return symbolId;
+    }
+
+    /**
+     * This method is used to get identifier of a pair from its assets
+     *
+     * @param baseAsset:  base asset of the pair es. BTC
+     * @param quoteAsset: quote asset of the pair es. BUSD
+     * @return identifier of the symbol as int, {@link #NOT_FOUND} if the pair is not inserted
+     **/
+    public int getSymbolId(String baseAsset, String quoteAsset) {
+        Integer baseAssetId = assetsIds.get(baseAsset);
+        Integer quoteAssetId = assetsIds.get(quoteAsset);
+        if (baseAssetId == null || quoteAssetId == null)
+            return NOT_FOUND;
+        int[] quoteRow = pairsTable[quoteAssetId];
+        if (quoteRow == null || quoteRow.length <= baseAssetId)
+            return NOT_FOUND;
+        return quoteRow[baseAssetId];
+    }
+
+    /**
+     * This method is used to check if the price of a symbol is inserted
+     *
+     * @param symbol: symbol of the pair es. BTCBUSD or BTC-USD
+     * @return true if the price is inserted, false if not
+     **/
+    public boolean hasPrice(String symbol) {
+        return symbolsIds.containsKey(symbol);
+    }
+
+    /**
+     * This method is used to get last price of a symbol
+     *
+     * @param symbolId: identifier of the symbol
+     * @return last price of the symbol as double
+     **/
+    public double getLastPrice(int symbolId) {
+        return lastPrices[checkSymbolId(symbolId)];
+    }
+
+    /**
+     * This method is used to get last price of a symbol
+     *
+     * @param symbol: symbol of the pair es. BTCBUSD or BTC-USD
+     * @return last price of the symbol as double
+     * @throws IllegalArgumentException if the price of the symbol is not inserted
+     **/
+    public double getLastPrice(String symbol) {
+        return getLastPrice(getSymbolId(symbol));
+    }
+
+    /**
+     * This method is used to get last price of a pair from its assets
+     *
+     * @param baseAsset:  base asset of the pair es. BTC
+     * @param quoteAsset: quote asset of the pair es. BUSD
+     * @return last price of the pair as double
+     * @throws IllegalArgumentException if the price of the pair is not inserted
+     **/
+    public double getLastPrice(String baseAsset, String quoteAsset) {
+        return getLastPrice(getSymbolId(baseAsset, quoteAsset));
+    }
+
+    /**
+     * This method is used to get price change percent of a symbol
+     *
+     * @param symbolId: identifier of the symbol
+     * @return price change percent of the symbol as double
+     **/
+    public double getPriceChangePercent(int symbolId) {
+        return priceChangePercents[checkSymbolId(symbolId)];
+    }
+
+    /**
+     * This method is used to get price change percent of a symbol
+     *
+     * @param symbol: symbol of the pair es. BTCBUSD or BTC-USD
+     * @return price change percent of the symbol as double
+     * @throws IllegalArgumentException if the price of the symbol is not inserted
+     **/
+    public double getPriceChangePercent(String symbol) {
+        return getPriceChangePercent(getSymbolId(symbol));
+    }
+
+    /**
+     * This method is used to get number of symbols inserted <br>
+     * Any params required
+     *
+     * @return number of symbols inserted as int
+     **/
+    public int size() {
+        return symbolsIds.size();
+    }
+
+    /**
+     * This method is used to reserve the identifier of a new symbol, growing the arrays of the prices if needed <br>
+     * Any params required
+     *
+     * @return identifier reserved as int
+     * @implNote the identifier is published in {@link #symbolsIds} only after the price of the symbol is stored, so a
+     * concurrent lookup never resolves a symbol without its price
+     **/
+    private int reserveSymbolId() {
+        int symbolId = symbolsIds.size();
+        if (symbolId == lastPrices.length) {
+            priceChangePercents = Arrays.copyOf(priceChangePercents, symbolId * 2);
+            lastPrices = Arrays.copyOf(lastPrices, symbolId * 2);
+        }
+        return symbolId;
+    }
+
+    /**
+     * This method is used to intern an asset to its identifier
+     *
+     * @param asset: asset to intern
+     * @return identifier of the asset as int
+     **/
+    private int internAsset(String asset) {
+        Integer assetId = assetsIds.get(asset);
+        if (assetId == null) {
+            assetId = assetsIds.size();
+            if (assetId == pairsTable.length)
+                pairsTable = Arrays.copyOf(pairsTable, assetId * 2);
+            assetsIds.put(asset, assetId);
+        }
+        return assetId;
+    }
+
+    /**
+     * This method is used to check validity of a symbol identifier
+     *
+     * @param symbolId: identifier of the symbol to check
+     * @return identifier of the symbol as int
+     * @throws IllegalArgumentException if the symbol identifier is not valid
+     **/
+    private int checkSymbolId(int symbolId) {
+        if (symbolId < 0 || symbolId >= symbolsIds.size())
+            throw new IllegalArgumentException("Price of the symbol is not available");
+        return symbolId;
+    }
+
+}
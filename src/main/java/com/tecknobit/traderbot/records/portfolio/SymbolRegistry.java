@@ -0,0 +1,156 @@
+package com.tecknobit.traderbot.records.portfolio;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code SymbolRegistry} class defines symbol registry object. <br>
+ * This object is useful to register the symbols of the trading pairs in the form base-quote (es. BTC-USD) and to
+ * look up in constant time their pairs, already decomposed in base and quote asset, both from the dashed form and
+ * from the compact form (es. BTCUSD), so symbols do not need to be split or scanned at each normalization.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the same {@link SymbolPair} object is returned for both forms of a symbol
+ **/
+public class SymbolRegistry {
+
+    /**
+     * {@code SYMBOL_SEPARATOR} is the separator between base and quote asset of a symbol es. BTC-USD
+     **/
+    public static final String SYMBOL_SEPARATOR = "-";
+
+    /**
+     * {@code pairs} is a map that contains symbol in dashed and compact form as key {@link String} and its pair as value
+     **/
+    private final ConcurrentHashMap<String, SymbolPair> pairs;
+
+    /**
+     * Constructor to init {@link SymbolRegistry} <br>
+     * Any params required
+     **/
+    public SymbolRegistry() {
+        pairs = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * This method is used to register a symbol
+     *
+     * @param symbol: symbol in the form base-quote es. BTC-USD
+     * @return pair of the symbol as {@link SymbolPair}, null if the symbol is not in the form base-quote
+     **/
+    public SymbolPair register(String symbol) {
+        SymbolPair pair = pairs.get(symbol);
+        if (pair == null) {
+            int separatorIndex = symbol.indexOf(SYMBOL_SEPARATOR);
+            if (separatorIndex <= 0 || separatorIndex == symbol.length() - 1)
+                return null;
+            pair = new SymbolPair(symbol, symbol.substring(0, separatorIndex), symbol.substring(separatorIndex + 1));
+            SymbolPair registeredPair = pairs.putIfAbsent(symbol, pair);
+            if (registeredPair != null)
+                return registeredPair;
+            pairs.putIfAbsent(pair.compactSymbol, pair);
+        }
+        return pair;
+    }
+
+    /**
+     * This method is used to get the pair of a symbol
+     *
+     * @param symbol: symbol in dashed form es. BTC-USD or in compact form es. BTCUSD
+     * @return pair of the symbol as {@link SymbolPair}, null if the symbol is not registered
+     **/
+    public SymbolPair getPair(String symbol) {
+        return pairs.get(symbol);
+    }
+
+    /**
+     * This method is used to check if a symbol is registered
+     *
+     * @param symbol: symbol in dashed form es. BTC-USD or in compact form es. BTCUSD
+     * @return true if the symbol is registered, false if not
+     **/
+    public boolean isRegistered(String symbol) {
+        return pairs.containsKey(symbol);
+    }
+
+    /**
+     * The {@code SymbolPair} class defines a symbol registered with its base and quote asset
+     **/
+    public static final class SymbolPair {
+
+        /**
+         * {@code symbol} is instance that memorizes symbol in dashed form es. BTC-USD
+         **/
+        private final String symbol;
+
+        /**
+         * {@code compactSymbol} is instance that memorizes symbol in compact form es. BTCUSD
+         **/
+        private final String compactSymbol;
+
+        /**
+         * {@code baseAsset} is instance that memorizes base asset of the symbol es. BTC
+         **/
+        private final String baseAsset;
+
+        /**
+         * {@code quoteAsset} is instance that memorizes quote asset of the symbol es. USD
+         **/
+        private final String quoteAsset;
+
+        /**
+         * Constructor to init {@link SymbolPair}
+         *
+         * @param symbol:     symbol in dashed form es. BTC-USD
+         * @param baseAsset:  base asset of the symbol es. BTC
+         * @param quoteAsset: quote asset of the symbol es. USD
+         **/
+        private SymbolPair(String symbol, String baseAsset, String quoteAsset) {
+            this.symbol = symbol;
+            this.baseAsset = baseAsset;
+            this.quoteAsset = quoteAsset;
+            compactSymbol = baseAsset + quoteAsset;
+        }
+
+        /**
+         * Method to get {@link #symbol} instance <br>
+         * Any params required
+         *
+         * @return {@link #symbol} instance as {@link String}
+         **/
+        public String getSymbol() {
+            return symbol;
+        }
+
+        /**
+         * Method to get {@link #compactSymbol} instance <br>
+         * Any params required
+         *
+         * @return {@link #compactSymbol} instance as {@link String}
+         **/
+        public String getCompactSymbol() {
+            return compactSymbol;
+        }
+
+        /**
+         * Method to get {@link #baseAsset} instance <br>
+         * Any params required
+         *
+         * @return {@link #baseAsset} instance as {@link String}
+         **/
+        public String getBaseAsset() {
+            return baseAsset;
+        }
+
+        /**
+         * Method to get {@link #quoteAsset} instance <br>
+         * Any params required
+         *
+         * @return {@link #quoteAsset} instance as {@link String}
+         **/
+        public String getQuoteAsset() {
+            return quoteAsset;
+        }
+
+    }
+
+}
@@ -0,0 +1,309 @@
+package com.tecknobit.traderbot.records.portfolio;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.Math.floor;
+
+/**
+ * The {@code SymbolRules} class defines symbol rules object. <br>
+ * This object is useful to store the trading rules of the symbols listed by the exchange (lot size, notional and
+ * price limits) in primitive arrays indexed by symbol identifier, so they are parsed once when exchange information
+ * are refreshed and read without any parsing or allocation when orders are computed.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote rules must be inserted by a single refreshing routine at a time, while lookups can be made concurrently
+ **/
+public class SymbolRules {
+
+    /**
+     * {@code NOT_FOUND} is the identifier returned when a symbol is not inserted in the rules
+     **/
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * {@code INITIAL_CAPACITY} is the initial capacity of the arrays of the rules
+     **/
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * {@code STEP_EPSILON} is the tolerance used when a value is rounded to a step, to not lose a step for the
+     * floating point error of the division
+     **/
+    private static final double STEP_EPSILON = 1e-9;
+
+    /**
+     * {@code symbolsIds} is a map that contains symbol (es. BTCBUSD) as key {@link String} and its identifier as value
+     **/
+    private final ConcurrentHashMap<String, Integer> symbolsIds;
+
+    /**
+     * {@code symbolsCount} is instance that memorizes number of identifiers assigned
+     **/
+    private volatile int symbolsCount;
+
+    /**
+     * {@code stepSizes} is instance that memorizes step size of the quantities indexed by symbol identifier
+     **/
+    private volatile double[] stepSizes;
+
+    /**
+     * {@code minQuantities} is instance that memorizes min quantity of an order indexed by symbol identifier
+     **/
+    private volatile double[] minQuantities;
+
+    /**
+     * {@code maxQuantities} is instance that memorizes max quantity of an order indexed by symbol identifier
+     **/
+    private volatile double[] maxQuantities;
+
+    /**
+     * {@code minNotionals} is instance that memorizes min notional value of an order indexed by symbol identifier
+     **/
+    private volatile double[] minNotionals;
+
+    /**
+     * {@code tickSizes} is instance that memorizes tick size of the prices indexed by symbol identifier
+     **/
+    private volatile double[] tickSizes;
+
+    /**
+     * {@code stepPrecisions} is instance that memorizes power of ten of the decimal digits of the step size of the
+     * quantities indexed by symbol identifier
+     **/
+    private volatile double[] stepPrecisions;
+
+    /**
+     * {@code tickPrecisions} is instance that memorizes power of ten of the decimal digits of the tick size of the
+     * prices indexed by symbol identifier
+     **/
+    private volatile double[] tickPrecisions;
+
+    /**
+     * Constructor to init {@link SymbolRules} <br>
+     * Any params required
+     **/
+    public SymbolRules() {
+        symbolsIds = new ConcurrentHashMap<>();
+        stepSizes = new double[INITIAL_CAPACITY];
+        minQuantities = new double[INITIAL_CAPACITY];
+        maxQuantities = new double[INITIAL_CAPACITY];
+        minNotionals = new double[INITIAL_CAPACITY];
+        tickSizes = new double[INITIAL_CAPACITY];
+        stepPrecisions = new double[INITIAL_CAPACITY];
+        tickPrecisions = new double[INITIAL_CAPACITY];
+    }
+
+    /**
+     * This method is used to insert or update the rules of a symbol
+     *
+     * @param symbol:      symbol of the pair es. BTCBUSD
+     * @param stepSize:    step size of the quantities, 0 if the quantities have not a step
+     * @param minQuantity: min quantity of an order
+     * @param maxQuantity: max quantity of an order
+     * @param minNotional: min notional value of an order
+     * @param tickSize:    tick size of the prices, 0 if the prices have not a tick
+     * @return identifier of the symbol as int
+     **/
+    public synchronized int putRules(String symbol, double stepSize, double minQuantity, double maxQuantity,
+                                     double minNotional, double tickSize) {
+        Integer symbolId = symbolsIds.get(symbol);
+        if (symbolId == null) {
+            symbolId = symbolsCount;
+            if (symbolId == stepSizes.length) {
+                tickPrecisions = Arrays.copyOf(tickPrecisions, symbolId * 2);
+                stepPrecisions = Arrays.copyOf(stepPrecisions, symbolId * 2);
+                tickSizes = Arrays.copyOf(tickSizes, symbolId * 2);
+                minNotionals = Arrays.copyOf(minNotionals, symbolId * 2);
+                maxQuantities = Arrays.copyOf(maxQuantities, symbolId * 2);
+                minQuantities = Arrays.copyOf(minQuantities, symbolId * 2);
+                stepSizes = Arrays.copyOf(stepSizes, symbolId * 2);
+            }
+        }
+        stepSizes[symbolId] = stepSize;
+        minQuantities[symbolId] = minQuantity;
+        maxQuantities[symbolId] = maxQuantity;
+        minNotionals[symbolId] = minNotional;
+        tickSizes[symbolId] = tickSize;
+        stepPrecisions[symbolId] = getPrecision(stepSize);
+        tickPrecisions[symbolId] = getPrecision(tickSize);
+        if (symbolId == symbolsCount) {
+            symbolsCount++;
+            symbolsIds.put(symbol, symbolId);
+        }
+        return symbolId;
+    }
+
+    /**
+     * This method is used to remove the rules of a symbol not more listed
+     *
+     * @param symbol: symbol of the pair es. BTCBUSD
+     * @implNote the identifier of the symbol removed is not reused
+     **/
+    public synchronized void removeRules(String symbol) {
+        symbolsIds.remove(symbol);
+    }
+
+    /**
+     * This method is used to get identifier of a symbol
+     *
+     * @param symbol: symbol of the pair es. BTCBUSD
+     * @return identifier of the symbol as int, {@link #NOT_FOUND} if the symbol is not inserted
+     **/
+    public int getSymbolId(String symbol) {
+        Integer symbolId = symbolsIds.get(symbol);
+        if (symbolId == null)
+            return NOT_FOUND;
+        return symbolId;
+    }
+
+    /**
+     * This method is used to get step size of the quantities of a symbol
+     *
+     * @param symbolId: identifier of the symbol
+     * @return step size of the quantities as double
+     **/
+    public double getStepSize(int symbolId) {
+        return stepSizes[checkSymbolId(symbolId)];
+    }
+
+    /**
+     * This method is used to get min quantity of an order of a symbol
+     *
+     * @param symbolId: identifier of the symbol
+     * @return min quantity of an order as double
+     **/
+    public double getMinQuantity(int symbolId) {
+        return minQuantities[checkSymbolId(symbolId)];
+    }
+
+    /**
+     * This method is used to get max quantity of an order of a symbol
+     *
+     * @param symbolId: identifier of the symbol
+     * @return max quantity of an order as double
+     **/
+    public double getMaxQuantity(int symbolId) {
+        return maxQuantities[checkSymbolId(symbolId)];
+    }
+
+    /**
+     * This method is used to get min notional value of an order of a symbol
+     *
+     * @param symbolId: identifier of the symbol
+     * @return min notional value of an order as double
+     **/
+    public double getMinNotional(int symbolId) {
+        return minNotionals[checkSymbolId(symbolId)];
+    }
+
+    /**
+     * This method is used to get tick size of the prices of a symbol
+     *
+     * @param symbolId: identifier of the symbol
+     * @return tick size of the prices as double
+     **/
+    public double getTickSize(int symbolId) {
+        return tickSizes[checkSymbolId(symbolId)];
+    }
+
+    /**
+     * This method is used to round a quantity to the lot size rules of a symbol
+     *
+     * @param symbolId: identifier of the symbol
+     * @param quantity: quantity to round
+     * @return quantity rounded down to the step size and bounded to the max quantity as double, 0 if the quantity is
+     * less than the min quantity
+     * @implNote the quantity is quantized to the decimal digits of the step size, so it has not floating point
+     * residues rejected by the lot size filter of the exchange es. 0.30000000000000004
+     **/
+    public double roundQuantity(int symbolId, double quantity) {
+        checkSymbolId(symbolId);
+        double minQuantity = minQuantities[symbolId];
+        double maxQuantity = maxQuantities[symbolId];
+        if (maxQuantity > 0 && quantity > maxQuantity)
+            quantity = maxQuantity;
+        if (quantity < minQuantity)
+            return 0;
+        double stepSize = stepSizes[symbolId];
+        if (stepSize > 0) {
+            quantity = minQuantity + floor((quantity - minQuantity) / stepSize + STEP_EPSILON) * stepSize;
+            quantity = quantize(quantity, stepPrecisions[symbolId]);
+        }
+        return quantity;
+    }
+
+    /**
+     * This method is used to round a price to the tick size of a symbol
+     *
+     * @param symbolId: identifier of the symbol
+     * @param price:    price to round
+     * @return price rounded down to the tick size and quantized to its decimal digits as double
+     **/
+    public double roundPrice(int symbolId, double price) {
+        double tickSize = tickSizes[checkSymbolId(symbolId)];
+        if (tickSize > 0)
+            return quantize(floor(price / tickSize + STEP_EPSILON) * tickSize, tickPrecisions[symbolId]);
+        return price;
+    }
+
+    /**
+     * This method is used to quantize a value to a number of decimal digits
+     *
+     * @param value:     value to quantize
+     * @param precision: power of ten of the decimal digits es. 1000 for three digits
+     * @return value quantized as double
+     **/
+    private static double quantize(double value, double precision) {
+        return Math.round(value * precision) / precision;
+    }
+
+    /**
+     * This method is used to get the power of ten of the decimal digits of a step
+     *
+     * @param step: step to get its decimal digits es. 0.001
+     * @return power of ten of the decimal digits as double es. 1000, 1 if the step has not decimal digits
+     **/
+    private static double getPrecision(double step) {
+        if (step <= 0)
+            return 1;
+        return Math.pow(10, Math.max(0, BigDecimal.valueOf(step).stripTrailingZeros().scale()));
+    }
+
+    /**
+     * This method is used to check if an order respects the min notional value of a symbol
+     *
+     * @param symbolId: identifier of the symbol
+     * @param quantity: quantity of the order
+     * @param price:    price of the order
+     * @return true if the notional value of the order is at least the min notional value, false if not
+     **/
+    public boolean isNotionalValid(int symbolId, double quantity, double price) {
+        return quantity * price >= minNotionals[checkSymbolId(symbolId)];
+    }
+
+    /**
+     * This method is used to get number of symbols inserted <br>
+     * Any params required
+     *
+     * @return number of symbols inserted as int
+     **/
+    public int size() {
+        return symbolsIds.size();
+    }
+
+    /**
+     * This method is used to check validity of a symbol identifier
+     *
+     * @param symbolId: identifier of the symbol to check
+     * @return identifier of the symbol as int
+     * @throws IllegalArgumentException if the symbol identifier is not valid
+     **/
+    private int checkSymbolId(int symbolId) {
+        if (symbolId < 0 || symbolId >= symbolsCount)
+            throw new IllegalArgumentException("Rules of the symbol are not available");
+        return symbolId;
+    }
+
+}
@@ -5,7 +5,12 @@ import com.tecknobit.traderbot.routines.interfaces.RecordDetails;
 import org.json.JSONObject;
 
 import java.text.ParseException;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.tecknobit.apimanager.trading.TradingTools.roundValue;
 import static com.tecknobit.apimanager.trading.TradingTools.textualizeAssetPercent;
@@ -13,6 +18,7 @@ import static com.tecknobit.traderbot.routines.autonomous.AutoTraderCoreRoutines
 import static com.tecknobit.traderbot.routines.interfaces.TraderBotConstants.*;
 import static com.tecknobit.traderbot.routines.interfaces.TraderBotConstants.Side.BUY;
 import static java.lang.System.out;
+import static java.time.temporal.ChronoField.AMPM_OF_DAY;
 
 /**
  * The {@code Transaction} class defines Transaction object. <br>
@@ -22,6 +28,28 @@ import static java.lang.System.out;
  **/
 public class Transaction implements RecordDetails {
 
+    /**
+     * {@code DATE_TO_STRING_PATTERN} is the pattern of the dates formatted as {@link java.util.Date#toString()} does
+     **/
+    public static final String DATE_TO_STRING_PATTERN = "EEE MMM dd HH:mm:ss zzz yyyy";
+
+    /**
+     * {@code UTC_ISO_PATTERN} is the pattern of the ISO dates in UTC es. 2022-06-30T21:08:22.000Z
+     **/
+    public static final String UTC_ISO_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
+
+    /**
+     * {@code UNPARSED_TIMESTAMP} is the value of {@link #transactionDateTimestamp} until the
+     * {@link #transactionDate} inserted has been parsed
+     **/
+    private static final long UNPARSED_TIMESTAMP = Long.MIN_VALUE;
+
+    /**
+     * {@code dateFormatters} is a map that contains pattern as key {@link String} and its formatter as value,
+     * the formatters are immutable so they are shared between all the threads
+     **/
+    private static final ConcurrentHashMap<String, DateTimeFormatter> dateFormatters = new ConcurrentHashMap<>();
+
     /**
      * {@code symbol} is instance that memorizes symbol of transaction es. BTCBUSD or BTC-USD
      **/
@@ -34,13 +62,21 @@ public class Transaction implements RecordDetails {
 
     /**
      * {@code transactionDate} is instance that memorizes date of that transaction es 21:08:22 30/06/2022
+     * @implNote when the transaction has been created from a timestamp it is formatted at the first request
      **/
-    protected final String transactionDate;
+    protected String transactionDate;
 
     /**
      * {@code transactionDateTimestamp} is instance that memorizes date of that transaction es 1045868400000
+     * @implNote when the transaction has been created from a date it is parsed at the first request
+     **/
+    protected long transactionDateTimestamp;
+
+    /**
+     * {@code datePattern} is instance that memorizes pattern used to format the {@link #transactionDate},
+     * if null will be used the default pattern of {@link #getDate(long)}
      **/
-    protected final long transactionDateTimestamp;
+    protected final String datePattern;
 
     /**
      * {@code value} is instance that memorizes value of symbol in fiat currency amount of transaction transfered es. 1235 USD
@@ -94,7 +130,8 @@ public class Transaction implements RecordDetails {
             throw new IllegalArgumentException("Transaction date must contains characters");
         else {
             this.transactionDate = transactionDate;
-            transactionDateTimestamp = getDateTimestamp(transactionDate);
+            transactionDateTimestamp = UNPARSED_TIMESTAMP;
+            datePattern = null;
         }
         if (value < 0)
             throw new IllegalArgumentException("Value cannot be less than 0");
@@ -136,7 +173,8 @@ public class Transaction implements RecordDetails {
             throw new IllegalArgumentException("Transaction date must contains characters");
         else {
             this.transactionDate = transactionDate;
-            transactionDateTimestamp = getDateTimestamp(transactionDate);
+            transactionDateTimestamp = UNPARSED_TIMESTAMP;
+            datePattern = null;
         }
         if (value < 0)
             throw new IllegalArgumentException("Value cannot be less than 0");
@@ -178,7 +216,8 @@ public class Transaction implements RecordDetails {
             throw new IllegalArgumentException("Transaction date must contains characters");
         else {
             this.transactionDate = transactionDate;
-            transactionDateTimestamp = getDateTimestamp(transactionDate);
+            transactionDateTimestamp = UNPARSED_TIMESTAMP;
+            datePattern = null;
         }
         if (value < 0)
             throw new IllegalArgumentException("Value cannot be less than 0");
@@ -213,7 +252,8 @@ public class Transaction implements RecordDetails {
             throw new IllegalArgumentException("Transaction date must contains characters");
         else {
             this.transactionDate = transactionDate;
-            transactionDateTimestamp = getDateTimestamp(transactionDate);
+            transactionDateTimestamp = UNPARSED_TIMESTAMP;
+            datePattern = null;
         }
         if (value < 0)
             throw new IllegalArgumentException("Value cannot be less than 0");
@@ -249,7 +289,49 @@ public class Transaction implements RecordDetails {
             this.symbol = symbol;
         this.side = side;
         transactionDateTimestamp = transactionDate;
-        this.transactionDate = getDate(transactionDate);
+        this.transactionDate = null;
+        datePattern = null;
+        if (value < 0)
+            throw new IllegalArgumentException("Value cannot be less than 0");
+        else
+            this.value = value;
+        this.quantity = quantity;
+        if (quoteAsset == null || quoteAsset.isEmpty())
+            throw new IllegalArgumentException("Quote asset must contains characters");
+        else
+            this.quoteAsset = quoteAsset;
+        if (baseAsset == null || baseAsset.isEmpty())
+            throw new IllegalArgumentException("Base asset must contains characters");
+        else
+            this.baseAsset = baseAsset;
+        incomePercent = ASSET_NOT_TRADABLE;
+        transactionType = null;
+    }
+
+    /**
+     * Constructor to init {@link Transaction}
+     *
+     * @param symbol:          symbol of transaction es. BTCBUSD or BTC-USD
+     * @param side:            side of transaction BUY or SELL
+     * @param transactionDate: date of that transaction es 21:08:22 24/05/2022
+     * @param datePattern:     pattern used to format the date of that transaction es. dd/MM/yyyy HH:mm:ss, if null
+     *                         will be used the default pattern
+     * @param value:           value of symbol in fiat currency amount of transaction transfered es. 1235 USD
+     * @param quantity:        value of quantity transfered in that transaction es. 1 BTC
+     * @param quoteAsset:      quote asset used in that transaction es. EUR
+     * @param baseAsset:       base asset used in that transaction es. BTC
+     * @throws IllegalArgumentException when parameters inserted do not respect right value form.
+     **/
+    public Transaction(String symbol, Side side, long transactionDate, String datePattern, double value,
+                       double quantity, String quoteAsset, String baseAsset) {
+        if (symbol == null || symbol.isEmpty())
+            throw new IllegalArgumentException("Symbol must contains characters");
+        else
+            this.symbol = symbol;
+        this.side = side;
+        transactionDateTimestamp = transactionDate;
+        this.transactionDate = null;
+        this.datePattern = datePattern;
         if (value < 0)
             throw new IllegalArgumentException("Value cannot be less than 0");
         else
@@ -288,7 +370,8 @@ public class Transaction implements RecordDetails {
             this.symbol = symbol;
         this.side = side;
         transactionDateTimestamp = transactionDate;
-        this.transactionDate = getDate(transactionDate);
+        this.transactionDate = null;
+        datePattern = null;
         if (value < 0)
             throw new IllegalArgumentException("Value cannot be less than 0");
         else
@@ -326,7 +409,8 @@ public class Transaction implements RecordDetails {
             this.symbol = symbol;
         this.side = side;
         transactionDateTimestamp = transactionDate;
-        this.transactionDate = getDate(transactionDate);
+        this.transactionDate = null;
+        datePattern = null;
         if (value < 0)
             throw new IllegalArgumentException("Value cannot be less than 0");
         else
@@ -357,7 +441,8 @@ public class Transaction implements RecordDetails {
             this.symbol = symbol;
         this.side = side;
         transactionDateTimestamp = transactionDate;
-        this.transactionDate = getDate(transactionDate);
+        this.transactionDate = null;
+        datePattern = null;
         if (value < 0)
             throw new IllegalArgumentException("Value cannot be less than 0");
         else
@@ -399,6 +484,12 @@ public class Transaction implements RecordDetails {
      * @return {@link #transactionDate} instance as {@link String}
      **/
     public String getTransactionDate() {
+        if (transactionDate == null) {
+            if (datePattern == null)
+                transactionDate = getDate(transactionDateTimestamp);
+            else
+                transactionDate = getDate(transactionDateTimestamp, datePattern);
+        }
         return transactionDate;
     }
 
@@ -490,6 +581,8 @@ public class Transaction implements RecordDetails {
      * @implNote when {@link ParseException} has been thrown return value will be -1 as default
      **/
     public long getTransactionTimestamp() {
+        if (transactionDateTimestamp == UNPARSED_TIMESTAMP)
+            transactionDateTimestamp = getDateTimestamp(transactionDate);
         return transactionDateTimestamp;
     }
 
@@ -547,7 +640,7 @@ public class Transaction implements RecordDetails {
         HashMap<String, Object> transaction = new HashMap<>();
         transaction.put(SYMBOL_KEY, symbol);
         transaction.put(SIDE_KEY, side);
-        transaction.put(TRANSACTION_DATE_KEY, transactionDate);
+        transaction.put(TRANSACTION_DATE_KEY, getTransactionDate());
         transaction.put(QUANTITY_KEY, quantity);
         transaction.put(QUOTE_ASSET_KEY, quoteAsset);
         transaction.put(VALUE_KEY, value);
@@ -582,7 +675,7 @@ public class Transaction implements RecordDetails {
     public String toString() {
         return "## [" + symbol + "]\n" +
                 getSideInfoLine(side) +
-                "## Date: " + transactionDate + "\n" +
+                "## Date: " + getTransactionDate() + "\n" +
                 "## Amount value: " + value + "\n" +
                 "## Quantity: " + quantity + "\n" +
                 "## Base asset: " + baseAsset + "\n" +
@@ -596,9 +689,10 @@ public class Transaction implements RecordDetails {
      * @param timestamp: timestamp of the date to get
      * @param pattern:   pattern to format return date es. dd/MM/yyyy hh:mm:ss
      * @return date value as {@link String}
+     * @implNote the formatter of each pattern is created once and shared between all the threads
      **/
     public static String getDate(long timestamp, String pattern) {
-        return TimeFormatter.getStringDate(timestamp, pattern);
+        return getDateFormatter(pattern).format(Instant.ofEpochMilli(timestamp));
     }
 
     /**
@@ -621,7 +715,52 @@ public class Transaction implements RecordDetails {
      * @implNote when {@link ParseException} has been thrown return value will be -1 as default
      **/
     public static long getDateTimestamp(String date, String pattern) {
-        return TimeFormatter.getDateTimestamp(date, pattern);
+        DateTimeFormatter formatter = getDateFormatter(pattern);
+        try {
+            return ZonedDateTime.parse(date, formatter).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDate.parse(date, formatter).atStartOfDay(formatter.getZone()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException ignored) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * This method is used to get the formatter of a pattern, creating it at the first request
+     *
+     * @param pattern: pattern of the formatter es. dd/MM/yyyy HH:mm:ss
+     * @return formatter as {@link DateTimeFormatter}
+     * @implNote the patterns that end with the literal 'Z' are formatted in UTC, the others in the system zone, the
+     * patterns with 12 hours field and without AM/PM field are parsed as AM like {@link java.text.SimpleDateFormat} does
+     **/
+    private static DateTimeFormatter getDateFormatter(String pattern) {
+        return dateFormatters.computeIfAbsent(pattern, p -> {
+            DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder().appendPattern(p);
+            if (hasPatternLetter(p, 'h') && !hasPatternLetter(p, 'a'))
+                builder.parseDefaulting(AMPM_OF_DAY, 0);
+            return builder.toFormatter().withZone(p.endsWith("'Z'") ? ZoneOffset.UTC : ZoneId.systemDefault());
+        });
+    }
+
+    /**
+     * This method is used to check if a pattern contains a field letter outside its quoted literals
+     *
+     * @param pattern: pattern to check es. dd/MM/yyyy hh:mm:ss
+     * @param letter:  field letter to search es. h
+     * @return whether the pattern contains the field letter as boolean
+     **/
+    static boolean hasPatternLetter(String pattern, char letter) {
+        boolean quoted = false;
+        for (int j = 0; j < pattern.length(); j++) {
+            char current = pattern.charAt(j);
+            if (current == '\'')
+                quoted = !quoted;
+            else if (!quoted && current == letter)
+                return true;
+        }
+        return false;
     }
 
     /**
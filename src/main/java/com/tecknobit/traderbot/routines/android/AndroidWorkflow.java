@@ -20,7 +20,9 @@ import java.io.*;
 import java.text.DateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static com.tecknobit.traderbot.records.account.TecknobitBot.TraderManager.*;
@@ -40,6 +42,17 @@ import static org.apache.commons.validator.routines.EmailValidator.getInstance;
  **/
 public class AndroidWorkflow implements RoutineMessages {
 
+    /**
+     * {@code DEFAULT_DELTA_SYNC_EPSILON} is the default min change of a value of an asset to send its refreshed prices
+     **/
+    public static final double DEFAULT_DELTA_SYNC_EPSILON = 0.0001;
+
+    /**
+     * {@code DEFAULT_FULL_SNAPSHOT_INTERVAL} is the default number of refreshes of the prices after which all the
+     * assets of the wallet are sent
+     **/
+    public static final int DEFAULT_FULL_SNAPSHOT_INTERVAL = 30;
+
     /**
      * {@code alreadyInstantiated} flag to lock multiple instantiations of {@link AndroidWorkflow} object
      **/
@@ -63,7 +76,7 @@ public class AndroidWorkflow implements RoutineMessages {
     /**
      * {@code printRoutineMessages} flag to insert to print or not routine messages
      **/
-    protected boolean printRoutineMessages;
+    protected volatile boolean printRoutineMessages;
 
     /**
      * {@code workflowStarted} flag to indicate if Android's workflow has been started
@@ -80,6 +93,53 @@ public class AndroidWorkflow implements RoutineMessages {
      **/
     protected final ArrayList<Routine> performedRoutines;
 
+    /**
+     * {@code outboundQueue} is instance that memorizes queue used to send the insert operations to the server without
+     * blocking the trading routines
+     **/
+    protected final OutboundQueue outboundQueue;
+
+    /**
+     * {@code refreshedPrices} is a map that contains asset index (es. BTC) as key {@link String} and its latest
+     * refreshed prices not sent yet as value
+     **/
+    private final ConcurrentHashMap<String, JSONObject> refreshedPrices;
+
+    /**
+     * {@code lastSentPrices} is a map that contains asset index (es. BTC) as key {@link String} and its last price,
+     * price change percent and income percent delivered to the server as value
+     **/
+    private final HashMap<String, double[]> lastSentPrices;
+
+    /**
+     * {@code deltaSync} flag to send only the refreshed prices of the assets whose values are changed, disabled by default
+     **/
+    protected volatile boolean deltaSync;
+
+    /**
+     * {@code deltaSyncEpsilon} is instance that memorizes min change of a value of an asset to send its refreshed
+     * prices, relative for the last price and absolute for the percents
+     **/
+    protected volatile double deltaSyncEpsilon;
+
+    /**
+     * {@code fullSnapshotInterval} is instance that memorizes number of refreshes of the prices after which all the
+     * assets of the wallet are sent
+     **/
+    protected volatile int fullSnapshotInterval;
+
+    /**
+     * {@code refreshesFromSnapshot} is instance that memorizes number of refreshes of the prices from the last full
+     * snapshot sent
+     **/
+    private int refreshesFromSnapshot;
+
+    /**
+     * {@code skippedRefreshedPrices} is instance that memorizes number of refreshed prices of an asset not sent because
+     * not changed
+     **/
+    private volatile long skippedRefreshedPrices;
+
     /**
      * Constructor to init {@link AndroidWorkflow}
      *
@@ -104,6 +164,12 @@ public class AndroidWorkflow implements RoutineMessages {
         workflowStarted = false;
         routines = new ArrayList<>();
         performedRoutines = new ArrayList<>();
+        outboundQueue = new OutboundQueue();
+        refreshedPrices = new ConcurrentHashMap<>();
+        lastSentPrices = new HashMap<>();
+        deltaSync = false;
+        deltaSyncEpsilon = DEFAULT_DELTA_SYNC_EPSILON;
+        fullSnapshotInterval = DEFAULT_FULL_SNAPSHOT_INTERVAL;
     }
 
     /**
@@ -420,29 +486,11 @@ public class AndroidWorkflow implements RoutineMessages {
      * This method is used to insert wallet balance
      *
      * @param balance: value of balance to insert
+     * @implNote the balance is sent asynchronously and only the latest balance not sent yet is sent
      **/
     public void insertWalletBalance(double balance) {
-        try {
-            serverRequest.sendTokenRequest(new JSONObject().put(BALANCE_KEY, balance), INSERT_WALLET_BALANCE_OPE);
-            response = serverRequest.readResponse();
-            if (response != null) {
-                switch (response.getInt(STATUS_CODE)){
-                    case SUCCESSFUL_RESPONSE:
-                        if(printRoutineMessages)
-                            printOperationSuccess(INSERT_WALLET_BALANCE_OPE);
-                        break;
-                    case GENERIC_ERROR_RESPONSE:
-                        printOperationStatus("[" + INSERT_WALLET_BALANCE_OPE + "] Wallet balance cannot be less than 0",
-                                false);
-                        break;
-                    default:
-                        printOperationFailed(INSERT_WALLET_BALANCE_OPE);
-                }
-            }else
-                printOperationFailed(INSERT_WALLET_BALANCE_OPE);
-        } catch (Exception e) {
-            printOperationFailed(INSERT_WALLET_BALANCE_OPE);
-        }
+        outboundQueue.enqueue(INSERT_WALLET_BALANCE_OPE, () -> sendInsertRequest(new JSONObject().put(BALANCE_KEY, balance),
+                INSERT_WALLET_BALANCE_OPE, "Wallet balance cannot be less than 0"));
     }
 
     /**
@@ -504,133 +552,262 @@ public class AndroidWorkflow implements RoutineMessages {
      * @param transaction: transaction to insert
      * @param sales: sales to insert
      * @param totalIncome: total income of trader to insert
+     * @implNote the cryptocurrency is sent asynchronously and is never dropped, its
+     * {@link TraderBotConstants#EVENT_ID_KEY} allows the server to discard the duplicates sent again when a response
+     * is lost
      * **/
     public void insertCryptocurrency(Cryptocurrency cryptocurrency, Transaction transaction, int sales, double totalIncome) {
-        try {
-            JSONObject request = new JSONObject().put(CRYPTOCURRENCY_KEY, cryptocurrency.getCryptocurrency())
-                    .put(TRANSACTION_KEY, transaction.getTransaction());
-            if (sales > 0) {
-                request.put(SELL_KEY, sales);
-                request.put(TOTAL_INCOME_KEY, totalIncome);
-            }
-            serverRequest.sendTokenRequest(request, INSERT_CRYPTOCURRENCY_OPE);
-            response = serverRequest.readResponse();
-            if (response != null) {
-                switch (response.getInt(STATUS_CODE)) {
-                    case SUCCESSFUL_RESPONSE:
-                        printOperationSuccess(INSERT_CRYPTOCURRENCY_OPE);
-                        break;
-                    case GENERIC_ERROR_RESPONSE:
-                        printOperationStatus("[" + INSERT_WALLET_BALANCE_OPE + "] Insert a valid cryptocurrency value",
-                                false);
-                        break;
-                    default:
-                        printOperationFailed(INSERT_CRYPTOCURRENCY_OPE);
-                }
-            }else
-                printOperationFailed(INSERT_CRYPTOCURRENCY_OPE);
-        }catch (Exception e){
-            printOperationFailed(INSERT_CRYPTOCURRENCY_OPE);
+        JSONObject request = new JSONObject().put(CRYPTOCURRENCY_KEY, cryptocurrency.getCryptocurrency())
+                .put(TRANSACTION_KEY, transaction.getTransaction())
+                .put(EVENT_ID_KEY, UUID.randomUUID().toString());
+        if (sales > 0) {
+            request.put(SELL_KEY, sales);
+            request.put(TOTAL_INCOME_KEY, totalIncome);
         }
+        outboundQueue.enqueue(() -> sendInsertRequest(request, INSERT_CRYPTOCURRENCY_OPE,
+                "Insert a valid cryptocurrency value"));
     }
 
     /**
      * This method is used to remove cryptocurrency from the user wallet<br>
      * @param assetIndex: cryptocurrency to insert
      * @param transaction: transaction to insert
+     * @implNote the cryptocurrency is removed asynchronously and the request is never dropped, its
+     * {@link TraderBotConstants#EVENT_ID_KEY} allows the server to discard the duplicates sent again when a response
+     * is lost
      * **/
     public void removeCryptocurrency(String assetIndex, Transaction transaction){
-        try {
-            serverRequest.sendTokenRequest(new JSONObject().put(CRYPTOCURRENCY_KEY, assetIndex)
-                    .put(TRANSACTION_KEY, transaction.getTransaction()), DELETE_CRYPTOCURRENCY_OPE);
-            response = serverRequest.readResponse();
-            if(response != null){
-                switch (response.getInt(STATUS_CODE)){
-                    case SUCCESSFUL_RESPONSE:
-                        printOperationSuccess(DELETE_CRYPTOCURRENCY_OPE);
-                        break;
-                    case GENERIC_ERROR_RESPONSE:
-                        printOperationStatus("[" + DELETE_CRYPTOCURRENCY_OPE + "] Insert a valid cryptocurrency index",
-                                false);
-                        break;
-                    default:
-                        printOperationFailed(DELETE_CRYPTOCURRENCY_OPE);
-                }
-            }else
-                printOperationFailed(DELETE_CRYPTOCURRENCY_OPE);
-        }catch (Exception e){
-            printOperationFailed(DELETE_CRYPTOCURRENCY_OPE);
+        synchronized (lastSentPrices) {
+            lastSentPrices.remove(assetIndex);
+            refreshedPrices.remove(assetIndex);
         }
+        JSONObject request = new JSONObject().put(CRYPTOCURRENCY_KEY, assetIndex)
+                .put(TRANSACTION_KEY, transaction.getTransaction())
+                .put(EVENT_ID_KEY, UUID.randomUUID().toString());
+        outboundQueue.enqueue(() -> sendInsertRequest(request, DELETE_CRYPTOCURRENCY_OPE,
+                "Insert a valid cryptocurrency index"));
     }
 
     /**
      * This method is used to refresh details of cryptocurrency of the user wallet<br>
      * @param wallet: wallet with updated values of a cryptocurrency
+     * @implNote the prices are sent asynchronously and for each asset only its latest prices not sent yet are sent,
+     * if {@link #deltaSync} is enabled are sent only the assets whose values are changed more than {@link #deltaSyncEpsilon}
+     * from the last ones delivered and every {@link #fullSnapshotInterval} refreshes all the assets are sent to resync
+     * the server
      * **/
     public void insertRefreshedPrices(JSONArray wallet) throws Exception {
         if(wallet.length() > 0){
-            serverRequest.sendTokenRequest(new JSONObject().put(CRYPTOCURRENCY_KEY, wallet), INSERT_REFRESHED_PRICES);
-            response = serverRequest.readResponse();
-            if(response != null){
-                switch (response.getInt(STATUS_CODE)){
-                    case SUCCESSFUL_RESPONSE:
-                        printOperationSuccess(INSERT_REFRESHED_PRICES);
-                        break;
-                    case GENERIC_ERROR_RESPONSE:
-                        printOperationStatus("[" + INSERT_REFRESHED_PRICES + "] Insert a valid wallet list",
-                                false);
-                        break;
-                    default: printOperationFailed(INSERT_REFRESHED_PRICES);
+            synchronized (lastSentPrices) {
+                boolean fullSnapshot = !deltaSync || ++refreshesFromSnapshot >= fullSnapshotInterval;
+                if (fullSnapshot)
+                    refreshesFromSnapshot = 0;
+                for (int j = 0; j < wallet.length(); j++) {
+                    JSONObject cryptocurrency = wallet.getJSONObject(j);
+                    String assetIndex = cryptocurrency.getString(BASE_ASSET_KEY);
+                    if (fullSnapshot || refreshedPrices.containsKey(assetIndex)
+                            || isPriceMoved(lastSentPrices.get(assetIndex), getPrices(cryptocurrency))) {
+                        refreshedPrices.put(assetIndex, cryptocurrency);
+                    } else
+                        skippedRefreshedPrices++;
                 }
-            }else
-                printOperationFailed(INSERT_REFRESHED_PRICES);
+            }
+            if (!refreshedPrices.isEmpty())
+                outboundQueue.enqueue(INSERT_REFRESHED_PRICES, this::sendRefreshedPrices);
         }
     }
 
+    /**
+     * This method is used to get the values of an asset compared by the delta sync
+     * @param cryptocurrency: refreshed prices of the asset
+     * @return last price, price change percent and income percent as double array
+     * **/
+    private double[] getPrices(JSONObject cryptocurrency) {
+        return new double[]{cryptocurrency.getDouble(LAST_PRICE_KEY), cryptocurrency.getDouble(PRICE_CHANGE_PERCENT_KEY),
+                cryptocurrency.getDouble(INCOME_PERCENT_KEY)};
+    }
+
+    /**
+     * This method is used to check if the values of an asset are changed from the last ones sent
+     * @param lastSent: last price, price change percent and income percent sent, null if never sent
+     * @param prices: last price, price change percent and income percent refreshed
+     * @return true if at least one value is changed more than {@link #deltaSyncEpsilon}, false if not
+     * **/
+    private boolean isPriceMoved(double[] lastSent, double[] prices) {
+        if (lastSent == null)
+            return true;
+        if (Math.abs(prices[0] - lastSent[0]) > deltaSyncEpsilon * Math.abs(lastSent[0]))
+            return true;
+        for (int j = 1; j < prices.length; j++)
+            if (Math.abs(prices[j] - lastSent[j]) > deltaSyncEpsilon)
+                return true;
+        return false;
+    }
+
+    /**
+     * This method is used to set delta sync mode for the refreshed prices
+     * @param deltaSync: flag to send only the refreshed prices of the assets whose values are changed
+     * **/
+    public void setDeltaSync(boolean deltaSync) {
+        this.deltaSync = deltaSync;
+    }
+
+    /**
+     * This method is used to get delta sync mode for the refreshed prices <br>
+     * Any params required
+     * @return true if only the refreshed prices of the assets whose values are changed are sent, false if not
+     * **/
+    public boolean isDeltaSync() {
+        return deltaSync;
+    }
+
+    /**
+     * This method is used to set min change of a value of an asset to send its refreshed prices
+     * @param deltaSyncEpsilon: min change, relative for the last price and absolute for the percents
+     * @throws IllegalArgumentException if {@code deltaSyncEpsilon} value is negative
+     * **/
+    public void setDeltaSyncEpsilon(double deltaSyncEpsilon) {
+        if (deltaSyncEpsilon < 0)
+            throw new IllegalArgumentException("Delta sync epsilon value cannot be negative");
+        this.deltaSyncEpsilon = deltaSyncEpsilon;
+    }
+
+    /**
+     * This method is used to get min change of a value of an asset to send its refreshed prices <br>
+     * Any params required
+     * @return min change of a value of an asset to send its refreshed prices as double
+     * **/
+    public double getDeltaSyncEpsilon() {
+        return deltaSyncEpsilon;
+    }
+
+    /**
+     * This method is used to set number of refreshes of the prices after which all the assets of the wallet are sent
+     * @param fullSnapshotInterval: number of refreshes between two full snapshots
+     * @throws IllegalArgumentException if {@code fullSnapshotInterval} value is less than 1
+     * **/
+    public void setFullSnapshotInterval(int fullSnapshotInterval) {
+        if (fullSnapshotInterval < 1)
+            throw new IllegalArgumentException("Full snapshot interval value must be at least 1");
+        this.fullSnapshotInterval = fullSnapshotInterval;
+    }
+
+    /**
+     * This method is used to get number of refreshes of the prices after which all the assets of the wallet are sent <br>
+     * Any params required
+     * @return number of refreshes between two full snapshots as int
+     * **/
+    public int getFullSnapshotInterval() {
+        return fullSnapshotInterval;
+    }
+
+    /**
+     * This method is used to get number of refreshed prices of an asset not sent because not changed <br>
+     * Any params required
+     * @return number of refreshed prices skipped as long
+     * **/
+    public long getSkippedRefreshedPrices() {
+        return skippedRefreshedPrices;
+    }
+
+    /**
+     * This method is used to send the refreshed prices not sent yet <br>
+     * Any params required
+     * @return true if the request has been delivered to the server, false if not
+     * @implNote if the request is not delivered the prices not replaced meanwhile are inserted again to be retried,
+     * the prices are memorized as the last ones sent only when the request has been delivered
+     * **/
+    private boolean sendRefreshedPrices() {
+        JSONArray wallet = new JSONArray();
+        ArrayList<String> assets = new ArrayList<>(refreshedPrices.keySet());
+        for (String asset : assets) {
+            JSONObject cryptocurrency = refreshedPrices.remove(asset);
+            if (cryptocurrency != null)
+                wallet.put(cryptocurrency);
+        }
+        if (wallet.length() == 0)
+            return true;
+        if (sendInsertRequest(new JSONObject().put(CRYPTOCURRENCY_KEY, wallet), INSERT_REFRESHED_PRICES,
+                "Insert a valid wallet list")) {
+            synchronized (lastSentPrices) {
+                for (int j = 0; j < wallet.length(); j++) {
+                    JSONObject cryptocurrency = wallet.getJSONObject(j);
+                    lastSentPrices.put(cryptocurrency.getString(BASE_ASSET_KEY), getPrices(cryptocurrency));
+                }
+            }
+            return true;
+        }
+        for (int j = 0; j < wallet.length(); j++) {
+            JSONObject cryptocurrency = wallet.getJSONObject(j);
+            refreshedPrices.putIfAbsent(cryptocurrency.getString(BASE_ASSET_KEY), cryptocurrency);
+        }
+        return false;
+    }
+
     /**
      * This method is used to insert checking list of cryptocurrencies<br>
      * @param checkingList: list of cryptocurrencies
      * @implSpec is useful for Android auto traders
+     * @implNote the list is sent asynchronously and only the latest list not sent yet is sent
      * **/
     public void insertCheckingList(JSONArray checkingList) throws Exception {
-        serverRequest.sendTokenRequest(new JSONObject().put(CRYPTOCURRENCY_KEY, checkingList), INSERT_CHECKING_LIST_OPE);
-        response = serverRequest.readResponse();
-        if(response != null){
-            switch (response.getInt(STATUS_CODE)){
-                case SUCCESSFUL_RESPONSE:
-                    printOperationSuccess(INSERT_CHECKING_LIST_OPE);
-                    break;
-                case GENERIC_ERROR_RESPONSE:
-                    printOperationStatus("[" + INSERT_CHECKING_LIST_OPE + "] Insert a valid checking list",
-                            false);
-                    break;
-                default: printOperationFailed(INSERT_CHECKING_LIST_OPE);
-            }
-        }else
-            printOperationFailed(INSERT_CHECKING_LIST_OPE);
+        outboundQueue.enqueue(INSERT_CHECKING_LIST_OPE, () -> sendInsertRequest(new JSONObject()
+                .put(CRYPTOCURRENCY_KEY, checkingList), INSERT_CHECKING_LIST_OPE, "Insert a valid checking list"));
     }
 
     /**
      * This method is used to insert wallet list of cryptocurrencies<br>
      * @param walletList: list of cryptocurrencies
      * @implSpec is useful for Android auto traders
+     * @implNote the list is sent asynchronously and is never dropped
      * **/
     public void insertWalletList(JSONArray walletList) throws Exception {
-        serverRequest.sendTokenRequest(new JSONObject().put(CRYPTOCURRENCY_KEY, walletList), INSERT_WALLET_LIST_OPE);
-        response = serverRequest.readResponse();
-        if(response != null){
-            switch (response.getInt(STATUS_CODE)){
+        JSONObject request = new JSONObject().put(CRYPTOCURRENCY_KEY, walletList)
+                .put(EVENT_ID_KEY, UUID.randomUUID().toString());
+        outboundQueue.enqueue(() -> sendInsertRequest(request, INSERT_WALLET_LIST_OPE, "Insert a valid wallet list"));
+    }
+
+    /**
+     * This method is used to send an insert request and to print its result
+     * @param request: request to send
+     * @param ope: operation for the server
+     * @param invalidMessage: message to print if the server considers the request not valid
+     * @return true if the request has been delivered to the server, false if it must be retried
+     * **/
+    private boolean sendInsertRequest(JSONObject request, String ope, String invalidMessage) {
+        try {
+            serverRequest.sendTokenRequest(request, ope);
+            JSONObject insertResponse = serverRequest.readResponse();
+            if (insertResponse == null) {
+                printOperationFailed(ope);
+                return false;
+            }
+            switch (insertResponse.getInt(STATUS_CODE)) {
                 case SUCCESSFUL_RESPONSE:
-                    printOperationSuccess(INSERT_WALLET_LIST_OPE);
+                    if (printRoutineMessages)
+                        printOperationSuccess(ope);
                     break;
                 case GENERIC_ERROR_RESPONSE:
-                    printOperationStatus("[" + INSERT_WALLET_LIST_OPE + "] Insert a valid checking list",
-                            false);
+                    printOperationStatus("[" + ope + "] " + invalidMessage, false);
                     break;
-                default: printOperationFailed(INSERT_WALLET_LIST_OPE);
+                default:
+                    printOperationFailed(ope);
             }
-        }else
-            printOperationFailed(INSERT_WALLET_LIST_OPE);
+            return true;
+        } catch (Exception e) {
+            printOperationFailed(ope);
+            return false;
+        }
+    }
+
+    /**
+     * Method to get {@link #outboundQueue} instance <br>
+     * Any params required
+     *
+     * @return {@link #outboundQueue} instance as {@link OutboundQueue}
+     **/
+    public OutboundQueue getOutboundQueue() {
+        return outboundQueue;
     }
 
     /**
@@ -0,0 +1,447 @@
+package com.tecknobit.traderbot.routines.android;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import static com.tecknobit.traderbot.routines.interfaces.RoutineMessages.ANSI_RED;
+import static com.tecknobit.traderbot.routines.interfaces.RoutineMessages.ANSI_RESET;
+import static java.lang.Math.min;
+
+/**
+ * The {@code OutboundQueue} class is useful to send the events of an Android's workflow to the server from a single
+ * sender thread, so the trading routines do not wait the responses of the server<br>
+ * Events inserted with the same key are coalesced, so only the latest one of them is sent, while events inserted
+ * without a key, as the records of the trades, are never coalesced nor dropped.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote when the coalesced events reach the capacity of the queue they are dropped following its
+ * {@link DropPolicy}, while the events whose sending failed are retried with an exponential backoff: coalesced events
+ * are discarded after {@link #maxAttempts} attempts and the other ones are retried until they are delivered, in both
+ * cases the {@link FailureListener} is notified
+ **/
+public class OutboundQueue {
+
+    /**
+     * {@code DEFAULT_CAPACITY} is the default max number of events waiting to be sent
+     * **/
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * {@code DEFAULT_MAX_ATTEMPTS} is the default max number of attempts to send an event
+     * **/
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    /**
+     * {@code INITIAL_BACKOFF} is the time in millis waited after the first failed attempt to send an event
+     * **/
+    public static final long INITIAL_BACKOFF = 1000;
+
+    /**
+     * {@code MAX_BACKOFF} is the max time in millis waited between two attempts to send an event
+     * **/
+    public static final long MAX_BACKOFF = 60000;
+
+    /**
+     * {@code events} is a map that contains the key of the event as key {@link String} and the event coalesced as
+     * value, in the order they have been inserted
+     * **/
+    private final LinkedHashMap<String, QueuedEvent> events;
+
+    /**
+     * {@code durableEvents} is instance that memorizes events never coalesced nor dropped, in the order they have
+     * been inserted
+     * **/
+    private final ArrayDeque<QueuedEvent> durableEvents;
+
+    /**
+     * {@code capacity} is instance that memorizes max number of coalesced events waiting to be sent
+     * **/
+    private final int capacity;
+
+    /**
+     * {@code dropPolicy} is instance that memorizes policy used when the queue is full
+     * **/
+    private final DropPolicy dropPolicy;
+
+    /**
+     * {@code maxAttempts} is instance that memorizes max number of attempts to send an event
+     * **/
+    private volatile int maxAttempts;
+
+    /**
+     * {@code failureListener} is instance that memorizes listener notified when an event is not delivered after
+     * {@link #maxAttempts} attempts
+     * **/
+    private volatile FailureListener failureListener;
+
+    /**
+     * {@code eventsCounter} is instance that memorizes counter used to order the events and to assign a key to the
+     * events not coalesced
+     * **/
+    private long eventsCounter;
+
+    /**
+     * {@code sentEvents} is instance that memorizes number of events sent
+     * **/
+    private volatile long sentEvents;
+
+    /**
+     * {@code coalescedEvents} is instance that memorizes number of events replaced by a newer event with the same key
+     * **/
+    private volatile long coalescedEvents;
+
+    /**
+     * {@code droppedEvents} is instance that memorizes number of coalesced events dropped because the queue was full
+     * **/
+    private volatile long droppedEvents;
+
+    /**
+     * {@code failedEvents} is instance that memorizes number of coalesced events discarded after {@link #maxAttempts}
+     * failed attempts
+     * **/
+    private volatile long failedEvents;
+
+    /**
+     * {@code running} is instance that memorizes flag that indicates if the sender thread is running
+     * **/
+    private volatile boolean running;
+
+    /**
+     * Constructor to init {@link OutboundQueue}
+     * @param capacity: max number of coalesced events waiting to be sent
+     * @param dropPolicy: policy used when the coalesced events reach the capacity
+     * @throws IllegalArgumentException if {@code capacity} value is less than 1
+     * **/
+    public OutboundQueue(int capacity, DropPolicy dropPolicy) {
+        if(capacity < 1)
+            throw new IllegalArgumentException("Capacity value must be at least 1");
+        this.capacity = capacity;
+        this.dropPolicy = dropPolicy;
+        events = new LinkedHashMap<>();
+        durableEvents = new ArrayDeque<>();
+        maxAttempts = DEFAULT_MAX_ATTEMPTS;
+        failureListener = (key, attempts, discarded) -> System.out.println(ANSI_RED + "Event " + key
+                + " not delivered after " + attempts + " attempts" + (discarded ? ", discarded" : ", retrying")
+                + ANSI_RESET);
+        running = true;
+        Thread sender = new Thread(this::sendEvents, "android-workflow-sender");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    /**
+     * Constructor to init {@link OutboundQueue} with {@link #DEFAULT_CAPACITY} and {@link DropPolicy#DROP_OLDEST} <br>
+     * Any params required
+     * **/
+    public OutboundQueue() {
+        this(DEFAULT_CAPACITY, DropPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * This method is used to insert an event that replaces the event with the same key not sent yet
+     * @param key: key of the event es. {@code INSERT_WALLET_BALANCE_OPE}
+     * @param event: event to send
+     * @return true if the event has been inserted, false if it has been dropped
+     * @implNote the event replaced keeps its position in the queue
+     * **/
+    public synchronized boolean enqueue(String key, OutboundEvent event) {
+        QueuedEvent queuedEvent = events.get(key);
+        if(queuedEvent != null) {
+            events.put(key, new QueuedEvent(queuedEvent.sequence, key, event, false));
+            coalescedEvents++;
+        } else {
+            if(events.size() >= capacity) {
+                droppedEvents++;
+                if(dropPolicy == DropPolicy.DROP_NEWEST)
+                    return false;
+                Iterator<QueuedEvent> oldest = events.values().iterator();
+                oldest.next();
+                oldest.remove();
+            }
+            events.put(key, new QueuedEvent(eventsCounter++, key, event, false));
+        }
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * This method is used to insert an event that is never coalesced with other events nor dropped
+     * @param event: event to send
+     * @return true because the event is always inserted
+     * **/
+    public synchronized boolean enqueue(OutboundEvent event) {
+        long sequence = eventsCounter++;
+        durableEvents.add(new QueuedEvent(sequence, "#" + sequence, event, true));
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * This method is used to get number of events waiting to be sent <br>
+     * Any params required
+     * @return number of events waiting to be sent as int
+     * **/
+    public synchronized int getPendingEvents() {
+        return events.size() + durableEvents.size();
+    }
+
+    /**
+     * This method is used to get number of events sent <br>
+     * Any params required
+     * @return number of events sent as long
+     * **/
+    public long getSentEvents() {
+        return sentEvents;
+    }
+
+    /**
+     * This method is used to get number of events replaced by a newer event with the same key <br>
+     * Any params required
+     * @return number of events coalesced as long
+     * **/
+    public long getCoalescedEvents() {
+        return coalescedEvents;
+    }
+
+    /**
+     * This method is used to get number of coalesced events dropped because the queue was full <br>
+     * Any params required
+     * @return number of events dropped as long
+     * **/
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    /**
+     * This method is used to get number of coalesced events discarded after the max number of failed attempts <br>
+     * Any params required
+     * @return number of events failed as long
+     * **/
+    public long getFailedEvents() {
+        return failedEvents;
+    }
+
+    /**
+     * This method is used to set max number of attempts to send an event
+     * @param maxAttempts: max number of attempts to send an event
+     * @throws IllegalArgumentException if {@code maxAttempts} value is less than 1
+     * **/
+    public void setMaxAttempts(int maxAttempts) {
+        if(maxAttempts < 1)
+            throw new IllegalArgumentException("Max attempts value must be at least 1");
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * This method is used to get max number of attempts to send an event <br>
+     * Any params required
+     * @return max number of attempts to send an event as int
+     * **/
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * This method is used to set the listener notified when an event is not delivered after the max number of attempts
+     * @param failureListener: listener to notify
+     * @throws IllegalArgumentException if {@code failureListener} is null
+     * **/
+    public void setFailureListener(FailureListener failureListener) {
+        if(failureListener == null)
+            throw new IllegalArgumentException("Failure listener cannot be null");
+        this.failureListener = failureListener;
+    }
+
+    /**
+     * This method is used to stop the sender thread <br>
+     * Any params required
+     * @implNote events not sent yet are discarded, and the {@link FailureListener} is notified of each event never
+     * coalesced discarded
+     * **/
+    public synchronized void shutdown() {
+        running = false;
+        events.clear();
+        for (QueuedEvent queuedEvent : durableEvents)
+            failureListener.onFailure(queuedEvent.key, 0, true);
+        durableEvents.clear();
+        notifyAll();
+    }
+
+    /**
+     * This method is used by the sender thread to send the events in the order they have been inserted <br>
+     * Any params required
+     * **/
+    private void sendEvents() {
+        try {
+            while (running) {
+                QueuedEvent queuedEvent = takeEvent();
+                if(queuedEvent != null)
+                    sendEvent(queuedEvent);
+            }
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    /**
+     * This method is used to wait and remove the oldest event inserted <br>
+     * Any params required
+     * @return oldest event as {@link QueuedEvent}, null if the queue has been shut down
+     * **/
+    private synchronized QueuedEvent takeEvent() throws InterruptedException {
+        while (running && events.isEmpty() && durableEvents.isEmpty())
+            wait();
+        if(!running)
+            return null;
+        QueuedEvent durableEvent = durableEvents.peek();
+        if(!events.isEmpty()) {
+            Iterator<QueuedEvent> oldest = events.values().iterator();
+            QueuedEvent queuedEvent = oldest.next();
+            if(durableEvent == null || queuedEvent.sequence < durableEvent.sequence) {
+                oldest.remove();
+                return queuedEvent;
+            }
+        }
+        return durableEvents.poll();
+    }
+
+    /**
+     * This method is used to send an event retrying with an exponential backoff when its sending fails
+     * @param queuedEvent: event to send
+     * @implNote if a newer event with the same key is inserted while waiting the backoff, the newer one is sent instead,
+     * while the events never coalesced are retried until they are delivered or the queue is shut down
+     * **/
+    private void sendEvent(QueuedEvent queuedEvent) throws InterruptedException {
+        String key = queuedEvent.key;
+        OutboundEvent event = queuedEvent.event;
+        boolean durable = queuedEvent.durable;
+        long backoff = INITIAL_BACKOFF;
+        for (int attempt = 1; running; attempt++) {
+            try {
+                if(event.send()) {
+                    sentEvents++;
+                    return;
+                }
+            } catch (Exception e) {
+                System.out.println(ANSI_RED + "Error during sending of " + key + " event" + ANSI_RESET);
+            }
+            if(attempt == maxAttempts) {
+                failureListener.onFailure(key, attempt, !durable);
+                if(!durable) {
+                    failedEvents++;
+                    return;
+                }
+            }
+            Thread.sleep(backoff);
+            backoff = min(backoff * 2, MAX_BACKOFF);
+            synchronized (this) {
+                if(!running) {
+                    if(durable)
+                        failureListener.onFailure(key, attempt, true);
+                    return;
+                }
+                if(!durable) {
+                    QueuedEvent newerEvent = events.remove(key);
+                    if(newerEvent != null) {
+                        coalescedEvents++;
+                        event = newerEvent.event;
+                        attempt = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The {@code QueuedEvent} class defines an event waiting to be sent
+     * **/
+    private static final class QueuedEvent {
+
+        /**
+         * {@code sequence} is instance that memorizes position of the event in the order of insertion
+         * **/
+        private final long sequence;
+
+        /**
+         * {@code key} is instance that memorizes key of the event
+         * **/
+        private final String key;
+
+        /**
+         * {@code event} is instance that memorizes event to send
+         * **/
+        private final OutboundEvent event;
+
+        /**
+         * {@code durable} flag that indicates if the event is never coalesced nor dropped
+         * **/
+        private final boolean durable;
+
+        /**
+         * Constructor to init {@link QueuedEvent}
+         * @param sequence: position of the event in the order of insertion
+         * @param key: key of the event
+         * @param event: event to send
+         * @param durable: flag that indicates if the event is never coalesced nor dropped
+         * **/
+        private QueuedEvent(long sequence, String key, OutboundEvent event, boolean durable) {
+            this.sequence = sequence;
+            this.key = key;
+            this.event = event;
+            this.durable = durable;
+        }
+
+    }
+
+    /**
+     * The {@code DropPolicy} enum defines the policy used when the coalesced events of an {@link OutboundQueue}
+     * reach its capacity
+     * **/
+    public enum DropPolicy {
+
+        /**
+         * {@code DROP_OLDEST} drops the oldest event waiting to be sent to insert the new one
+         * **/
+        DROP_OLDEST,
+
+        /**
+         * {@code DROP_NEWEST} drops the new event inserted
+         * **/
+        DROP_NEWEST
+
+    }
+
+    /**
+     * The {@code OutboundEvent} interface defines an event to send with the {@link OutboundQueue}
+     * **/
+    @FunctionalInterface
+    public interface OutboundEvent {
+
+        /**
+         * This method is used to send the event <br>
+         * Any params required
+         * @return true if the event has been delivered to the server, false if it must be retried
+         * **/
+        boolean send() throws Exception;
+
+    }
+
+    /**
+     * The {@code FailureListener} interface defines the listener notified when an event of an {@link OutboundQueue}
+     * is not delivered
+     * **/
+    @FunctionalInterface
+    public interface FailureListener {
+
+        /**
+         * This method is used to notify an event not delivered
+         * @param key: key of the event, es. {@code INSERT_WALLET_BALANCE_OPE} or "#" followed by its number if the
+         * event is never coalesced
+         * @param attempts: number of attempts made to send the event
+         * @param discarded: true if the event has been discarded, false if it will be retried
+         * **/
+        void onFailure(String key, int attempts, boolean discarded);
+
+    }
+
+}
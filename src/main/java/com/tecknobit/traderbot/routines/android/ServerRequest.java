@@ -5,21 +5,26 @@ import com.tecknobit.traderbot.routines.android.AndroidWorkflow.Credentials;
 import org.json.JSONObject;
 
 import javax.crypto.BadPaddingException;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.io.*;
 import java.net.ConnectException;
 import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.tecknobit.apimanager.apis.encryption.aes.ClientCipher.Algorithm.CBC_ALGORITHM;
 import static com.tecknobit.traderbot.routines.interfaces.TraderBotConstants.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * The {@code ServerRequest} class is useful to make server request for Android's bots<br>
  * Is useful for Android's type bots.
  *
  * @author Tecknobit N7ghtm4r3
+ * @implNote by default each request is sent on a new socket as a single line, with {@link #setKeepAlive(boolean)}
+ * requests are sent as length-prefixed frames tagged with a request id on one persistent connection, so more requests
+ * can be pipelined before reading their responses
  **/
 public class ServerRequest {
 
@@ -33,11 +38,27 @@ public class ServerRequest {
      **/
     public static final int PORT = 7898;
 
+    /**
+     * {@code MAX_FRAME_LENGTH} is the max length in bytes of a frame read in keep-alive mode
+     **/
+    public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * {@code NO_REQUEST_ID} is the request id returned when a request is not sent in keep-alive mode
+     **/
+    public static final int NO_REQUEST_ID = -1;
+
     /**
      * {@code response} object for requests response
      **/
     public static JSONObject response;
 
+    /**
+     * {@code publicKeys} is a map that contains host and port (es. 127.0.0.1:7898) as key {@link String} and the keys
+     * fetched for the public requests of that server as value
+     **/
+    private static final ConcurrentHashMap<String, JSONObject> publicKeys = new ConcurrentHashMap<>();
+
     /**
      * {@code clientCipher} object to cipher requests
      **/
@@ -78,6 +99,67 @@ public class ServerRequest {
      **/
     protected String token;
 
+    /**
+     * {@code keepAlive} flag to send requests on a persistent connection
+     **/
+    protected volatile boolean keepAlive;
+
+    /**
+     * {@code requestPermit} is instance that memorizes permit to send a request when {@link #keepAlive} is disabled,
+     * it is released when the response of the request is read
+     **/
+    private final Semaphore requestPermit = new Semaphore(1);
+
+    /**
+     * {@code socketOwner} is instance that memorizes thread that holds the {@link #requestPermit} and whose request
+     * has been sent on the {@link #socket}, null if no request is waiting for its response
+     **/
+    private volatile Thread socketOwner;
+
+    /**
+     * {@code requestsCounter} is instance that memorizes counter used to assign the request ids
+     **/
+    private final AtomicInteger requestsCounter = new AtomicInteger();
+
+    /**
+     * {@code pendingRequests} is instance that memorizes, for each thread, ids of the requests sent by that thread whose
+     * response has not been read yet
+     **/
+    private final ThreadLocal<ArrayDeque<Integer>> pendingRequests = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * {@code firstConnectionRequestId} is instance that memorizes id of the first request sent on the current persistent
+     * connection, responses of the requests sent before cannot be read anymore
+     **/
+    private volatile int firstConnectionRequestId;
+
+    /**
+     * {@code bufferedResponses} is a map that contains request id as key {@link Integer} and its response as value,
+     * it holds the responses read while waiting the response of another request
+     **/
+    private final ConcurrentHashMap<Integer, String> bufferedResponses = new ConcurrentHashMap<>();
+
+    /**
+     * {@code readLock} is instance that memorizes lock used to read the frames from the persistent connection
+     **/
+    private final Object readLock = new Object();
+
+    /**
+     * {@code frameInput} is instance that memorizes stream to read frames from the persistent connection
+     **/
+    private DataInputStream frameInput;
+
+    /**
+     * {@code frameOutput} is instance that memorizes stream to write frames on the persistent connection
+     **/
+    private DataOutputStream frameOutput;
+
+    /**
+     * {@code publicKeysEntry} is instance that memorizes key of {@link #publicKeys} from which keys of this request have
+     * been fetched, null if keys have not been fetched from that cache
+     **/
+    private String publicKeysEntry;
+
     /**
      * Constructor to init {@link ServerRequest}
      *
@@ -147,18 +229,24 @@ public class ServerRequest {
      * @param operation: operation for the server
      * **/
     public void sendRequest(JSONObject message, String operation) throws Exception {
-        try {
-            createSocket();
-            message.put("ope", operation);
-            String messageToSent = message.toString();
-            if (ciphered) {
-                assert clientCipher != null;
-                messageToSent = clientCipher.encrypt(messageToSent);
-            }
-            printWriter.println(messageToSent);
-            printWriter.flush();
-        }catch (NullPointerException ignored){
+        pipelineRequest(message, operation);
+    }
+
+    /**
+     * This method is used to send request without tokens and to get its id
+     * @param message: message for the request
+     * @param operation: operation for the server
+     * @return id of the request to read its response with {@link #readResponse(int)} as int, {@link #NO_REQUEST_ID}
+     * if {@link #keepAlive} is disabled
+     * **/
+    public int pipelineRequest(JSONObject message, String operation) throws Exception {
+        message.put("ope", operation);
+        String messageToSent = message.toString();
+        if (ciphered) {
+            assert clientCipher != null;
+            messageToSent = clientCipher.encrypt(messageToSent);
         }
+        return writeRequest(messageToSent);
     }
 
     /**
@@ -167,16 +255,21 @@ public class ServerRequest {
      * @param operation: operation for the server
      * **/
     public void sendTokenRequest(JSONObject message, String operation) throws Exception {
-        try {
-            createSocket();
-            message.put("ope", operation);
-            message.put(AUTH_TOKEN_KEY, authToken);
-            assert clientCipher != null;
-            String messageToSent = clientCipher.encrypt(message.toString()) + "#" + token;
-            printWriter.println(messageToSent);
-            printWriter.flush();
-        } catch (NullPointerException ignored) {
-        }
+        pipelineTokenRequest(message, operation);
+    }
+
+    /**
+     * This method is used to send request with tokens and to get its id
+     * @param message: message for the request
+     * @param operation: operation for the server
+     * @return id of the request to read its response with {@link #readResponse(int)} as int, {@link #NO_REQUEST_ID}
+     * if {@link #keepAlive} is disabled
+     * **/
+    public int pipelineTokenRequest(JSONObject message, String operation) throws Exception {
+        message.put("ope", operation);
+        message.put(AUTH_TOKEN_KEY, authToken);
+        assert clientCipher != null;
+        return writeRequest(clientCipher.encrypt(message.toString()) + "#" + token);
     }
 
     /**
@@ -196,52 +289,263 @@ public class ServerRequest {
      * @param host: host value
      * @param port: port value
      * @return new request object as {@link ServerRequest}
+     * @implNote keys are fetched once for each server and then reused, they are fetched again when a response
+     * cannot be deciphered with them
      **/
     public static ServerRequest getPublicRequest(String host, int port) {
         try {
-            ServerRequest serverRequest = new ServerRequest(host, port);
-            serverRequest.sendRequest(new JSONObject(), GET_KEYS_OPE);
-            response = serverRequest.readResponse();
-            return new ServerRequest(response.getString(IV_SPEC_KEY), response.getString(SECRET_KEY), host, port);
+            String publicKeysEntry = host + ":" + port;
+            JSONObject keys = publicKeys.get(publicKeysEntry);
+            if (keys == null) {
+                ServerRequest serverRequest = new ServerRequest(host, port);
+                serverRequest.sendRequest(new JSONObject(), GET_KEYS_OPE);
+                response = serverRequest.readResponse();
+                keys = new JSONObject().put(IV_SPEC_KEY, response.getString(IV_SPEC_KEY))
+                        .put(SECRET_KEY, response.getString(SECRET_KEY));
+                publicKeys.put(publicKeysEntry, keys);
+            }
+            ServerRequest publicRequest = new ServerRequest(keys.getString(IV_SPEC_KEY), keys.getString(SECRET_KEY),
+                    host, port);
+            publicRequest.publicKeysEntry = publicKeysEntry;
+            return publicRequest;
         } catch (Exception e) {
             throw new IllegalStateException(SERVICE_UNAVAILABLE);
         }
     }
 
+    /**
+     * This method is used to remove the cached public keys of a server, so they will be fetched again by the next
+     * {@link #getPublicRequest(String, int)}
+     *
+     * @param host: host value
+     * @param port: port value
+     **/
+    public static void invalidatePublicKeys(String host, int port) {
+        publicKeys.remove(host + ":" + port);
+    }
+
     /**
      * This method is used to read request <br>
      * Any params required
      *
      * @return response of the server as {@link JSONObject}
+     * @implNote if {@link #keepAlive} is enabled the response of the oldest request sent by the current thread and not
+     * read yet is returned, else null is returned when the last request of the current thread has not been sent, so
+     * the response of a request sent by another thread is never read
      **/
     public JSONObject readResponse() {
+        if (keepAlive) {
+            Integer requestId = pendingRequests.get().pollFirst();
+            if (requestId == null)
+                return null;
+            return readResponse(requestId);
+        }
+        if (socketOwner != Thread.currentThread())
+            return null;
+        Socket requestSocket = socket;
         try {
-            String response = new BufferedReader(new InputStreamReader(socket.getInputStream())).readLine();
-            if (ciphered) {
-                assert clientCipher != null;
-                try{
-                    response = clientCipher.decrypt(response);
-                }catch (BadPaddingException e){
-                    response = "{\"status_code\": -1}";
+            return decodeResponse(new BufferedReader(new InputStreamReader(requestSocket.getInputStream())).readLine());
+        } catch (Exception e) {
+            return null;
+        } finally {
+            socket = null;
+            socketOwner = null;
+            closeSocket(requestSocket);
+            requestPermit.release();
+        }
+    }
+
+    /**
+     * This method is used to read the response of a request sent in keep-alive mode
+     *
+     * @param requestId: id of the request returned by {@link #pipelineRequest(JSONObject, String)} or
+     *                   {@link #pipelineTokenRequest(JSONObject, String)}
+     * @return response of the server as {@link JSONObject}
+     * @implNote responses of other requests read meanwhile are held until they are requested
+     **/
+    public JSONObject readResponse(int requestId) {
+        pendingRequests.get().remove(requestId);
+        synchronized (readLock) {
+            if (requestId < firstConnectionRequestId)
+                return null;
+            try {
+                String response = bufferedResponses.remove(requestId);
+                while (response == null) {
+                    int responseId = frameInput.readInt();
+                    int length = frameInput.readInt();
+                    if (length < 0 || length > MAX_FRAME_LENGTH)
+                        throw new IOException("Invalid frame length: " + length);
+                    byte[] payload = new byte[length];
+                    frameInput.readFully(payload);
+                    String frame = new String(payload, UTF_8);
+                    if (responseId == requestId)
+                        response = frame;
+                    else
+                        bufferedResponses.put(responseId, frame);
                 }
+                return decodeResponse(response);
+            } catch (Exception e) {
+                closeConnection();
+                return null;
+            }
+        }
+    }
+
+    /**
+     * This method is used to set keep-alive mode for the requests
+     *
+     * @param keepAlive: flag to send the requests as frames on a persistent connection
+     * @implNote the server must support the framed requests, changing the mode closes the persistent connection
+     **/
+    public synchronized void setKeepAlive(boolean keepAlive) {
+        if (this.keepAlive != keepAlive) {
+            closeConnection();
+            this.keepAlive = keepAlive;
+        }
+    }
+
+    /**
+     * This method is used to get keep-alive mode for the requests <br>
+     * Any params required
+     *
+     * @return true if the requests are sent on a persistent connection, false if not
+     **/
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * This method is used to close the persistent connection used in keep-alive mode <br>
+     * Any params required
+     * @implNote responses not read yet are discarded
+     **/
+    public void close() {
+        if (keepAlive)
+            closeConnection();
+    }
+
+    /**
+     * This method is used to write a request on the {@link #socket}
+     *
+     * @param request: request to write
+     * @return id of the request as int, {@link #NO_REQUEST_ID} if {@link #keepAlive} is disabled
+     **/
+    private int writeRequest(String request) throws IOException {
+        if (keepAlive)
+            return writeFrame(request.getBytes(UTF_8));
+        try {
+            createSocket();
+            printWriter.println(request);
+            printWriter.flush();
+        } catch (NullPointerException ignored) {
+        }
+        return NO_REQUEST_ID;
+    }
+
+    /**
+     * This method is used to write a request as frame on the persistent connection
+     *
+     * @param payload: payload of the request
+     * @return id of the request as int
+     **/
+    private synchronized int writeFrame(byte[] payload) throws IOException {
+        int requestId = requestsCounter.incrementAndGet();
+        if (socket == null || socket.isClosed())
+            openConnection(requestId);
+        try {
+            frameOutput.writeInt(requestId);
+            frameOutput.writeInt(payload.length);
+            frameOutput.write(payload);
+            frameOutput.flush();
+        } catch (IOException e) {
+            closeConnection();
+            throw e;
+        }
+        pendingRequests.get().addLast(requestId);
+        return requestId;
+    }
+
+    /**
+     * This method is used to decode a response of the server
+     *
+     * @param response: response to decode
+     * @return response of the server as {@link JSONObject}
+     **/
+    private JSONObject decodeResponse(String response) throws Exception {
+        if (ciphered) {
+            assert clientCipher != null;
+            try {
+                response = clientCipher.decrypt(response);
+            } catch (BadPaddingException e) {
+                if (publicKeysEntry != null)
+                    publicKeys.remove(publicKeysEntry);
+                response = "{\"status_code\": -1}";
             }
-            socket = null;
-            return new JSONObject(response);
-        }catch (Exception e){
-            return null;
+        }
+        return new JSONObject(response);
+    }
+
+    /**
+     * This method is used to open the persistent connection used in keep-alive mode
+     *
+     * @param firstRequestId: id of the first request that will be sent on the connection
+     **/
+    private void openConnection(int firstRequestId) throws IOException {
+        firstConnectionRequestId = firstRequestId;
+        bufferedResponses.clear();
+        Socket connection = new Socket(host, port);
+        connection.setKeepAlive(true);
+        connection.setTcpNoDelay(true);
+        frameOutput = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+        frameInput = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+        socket = connection;
+    }
+
+    /**
+     * This method is used to close the persistent connection used in keep-alive mode <br>
+     * Any params required
+     **/
+    private void closeConnection() {
+        Socket connection = socket;
+        socket = null;
+        firstConnectionRequestId = requestsCounter.get() + 1;
+        bufferedResponses.clear();
+        if (connection != null)
+            closeSocket(connection);
+    }
+
+    /**
+     * This method is used to close a socket
+     *
+     * @param socket: socket to close
+     **/
+    private void closeSocket(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
         }
     }
 
     /**
      * This method is used to create or recreate {@link #socket} for requests <br>
      * Any params required
+     * @implNote waits until the response of the previous request has been read, if the socket cannot be created
+     * the permit is released and the current thread does not own the socket
      * **/
     private void createSocket() throws IOException {
+        requestPermit.acquireUninterruptibly();
         try {
-            while (socket != null);
             socket = new Socket(host, port);
             printWriter = new PrintWriter(socket.getOutputStream(), true);
-        }catch (ConnectException ignored) {
+            socketOwner = Thread.currentThread();
+        } catch (IOException e) {
+            if (socket != null)
+                closeSocket(socket);
+            socket = null;
+            printWriter = null;
+            requestPermit.release();
+            if (!(e instanceof ConnectException))
+                throw e;
         }
     }
 
@@ -0,0 +1,306 @@
+package com.tecknobit.traderbot.routines.autonomous;
+
+import com.tecknobit.traderbot.routines.autonomous.ForecastEvaluator.Forecast;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.tecknobit.traderbot.routines.autonomous.AutoTraderCoreRoutines.ASSET_NOT_TRADABLE;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * The {@code ForecastCache} class is useful to store the forecasts computed by an auto trader until the candle used
+ * to compute them is closed<br>
+ * The inputs of a forecast made on daily, three-days or monthly candles change only when a candle closes, so the
+ * forecast is requested again only after that, also when the forecast marked the symbol as {@link AutoTraderCoreRoutines#ASSET_NOT_TRADABLE}.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the forecasts can be persisted in a file to be restored after a restart of the trader
+ **/
+public class ForecastCache {
+
+    /**
+     * {@code ONE_DAY} is the duration in millis of a daily candle
+     **/
+    public static final long ONE_DAY = 24 * 3600 * 1000L;
+
+    /**
+     * {@code THREE_DAYS} is the duration in millis of a three-days candle
+     **/
+    public static final long THREE_DAYS = 3 * ONE_DAY;
+
+    /**
+     * {@code KEY_SEPARATOR} is the separator of the fields of the key of a forecast
+     **/
+    private static final String KEY_SEPARATOR = "|";
+
+    /**
+     * {@code FORECAST_KEY} is the key of the key of a forecast in the persistence file
+     **/
+    private static final String FORECAST_KEY = "k";
+
+    /**
+     * {@code VALUE_KEY} is the key of the value of a forecast in the persistence file
+     **/
+    private static final String VALUE_KEY = "v";
+
+    /**
+     * {@code EXPIRATION_KEY} is the key of the expiration of a forecast in the persistence file
+     **/
+    private static final String EXPIRATION_KEY = "e";
+
+    /**
+     * {@code forecasts} is a map that contains key of the forecast as key {@link String} and forecast cached as value
+     **/
+    private final ConcurrentHashMap<String, CachedForecast> forecasts;
+
+    /**
+     * {@code hits} is instance that memorizes number of forecasts served from the cache
+     **/
+    private final AtomicLong hits;
+
+    /**
+     * {@code negativeHits} is instance that memorizes number of {@link AutoTraderCoreRoutines#ASSET_NOT_TRADABLE}
+     * forecasts served from the cache
+     **/
+    private final AtomicLong negativeHits;
+
+    /**
+     * {@code misses} is instance that memorizes number of forecasts computed because not cached or expired
+     **/
+    private final AtomicLong misses;
+
+    /**
+     * {@code persistenceFile} is instance that memorizes file where the forecasts are persisted, null if are not persisted
+     **/
+    private volatile Path persistenceFile;
+
+    /**
+     * {@code changed} is instance that memorizes flag that indicates if the forecasts changed from the last persistence
+     **/
+    private volatile boolean changed;
+
+    /**
+     * Constructor to init {@link ForecastCache} <br>
+     * Any params required
+     **/
+    public ForecastCache() {
+        forecasts = new ConcurrentHashMap<>();
+        hits = new AtomicLong();
+        negativeHits = new AtomicLong();
+        misses = new AtomicLong();
+    }
+
+    /**
+     * This method is used to get a forecast from the cache or to compute it if is not cached or expired
+     *
+     * @param symbol:      symbol of the forecast es. BTCBUSD or BTC-USD
+     * @param interval:    interval of the candles of the forecast es. 1d
+     * @param daysGap:     days gap of the forecast
+     * @param wasteRange:  waste range of the forecast
+     * @param modelId:     identifier of the trading model used
+     * @param candleClose: time in millis when the current candle closes and the forecast expires
+     * @param forecast:    forecast to compute if is not cached
+     * @return forecast of the symbol as double
+     * @implNote forecasts that failed are not cached
+     **/
+    public double getForecast(String symbol, String interval, int daysGap, double wasteRange, long modelId,
+                              long candleClose, Forecast<String> forecast) throws Exception {
+        String key = symbol + KEY_SEPARATOR + interval + KEY_SEPARATOR + daysGap + KEY_SEPARATOR + wasteRange
+                + KEY_SEPARATOR + modelId;
+        CachedForecast cachedForecast = forecasts.get(key);
+        if (cachedForecast != null && cachedForecast.expiration > currentTimeMillis()) {
+            hits.incrementAndGet();
+            if (cachedForecast.value == ASSET_NOT_TRADABLE)
+                negativeHits.incrementAndGet();
+            return cachedForecast.value;
+        }
+        misses.incrementAndGet();
+        double value = forecast.compute(symbol);
+        forecasts.put(key, new CachedForecast(value, candleClose));
+        changed = true;
+        return value;
+    }
+
+    /**
+     * This method is used to get the time when a candle with fixed duration closes
+     *
+     * @param time:           time to get the candle that contains it
+     * @param candleDuration: duration in millis of the candle es. {@link #ONE_DAY}
+     * @return time in millis when the candle closes as long
+     * @implNote candles are aligned to the epoch in UTC as the exchanges do
+     **/
+    public static long getCandleClose(long time, long candleDuration) {
+        return (time / candleDuration + 1) * candleDuration;
+    }
+
+    /**
+     * This method is used to get the time when a monthly candle closes
+     *
+     * @param time: time to get the candle that contains it
+     * @return time in millis when the monthly candle closes as long
+     **/
+    public static long getMonthlyCandleClose(long time) {
+        LocalDate date = Instant.ofEpochMilli(time).atZone(ZoneOffset.UTC).toLocalDate();
+        return date.withDayOfMonth(1).plusMonths(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    /**
+     * This method is used to set the file where persist the forecasts and to load the forecasts not expired yet from it
+     *
+     * @param persistenceFile: file where persist the forecasts, null to not persist them
+     **/
+    public void setPersistenceFile(Path persistenceFile) throws IOException {
+        this.persistenceFile = persistenceFile;
+        if (persistenceFile != null && Files.exists(persistenceFile)) {
+            long now = currentTimeMillis();
+            try (BufferedReader reader = Files.newBufferedReader(persistenceFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank())
+                        continue;
+                    JSONObject forecast = new JSONObject(line);
+                    long expiration = forecast.getLong(EXPIRATION_KEY);
+                    if (expiration > now) {
+                        forecasts.putIfAbsent(forecast.getString(FORECAST_KEY),
+                                new CachedForecast(forecast.getDouble(VALUE_KEY), expiration));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * This method is used to persist the forecasts not expired yet, if the forecasts changed from the last persistence
+     * and a {@link #persistenceFile} is set <br>
+     * Any params required
+     **/
+    public synchronized void persist() throws IOException {
+        Path file = persistenceFile;
+        if (file == null || !changed)
+            return;
+        changed = false;
+        purgeExpired();
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, CachedForecast> forecast : forecasts.entrySet()) {
+                writer.write(new JSONObject()
+                        .put(FORECAST_KEY, forecast.getKey())
+                        .put(VALUE_KEY, forecast.getValue().value)
+                        .put(EXPIRATION_KEY, forecast.getValue().expiration)
+                        .toString());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            changed = true;
+            throw e;
+        }
+        Files.move(tempFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    /**
+     * This method is used to remove from the cache the forecasts expired <br>
+     * Any params required
+     **/
+    public void purgeExpired() {
+        long now = currentTimeMillis();
+        forecasts.values().removeIf(forecast -> forecast.expiration <= now);
+    }
+
+    /**
+     * This method is used to get number of forecasts served from the cache <br>
+     * Any params required
+     *
+     * @return number of forecasts served from the cache as long
+     **/
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * This method is used to get number of {@link AutoTraderCoreRoutines#ASSET_NOT_TRADABLE} forecasts served from
+     * the cache <br>
+     * Any params required
+     *
+     * @return number of not tradable forecasts served from the cache as long
+     **/
+    public long getNegativeHits() {
+        return negativeHits.get();
+    }
+
+    /**
+     * This method is used to get number of forecasts computed because not cached or expired <br>
+     * Any params required
+     *
+     * @return number of forecasts computed as long
+     **/
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * This method is used to get the rate of the forecasts served from the cache <br>
+     * Any params required
+     *
+     * @return rate of the forecasts served from the cache as double between 0 and 1, 0 if any forecast is requested
+     **/
+    public double getHitRate() {
+        long hits = this.hits.get();
+        long requests = hits + misses.get();
+        if (requests == 0)
+            return 0;
+        return (double) hits / requests;
+    }
+
+    /**
+     * This method is used to get number of forecasts cached <br>
+     * Any params required
+     *
+     * @return number of forecasts cached as int
+     **/
+    public int size() {
+        return forecasts.size();
+    }
+
+    /**
+     * The {@code CachedForecast} class defines a forecast cached with its expiration
+     **/
+    private static final class CachedForecast {
+
+        /**
+         * {@code value} is instance that memorizes value of the forecast
+         **/
+        private final double value;
+
+        /**
+         * {@code expiration} is instance that memorizes time in millis when the forecast expires
+         **/
+        private final long expiration;
+
+        /**
+         * Constructor to init {@link CachedForecast}
+         *
+         * @param value:      value of the forecast
+         * @param expiration: time in millis when the forecast expires
+         **/
+        private CachedForecast(double value, long expiration) {
+            this.value = value;
+            this.expiration = expiration;
+        }
+
+    }
+
+}
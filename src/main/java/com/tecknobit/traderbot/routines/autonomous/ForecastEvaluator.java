@@ -0,0 +1,123 @@
+package com.tecknobit.traderbot.routines.autonomous;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * The {@code ForecastEvaluator} class is useful to evaluate in parallel the forecasts of the symbols checked by an
+ * auto trader<br>
+ * The number of forecasts in flight at the same time is bounded to respect the request weight limits of the exchange.
+ *
+ * @author Tecknobit N7ghtm4r3
+ **/
+public class ForecastEvaluator {
+
+    /**
+     * {@code DEFAULT_MAX_IN_FLIGHT} is the default max number of forecasts in flight at the same time
+     * **/
+    public static final int DEFAULT_MAX_IN_FLIGHT = 8;
+
+    /**
+     * {@code forecastsExecutor} is instance that memorizes executor used to evaluate the forecasts
+     * **/
+    private final ThreadPoolExecutor forecastsExecutor;
+
+    /**
+     * Constructor to init {@link ForecastEvaluator}
+     * @param maxInFlight: max number of forecasts in flight at the same time
+     * @throws IllegalArgumentException if {@code maxInFlight} value is less than 1
+     * **/
+    public ForecastEvaluator(int maxInFlight) {
+        checkMaxInFlight(maxInFlight);
+        AtomicInteger threadsCounter = new AtomicInteger();
+        forecastsExecutor = new ThreadPoolExecutor(maxInFlight, maxInFlight, 60, SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "forecast-evaluator-" + threadsCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        forecastsExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * This method is used to evaluate the forecasts of a list of candidates
+     * @param candidates: candidates to evaluate es. list of symbols
+     * @param forecast: forecast to compute for each candidate
+     * @return map that contains the candidate as key and its forecast as value
+     * @implNote candidates whose forecast failed are not inserted in the map
+     * **/
+    public <T> HashMap<T, Double> evaluate(Collection<T> candidates, Forecast<T> forecast) throws InterruptedException {
+        ArrayList<T> submittedCandidates = new ArrayList<>(candidates);
+        ArrayList<Future<Double>> forecasts = new ArrayList<>(submittedCandidates.size());
+        for (T candidate : submittedCandidates)
+            forecasts.add(forecastsExecutor.submit(() -> forecast.compute(candidate)));
+        HashMap<T, Double> results = new HashMap<>();
+        for (int j = 0; j < forecasts.size(); j++) {
+            try {
+                results.put(submittedCandidates.get(j), forecasts.get(j).get());
+            } catch (ExecutionException ignored) {
+            }
+        }
+        return results;
+    }
+
+    /**
+     * This method is used to set max number of forecasts in flight at the same time
+     * @param maxInFlight: max number of forecasts in flight at the same time
+     * @throws IllegalArgumentException if {@code maxInFlight} value is less than 1
+     * **/
+    public void setMaxInFlight(int maxInFlight) {
+        checkMaxInFlight(maxInFlight);
+        if(maxInFlight > forecastsExecutor.getMaximumPoolSize()) {
+            forecastsExecutor.setMaximumPoolSize(maxInFlight);
+            forecastsExecutor.setCorePoolSize(maxInFlight);
+        } else {
+            forecastsExecutor.setCorePoolSize(maxInFlight);
+            forecastsExecutor.setMaximumPoolSize(maxInFlight);
+        }
+    }
+
+    /**
+     * This method is used to get max number of forecasts in flight at the same time <br>
+     * Any params required
+     * @return max number of forecasts in flight at the same time as int
+     * **/
+    public int getMaxInFlight() {
+        return forecastsExecutor.getMaximumPoolSize();
+    }
+
+    /**
+     * This method is used to check validity of max number of forecasts in flight
+     * @param maxInFlight: max number of forecasts in flight to check
+     * @throws IllegalArgumentException if {@code maxInFlight} value is less than 1
+     * **/
+    private void checkMaxInFlight(int maxInFlight) {
+        if(maxInFlight < 1)
+            throw new IllegalArgumentException("Max forecasts in flight value must be at least 1");
+    }
+
+    /**
+     * The {@code Forecast} interface defines the forecast to compute for each candidate evaluated by the
+     * {@link ForecastEvaluator}
+     * **/
+    @FunctionalInterface
+    public interface Forecast<T> {
+
+        /**
+         * This method is used to compute the forecast of a candidate
+         * @param candidate: candidate to evaluate
+         * @return forecast of the candidate as double
+         * **/
+        double compute(T candidate) throws Exception;
+
+    }
+
+}
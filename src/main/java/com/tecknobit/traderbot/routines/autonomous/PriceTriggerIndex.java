@@ -0,0 +1,218 @@
+package com.tecknobit.traderbot.routines.autonomous;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code PriceTriggerIndex} class is useful to index the trigger prices of the positions of the wallet of an auto
+ * trader<br>
+ * Thresholds of each position are converted in absolute prices and inserted in sorted books for each symbol, so at
+ * each price update only the triggers crossed by the new price are checked, instead of evaluating again all the positions.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the cost of a check is logarithmic in the number of triggers of the symbol, and the triggers fired
+ * are removed from the index, so they must be inserted again if the position is not sold
+ **/
+public class PriceTriggerIndex {
+
+    /**
+     * {@code NO_TRIGGER} is the value to insert when a position has not a trigger on a side
+     **/
+    public static final double NO_TRIGGER = 0;
+
+    /**
+     * {@code triggerBooks} is a map that contains symbol (es. BTCBUSD) as key {@link String} and its triggers as value
+     **/
+    private final ConcurrentHashMap<String, TriggerBook> triggerBooks;
+
+    /**
+     * Constructor to init {@link PriceTriggerIndex} <br>
+     * Any params required
+     **/
+    public PriceTriggerIndex() {
+        triggerBooks = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * This method is used to insert or replace the triggers of a position
+     *
+     * @param symbol:     symbol of the position es. BTCBUSD
+     * @param key:        key of the position es. BTC
+     * @param lowerPrice: price that fires the position when the price falls to it, {@link #NO_TRIGGER} to not insert it
+     * @param upperPrice: price that fires the position when the price rises to it, {@link #NO_TRIGGER} to not insert it
+     **/
+    public void setTriggers(String symbol, String key, double lowerPrice, double upperPrice) {
+        TriggerBook triggerBook = triggerBooks.computeIfAbsent(symbol, book -> new TriggerBook());
+        synchronized (triggerBook) {
+            triggerBook.remove(key);
+            triggerBook.insert(key, lowerPrice, upperPrice);
+        }
+    }
+
+    /**
+     * This method is used to remove the triggers of a position
+     *
+     * @param symbol: symbol of the position es. BTCBUSD
+     * @param key:    key of the position es. BTC
+     **/
+    public void removeTriggers(String symbol, String key) {
+        TriggerBook triggerBook = triggerBooks.get(symbol);
+        if (triggerBook != null) {
+            synchronized (triggerBook) {
+                triggerBook.remove(key);
+            }
+        }
+    }
+
+    /**
+     * This method is used to check the triggers of a symbol with a new price
+     *
+     * @param symbol: symbol of the price es. BTCBUSD
+     * @param price:  new price of the symbol
+     * @return keys of the positions fired by the price as {@link List} of {@link String}, empty if any trigger is fired
+     * @implNote the positions fired are removed from the index
+     **/
+    public List<String> onPrice(String symbol, double price) {
+        TriggerBook triggerBook = triggerBooks.get(symbol);
+        if (triggerBook == null)
+            return Collections.emptyList();
+        synchronized (triggerBook) {
+            if (!triggerBook.isCrossed(price))
+                return Collections.emptyList();
+            ArrayList<String> firedKeys = new ArrayList<>();
+            for (Set<String> keys : triggerBook.upperTriggers.headMap(price, true).values())
+                firedKeys.addAll(keys);
+            for (Set<String> keys : triggerBook.lowerTriggers.tailMap(price, true).values())
+                for (String key : keys)
+                    if (!firedKeys.contains(key))
+                        firedKeys.add(key);
+            for (String key : firedKeys)
+                triggerBook.remove(key);
+            return firedKeys;
+        }
+    }
+
+    /**
+     * This method is used to get the symbols that have at least one trigger <br>
+     * Any params required
+     *
+     * @return symbols that have at least one trigger as {@link ArrayList} of {@link String}
+     **/
+    public ArrayList<String> getSymbols() {
+        ArrayList<String> symbols = new ArrayList<>();
+        triggerBooks.forEach((symbol, triggerBook) -> {
+            synchronized (triggerBook) {
+                if (!triggerBook.positions.isEmpty())
+                    symbols.add(symbol);
+            }
+        });
+        return symbols;
+    }
+
+    /**
+     * This method is used to get number of positions with triggers of a symbol
+     *
+     * @param symbol: symbol of the positions es. BTCBUSD
+     * @return number of positions with triggers as int
+     **/
+    public int size(String symbol) {
+        TriggerBook triggerBook = triggerBooks.get(symbol);
+        if (triggerBook == null)
+            return 0;
+        synchronized (triggerBook) {
+            return triggerBook.positions.size();
+        }
+    }
+
+    /**
+     * The {@code TriggerBook} class defines the triggers of a single symbol sorted by price
+     **/
+    private static final class TriggerBook {
+
+        /**
+         * {@code upperTriggers} is a map that contains price as key and positions fired when the price rises to it as value
+         **/
+        private final TreeMap<Double, Set<String>> upperTriggers;
+
+        /**
+         * {@code lowerTriggers} is a map that contains price as key and positions fired when the price falls to it as value
+         **/
+        private final TreeMap<Double, Set<String>> lowerTriggers;
+
+        /**
+         * {@code positions} is a map that contains key of the position as key and its lower and upper price as value
+         **/
+        private final HashMap<String, double[]> positions;
+
+        /**
+         * Constructor to init {@link TriggerBook} <br>
+         * Any params required
+         **/
+        private TriggerBook() {
+            upperTriggers = new TreeMap<>();
+            lowerTriggers = new TreeMap<>();
+            positions = new HashMap<>();
+        }
+
+        /**
+         * This method is used to insert the triggers of a position
+         *
+         * @param key:        key of the position
+         * @param lowerPrice: price that fires the position when the price falls to it
+         * @param upperPrice: price that fires the position when the price rises to it
+         **/
+        private void insert(String key, double lowerPrice, double upperPrice) {
+            if (lowerPrice > NO_TRIGGER)
+                lowerTriggers.computeIfAbsent(lowerPrice, price -> new HashSet<>()).add(key);
+            if (upperPrice > NO_TRIGGER)
+                upperTriggers.computeIfAbsent(upperPrice, price -> new HashSet<>()).add(key);
+            if (lowerPrice > NO_TRIGGER || upperPrice > NO_TRIGGER)
+                positions.put(key, new double[]{lowerPrice, upperPrice});
+        }
+
+        /**
+         * This method is used to remove the triggers of a position
+         *
+         * @param key: key of the position
+         **/
+        private void remove(String key) {
+            double[] prices = positions.remove(key);
+            if (prices != null) {
+                removeTrigger(lowerTriggers, prices[0], key);
+                removeTrigger(upperTriggers, prices[1], key);
+            }
+        }
+
+        /**
+         * This method is used to remove a trigger of a position from a side of the book
+         *
+         * @param triggers: side of the book
+         * @param price:    price of the trigger
+         * @param key:      key of the position
+         **/
+        private void removeTrigger(TreeMap<Double, Set<String>> triggers, double price, String key) {
+            Set<String> keys = triggers.get(price);
+            if (keys != null && keys.remove(key) && keys.isEmpty())
+                triggers.remove(price);
+        }
+
+        /**
+         * This method is used to check if a price crosses at least one trigger
+         *
+         * @param price: price to check
+         * @return true if the price crosses at least one trigger, false if not
+         **/
+        private boolean isCrossed(double price) {
+            return (!upperTriggers.isEmpty() && upperTriggers.firstKey() <= price)
+                    || (!lowerTriggers.isEmpty() && lowerTriggers.lastKey() >= price);
+        }
+
+    }
+
+}
@@ -0,0 +1,279 @@
+package com.tecknobit.traderbot.routines.autonomous;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.tecknobit.traderbot.routines.interfaces.RoutineMessages.ANSI_RED;
+import static com.tecknobit.traderbot.routines.interfaces.RoutineMessages.ANSI_RESET;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The {@code RoutineScheduler} class is useful to execute the routines of an auto trader at their fixed rates<br>
+ * Threads of the scheduler sleep between an execution and the next one, so an idle trader does not consume CPU.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote when the scheduler is paused the routines keep their rate, but they are not executed until the scheduler
+ * is resumed
+ **/
+public class RoutineScheduler {
+
+    /**
+     * {@code CHECKING_ROUTINE} is the name of the checking routine
+     * **/
+    public static final String CHECKING_ROUTINE = "checking";
+
+    /**
+     * {@code BUYING_ROUTINE} is the name of the buying routine
+     * **/
+    public static final String BUYING_ROUTINE = "buying";
+
+    /**
+     * {@code UPDATING_ROUTINE} is the name of the updating routine
+     * **/
+    public static final String UPDATING_ROUTINE = "updating";
+
+    /**
+     * {@code TRADING_CONFIG_FETCHING_ROUTINE} is the name of the trading config fetching routine
+     * **/
+    public static final String TRADING_CONFIG_FETCHING_ROUTINE = "trading_config_fetching";
+
+    /**
+     * {@code scheduledExecutor} is instance that memorizes executor used to schedule the routines
+     * **/
+    private final ScheduledExecutorService scheduledExecutor;
+
+    /**
+     * {@code routines} is a map that contains the name of the routine as key {@link String} and the routine scheduled
+     * as value of map.
+     * **/
+    private final ConcurrentHashMap<String, ScheduledRoutine> routines;
+
+    /**
+     * {@code paused} is instance that memorizes flag that indicates if the routines execution is paused
+     * **/
+    private volatile boolean paused;
+
+    /**
+     * Constructor to init {@link RoutineScheduler}
+     * @param poolSize: number of threads used to execute the routines
+     * @throws IllegalArgumentException if {@code poolSize} value is less than 1
+     * **/
+    public RoutineScheduler(int poolSize) {
+        if(poolSize < 1)
+            throw new IllegalArgumentException("Pool size value must be at least 1");
+        AtomicInteger threadsCounter = new AtomicInteger();
+        scheduledExecutor = Executors.newScheduledThreadPool(poolSize, runnable ->
+                new Thread(runnable, "routine-scheduler-" + threadsCounter.incrementAndGet()));
+        routines = new ConcurrentHashMap<>();
+        paused = false;
+    }
+
+    /**
+     * This method is used to schedule a routine at fixed rate
+     * @param name: name of the routine es. {@link #CHECKING_ROUTINE}
+     * @param initialDelay: delay in millis before the first execution of the routine
+     * @param period: time gap in millis between an execution and the next one
+     * @param routine: routine to execute
+     * @return true if the routine has been scheduled, false if a routine with the same {@code name} is already
+     * scheduled and it has been kept
+     * @implNote skipping the routines already scheduled makes the {@code start()} of the traders idempotent
+     * **/
+    public boolean scheduleRoutine(String name, long initialDelay, long period, Routine routine) {
+        ScheduledRoutine scheduledRoutine = new ScheduledRoutine(name, initialDelay, period, routine);
+        if(routines.putIfAbsent(name, scheduledRoutine) != null)
+            return false;
+        scheduledRoutine.scheduledFuture = scheduledExecutor.scheduleAtFixedRate(scheduledRoutine, initialDelay,
+                period, MILLISECONDS);
+        return true;
+    }
+
+    /**
+     * This method is used to check if a routine is scheduled
+     * @param name: name of the routine to check
+     * @return true if the routine is scheduled, false if not
+     * **/
+    public boolean isScheduled(String name) {
+        return routines.containsKey(name);
+    }
+
+    /**
+     * This method is used to cancel a scheduled routine
+     * @param name: name of the routine to cancel
+     * **/
+    public void cancelRoutine(String name) {
+        ScheduledRoutine scheduledRoutine = routines.remove(name);
+        if(scheduledRoutine != null && scheduledRoutine.scheduledFuture != null)
+            scheduledRoutine.scheduledFuture.cancel(false);
+    }
+
+    /**
+     * This method is used to pause the execution of the routines <br>
+     * Any params required
+     * **/
+    public void pause() {
+        paused = true;
+    }
+
+    /**
+     * This method is used to resume the execution of the routines <br>
+     * Any params required
+     * **/
+    public void resume() {
+        paused = false;
+    }
+
+    /**
+     * This method is used to get if the execution of the routines is paused <br>
+     * Any params required
+     * @return true if the execution of the routines is paused, false if not
+     * **/
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * This method is used to get the drift of the last execution of a routine
+     * @param name: name of the routine
+     * @return drift in millis between the expected start and the actual start of the last execution of the routine,
+     * -1 if the routine is not scheduled
+     * **/
+    public long getRoutineDrift(String name) {
+        ScheduledRoutine scheduledRoutine = routines.get(name);
+        if(scheduledRoutine == null)
+            return -1;
+        return scheduledRoutine.lastDrift;
+    }
+
+    /**
+     * This method is used to get the max drift of the executions of a routine
+     * @param name: name of the routine
+     * @return max drift in millis between the expected start and the actual start of the executions of the routine,
+     * -1 if the routine is not scheduled
+     * **/
+    public long getRoutineMaxDrift(String name) {
+        ScheduledRoutine scheduledRoutine = routines.get(name);
+        if(scheduledRoutine == null)
+            return -1;
+        return scheduledRoutine.maxDrift;
+    }
+
+    /**
+     * This method is used to get the drift of the last execution of all routines scheduled <br>
+     * Any params required
+     * @return map that contains the name of the routine as key and its last drift in millis as value
+     * **/
+    public HashMap<String, Long> getRoutinesDrift() {
+        HashMap<String, Long> routinesDrift = new HashMap<>();
+        for (ScheduledRoutine scheduledRoutine : routines.values())
+            routinesDrift.put(scheduledRoutine.name, scheduledRoutine.lastDrift);
+        return routinesDrift;
+    }
+
+    /**
+     * This method is used to stop all routines scheduled <br>
+     * Any params required
+     * @implNote after this method the scheduler cannot be used anymore
+     * **/
+    public void shutdown() {
+        routines.clear();
+        scheduledExecutor.shutdown();
+    }
+
+    /**
+     * The {@code Routine} interface defines the routine to execute with the {@link RoutineScheduler}
+     * **/
+    @FunctionalInterface
+    public interface Routine {
+
+        /**
+         * This method is used to execute the routine <br>
+         * Any params required
+         * **/
+        void execute() throws Exception;
+
+    }
+
+    /**
+     * The {@code ScheduledRoutine} class is useful to wrap a {@link Routine} and to track its drift
+     * **/
+    private final class ScheduledRoutine implements Runnable {
+
+        /**
+         * {@code name} is instance that memorizes name of the routine
+         * **/
+        private final String name;
+
+        /**
+         * {@code period} is instance that memorizes time gap in nanos between an execution and the next one
+         * **/
+        private final long period;
+
+        /**
+         * {@code routine} is instance that memorizes routine to execute
+         * **/
+        private final Routine routine;
+
+        /**
+         * {@code expectedStart} is instance that memorizes expected start in nanos of the next execution
+         * **/
+        private long expectedStart;
+
+        /**
+         * {@code lastDrift} is instance that memorizes drift in millis of the last execution
+         * **/
+        private volatile long lastDrift;
+
+        /**
+         * {@code maxDrift} is instance that memorizes max drift in millis of the executions
+         * **/
+        private volatile long maxDrift;
+
+        /**
+         * {@code scheduledFuture} is instance that memorizes future of the routine scheduled
+         * **/
+        private volatile ScheduledFuture<?> scheduledFuture;
+
+        /**
+         * Constructor to init {@link ScheduledRoutine}
+         * @param name: name of the routine
+         * @param initialDelay: delay in millis before the first execution of the routine
+         * @param period: time gap in millis between an execution and the next one
+         * @param routine: routine to execute
+         * **/
+        private ScheduledRoutine(String name, long initialDelay, long period, Routine routine) {
+            this.name = name;
+            this.period = MILLISECONDS.toNanos(period);
+            this.routine = routine;
+            expectedStart = nanoTime() + MILLISECONDS.toNanos(initialDelay);
+        }
+
+        /**
+         * This method is used to execute the routine and to track its drift <br>
+         * Any params required
+         * @implNote any exception is caught to keep the routine scheduled
+         * **/
+        @Override
+        public void run() {
+            long drift = NANOSECONDS.toMillis(nanoTime() - expectedStart);
+            expectedStart += period;
+            lastDrift = drift;
+            if(drift > maxDrift)
+                maxDrift = drift;
+            if(paused)
+                return;
+            try {
+                routine.execute();
+            } catch (Exception e) {
+                System.out.println(ANSI_RED + "Error during " + name + " routine" + ANSI_RESET);
+            }
+        }
+
+    }
+
+}
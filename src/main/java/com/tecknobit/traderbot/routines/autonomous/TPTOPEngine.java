@@ -0,0 +1,368 @@
+package com.tecknobit.traderbot.routines.autonomous;
+
+import com.tecknobit.traderbot.candles.CandleSeries;
+import com.tecknobit.traderbot.candles.CandleSeries.Column;
+import com.tecknobit.traderbot.candles.CandleStore;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.Math.abs;
+
+/**
+ * The {@code TPTOPEngine} class is useful to compute the tptop index of the symbols from the candles stored in a
+ * {@link CandleStore}, without requesting the forecast to the exchange<br>
+ * For each candle of the history the percent change of its close from the previous close is paired with the gain of
+ * the close after {@code daysGap} candles, and the tptop index is the average gain of the candles whose percent change
+ * is within the waste range from the current percent change of the symbol.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the pairs are kept sorted by percent change with the prefix sums of the gains, so each new candle is
+ * merged once when it is stored and each forecast costs two binary searches instead of a scan of the whole history
+ **/
+public class TPTOPEngine {
+
+    /**
+     * {@code ForecastMode} list of the modes to compute the forecasts of an auto trader
+     **/
+    public enum ForecastMode {
+
+        /**
+         * {@code REMOTE} forecasts are requested to the exchange
+         **/
+        REMOTE,
+
+        /**
+         * {@code LOCAL} forecasts are computed by the {@link TPTOPEngine} from the candles stored
+         **/
+        LOCAL,
+
+        /**
+         * {@code SHADOW} forecasts are requested to the exchange and also computed by the {@link TPTOPEngine} to
+         * compare them, the forecasts of the exchange are used
+         **/
+        SHADOW
+
+    }
+
+    /**
+     * {@code candleStore} is instance that memorizes store of the candles used to compute the forecasts
+     **/
+    private final CandleStore candleStore;
+
+    /**
+     * {@code indexes} is a map that contains symbol, interval and days gap as key {@link String} and the pairs
+     * of the history indexed as value
+     **/
+    private final ConcurrentHashMap<String, GainsIndex> indexes;
+
+    /**
+     * {@code comparisons} is instance that memorizes number of forecasts compared with the forecasts of the exchange
+     **/
+    private final AtomicLong comparisons;
+
+    /**
+     * {@code deviationsSum} is instance that memorizes sum of the absolute deviations from the forecasts of the exchange
+     **/
+    private double deviationsSum;
+
+    /**
+     * {@code maxDeviation} is instance that memorizes max absolute deviation from the forecasts of the exchange
+     **/
+    private double maxDeviation;
+
+    /**
+     * Constructor to init {@link TPTOPEngine}
+     *
+     * @param candleStore: store of the candles used to compute the forecasts
+     **/
+    public TPTOPEngine(CandleStore candleStore) {
+        this.candleStore = candleStore;
+        indexes = new ConcurrentHashMap<>();
+        comparisons = new AtomicLong();
+    }
+
+    /**
+     * This method is used to compute the tptop index of a symbol from the candles stored
+     *
+     * @param symbol:        symbol of the candles es. BTCBUSD or BTC-USD
+     * @param interval:      interval of the candles es. {@link CandleStore#DAILY_INTERVAL}
+     * @param daysGap:       number of candles between a candle and the candle of its gain
+     * @param percentChange: current percent change of the symbol
+     * @param wasteRange:    max distance from {@code percentChange} of the percent changes of the history to consider
+     * @return tptop index of the symbol as double, 0 if any candle of the history is within the waste range
+     * @implNote the candles stored after the last computation are indexed before computing the forecast
+     **/
+    public double computeTPTOPIndex(String symbol, String interval, int daysGap, double percentChange,
+                                    double wasteRange) throws IOException {
+        if (daysGap <= 0)
+            throw new IllegalArgumentException("Days gap must be positive");
+        CandleSeries candleSeries = candleStore.getSeries(symbol, interval);
+        GainsIndex gainsIndex = indexes.computeIfAbsent(symbol + "|" + interval + "|" + daysGap,
+                key -> new GainsIndex(daysGap));
+        synchronized (gainsIndex) {
+            gainsIndex.update(candleSeries);
+            return gainsIndex.average(percentChange - abs(wasteRange), percentChange + abs(wasteRange));
+        }
+    }
+
+    /**
+     * This method is used to compute the tptop index of a symbol from the candles stored, using as current percent
+     * change the percent change of the last candle stored as the forecasts of the exchange do
+     *
+     * @param symbol:     symbol of the candles es. BTCBUSD or BTC-USD
+     * @param interval:   interval of the candles es. {@link CandleStore#DAILY_INTERVAL}
+     * @param daysGap:    number of candles between a candle and the candle of its gain
+     * @param wasteRange: max distance from the last percent change of the percent changes of the history to consider
+     * @return tptop index of the symbol as double, 0 if any candle of the history is within the waste range
+     **/
+    public double computeTPTOPIndex(String symbol, String interval, int daysGap, double wasteRange) throws IOException {
+        CandleSeries candleSeries = candleStore.getSeries(symbol, interval);
+        int candles = candleSeries.size();
+        if (candles < 2)
+            throw new IllegalArgumentException("History has not enough candles to compute the forecast");
+        DoubleBuffer lastCloses = candleSeries.getValues(Column.CLOSE, candles - 2, candles);
+        return computeTPTOPIndex(symbol, interval, daysGap, getPercent(lastCloses.get(0), lastCloses.get(1)),
+                wasteRange);
+    }
+
+    /**
+     * This method is used to compute the tptop index scanning all the closes of a history
+     *
+     * @param closes:        closes of the candles of the history sorted by open time
+     * @param daysGap:       number of candles between a candle and the candle of its gain
+     * @param percentChange: current percent change of the symbol
+     * @param wasteRange:    max distance from {@code percentChange} of the percent changes of the history to consider
+     * @return tptop index as double, 0 if any candle of the history is within the waste range
+     * @throws IllegalArgumentException if the history has not enough candles
+     * @implNote it is the reference of {@link #computeTPTOPIndex(String, String, int, double, double)}, that computes
+     * the same index incrementally
+     **/
+    public static double computeTPTOPIndex(DoubleBuffer closes, int daysGap, double percentChange, double wasteRange) {
+        if (daysGap <= 0)
+            throw new IllegalArgumentException("Days gap must be positive");
+        int size = closes.limit() - closes.position();
+        if (size <= daysGap)
+            throw new IllegalArgumentException("History has not enough candles to compute the forecast");
+        int offset = closes.position();
+        double gainsSum = 0;
+        int gainsCount = 0;
+        for (int j = 1; j + daysGap < size; j++) {
+            double close = closes.get(offset + j);
+            if (abs(getPercent(closes.get(offset + j - 1), close) - percentChange) <= abs(wasteRange)) {
+                gainsSum += getPercent(close, closes.get(offset + j + daysGap));
+                gainsCount++;
+            }
+        }
+        if (gainsCount == 0)
+            return 0;
+        return gainsSum / gainsCount;
+    }
+
+    /**
+     * This method is used to get the percent change between two values
+     *
+     * @param from: start value
+     * @param to:   end value
+     * @return percent change as double
+     **/
+    private static double getPercent(double from, double to) {
+        return (to - from) / from * 100;
+    }
+
+    /**
+     * This method is used to compare a forecast computed with the forecast of the exchange
+     *
+     * @param localForecast:  forecast computed by this engine
+     * @param remoteForecast: forecast of the exchange
+     * @return absolute deviation of the forecast computed as double
+     **/
+    public double compare(double localForecast, double remoteForecast) {
+        double deviation = abs(localForecast - remoteForecast);
+        synchronized (comparisons) {
+            deviationsSum += deviation;
+            if (deviation > maxDeviation)
+                maxDeviation = deviation;
+            comparisons.incrementAndGet();
+        }
+        return deviation;
+    }
+
+    /**
+     * This method is used to get number of forecasts compared with the forecasts of the exchange <br>
+     * Any params required
+     *
+     * @return number of forecasts compared as long
+     **/
+    public long getComparisons() {
+        return comparisons.get();
+    }
+
+    /**
+     * This method is used to get the mean absolute deviation from the forecasts of the exchange <br>
+     * Any params required
+     *
+     * @return mean absolute deviation as double, 0 if any forecast is compared
+     **/
+    public double getMeanDeviation() {
+        synchronized (comparisons) {
+            long comparisons = this.comparisons.get();
+            if (comparisons == 0)
+                return 0;
+            return deviationsSum / comparisons;
+        }
+    }
+
+    /**
+     * This method is used to get the max absolute deviation from the forecasts of the exchange <br>
+     * Any params required
+     *
+     * @return max absolute deviation as double
+     **/
+    public double getMaxDeviation() {
+        synchronized (comparisons) {
+            return maxDeviation;
+        }
+    }
+
+    /**
+     * Method to get {@link #candleStore} instance <br>
+     * Any params required
+     *
+     * @return {@link #candleStore} instance as {@link CandleStore}
+     **/
+    public CandleStore getCandleStore() {
+        return candleStore;
+    }
+
+    /**
+     * The {@code GainsIndex} class defines the pairs of percent change and gain of the candles of a series sorted by
+     * percent change
+     **/
+    private static final class GainsIndex {
+
+        /**
+         * {@code daysGap} is instance that memorizes number of candles between a candle and the candle of its gain
+         **/
+        private final int daysGap;
+
+        /**
+         * {@code percents} is instance that memorizes percent changes of the candles sorted ascending
+         **/
+        private double[] percents;
+
+        /**
+         * {@code gainsSums} is instance that memorizes prefix sums of the gains sorted as {@link #percents}, the sum of
+         * the first {@code j} gains is at index {@code j}
+         **/
+        private double[] gainsSums;
+
+        /**
+         * {@code size} is instance that memorizes number of pairs indexed
+         **/
+        private int size;
+
+        /**
+         * {@code indexedCandles} is instance that memorizes number of candles of the series already indexed
+         **/
+        private int indexedCandles;
+
+        /**
+         * Constructor to init {@link GainsIndex}
+         *
+         * @param daysGap: number of candles between a candle and the candle of its gain
+         **/
+        private GainsIndex(int daysGap) {
+            this.daysGap = daysGap;
+            percents = new double[0];
+            gainsSums = new double[1];
+        }
+
+        /**
+         * This method is used to index the candles of a series stored after the last update
+         *
+         * @param candleSeries: series of the candles
+         * @throws IllegalArgumentException if the series has not enough candles
+         **/
+        private void update(CandleSeries candleSeries) throws IOException {
+            int candles = candleSeries.size();
+            if (candles <= daysGap)
+                throw new IllegalArgumentException("History has not enough candles to compute the forecast");
+            int first = Math.max(1, indexedCandles - daysGap);
+            int last = candles - daysGap;
+            if (first >= last)
+                return;
+            DoubleBuffer closes = candleSeries.getValues(Column.CLOSE, 0, candles);
+            int added = last - first;
+            double[] newPercents = new double[added];
+            double[] newGains = new double[added];
+            Integer[] order = new Integer[added];
+            for (int j = 0; j < added; j++) {
+                double close = closes.get(first + j);
+                newPercents[j] = getPercent(closes.get(first + j - 1), close);
+                newGains[j] = getPercent(close, closes.get(first + j + daysGap));
+                order[j] = j;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(newPercents[a], newPercents[b]));
+            double[] percents = new double[size + added];
+            double[] gainsSums = new double[size + added + 1];
+            int old = 0, fresh = 0;
+            for (int j = 0; j < percents.length; j++) {
+                double gain;
+                if (fresh == added || (old < size && this.percents[old] <= newPercents[order[fresh]])) {
+                    percents[j] = this.percents[old];
+                    gain = this.gainsSums[old + 1] - this.gainsSums[old];
+                    old++;
+                } else {
+                    percents[j] = newPercents[order[fresh]];
+                    gain = newGains[order[fresh]];
+                    fresh++;
+                }
+                gainsSums[j + 1] = gainsSums[j] + gain;
+            }
+            this.percents = percents;
+            this.gainsSums = gainsSums;
+            size = percents.length;
+            indexedCandles = candles;
+        }
+
+        /**
+         * This method is used to get the average gain of the pairs with percent change within a range
+         *
+         * @param from: min percent change of the range, inclusive
+         * @param to:   max percent change of the range, inclusive
+         * @return average gain as double, 0 if any pair is within the range
+         **/
+        private double average(double from, double to) {
+            int start = searchFirst(from, false);
+            int end = searchFirst(to, true);
+            if (end <= start)
+                return 0;
+            return (gainsSums[end] - gainsSums[start]) / (end - start);
+        }
+
+        /**
+         * This method is used to search the first pair with percent change greater than a value
+         *
+         * @param value:     value to search
+         * @param inclusive: true to search the first pair greater than the value, false the first not less than it
+         * @return index of the first pair found as int, {@link #size} if any pair is found
+         **/
+        private int searchFirst(double value, boolean inclusive) {
+            int low = 0, high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (percents[middle] < value || (inclusive && percents[middle] == value))
+                    low = middle + 1;
+                else
+                    high = middle;
+            }
+            return low;
+        }
+
+    }
+
+}
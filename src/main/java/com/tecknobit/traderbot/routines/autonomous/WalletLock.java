@@ -0,0 +1,90 @@
+package com.tecknobit.traderbot.routines.autonomous;
+
+import com.tecknobit.traderbot.records.portfolio.Cryptocurrency;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * The {@code WalletLock} class is useful to manage concurrent access to the wallet list of an auto trader<br>
+ * Writers, as buying and selling routines, have exclusive access to the wallet list while readers, as printing and
+ * balance routines, work on an optimistic snapshot of it, so they never block the order placement.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote contended writers are parked instead of spinning on the wallet list
+ **/
+public class WalletLock {
+
+    /**
+     * {@code stampedLock} is instance that memorizes lock used to guard the wallet list
+     * **/
+    private final StampedLock stampedLock;
+
+    /**
+     * Constructor to init {@link WalletLock} <br>
+     * Any params required
+     * **/
+    public WalletLock() {
+        stampedLock = new StampedLock();
+    }
+
+    /**
+     * This method is used to acquire exclusive access to the wallet list, waiting if is used by another writer <br>
+     * Any params required
+     * @return stamp to use to release the lock with {@link #unlockWriting(long)}
+     * @implNote this lock is not reentrant, so it must not be acquired again by the same routine before being released
+     * **/
+    public long lockWriting() {
+        return stampedLock.writeLock();
+    }
+
+    /**
+     * This method is used to release exclusive access to the wallet list
+     * @param stamp: stamp obtained from {@link #lockWriting()}
+     * **/
+    public void unlockWriting(long stamp) {
+        stampedLock.unlockWrite(stamp);
+    }
+
+    /**
+     * This method is used to check if the wallet list is being written <br>
+     * Any params required
+     * @return true if a writer is using the wallet list, false if not
+     * **/
+    public boolean isWriting() {
+        return stampedLock.isWriteLocked();
+    }
+
+    /**
+     * This method is used to read the wallet list without blocking writers
+     * @param reader: routine that reads the wallet list
+     * @return result of the reading routine
+     * @implNote the reading is made optimistically and will be repeated under a read lock only if a writer
+     * modified the wallet list in the meantime
+     * **/
+    public <T> T read(Supplier<T> reader) {
+        long stamp = stampedLock.tryOptimisticRead();
+        T result = reader.get();
+        if(!stampedLock.validate(stamp)) {
+            stamp = stampedLock.readLock();
+            try {
+                result = reader.get();
+            } finally {
+                stampedLock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * This method is used to get a consistent snapshot of the wallet list
+     * @param walletList: wallet list from fetch the snapshot
+     * @return snapshot of the wallet list as {@link ArrayList} of {@link Cryptocurrency}
+     * **/
+    public ArrayList<Cryptocurrency> getWalletSnapshot(Map<String, Cryptocurrency> walletList) {
+        return read(() -> new ArrayList<>(walletList.values()));
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.tecknobit.traderbot.routines.interfaces;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code SingleFlightRefresh} class is useful to execute a refresh only once when it is requested by several
+ * routines at the same time<br>
+ * The first routine executes the refresh, while the routines that request it when is already in flight wait for it
+ * and share its result, instead of executing again the same refresh back-to-back.
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote if the refresh fails the same exception is thrown to all the routines that shared it
+ **/
+public class SingleFlightRefresh {
+
+    /**
+     * {@code inFlightRefresh} is instance that memorizes refresh currently executing, null if any refresh is executing
+     **/
+    private CompletableFuture<Void> inFlightRefresh;
+
+    /**
+     * {@code executedRefreshes} is instance that memorizes number of refreshes executed
+     **/
+    private final AtomicLong executedRefreshes;
+
+    /**
+     * {@code coalescedCalls} is instance that memorizes number of calls that shared a refresh already in flight
+     **/
+    private final AtomicLong coalescedCalls;
+
+    /**
+     * Constructor to init {@link SingleFlightRefresh} <br>
+     * Any params required
+     **/
+    public SingleFlightRefresh() {
+        executedRefreshes = new AtomicLong();
+        coalescedCalls = new AtomicLong();
+    }
+
+    /**
+     * This method is used to execute a refresh or to wait for the one already in flight
+     *
+     * @param refresh: refresh to execute if any refresh is in flight
+     **/
+    public void execute(Refresh refresh) throws Exception {
+        CompletableFuture<Void> flight;
+        boolean executor = false;
+        synchronized (this) {
+            flight = inFlightRefresh;
+            if (flight == null) {
+                flight = inFlightRefresh = new CompletableFuture<>();
+                executor = true;
+            }
+        }
+        if (executor) {
+            executedRefreshes.incrementAndGet();
+            try {
+                refresh.refresh();
+                complete(flight, null);
+            } catch (Exception e) {
+                complete(flight, e);
+                throw e;
+            } catch (Error e) {
+                complete(flight, e);
+                throw e;
+            }
+        } else {
+            coalescedCalls.incrementAndGet();
+            try {
+                flight.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception)
+                    throw (Exception) cause;
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * This method is used to complete the refresh in flight and to release the routines that are waiting for it
+     *
+     * @param flight: refresh to complete
+     * @param error:  error thrown by the refresh, null if the refresh is successful
+     **/
+    private void complete(CompletableFuture<Void> flight, Throwable error) {
+        synchronized (this) {
+            inFlightRefresh = null;
+        }
+        if (error == null)
+            flight.complete(null);
+        else
+            flight.completeExceptionally(error);
+    }
+
+    /**
+     * This method is used to get number of refreshes executed <br>
+     * Any params required
+     *
+     * @return number of refreshes executed as long
+     **/
+    public long getExecutedRefreshes() {
+        return executedRefreshes.get();
+    }
+
+    /**
+     * This method is used to get number of calls that shared a refresh already in flight <br>
+     * Any params required
+     *
+     * @return number of calls coalesced as long
+     **/
+    public long getCoalescedCalls() {
+        return coalescedCalls.get();
+    }
+
+    /**
+     * The {@code Refresh} interface defines the refresh executed by a {@link SingleFlightRefresh}
+     **/
+    @FunctionalInterface
+    public interface Refresh {
+
+        /**
+         * This method is used to execute the refresh <br>
+         * Any params required
+         **/
+        void refresh() throws Exception;
+
+    }
+
+}
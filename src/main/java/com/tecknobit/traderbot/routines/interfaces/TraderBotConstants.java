@@ -146,6 +146,21 @@ public class TraderBotConstants {
      **/
     public static final String INCOMES_KEY = "incomes";
 
+    /**
+     * {@code INCOME_STATISTICS_KEY} is instance that memorizes income statistics key
+     **/
+    public static final String INCOME_STATISTICS_KEY = "income_statistics";
+
+    /**
+     * {@code DAILY_STATISTICS_KEY} is instance that memorizes daily statistics key
+     **/
+    public static final String DAILY_STATISTICS_KEY = "daily_statistics";
+
+    /**
+     * {@code WEEKLY_STATISTICS_KEY} is instance that memorizes weekly statistics key
+     **/
+    public static final String WEEKLY_STATISTICS_KEY = "weekly_statistics";
+
     /**
      * {@code ROUTINES_KEY} is instance that memorizes routines key
      **/
@@ -221,6 +236,11 @@ public class TraderBotConstants {
      **/
     public static final String FIRST_PRICES_SIZE_KEY = "first_prices_size";
 
+    /**
+     * {@code COST_BASIS_VERSION_KEY} is instance that memorizes cost basis version key
+     **/
+    public static final String COST_BASIS_VERSION_KEY = "cost_basis_version";
+
     /**
      * {@code BASE_ASSET_KEY} is instance that memorizes base asset key
      **/
@@ -246,6 +266,12 @@ public class TraderBotConstants {
      **/
     public static final String TRANSACTION_KEY = "transaction";
 
+    /**
+     * {@code EVENT_ID_KEY} is instance that memorizes event identifier key, the same for all the attempts to send an
+     * event so the duplicates can be discarded
+     **/
+    public static final String EVENT_ID_KEY = "event_id";
+
     /**
      * {@code SIDE_KEY} is instance that memorizes side key
      **/
@@ -52,7 +52,7 @@ public abstract class TraderCoreRoutines {
      * @implSpec this map has as key the asset index (es. BTC) as {@link String} and has as value custom object
      * {@link Coin} give by {@code TraderBot} library.
      * **/
-    protected HashMap<String, Coin> coins;
+    protected volatile HashMap<String, Coin> coins;
 
     /**
      * {@code quoteCurrencies} is a list of quote currencies used in past orders and current active
@@ -245,13 +245,16 @@ public abstract class TraderCoreRoutines {
      * @param index: index of the coin es. BTC
      * @param name: name of the coin es Bitcoin
      * @param quantity: quantity of that coin es. 0.28
+     * @implNote {@link #coins} list is not modified, but is swapped with a new map that contains the coin
      * **/
     protected void insertCoin(String index, String name, double quantity){
-        coins.put(index, new Coin(index,
+        HashMap<String, Coin> updatedCoins = new HashMap<>(coins);
+        updatedCoins.put(index, new Coin(index,
                 name,
                 quantity,
                 quantity > 0
         ));
+        coins = updatedCoins;
     }
 
     /**
@@ -246,7 +246,7 @@ public class AndroidBinanceAutoTrader extends BinanceAutoTraderBot implements An
     @Override
     public void refreshWalletList() throws Exception {
         JSONArray wallet = new JSONArray();
-        for (Cryptocurrency cryptocurrency : walletList.values()){
+        for (Cryptocurrency cryptocurrency : walletLock.getWalletSnapshot(walletList)){
             wallet.put(new JSONObject().put(BASE_ASSET_KEY, cryptocurrency.getAssetIndex())
                     .put(LAST_PRICE_KEY, cryptocurrency.getLastPrice())
                     .put(PRICE_CHANGE_PERCENT_KEY, cryptocurrency.getPriceChangePercent(2))
@@ -403,7 +403,7 @@ public class AndroidBinanceAutoTrader extends BinanceAutoTraderBot implements An
     @Override
     public void disableBot() {
         if (runningTrader) {
-            runningTrader = false;
+            super.disableBot();
             botDetails.setBotStatus(STOPPED_BOT_STATUS);
         }
     }
@@ -417,7 +417,7 @@ public class AndroidBinanceAutoTrader extends BinanceAutoTraderBot implements An
     @Override
     public void enableBot() {
         if (!runningTrader) {
-            runningTrader = true;
+            super.enableBot();
             botDetails.setBotStatus(RUNNING_BOT_STATUS);
         }
     }
@@ -362,7 +362,7 @@ public class AndroidCoinbaseAutoTrader extends CoinbaseAutoTraderBot implements
     @Override
     public void refreshWalletList() throws Exception {
         JSONArray wallet = new JSONArray();
-        for (Cryptocurrency cryptocurrency : walletList.values()){
+        for (Cryptocurrency cryptocurrency : walletLock.getWalletSnapshot(walletList)){
             wallet.put(new JSONObject().put(BASE_ASSET_KEY, cryptocurrency.getAssetIndex())
                     .put(LAST_PRICE_KEY, cryptocurrency.getLastPrice())
                     .put(PRICE_CHANGE_PERCENT_KEY, cryptocurrency.getPriceChangePercent(2))
@@ -519,7 +519,7 @@ public class AndroidCoinbaseAutoTrader extends CoinbaseAutoTraderBot implements
     @Override
     public void disableBot() {
         if (runningTrader) {
-            runningTrader = false;
+            super.disableBot();
             botDetails.setBotStatus(STOPPED_BOT_STATUS);
         }
     }
@@ -533,7 +533,7 @@ public class AndroidCoinbaseAutoTrader extends CoinbaseAutoTraderBot implements
     @Override
     public void enableBot() {
         if (!runningTrader) {
-            runningTrader = true;
+            super.enableBot();
             botDetails.setBotStatus(RUNNING_BOT_STATUS);
         }
     }
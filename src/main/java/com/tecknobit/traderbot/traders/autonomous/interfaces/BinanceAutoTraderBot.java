@@ -1,26 +1,48 @@
 package com.tecknobit.traderbot.traders.autonomous.interfaces;
 
+import com.tecknobit.apimanager.apis.APIRequest.Params;
 import com.tecknobit.binancemanager.managers.BinanceManager;
+import com.tecknobit.binancemanager.managers.market.records.stats.Candlestick;
 import com.tecknobit.binancemanager.managers.market.records.stats.Candlestick.Interval;
 import com.tecknobit.binancemanager.managers.market.records.stats.ExchangeInformation.Symbol;
 import com.tecknobit.binancemanager.managers.market.records.tickers.TickerPriceChange;
+import com.tecknobit.traderbot.candles.CandleStore;
 import com.tecknobit.traderbot.orders.MarketOrder;
 import com.tecknobit.traderbot.records.account.TraderAccount;
-import com.tecknobit.traderbot.records.portfolio.Coin;
 import com.tecknobit.traderbot.records.portfolio.Cryptocurrency;
 import com.tecknobit.traderbot.records.portfolio.Cryptocurrency.TradingConfig;
+import com.tecknobit.traderbot.records.portfolio.MarketSnapshot;
+import com.tecknobit.traderbot.records.portfolio.PriceBook;
 import com.tecknobit.traderbot.records.portfolio.Transaction;
 import com.tecknobit.traderbot.routines.autonomous.AutoTraderCoreRoutines;
+import com.tecknobit.traderbot.routines.autonomous.ForecastCache;
+import com.tecknobit.traderbot.routines.autonomous.ForecastEvaluator;
+import com.tecknobit.traderbot.routines.autonomous.PriceTriggerIndex;
+import com.tecknobit.traderbot.routines.autonomous.RoutineScheduler;
+import com.tecknobit.traderbot.routines.autonomous.TPTOPEngine;
+import com.tecknobit.traderbot.routines.autonomous.TPTOPEngine.ForecastMode;
+import com.tecknobit.traderbot.routines.autonomous.WalletLock;
 import com.tecknobit.traderbot.traders.interfaces.BinanceTraderBot;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import static com.tecknobit.apimanager.trading.TradingTools.roundValue;
 import static com.tecknobit.binancemanager.managers.market.records.stats.Candlestick.Interval._1M;
+import static com.tecknobit.traderbot.candles.CandleStore.*;
+import static com.tecknobit.traderbot.routines.autonomous.ForecastCache.*;
+import static com.tecknobit.traderbot.routines.autonomous.ForecastEvaluator.DEFAULT_MAX_IN_FLIGHT;
+import static com.tecknobit.traderbot.routines.autonomous.PriceTriggerIndex.NO_TRIGGER;
+import static com.tecknobit.traderbot.routines.autonomous.RoutineScheduler.*;
+import static com.tecknobit.traderbot.routines.autonomous.TPTOPEngine.ForecastMode.*;
 import static java.lang.Math.abs;
+import static java.lang.Math.min;
 import static java.lang.System.currentTimeMillis;
 
 /**
@@ -35,6 +57,11 @@ import static java.lang.System.currentTimeMillis;
  * **/
 public class BinanceAutoTraderBot extends BinanceTraderBot implements AutoTraderCoreRoutines, MarketOrder {
 
+    /**
+     * {@code CANDLES_PAGE_LIMIT} is the max number of daily candles fetched with a single request in {@link #syncCandles(String)}
+     * **/
+    public static final int CANDLES_PAGE_LIMIT = 1000;
+
     /**
      * {@code TraderAccount} is instance that memorizes and manage account information and trading reports of auto trader
      * account
@@ -73,7 +100,7 @@ public class BinanceAutoTraderBot extends BinanceTraderBot implements AutoTrader
     /**
      * {@code runningTrader} is instance that memorizes flag that indicates if the trader is running
      * **/
-    protected boolean runningTrader;
+    protected volatile boolean runningTrader;
 
     /**
      * {@code previousChecking} is instance that memorizes previous timestamp when {@link #checkCryptocurrencies()} is called
@@ -106,9 +133,60 @@ public class BinanceAutoTraderBot extends BinanceTraderBot implements AutoTrader
     protected Cryptocurrency cryptocurrencySold;
 
     /**
-     * {@code USING_WALLET_LIST} is instance that memorizes if wallet list is being using
+     * {@code walletLock} is instance that memorizes lock used to manage concurrent access to {@link #walletList}
+     * @implNote buying and selling routines are writers, while printing and balance routines are readers
+     * **/
+    protected final WalletLock walletLock = new WalletLock();
+
+    /**
+     * {@code routineScheduler} is instance that memorizes scheduler used to execute the trading routines at their fixed rates
      * **/
-    protected volatile boolean USING_WALLET_LIST = false;
+    protected final RoutineScheduler routineScheduler = new RoutineScheduler(4);
+
+    /**
+     * {@code forecastEvaluator} is instance that memorizes evaluator used to compute in parallel the forecasts of the
+     * symbols checked in {@link #checkCryptocurrencies()} routine
+     * **/
+    protected final ForecastEvaluator forecastEvaluator = new ForecastEvaluator(DEFAULT_MAX_IN_FLIGHT);
+
+    /**
+     * {@code forecastCache} is instance that memorizes forecasts computed by {@link #computeTPTOPIndex(String, TradingConfig, Object, double)}
+     * until the candle used to compute them is closed
+     * **/
+    protected final ForecastCache forecastCache = new ForecastCache();
+
+    /**
+     * {@code candleStore} is instance that memorizes store where the daily, three-days and monthly candles of the symbols
+     * are stored on disk, null if the candles are not stored
+     * **/
+    protected volatile CandleStore candleStore;
+
+    /**
+     * {@code tptopEngine} is instance that memorizes engine used to compute the forecasts from the candles of the
+     * {@link #candleStore}, null if any {@link #candleStore} is set
+     * **/
+    protected volatile TPTOPEngine tptopEngine;
+
+    /**
+     * {@code forecastMode} is instance that memorizes mode used to compute the forecasts in {@link #computeTPTOPIndex(String, TradingConfig, Object, double)}
+     * **/
+    protected volatile ForecastMode forecastMode = REMOTE;
+
+    /**
+     * {@code priceTriggerIndex} is instance that memorizes index of the prices that make the cryptocurrencies of the
+     * {@link #walletList} respect {@link TradingConfig} model to be sold
+     * **/
+    protected final PriceTriggerIndex priceTriggerIndex = new PriceTriggerIndex();
+
+    /**
+     * {@code triggersExecutor} is instance that memorizes executor used to sell the cryptocurrencies fired by the
+     * {@link #priceTriggerIndex} without blocking the routine that received the price
+     * **/
+    protected final ExecutorService triggersExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "price-triggers");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * Constructor to init {@link BinanceAutoTraderBot}
@@ -290,30 +368,24 @@ public class BinanceAutoTraderBot extends BinanceTraderBot implements AutoTrader
         runningTrader = true;
         printDisclaimer();
         previousBuying = currentTimeMillis();
-        new Thread(){
-            @Override
-            public void run() {
-                super.run();
-                try {
-                    while (true){
-                        while (runningTrader){
-                            if(makeRoutine(previousChecking, CHECKING_GAP_TIME)) {
-                                previousChecking = currentTimeMillis();
-                                checkCryptocurrencies();
-                            }
-                            if(makeRoutine(previousBuying, BUYING_GAP_TIME)){
-                                previousBuying = currentTimeMillis();
-                                buyCryptocurrencies();
-                            }
-                        }
-                        System.out.println("Bot is stopped, waiting for reactivation");
-                        Thread.sleep(5000);
-                     }
-                }catch (Exception e){
-                    printRed("Error during making routine");
-                }
+        routineScheduler.resume();
+        routineScheduler.scheduleRoutine(TRADING_CONFIG_FETCHING_ROUTINE, 0, BUYING_GAP_TIME * 2, () -> {
+            synchronized (checkingList) {
+                refreshTradingConfig();
+            }
+        });
+        routineScheduler.scheduleRoutine(CHECKING_ROUTINE, 0, CHECKING_GAP_TIME, () -> {
+            synchronized (checkingList) {
+                previousChecking = currentTimeMillis();
+                checkCryptocurrencies();
             }
-        }.start();
+        });
+        routineScheduler.scheduleRoutine(BUYING_ROUTINE, BUYING_GAP_TIME, BUYING_GAP_TIME, () -> {
+            synchronized (checkingList) {
+                previousBuying = currentTimeMillis();
+                buyCryptocurrencies();
+            }
+        });
         updateWallet();
     }
 
@@ -324,43 +396,69 @@ public class BinanceAutoTraderBot extends BinanceTraderBot implements AutoTrader
     @Override
     public void checkCryptocurrencies() throws Exception {
         System.out.println("## CHECKING NEW CRYPTOCURRENCIES");
-        if (makeRoutine(previousTradingConfigFetching, BUYING_GAP_TIME * 2)) {
-            previousTradingConfigFetching = currentTimeMillis();
-            tradingConfig = fetchTradingConfig(tradingConfig);
-        }
+        if (tradingConfig == null || (!routineScheduler.isScheduled(TRADING_CONFIG_FETCHING_ROUTINE)
+                && makeRoutine(previousTradingConfigFetching, BUYING_GAP_TIME * 2)))
+            refreshTradingConfig();
         Interval candleInterval = Interval._1d;
         int daysGap = tradingConfig.getDaysGap();
         if (daysGap > 2 && daysGap <= 6)
             candleInterval = Interval._3d;
         else if (daysGap > 28)
             candleInterval = _1M;
+        MarketSnapshot<TickerPriceChange, Symbol> snapshot = marketSnapshot;
+        LinkedHashMap<String, TickerPriceChange> candidates = new LinkedHashMap<>();
         for (TickerPriceChange ticker : binanceMarketManager.getTickersPriceChangeList()) {
             String symbol = ticker.getSymbol();
-            Symbol tradingPair = tradingPairsList.get(symbol);
+            Symbol tradingPair = snapshot.getTradingPairs().get(symbol);
             String quoteAsset = tradingPair.getQuoteAsset();
             if (quoteCurrencies.isEmpty() || quoteContained(quoteAsset)) {
                 String baseAsset = tradingPair.getBaseAsset();
-                Coin coin = coins.get(baseAsset);
-                if (coin != null && !walletList.containsKey(baseAsset)) {
-                    double priceChangePercent = ticker.getPriceChangePercent();
-                    double tptop = isTradable(symbol, tradingConfig, candleInterval, priceChangePercent);
-                    if (tptop != ASSET_NOT_TRADABLE) {
-                        checkingList.put(baseAsset, new Cryptocurrency(baseAsset,
-                                coin.getAssetName(),
-                                0,
-                                symbol,
-                                ticker.getLastPrice(),
-                                tptop,
-                                candleInterval,
-                                priceChangePercent,
-                                quoteAsset,
-                                tradingConfig
-                        ));
-                    }else
-                        checkingList.remove(baseAsset);
-                }
+                if (snapshot.getCoins().get(baseAsset) != null && !walletList.containsKey(baseAsset))
+                    candidates.put(symbol, ticker);
             }
         }
+        TradingConfig checkingConfig = tradingConfig;
+        Interval forecastInterval = candleInterval;
+        HashMap<String, Double> forecasts = forecastEvaluator.evaluate(candidates.keySet(), symbol ->
+                isTradable(symbol, checkingConfig, forecastInterval, candidates.get(symbol).getPriceChangePercent()));
+        try {
+            forecastCache.persist();
+        } catch (IOException e) {
+            printRed("Forecasts cache not persisted: " + e.getMessage());
+        }
+        for (TickerPriceChange ticker : candidates.values()) {
+            String symbol = ticker.getSymbol();
+            Double tptop = forecasts.get(symbol);
+            if (tptop != null) {
+                Symbol tradingPair = snapshot.getTradingPairs().get(symbol);
+                String baseAsset = tradingPair.getBaseAsset();
+                if (tptop != ASSET_NOT_TRADABLE) {
+                    checkingList.put(baseAsset, new Cryptocurrency(baseAsset,
+                            snapshot.getCoins().get(baseAsset).getAssetName(),
+                            0,
+                            symbol,
+                            ticker.getLastPrice(),
+                            tptop,
+                            candleInterval,
+                            ticker.getPriceChangePercent(),
+                            tradingPair.getQuoteAsset(),
+                            checkingConfig
+                    ));
+                }else
+                    checkingList.remove(baseAsset);
+            } else if (printRoutineMessages)
+                printRed("Forecast of [" + symbol + "] not available");
+        }
+    }
+
+    /**
+     * This method is used to fetch a new {@link TradingConfig} model and to update {@link #tradingConfig} instance <br>
+     * Any params required
+     * @implNote if the fetching fails the old model will be used
+     * **/
+    protected void refreshTradingConfig() {
+        previousTradingConfigFetching = currentTimeMillis();
+        tradingConfig = fetchTradingConfig(tradingConfig);
     }
 
     /**
@@ -375,7 +473,7 @@ public class BinanceAutoTraderBot extends BinanceTraderBot implements AutoTrader
      * **/
     @Override
     public double isTradable(String symbol, TradingConfig tradingConfig, Object candleInterval,
-                             double priceChangePercent) throws IOException {
+                             double priceChangePercent) throws Exception {
         double wasteRange = tradingConfig.getWasteRange();
         if((abs(priceChangePercent - tradingConfig.getMarketPhase()) <= abs(wasteRange)) &&
                 (priceChangePercent >= tradingConfig.getMaxLoss() && priceChangePercent <= tradingConfig.getMaxGain())){
@@ -393,12 +491,71 @@ public class BinanceAutoTraderBot extends BinanceTraderBot implements AutoTrader
      * @param tradingConfig: model of trading to use as {@link TradingConfig}
      * @param candleInterval: interval gap to make forecast
      * @return value of tptop index if is correct and return {@link #ASSET_NOT_TRADABLE} if is not respect {@link TradingConfig} model.
+     * @implNote forecasts made on daily, three-days and monthly candles are served by the {@link #forecastCache}
+     * until the candle is closed, the index is cached as computed and the min gain for order is checked by
+     * {@link #isTradable(String, TradingConfig, Object, double)}
      * **/
     @Override
     public double computeTPTOPIndex(String symbol, TradingConfig tradingConfig, Object candleInterval,
-                                    double wasteRange) throws IOException {
-        return binanceMarketManager.getSymbolForecast(symbol, (Interval) candleInterval, tradingConfig.getDaysGap(),
-                wasteRange);
+                                    double wasteRange) throws Exception {
+        Interval interval = (Interval) candleInterval;
+        int daysGap = tradingConfig.getDaysGap();
+        long now = currentTimeMillis();
+        long candleClose;
+        String candlesInterval;
+        if (interval == _1M) {
+            candleClose = getMonthlyCandleClose(now);
+            candlesInterval = MONTHLY_INTERVAL;
+        } else if (interval == Interval._3d) {
+            candleClose = getCandleClose(now, THREE_DAYS);
+            candlesInterval = THREE_DAYS_INTERVAL;
+        } else if (interval == Interval._1d) {
+            candleClose = getCandleClose(now, ONE_DAY);
+            candlesInterval = DAILY_INTERVAL;
+        } else
+            return binanceMarketManager.getSymbolForecast(symbol, interval, daysGap, wasteRange);
+        ForecastMode forecastMode = this.forecastMode;
+        String forecastInterval = String.valueOf(interval);
+        if (forecastMode == LOCAL)
+            forecastInterval += "/" + LOCAL;
+        return forecastCache.getForecast(symbol, forecastInterval, daysGap, wasteRange,
+                tradingConfig.getModelId(), candleClose, forecastSymbol -> computeForecast(forecastSymbol, interval,
+                        candlesInterval, daysGap, wasteRange, forecastMode));
+    }
+
+    /**
+     * This method is used to compute a forecast with a {@link ForecastMode}
+     * @param symbol: symbol of the forecast es. BTCBUSD
+     * @param interval: interval of the candles of the forecast
+     * @param candlesInterval: interval of the candles stored in the {@link #candleStore} es. {@link CandleStore#DAILY_INTERVAL}
+     * @param daysGap: days gap of the forecast
+     * @param wasteRange: waste range of the forecast
+     * @param forecastMode: mode used to compute the forecast
+     * @return forecast of the symbol as double
+     * @implNote in {@link ForecastMode#SHADOW} mode the forecast computed by the {@link #tptopEngine} is compared with
+     * the forecast of the exchange, and if it cannot be computed the forecast of the exchange is returned anyway. The
+     * {@link #tptopEngine} counts the gap in candles, so the days gap is converted to the three-days and monthly candles
+     * that cover it with {@link CandleStore#getCandlesGap(String, int)}
+     * **/
+    protected double computeForecast(String symbol, Interval interval, String candlesInterval, int daysGap,
+                                     double wasteRange, ForecastMode forecastMode) throws Exception {
+        TPTOPEngine tptopEngine = this.tptopEngine;
+        if (forecastMode == REMOTE || tptopEngine == null)
+            return binanceMarketManager.getSymbolForecast(symbol, interval, daysGap, wasteRange);
+        int candlesGap = getCandlesGap(candlesInterval, daysGap);
+        if (forecastMode == LOCAL) {
+            syncCandles(symbol);
+            return tptopEngine.computeTPTOPIndex(symbol, candlesInterval, candlesGap, wasteRange);
+        }
+        double tptop = binanceMarketManager.getSymbolForecast(symbol, interval, daysGap, wasteRange);
+        try {
+            syncCandles(symbol);
+            tptopEngine.compare(tptopEngine.computeTPTOPIndex(symbol, candlesInterval, candlesGap, wasteRange), tptop);
+        } catch (Exception e) {
+            if (printRoutineMessages)
+                printRed("Local forecast of [" + symbol + "] not available");
+        }
+        return tptop;
     }
 
     /**
@@ -408,27 +565,29 @@ public class BinanceAutoTraderBot extends BinanceTraderBot implements AutoTrader
      * **/
     @Override
     public void buyCryptocurrencies() throws Exception {
-        while (USING_WALLET_LIST);
-        USING_WALLET_LIST = true;
         System.out.println("## BUYING NEW CRYPTOCURRENCIES");
-        for (Cryptocurrency cryptocurrency : checkingList.values()){
-            String symbol = cryptocurrency.getSymbol();
-            double quantity = getMarketOrderQuantity(cryptocurrency);
-            if(quantity != -1) {
-                try {
-                    buyMarket(symbol, quantity);
-                    cryptocurrency.setQuantity(quantity);
-                    cryptocurrency.addFirstPrice(cryptocurrency.getLastPrice());
-                    walletList.put(cryptocurrency.getAssetIndex(), cryptocurrency);
-                    if(printRoutineMessages)
-                        System.out.println("Buying [" + symbol + "], quantity: " + quantity);
-                }catch (Exception e){
-                    USING_WALLET_LIST = false;
-                    printError(symbol, e);
+        long stamp = walletLock.lockWriting();
+        try {
+            for (Cryptocurrency cryptocurrency : checkingList.values()){
+                String symbol = cryptocurrency.getSymbol();
+                double quantity = getMarketOrderQuantity(cryptocurrency);
+                if(quantity != -1) {
+                    try {
+                        buyMarket(symbol, quantity);
+                        cryptocurrency.setQuantity(quantity);
+                        cryptocurrency.addFirstPrice(cryptocurrency.getLastPrice());
+                        walletList.put(cryptocurrency.getAssetIndex(), cryptocurrency);
+                        setSaleTrigger(cryptocurrency);
+                        if(printRoutineMessages)
+                            System.out.println("Buying [" + symbol + "], quantity: " + quantity);
+                    }catch (Exception e){
+                        printError(symbol, e);
+                    }
                 }
             }
+        }finally {
+            walletLock.unlockWriting(stamp);
         }
-        USING_WALLET_LIST = false;
         checkingList.clear();
         if(printRoutineMessages) {
             printRed("### Transactions");
@@ -444,72 +603,169 @@ public class BinanceAutoTraderBot extends BinanceTraderBot implements AutoTrader
      * **/
     @Override
     public void updateWallet() throws Exception {
-        new Thread(){
-            @Override
-            public void run() {
-                super.run();
-                while (true){
-                    while (runningTrader){
-                        if(makeRoutine(previousUpdating, UPDATING_GAP_TIME)) {
-                            previousUpdating = currentTimeMillis();
-                            while (USING_WALLET_LIST);
-                            USING_WALLET_LIST = true;
+        routineScheduler.scheduleRoutine(UPDATING_ROUTINE, 0, UPDATING_GAP_TIME, () -> {
+            previousUpdating = currentTimeMillis();
+            refreshWalletCryptocurrencies();
+        });
+    }
+
+    /**
+     * This method is used to refresh the cryptocurrencies of the wallet and to sell the ones that respect
+     * {@link TradingConfig} model. <br>
+     * Any params required
+     * @implNote is executed by {@link #updateWallet()} routine
+     * **/
+    protected void refreshWalletCryptocurrencies() {
+        try {
+            if(walletList.size() > 0){
+                System.out.println("## UPDATING WALLET CRYPTOCURRENCIES");
+                if(isRefreshTime())
+                    refreshLatestPrice();
+                long stamp = walletLock.lockWriting();
+                try {
+                    for (Cryptocurrency cryptocurrency : walletList.values()) {
+                        String symbol = getWalletSymbol(cryptocurrency);
+                        try {
+                            int symbolId = priceBook.getSymbolId(symbol);
+                            checkCryptocurrencySale(cryptocurrency, priceBook.getLastPrice(symbolId),
+                                    priceBook.getPriceChangePercent(symbolId));
+                        }catch (Exception e){
+                            printError(symbol, e);
+                        }
+                    }
+                }finally {
+                    walletLock.unlockWriting(stamp);
+                }
+            }
+            if(printRoutineMessages){
+                printRed("### Wallet");
+                for (Cryptocurrency cryptocurrency : walletLock.getWalletSnapshot(walletList))
+                    cryptocurrency.printDetails();
+                System.out.println("## Balance amount: " + getWalletBalance(baseCurrency,
+                        false, 2) + " " + baseCurrency);
+            }
+        }catch (Exception e){
+            printRed("Error during wallet updating");
+        }
+    }
+
+    /**
+     * This method is used to refresh a cryptocurrency of the wallet with a new price and to sell it if respects
+     * {@link TradingConfig} model
+     * @param cryptocurrency: cryptocurrency of the wallet to check
+     * @param lastPrice: last price of the cryptocurrency
+     * @param priceChangePercent: price change percent of the cryptocurrency
+     * @implNote if the cryptocurrency is not sold its sale trigger is inserted again in the {@link #priceTriggerIndex}
+     * **/
+    protected void checkCryptocurrencySale(Cryptocurrency cryptocurrency, double lastPrice,
+                                           double priceChangePercent) throws Exception {
+        TradingConfig tradingConfig = cryptocurrency.getTradingConfig();
+        double incomePercent = binanceMarketManager.getTrendPercent(cryptocurrency.getFirstPrice(), lastPrice);
+        double minGainOrder = tradingConfig.getMinGainForOrder();
+        double tptopIndex = cryptocurrency.getTptopIndex();
+        refreshCryptoDetails(cryptocurrency, incomePercent, lastPrice, priceChangePercent);
+        if(incomePercent < minGainOrder && incomePercent < tptopIndex){
+            setSaleTrigger(cryptocurrency);
+            if(printRoutineMessages)
+                System.out.println("Refreshing [" + getWalletSymbol(cryptocurrency) + "]");
+        }else if(incomePercent <= tradingConfig.getMaxLoss())
+            incrementSalesSale(cryptocurrency, LOSS_SELL);
+        else if(incomePercent >= minGainOrder || incomePercent >= tptopIndex)
+            incrementSalesSale(cryptocurrency, GAIN_SELL);
+        else
+            incrementSalesSale(cryptocurrency, PAIR_SELL);
+    }
+
+    /**
+     * This method is used to insert in the {@link #priceTriggerIndex} the price from which a cryptocurrency of the
+     * wallet respects {@link TradingConfig} model to be sold
+     * @param cryptocurrency: cryptocurrency of the wallet
+     * @implNote a cryptocurrency is sold when its income percent reaches the lower between min gain for order and
+     * tptop index, so that value is converted in the absolute price of the trigger
+     * **/
+    protected void setSaleTrigger(Cryptocurrency cryptocurrency) {
+        double saleIncomePercent = min(cryptocurrency.getTradingConfig().getMinGainForOrder(),
+                cryptocurrency.getTptopIndex());
+        priceTriggerIndex.setTriggers(getWalletSymbol(cryptocurrency), cryptocurrency.getAssetIndex(), NO_TRIGGER,
+                cryptocurrency.getFirstPrice() * (1 + saleIncomePercent / 100));
+    }
+
+    /**
+     * This method is used to check the triggers of a symbol with a new price and to sell the cryptocurrencies
+     * of the wallet fired by it
+     * @param symbol: symbol of the price
+     * @param lastPrice: last price of the symbol
+     * @param priceChangePercent: price change percent of the symbol
+     * @implNote the cryptocurrencies fired are sold by the {@link #triggersExecutor} only while {@link #runningTrader}
+     * is true, when the bot is disabled the triggers are not checked and the ones already fired are inserted again
+     * **/
+    protected void checkPriceTriggers(String symbol, double lastPrice, double priceChangePercent) {
+        if(!runningTrader)
+            return;
+        List<String> assetIndexes = priceTriggerIndex.onPrice(symbol, lastPrice);
+        if(!assetIndexes.isEmpty()) {
+            triggersExecutor.execute(() -> {
+                long stamp = walletLock.lockWriting();
+                try {
+                    for (String assetIndex : assetIndexes) {
+                        Cryptocurrency cryptocurrency = walletList.get(assetIndex);
+                        if(cryptocurrency != null) {
+                            if(!runningTrader) {
+                                setSaleTrigger(cryptocurrency);
+                                continue;
+                            }
                             try {
-                                if(walletList.size() > 0){
-                                    System.out.println("## UPDATING WALLET CRYPTOCURRENCIES");
-                                    if(isRefreshTime())
-                                        refreshLatestPrice();
-                                    for (Cryptocurrency cryptocurrency : walletList.values()) {
-                                        String symbol = cryptocurrency.getSymbol();
-                                        if(symbol == null)
-                                            symbol = cryptocurrency.getAssetIndex() + BUSD_CURRENCY;
-                                        TradingConfig tradingConfig = cryptocurrency.getTradingConfig();
-                                        TickerPriceChange tickerPriceChange = lastPrices.get(symbol);
-                                        double lastPrice = tickerPriceChange.getLastPrice();
-                                        double incomePercent = binanceMarketManager.getTrendPercent(
-                                                cryptocurrency.getFirstPrice(), lastPrice);
-                                        double minGainOrder = tradingConfig.getMinGainForOrder();
-                                        double tptopIndex = cryptocurrency.getTptopIndex();
-                                        refreshCryptoDetails(cryptocurrency, incomePercent, lastPrice,
-                                                tickerPriceChange.getPriceChangePercent());
-                                        try {
-                                            if(incomePercent < minGainOrder && incomePercent < tptopIndex){
-                                                if(printRoutineMessages)
-                                                    System.out.println("Refreshing [" + symbol + "]");
-                                            }else if(incomePercent <= tradingConfig.getMaxLoss())
-                                                incrementSalesSale(cryptocurrency, LOSS_SELL);
-                                            else if(incomePercent >= minGainOrder || incomePercent >= tptopIndex)
-                                                incrementSalesSale(cryptocurrency, GAIN_SELL);
-                                            else
-                                                incrementSalesSale(cryptocurrency, PAIR_SELL);
-                                        }catch (Exception e){
-                                            USING_WALLET_LIST = false;
-                                            printError(symbol, e);
-                                        }
-                                    }
-                                }
-                                USING_WALLET_LIST = false;
-                                if(printRoutineMessages){
-                                    printRed("### Wallet");
-                                    for (Cryptocurrency cryptocurrency : walletList.values())
-                                        cryptocurrency.printDetails();
-                                    System.out.println("## Balance amount: " + getWalletBalance(baseCurrency,
-                                            false, 2) + " " + baseCurrency);
-                                }
+                                checkCryptocurrencySale(cryptocurrency, lastPrice, priceChangePercent);
                             }catch (Exception e){
-                                USING_WALLET_LIST = false;
-                                printRed("Error during wallet updating");
+                                printError(symbol, e);
                             }
                         }
                     }
-                    try {
-                        Thread.sleep(5000);
-                    } catch (InterruptedException e) {
-                        printRed("Error during wallet updating");
-                    }
+                }finally {
+                    walletLock.unlockWriting(stamp);
                 }
-            }
-        }.start();
+            });
+        }
+    }
+
+    /**
+     * This method is used to get the symbol of a cryptocurrency of the wallet
+     * @param cryptocurrency: cryptocurrency of the wallet
+     * @return symbol of the cryptocurrency as {@link String}
+     * **/
+    protected String getWalletSymbol(Cryptocurrency cryptocurrency) {
+        String symbol = cryptocurrency.getSymbol();
+        if(symbol == null)
+            symbol = cryptocurrency.getAssetIndex() + BUSD_CURRENCY;
+        return symbol;
+    }
+
+    /**
+     * This method is used to refresh latest prices and to check the triggers of the cryptocurrencies of the wallet
+     * with them<br>
+     * Any params required
+     * **/
+    @Override
+    public void refreshLatestPrice() throws Exception {
+        super.refreshLatestPrice();
+        for (String symbol : priceTriggerIndex.getSymbols()) {
+            int symbolId = priceBook.getSymbolId(symbol);
+            if(symbolId != PriceBook.NOT_FOUND)
+                checkPriceTriggers(symbol, priceBook.getLastPrice(symbolId), priceBook.getPriceChangePercent(symbolId));
+        }
+    }
+
+    /**
+     * This method is used to apply a ticker pushed by the {@link #marketDataFeed} and to check the triggers of the
+     * cryptocurrencies of the wallet with it
+     * @param symbol: symbol of the ticker
+     * @param lastPrice: last price of the symbol
+     * @param priceChangePercent: price change percent of the symbol
+     * **/
+    @Override
+    protected void applyTicker(String symbol, double lastPrice, double priceChangePercent) {
+        super.applyTicker(symbol, lastPrice, priceChangePercent);
+        checkPriceTriggers(symbol, lastPrice, priceChangePercent);
     }
 
     /**
@@ -522,6 +778,7 @@ public class BinanceAutoTraderBot extends BinanceTraderBot implements AutoTrader
         cryptocurrencySold = cryptocurrency;
         sellMarket(cryptocurrency.getSymbol(), cryptocurrency.getQuantity());
         walletList.remove(cryptocurrency.getAssetIndex());
+        priceTriggerIndex.removeTriggers(getWalletSymbol(cryptocurrency), cryptocurrency.getAssetIndex());
         switch (codeOpe){
             case LOSS_SELL:
                 traderAccount.addLoss();
@@ -606,12 +863,133 @@ public class BinanceAutoTraderBot extends BinanceTraderBot implements AutoTrader
         return runningTrader;
     }
 
+    /**
+     * This method is used to set max number of forecasts in flight at the same time in {@link #checkCryptocurrencies()} routine
+     * @param maxForecastsInFlight: max number of forecasts in flight at the same time
+     * @throws IllegalArgumentException if {@code maxForecastsInFlight} value is less than 1
+     * @implNote keep this value low to respect the request weight limits of the exchange
+     * **/
+    public void setMaxForecastsInFlight(int maxForecastsInFlight) {
+        forecastEvaluator.setMaxInFlight(maxForecastsInFlight);
+    }
+
+    /**
+     * This method is used to get max number of forecasts in flight at the same time in {@link #checkCryptocurrencies()} routine <br>
+     * Any params required
+     * @return max number of forecasts in flight at the same time as int
+     * **/
+    public int getMaxForecastsInFlight() {
+        return forecastEvaluator.getMaxInFlight();
+    }
+
+    /**
+     * This method is used to get the cache of the forecasts computed in {@link #checkCryptocurrencies()} routine <br>
+     * Any params required
+     * @return cache of the forecasts as {@link ForecastCache}
+     * @implNote use {@link ForecastCache#setPersistenceFile(Path)} to restore the forecasts after a restart
+     * **/
+    public ForecastCache getForecastCache() {
+        return forecastCache;
+    }
+
+    /**
+     * This method is used to fetch the daily candles of a symbol closed after the last one stored in {@link #candleStore}
+     * and to derive from them the three-days and monthly candles
+     * @param symbol: symbol of the candles es. BTCBUSD
+     * @return number of daily candles appended as int
+     * @throws IllegalStateException if any {@link #candleStore} is set
+     * **/
+    public int syncCandles(String symbol) throws Exception {
+        CandleStore candleStore = this.candleStore;
+        if (candleStore == null)
+            throw new IllegalStateException("Candle store is not set");
+        return candleStore.sync(symbol, (candlesSymbol, startTime) -> {
+            ArrayList<double[]> candles = new ArrayList<>();
+            long pageStart = startTime;
+            ArrayList<Candlestick> page;
+            do {
+                Params params = new Params();
+                params.addParam("startTime", pageStart);
+                params.addParam("limit", CANDLES_PAGE_LIMIT);
+                page = binanceMarketManager.getCandlestickList(candlesSymbol, Interval._1d, params);
+                for (Candlestick candlestick : page) {
+                    candles.add(new double[]{candlestick.getOpenTime(), candlestick.getOpen(), candlestick.getHigh(),
+                            candlestick.getLow(), candlestick.getClose(), candlestick.getVolume()});
+                    pageStart = candlestick.getOpenTime() + ONE_DAY;
+                }
+            } while (page.size() == CANDLES_PAGE_LIMIT);
+            return candles;
+        });
+    }
+
+    /**
+     * Method to set {@link #candleStore} instance
+     * @param candleStore: store where the candles of the symbols are stored, null to not store them
+     * **/
+    public void setCandleStore(CandleStore candleStore) {
+        if (candleStore == null && forecastMode != REMOTE)
+            throw new IllegalStateException("Candle store is required by " + forecastMode + " forecast mode");
+        tptopEngine = candleStore != null ? new TPTOPEngine(candleStore) : null;
+        this.candleStore = candleStore;
+    }
+
+    /**
+     * Method to get {@link #candleStore} instance <br>
+     * Any params required
+     * @return {@link #candleStore} instance as {@link CandleStore}, null if is not set
+     * **/
+    public CandleStore getCandleStore() {
+        return candleStore;
+    }
+
+    /**
+     * Method to set {@link #forecastMode} instance
+     * @param forecastMode: mode used to compute the forecasts
+     * @throws IllegalStateException if the mode requires the {@link #candleStore} and it is not set
+     * @implNote forecasts computed in {@link ForecastMode#LOCAL} mode are cached separately from the forecasts of the
+     * exchange in the {@link #forecastCache}
+     * **/
+    public void setForecastMode(ForecastMode forecastMode) {
+        if (forecastMode != REMOTE && candleStore == null)
+            throw new IllegalStateException("Candle store is required by " + forecastMode + " forecast mode");
+        this.forecastMode = forecastMode;
+    }
+
+    /**
+     * Method to get {@link #forecastMode} instance <br>
+     * Any params required
+     * @return {@link #forecastMode} instance as {@link ForecastMode}
+     * **/
+    public ForecastMode getForecastMode() {
+        return forecastMode;
+    }
+
+    /**
+     * Method to get {@link #tptopEngine} instance <br>
+     * Any params required
+     * @return {@link #tptopEngine} instance as {@link TPTOPEngine}, null if any {@link #candleStore} is set
+     * @implNote in {@link ForecastMode#SHADOW} mode the engine memorizes the deviations from the forecasts of the exchange
+     * **/
+    public TPTOPEngine getTptopEngine() {
+        return tptopEngine;
+    }
+
+    /**
+     * This method is used to get the drift of the last execution of each trading routine <br>
+     * Any params required
+     * @return map that contains the name of the routine as key and its last drift in millis as value
+     * **/
+    public HashMap<String, Long> getRoutinesDrift() {
+        return routineScheduler.getRoutinesDrift();
+    }
+
     /**
      * This method is used to disable running mode of bot
      * **/
     @Override
     public void disableBot() {
         runningTrader = false;
+        routineScheduler.pause();
     }
 
     /**
@@ -620,17 +998,21 @@ public class BinanceAutoTraderBot extends BinanceTraderBot implements AutoTrader
     @Override
     public void enableBot() {
         runningTrader = true;
+        routineScheduler.resume();
     }
 
     /**
      * This method is used to get quantity for market order type
      * @param cryptocurrency: cryptocurrency as {@link Cryptocurrency} used in the order
      * @return quantity for the market order es. 1
+     * @implNote the amount of quote asset to spend is converted to a quantity of base asset with the last price of
+     * the symbol before being rounded to its trading rules
      * **/
     @Override
     public double getMarketOrderQuantity(Cryptocurrency cryptocurrency) throws Exception {
-        return getSuggestedOrderQuantity(cryptocurrency.getSymbol(), roundValue(getCoinBalance(cryptocurrency.getQuoteAsset())
-                * cryptocurrency.getTptopIndex() / 100, 8));
+        String symbol = cryptocurrency.getSymbol();
+        double quoteAmount = getCoinBalance(cryptocurrency.getQuoteAsset()) * cryptocurrency.getTptopIndex() / 100;
+        return getSuggestedOrderQuantity(symbol, quoteAmount / priceBook.getLastPrice(symbol));
     }
 
     /**
@@ -1,25 +1,53 @@
 package com.tecknobit.traderbot.traders.autonomous.interfaces;
 
+import com.tecknobit.apimanager.apis.APIRequest.Params;
 import com.tecknobit.coinbasemanager.exchangepro.CoinbaseManager;
+import com.tecknobit.coinbasemanager.exchangepro.products.records.Candle;
 import com.tecknobit.coinbasemanager.exchangepro.products.records.Candle.Granularity;
 import com.tecknobit.coinbasemanager.exchangepro.products.records.Ticker;
+import com.tecknobit.traderbot.candles.CandleStore;
 import com.tecknobit.traderbot.orders.MarketOrder;
 import com.tecknobit.traderbot.records.account.TraderAccount;
 import com.tecknobit.traderbot.records.portfolio.Coin;
 import com.tecknobit.traderbot.records.portfolio.Cryptocurrency;
 import com.tecknobit.traderbot.records.portfolio.Cryptocurrency.TradingConfig;
+import com.tecknobit.traderbot.records.portfolio.PriceBook;
+import com.tecknobit.traderbot.records.portfolio.SymbolRegistry.SymbolPair;
 import com.tecknobit.traderbot.records.portfolio.Transaction;
 import com.tecknobit.traderbot.routines.autonomous.AutoTraderCoreRoutines;
+import com.tecknobit.traderbot.routines.autonomous.ForecastCache;
+import com.tecknobit.traderbot.routines.autonomous.ForecastEvaluator;
+import com.tecknobit.traderbot.routines.autonomous.PriceTriggerIndex;
+import com.tecknobit.traderbot.routines.autonomous.RoutineScheduler;
+import com.tecknobit.traderbot.routines.autonomous.TPTOPEngine;
+import com.tecknobit.traderbot.routines.autonomous.TPTOPEngine.ForecastMode;
+import com.tecknobit.traderbot.routines.autonomous.WalletLock;
 import com.tecknobit.traderbot.traders.interfaces.CoinbaseTraderBot;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.tecknobit.apimanager.trading.TradingTools.roundValue;
 import static com.tecknobit.coinbasemanager.exchangepro.products.records.Candle.Granularity._1d;
+import static com.tecknobit.traderbot.candles.CandleStore.DAILY_INTERVAL;
+import static com.tecknobit.traderbot.routines.autonomous.ForecastCache.ONE_DAY;
+import static com.tecknobit.traderbot.routines.autonomous.ForecastCache.getCandleClose;
+import static com.tecknobit.traderbot.routines.autonomous.ForecastEvaluator.DEFAULT_MAX_IN_FLIGHT;
+import static com.tecknobit.traderbot.routines.autonomous.PriceTriggerIndex.NO_TRIGGER;
+import static com.tecknobit.traderbot.routines.autonomous.RoutineScheduler.*;
+import static com.tecknobit.traderbot.routines.autonomous.TPTOPEngine.ForecastMode.*;
 import static com.tecknobit.traderbot.routines.interfaces.TraderBotConstants.USD_CURRENCY;
 import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.System.currentTimeMillis;
 
 /**
@@ -50,6 +78,17 @@ public class CoinbaseAutoTraderBot extends CoinbaseTraderBot implements AutoTrad
      * **/
     public static final String LOT_SIZE_FILTER = "LOT_SIZE";
 
+    /**
+     * {@code CANDLES_PAGE_LIMIT} is the max number of daily candles fetched with a single request in {@link #syncCandles(String)}
+     * **/
+    public static final int CANDLES_PAGE_LIMIT = 300;
+
+    /**
+     * {@code MAX_CANDLES_HISTORY} is the max number of daily candles fetched by {@link #syncCandles(String)} when any
+     * candle of the symbol is stored yet
+     * **/
+    public static final int MAX_CANDLES_HISTORY = 1000;
+
     /**
      * {@code walletList} is a map that contains wallet list assets and index (es. BTCBUSD) as key {@link String} and {@link Cryptocurrency}
      * as value of map.
@@ -82,7 +121,7 @@ public class CoinbaseAutoTraderBot extends CoinbaseTraderBot implements AutoTrad
     /**
      * {@code runningTrader} is instance that memorizes flag that indicates if the bot is running
      * **/
-    protected boolean runningTrader;
+    protected volatile boolean runningTrader;
 
     /**
      * {@code previousChecking} is instance that memorizes previous timestamp when {@link #checkCryptocurrencies()} is called
@@ -115,9 +154,60 @@ public class CoinbaseAutoTraderBot extends CoinbaseTraderBot implements AutoTrad
     protected Cryptocurrency cryptocurrencySold;
 
     /**
-     * {@code USING_WALLET_LIST} is instance that memorizes if wallet list is being using
+     * {@code walletLock} is instance that memorizes lock used to manage concurrent access to {@link #walletList}
+     * @implNote buying and selling routines are writers, while printing and balance routines are readers
+     * **/
+    protected final WalletLock walletLock = new WalletLock();
+
+    /**
+     * {@code routineScheduler} is instance that memorizes scheduler used to execute the trading routines at their fixed rates
+     * **/
+    protected final RoutineScheduler routineScheduler = new RoutineScheduler(4);
+
+    /**
+     * {@code forecastEvaluator} is instance that memorizes evaluator used to compute in parallel the forecasts of the
+     * symbols checked in {@link #checkCryptocurrencies()} routine
+     * **/
+    protected final ForecastEvaluator forecastEvaluator = new ForecastEvaluator(DEFAULT_MAX_IN_FLIGHT);
+
+    /**
+     * {@code forecastCache} is instance that memorizes forecasts computed by {@link #computeTPTOPIndex(String, TradingConfig, Object, double)}
+     * until the candle used to compute them is closed
+     * **/
+    protected final ForecastCache forecastCache = new ForecastCache();
+
+    /**
+     * {@code candleStore} is instance that memorizes store where the daily, three-days and monthly candles of the symbols
+     * are stored on disk, null if the candles are not stored
+     * **/
+    protected volatile CandleStore candleStore;
+
+    /**
+     * {@code tptopEngine} is instance that memorizes engine used to compute the forecasts from the candles of the
+     * {@link #candleStore}, null if any {@link #candleStore} is set
+     * **/
+    protected volatile TPTOPEngine tptopEngine;
+
+    /**
+     * {@code forecastMode} is instance that memorizes mode used to compute the forecasts in {@link #computeTPTOPIndex(String, TradingConfig, Object, double)}
      * **/
-    protected volatile boolean USING_WALLET_LIST = false;
+    protected volatile ForecastMode forecastMode = REMOTE;
+
+    /**
+     * {@code priceTriggerIndex} is instance that memorizes index of the prices that make the cryptocurrencies of the
+     * {@link #walletList} respect {@link TradingConfig} model to be sold
+     * **/
+    protected final PriceTriggerIndex priceTriggerIndex = new PriceTriggerIndex();
+
+    /**
+     * {@code triggersExecutor} is instance that memorizes executor used to sell the cryptocurrencies fired by the
+     * {@link #priceTriggerIndex} without blocking the routine that received the price
+     * **/
+    protected final ExecutorService triggersExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "price-triggers");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * Constructor to init {@link CoinbaseAutoTraderBot}
@@ -501,30 +591,24 @@ public class CoinbaseAutoTraderBot extends CoinbaseTraderBot implements AutoTrad
         runningTrader = true;
         printDisclaimer();
         previousBuying = System.currentTimeMillis();
-        new Thread(){
-            @Override
-            public void run() {
-                super.run();
-                try {
-                    while (true){
-                        while (runningTrader){
-                            if(makeRoutine(previousChecking, CHECKING_GAP_TIME)){
-                                previousChecking = System.currentTimeMillis();
-                                checkCryptocurrencies();
-                            }
-                            if(makeRoutine(previousBuying, BUYING_GAP_TIME)){
-                                previousBuying = System.currentTimeMillis();
-                                buyCryptocurrencies();
-                            }
-                        }
-                        System.out.println("Bot is stopped, waiting for reactivation");
-                        Thread.sleep(5000);
-                    }
-                }catch (Exception e) {
-                    e.printStackTrace();
-                }
+        routineScheduler.resume();
+        routineScheduler.scheduleRoutine(TRADING_CONFIG_FETCHING_ROUTINE, 0, BUYING_GAP_TIME * 2, () -> {
+            synchronized (checkingList) {
+                refreshTradingConfig();
+            }
+        });
+        routineScheduler.scheduleRoutine(CHECKING_ROUTINE, 0, CHECKING_GAP_TIME, () -> {
+            synchronized (checkingList) {
+                previousChecking = System.currentTimeMillis();
+                checkCryptocurrencies();
+            }
+        });
+        routineScheduler.scheduleRoutine(BUYING_ROUTINE, BUYING_GAP_TIME, BUYING_GAP_TIME, () -> {
+            synchronized (checkingList) {
+                previousBuying = System.currentTimeMillis();
+                buyCryptocurrencies();
             }
-        }.start();
+        });
         updateWallet();
     }
 
@@ -535,43 +619,72 @@ public class CoinbaseAutoTraderBot extends CoinbaseTraderBot implements AutoTrad
     @Override
     public void checkCryptocurrencies() throws Exception {
         System.out.println("## CHECKING NEW CRYPTOCURRENCIES");
-        if (makeRoutine(previousTradingConfigFetching, BUYING_GAP_TIME * 2)) {
-            previousTradingConfigFetching = currentTimeMillis();
-            tradingConfig = fetchTradingConfig(tradingConfig);
-        }
-        int daysGap = tradingConfig.getDaysGap();
+        if (tradingConfig == null || (!routineScheduler.isScheduled(TRADING_CONFIG_FETCHING_ROUTINE)
+                && makeRoutine(previousTradingConfigFetching, BUYING_GAP_TIME * 2)))
+            refreshTradingConfig();
+        HashMap<String, Coin> snapshotCoins = coins;
+        LinkedHashMap<String, Ticker> candidates = new LinkedHashMap<>();
+        HashMap<String, Double> priceChangePercents = new HashMap<>();
         for (Ticker ticker : coinbaseProductsManager.getAllTickers()) {
             String symbol = ticker.getProductId();
-            String quoteAsset = ticker.getQuoteAsset();
-            if (quoteCurrencies.isEmpty() || quoteContained(quoteAsset)) {
-                String baseAsset = ticker.getBaseAsset();
-                Coin coin = coins.get(baseAsset);
-                if (coin != null && !walletList.containsKey(baseAsset)) {
-                    double lastPrice = ticker.getPrice();
+            SymbolPair pair = symbolRegistry.getPair(symbol);
+            if (pair == null)
+                continue;
+            if (quoteCurrencies.isEmpty() || quoteContained(pair.getQuoteAsset())) {
+                String baseAsset = pair.getBaseAsset();
+                if (snapshotCoins.get(baseAsset) != null && !walletList.containsKey(baseAsset)) {
                     double priceChangePercent = 0;
                     Cryptocurrency cryptocurrency = checkingList.get(baseAsset);
                     if (cryptocurrency != null) {
                         priceChangePercent = coinbaseProductsManager.getTrendPercent(cryptocurrency.getLastPrice(),
-                                lastPrice, 8);
+                                ticker.getPrice(), 8);
                     }
-                    double tptop = isTradable(symbol, tradingConfig, _1d, priceChangePercent);
-                    if (tptop != ASSET_NOT_TRADABLE) {
-                        checkingList.put(baseAsset, new Cryptocurrency(baseAsset,
-                                coin.getAssetName(),
-                                0,
-                                symbol,
-                                lastPrice,
-                                tptop,
-                                _1d,
-                                priceChangePercent,
-                                quoteAsset,
-                                tradingConfig
-                        ));
-                    }else
-                        checkingList.remove(baseAsset);
+                    candidates.put(symbol, ticker);
+                    priceChangePercents.put(symbol, priceChangePercent);
                 }
             }
         }
+        TradingConfig checkingConfig = tradingConfig;
+        HashMap<String, Double> forecasts = forecastEvaluator.evaluate(candidates.keySet(), symbol ->
+                isTradable(symbol, checkingConfig, _1d, priceChangePercents.get(symbol)));
+        try {
+            forecastCache.persist();
+        } catch (IOException e) {
+            printRed("Forecasts cache not persisted: " + e.getMessage());
+        }
+        for (Ticker ticker : candidates.values()) {
+            String symbol = ticker.getProductId();
+            Double tptop = forecasts.get(symbol);
+            if (tptop != null) {
+                SymbolPair pair = symbolRegistry.getPair(symbol);
+                String baseAsset = pair.getBaseAsset();
+                if (tptop != ASSET_NOT_TRADABLE) {
+                    checkingList.put(baseAsset, new Cryptocurrency(baseAsset,
+                            snapshotCoins.get(baseAsset).getAssetName(),
+                            0,
+                            symbol,
+                            ticker.getPrice(),
+                            tptop,
+                            _1d,
+                            priceChangePercents.get(symbol),
+                            pair.getQuoteAsset(),
+                            checkingConfig
+                    ));
+                }else
+                    checkingList.remove(baseAsset);
+            } else if (printRoutineMessages)
+                printRed("Forecast of [" + symbol + "] not available");
+        }
+    }
+
+    /**
+     * This method is used to fetch a new {@link TradingConfig} model and to update {@link #tradingConfig} instance <br>
+     * Any params required
+     * @implNote if the fetching fails the old model will be used
+     * **/
+    protected void refreshTradingConfig() {
+        previousTradingConfigFetching = currentTimeMillis();
+        tradingConfig = fetchTradingConfig(tradingConfig);
     }
 
     /**
@@ -604,12 +717,56 @@ public class CoinbaseAutoTraderBot extends CoinbaseTraderBot implements AutoTrad
      * @param tradingConfig: model of trading to use as {@link TradingConfig}
      * @param candleInterval: interval gap to make forecast
      * @return value of tptop index if is correct and return {@link #ASSET_NOT_TRADABLE} if is not respect {@link TradingConfig} model.
+     * @implNote forecasts made on daily candles are served by the {@link #forecastCache} until the candle is closed,
+     * the index is cached as computed and the min gain for order is checked by
+     * {@link #isTradable(String, TradingConfig, Object, double)}
      * **/
     @Override
     public double computeTPTOPIndex(String symbol, TradingConfig tradingConfig, Object candleInterval,
                                     double wasteRange) throws Exception {
-        return coinbaseProductsManager.getSymbolForecast(symbol, tradingConfig.getDaysGap(), (Granularity) candleInterval,
-                tradingConfig.getWasteRange());
+        Granularity granularity = (Granularity) candleInterval;
+        int daysGap = tradingConfig.getDaysGap();
+        if (granularity != _1d)
+            return coinbaseProductsManager.getSymbolForecast(symbol, daysGap, granularity, tradingConfig.getWasteRange());
+        ForecastMode forecastMode = this.forecastMode;
+        String forecastGranularity = String.valueOf(granularity);
+        if (forecastMode == LOCAL)
+            forecastGranularity += "/" + LOCAL;
+        return forecastCache.getForecast(symbol, forecastGranularity, daysGap, tradingConfig.getWasteRange(),
+                tradingConfig.getModelId(), getCandleClose(currentTimeMillis(), ONE_DAY),
+                forecastSymbol -> computeForecast(forecastSymbol, granularity, daysGap, tradingConfig.getWasteRange(),
+                        forecastMode));
+    }
+
+    /**
+     * This method is used to compute a daily forecast with a {@link ForecastMode}
+     * @param symbol: symbol of the forecast es. BTC-USD
+     * @param granularity: granularity of the candles of the forecast
+     * @param daysGap: days gap of the forecast
+     * @param wasteRange: waste range of the forecast
+     * @param forecastMode: mode used to compute the forecast
+     * @return forecast of the symbol as double
+     * @implNote in {@link ForecastMode#SHADOW} mode the forecast computed by the {@link #tptopEngine} is compared with
+     * the forecast of the exchange, and if it cannot be computed the forecast of the exchange is returned anyway
+     * **/
+    protected double computeForecast(String symbol, Granularity granularity, int daysGap, double wasteRange,
+                                     ForecastMode forecastMode) throws Exception {
+        TPTOPEngine tptopEngine = this.tptopEngine;
+        if (forecastMode == REMOTE || tptopEngine == null)
+            return coinbaseProductsManager.getSymbolForecast(symbol, daysGap, granularity, wasteRange);
+        if (forecastMode == LOCAL) {
+            syncCandles(symbol);
+            return tptopEngine.computeTPTOPIndex(symbol, DAILY_INTERVAL, daysGap, wasteRange);
+        }
+        double tptop = coinbaseProductsManager.getSymbolForecast(symbol, daysGap, granularity, wasteRange);
+        try {
+            syncCandles(symbol);
+            tptopEngine.compare(tptopEngine.computeTPTOPIndex(symbol, DAILY_INTERVAL, daysGap, wasteRange), tptop);
+        } catch (Exception e) {
+            if (printRoutineMessages)
+                printRed("Local forecast of [" + symbol + "] not available");
+        }
+        return tptop;
     }
 
     /**
@@ -619,27 +776,29 @@ public class CoinbaseAutoTraderBot extends CoinbaseTraderBot implements AutoTrad
      * **/
     @Override
     public void buyCryptocurrencies() throws Exception {
-        while (USING_WALLET_LIST);
-        USING_WALLET_LIST = true;
         System.out.println("## BUYING NEW CRYPTOCURRENCIES");
-        for (Cryptocurrency cryptocurrency : checkingList.values()){
-            String symbol = cryptocurrency.getSymbol();
-            double quantity = getMarketOrderQuantity(cryptocurrency);
-            if(quantity != -1) {
-                try {
-                    buyMarket(symbol, quantity);
-                    cryptocurrency.setQuantity(quantity);
-                    cryptocurrency.addFirstPrice(cryptocurrency.getLastPrice());
-                    walletList.put(cryptocurrency.getAssetIndex(), cryptocurrency);
-                    if(printRoutineMessages)
-                        System.out.println("Buying [" + symbol + "], quantity: " + quantity);
-                }catch (Exception e){
-                    USING_WALLET_LIST = false;
-                    printError(symbol, e);
+        long stamp = walletLock.lockWriting();
+        try {
+            for (Cryptocurrency cryptocurrency : checkingList.values()){
+                String symbol = cryptocurrency.getSymbol();
+                double quantity = getMarketOrderQuantity(cryptocurrency);
+                if(quantity != -1) {
+                    try {
+                        buyMarket(symbol, quantity);
+                        cryptocurrency.setQuantity(quantity);
+                        cryptocurrency.addFirstPrice(cryptocurrency.getLastPrice());
+                        walletList.put(cryptocurrency.getAssetIndex(), cryptocurrency);
+                        setSaleTrigger(cryptocurrency);
+                        if(printRoutineMessages)
+                            System.out.println("Buying [" + symbol + "], quantity: " + quantity);
+                    }catch (Exception e){
+                        printError(symbol, e);
+                    }
                 }
             }
+        }finally {
+            walletLock.unlockWriting(stamp);
         }
-        USING_WALLET_LIST = false;
         checkingList.clear();
         if(printRoutineMessages) {
             printRed("### Transactions");
@@ -655,66 +814,164 @@ public class CoinbaseAutoTraderBot extends CoinbaseTraderBot implements AutoTrad
      * **/
     @Override
     public void updateWallet() throws Exception {
-        new Thread(){
-            @Override
-            public void run() {
-                super.run();
-                while (true){
-                    while (runningTrader){
-                        if(makeRoutine(previousUpdating, UPDATING_GAP_TIME)){
-                            previousUpdating = System.currentTimeMillis();
-                            while (USING_WALLET_LIST);
-                            USING_WALLET_LIST = true;
+        routineScheduler.scheduleRoutine(UPDATING_ROUTINE, 0, UPDATING_GAP_TIME, () -> {
+            previousUpdating = System.currentTimeMillis();
+            refreshWalletCryptocurrencies();
+        });
+    }
+
+    /**
+     * This method is used to refresh the cryptocurrencies of the wallet and to sell the ones that respect
+     * {@link TradingConfig} model. <br>
+     * Any params required
+     * @implNote is executed by {@link #updateWallet()} routine
+     * **/
+    protected void refreshWalletCryptocurrencies() {
+        try {
+            if(walletList.size() > 0) {
+                System.out.println("## UPDATING WALLET CRYPTOCURRENCIES");
+                if(isRefreshTime())
+                    refreshLatestPrice();
+                long stamp = walletLock.lockWriting();
+                try {
+                    for (Cryptocurrency cryptocurrency : walletList.values()){
+                        int symbolId = priceBook.getSymbolId(getWalletSymbol(cryptocurrency));
+                        checkCryptocurrencySale(cryptocurrency, priceBook.getLastPrice(symbolId),
+                                priceBook.getPriceChangePercent(symbolId));
+                    }
+                }finally {
+                    walletLock.unlockWriting(stamp);
+                }
+            }
+            if(printRoutineMessages){
+                printRed("### Wallet");
+                for (Cryptocurrency cryptocurrency : walletLock.getWalletSnapshot(walletList))
+                    cryptocurrency.printDetails();
+                System.out.println("## Balance amount: " + getWalletBalance(baseCurrency,
+                        false, 2) + " " + baseCurrency);
+            }
+        }catch (Exception e){
+            printRed("Error during wallet updating");
+        }
+    }
+
+    /**
+     * This method is used to refresh a cryptocurrency of the wallet with a new price and to sell it if respects
+     * {@link TradingConfig} model
+     * @param cryptocurrency: cryptocurrency of the wallet to check
+     * @param lastPrice: last price of the cryptocurrency
+     * @param priceChangePercent: price change percent of the cryptocurrency
+     * @implNote if the cryptocurrency is not sold its sale trigger is inserted again in the {@link #priceTriggerIndex}
+     * **/
+    protected void checkCryptocurrencySale(Cryptocurrency cryptocurrency, double lastPrice,
+                                           double priceChangePercent) throws Exception {
+        TradingConfig tradingConfig = cryptocurrency.getTradingConfig();
+        double incomePercent = coinbaseProductsManager.getTrendPercent(cryptocurrency.getFirstPrice(), lastPrice);
+        double minGainOrder = tradingConfig.getMinGainForOrder();
+        double tptopIndex = cryptocurrency.getTptopIndex();
+        refreshCryptoDetails(cryptocurrency, incomePercent, lastPrice, priceChangePercent);
+        if(incomePercent < minGainOrder && incomePercent < tptopIndex){
+            setSaleTrigger(cryptocurrency);
+            if(printRoutineMessages)
+                System.out.println("Refreshing [" + getWalletSymbol(cryptocurrency) + "]");
+        }else if(incomePercent <= tradingConfig.getMaxLoss())
+            incrementSalesSale(cryptocurrency, LOSS_SELL);
+        else if(incomePercent >= minGainOrder || incomePercent >= tptopIndex)
+            incrementSalesSale(cryptocurrency, GAIN_SELL);
+        else
+            incrementSalesSale(cryptocurrency, PAIR_SELL);
+    }
+
+    /**
+     * This method is used to insert in the {@link #priceTriggerIndex} the price from which a cryptocurrency of the
+     * wallet respects {@link TradingConfig} model to be sold
+     * @param cryptocurrency: cryptocurrency of the wallet
+     * @implNote a cryptocurrency is sold when its income percent reaches the lower between min gain for order and
+     * tptop index, so that value is converted in the absolute price of the trigger
+     * **/
+    protected void setSaleTrigger(Cryptocurrency cryptocurrency) {
+        double saleIncomePercent = min(cryptocurrency.getTradingConfig().getMinGainForOrder(),
+                cryptocurrency.getTptopIndex());
+        priceTriggerIndex.setTriggers(getWalletSymbol(cryptocurrency), cryptocurrency.getAssetIndex(), NO_TRIGGER,
+                cryptocurrency.getFirstPrice() * (1 + saleIncomePercent / 100));
+    }
+
+    /**
+     * This method is used to check the triggers of a symbol with a new price and to sell the cryptocurrencies
+     * of the wallet fired by it
+     * @param symbol: symbol of the price
+     * @param lastPrice: last price of the symbol
+     * @param priceChangePercent: price change percent of the symbol
+     * @implNote the cryptocurrencies fired are sold by the {@link #triggersExecutor} only while {@link #runningTrader}
+     * is true, when the bot is disabled the triggers are not checked and the ones already fired are inserted again
+     * **/
+    protected void checkPriceTriggers(String symbol, double lastPrice, double priceChangePercent) {
+        if(!runningTrader)
+            return;
+        List<String> assetIndexes = priceTriggerIndex.onPrice(symbol, lastPrice);
+        if(!assetIndexes.isEmpty()) {
+            triggersExecutor.execute(() -> {
+                long stamp = walletLock.lockWriting();
+                try {
+                    for (String assetIndex : assetIndexes) {
+                        Cryptocurrency cryptocurrency = walletList.get(assetIndex);
+                        if(cryptocurrency != null) {
+                            if(!runningTrader) {
+                                setSaleTrigger(cryptocurrency);
+                                continue;
+                            }
                             try {
-                                if(walletList.size() > 0) {
-                                    System.out.println("## UPDATING WALLET CRYPTOCURRENCIES");
-                                    if(isRefreshTime())
-                                        refreshLatestPrice();
-                                    for (Cryptocurrency cryptocurrency : walletList.values()){
-                                        String symbol = cryptocurrency.getSymbol();
-                                        if(symbol == null)
-                                            symbol = cryptocurrency.getAssetIndex() + USD_CURRENCY;
-                                        TradingConfig tradingConfig = cryptocurrency.getTradingConfig();
-                                        Ticker ticker = lastPrices.get(symbol);
-                                        double lastPrice = ticker.getPrice();
-                                        double incomePercent = coinbaseProductsManager.getTrendPercent(
-                                                cryptocurrency.getFirstPrice(), lastPrice);
-                                        double minGainOrder = tradingConfig.getMinGainForOrder();
-                                        double tptopIndex = cryptocurrency.getTptopIndex();
-                                        refreshCryptoDetails(cryptocurrency, incomePercent, lastPrice, ticker.getPriceChangePercent());
-                                        if(incomePercent < tradingConfig.getMinGainForOrder() && incomePercent < tptopIndex){
-                                            if(printRoutineMessages)
-                                                System.out.println("Refreshing [" + symbol + "]");
-                                        }else if(incomePercent <= tradingConfig.getMaxLoss())
-                                            incrementSalesSale(cryptocurrency, LOSS_SELL);
-                                        else if(incomePercent >= minGainOrder || incomePercent >= tptopIndex)
-                                            incrementSalesSale(cryptocurrency, GAIN_SELL);
-                                        else
-                                            incrementSalesSale(cryptocurrency, PAIR_SELL);
-                                    }
-                                }
-                                USING_WALLET_LIST = false;
-                                if(printRoutineMessages){
-                                    printRed("### Wallet");
-                                    for (Cryptocurrency cryptocurrency : walletList.values())
-                                        cryptocurrency.printDetails();
-                                    System.out.println("## Balance amount: " + getWalletBalance(baseCurrency,
-                                            false, 2) + " " + baseCurrency);
-                                }
+                                checkCryptocurrencySale(cryptocurrency, lastPrice, priceChangePercent);
                             }catch (Exception e){
-                                USING_WALLET_LIST = false;
-                                printRed("Error during wallet updating");
+                                printError(symbol, e);
                             }
                         }
                     }
-                    try {
-                        Thread.sleep(5000);
-                    } catch (InterruptedException e) {
-                        printRed("Error during wallet updating");
-                    }
+                }finally {
+                    walletLock.unlockWriting(stamp);
                 }
-            }
-        }.start();
+            });
+        }
+    }
+
+    /**
+     * This method is used to get the symbol of a cryptocurrency of the wallet
+     * @param cryptocurrency: cryptocurrency of the wallet
+     * @return symbol of the cryptocurrency as {@link String}
+     * **/
+    protected String getWalletSymbol(Cryptocurrency cryptocurrency) {
+        String symbol = cryptocurrency.getSymbol();
+        if(symbol == null)
+            symbol = cryptocurrency.getAssetIndex() + USD_CURRENCY;
+        return symbol;
+    }
+
+    /**
+     * This method is used to refresh latest prices and to check the triggers of the cryptocurrencies of the wallet
+     * with them<br>
+     * Any params required
+     * **/
+    @Override
+    public void refreshLatestPrice() {
+        super.refreshLatestPrice();
+        for (String symbol : priceTriggerIndex.getSymbols()) {
+            int symbolId = priceBook.getSymbolId(symbol);
+            if(symbolId != PriceBook.NOT_FOUND)
+                checkPriceTriggers(symbol, priceBook.getLastPrice(symbolId), priceBook.getPriceChangePercent(symbolId));
+        }
+    }
+
+    /**
+     * This method is used to apply a ticker pushed by the {@link #marketDataFeed} and to check the triggers of the
+     * cryptocurrencies of the wallet with it
+     * @param symbol: symbol of the ticker
+     * @param lastPrice: last price of the symbol
+     * @param priceChangePercent: price change percent of the symbol
+     * **/
+    @Override
+    protected void applyTicker(String symbol, double lastPrice, double priceChangePercent) {
+        super.applyTicker(symbol, lastPrice, priceChangePercent);
+        checkPriceTriggers(symbol, lastPrice, priceChangePercent);
     }
 
     /**
@@ -727,6 +984,7 @@ public class CoinbaseAutoTraderBot extends CoinbaseTraderBot implements AutoTrad
         cryptocurrencySold = cryptocurrency;
         sellMarket(cryptocurrency.getSymbol(), cryptocurrency.getQuantity());
         walletList.remove(cryptocurrency.getAssetIndex());
+        priceTriggerIndex.removeTriggers(getWalletSymbol(cryptocurrency), cryptocurrency.getAssetIndex());
         switch (codeOpe){
             case LOSS_SELL:
                 traderAccount.addLoss();
@@ -811,12 +1069,137 @@ public class CoinbaseAutoTraderBot extends CoinbaseTraderBot implements AutoTrad
         return runningTrader;
     }
 
+    /**
+     * This method is used to set max number of forecasts in flight at the same time in {@link #checkCryptocurrencies()} routine
+     * @param maxForecastsInFlight: max number of forecasts in flight at the same time
+     * @throws IllegalArgumentException if {@code maxForecastsInFlight} value is less than 1
+     * @implNote keep this value low to respect the request rate limits of the exchange
+     * **/
+    public void setMaxForecastsInFlight(int maxForecastsInFlight) {
+        forecastEvaluator.setMaxInFlight(maxForecastsInFlight);
+    }
+
+    /**
+     * This method is used to get max number of forecasts in flight at the same time in {@link #checkCryptocurrencies()} routine <br>
+     * Any params required
+     * @return max number of forecasts in flight at the same time as int
+     * **/
+    public int getMaxForecastsInFlight() {
+        return forecastEvaluator.getMaxInFlight();
+    }
+
+    /**
+     * This method is used to get the cache of the forecasts computed in {@link #checkCryptocurrencies()} routine <br>
+     * Any params required
+     * @return cache of the forecasts as {@link ForecastCache}
+     * @implNote use {@link ForecastCache#setPersistenceFile(Path)} to restore the forecasts after a restart
+     * **/
+    public ForecastCache getForecastCache() {
+        return forecastCache;
+    }
+
+    /**
+     * This method is used to fetch the daily candles of a symbol closed after the last one stored in {@link #candleStore}
+     * and to derive from them the three-days and monthly candles
+     * @param symbol: symbol of the candles es. BTC-USD
+     * @return number of daily candles appended as int
+     * @throws IllegalStateException if any {@link #candleStore} is set
+     * @implNote when any candle of the symbol is stored yet only the last {@link #MAX_CANDLES_HISTORY} daily candles are fetched
+     * **/
+    public int syncCandles(String symbol) throws Exception {
+        CandleStore candleStore = this.candleStore;
+        if (candleStore == null)
+            throw new IllegalStateException("Candle store is not set");
+        return candleStore.sync(symbol, (candlesSymbol, startTime) -> {
+            ArrayList<double[]> candles = new ArrayList<>();
+            long now = currentTimeMillis();
+            long pageStart = max(startTime, getCandleClose(now, ONE_DAY) - MAX_CANDLES_HISTORY * ONE_DAY);
+            while (pageStart < now) {
+                long pageEnd = pageStart + CANDLES_PAGE_LIMIT * ONE_DAY;
+                Params params = new Params();
+                params.addParam("granularity", 86400);
+                params.addParam("start", pageStart / 1000);
+                params.addParam("end", (pageEnd - ONE_DAY) / 1000);
+                ArrayList<Candle> page = coinbaseProductsManager.getProductCandlesList(candlesSymbol, params);
+                page.sort(Comparator.comparingLong(Candle::getTime));
+                for (Candle candle : page) {
+                    candles.add(new double[]{candle.getTime() * 1000, candle.getOpen(), candle.getHigh(),
+                            candle.getLow(), candle.getClose(), candle.getVolume()});
+                }
+                pageStart = pageEnd;
+            }
+            return candles;
+        });
+    }
+
+    /**
+     * Method to set {@link #candleStore} instance
+     * @param candleStore: store where the candles of the symbols are stored, null to not store them
+     * **/
+    public void setCandleStore(CandleStore candleStore) {
+        if (candleStore == null && forecastMode != REMOTE)
+            throw new IllegalStateException("Candle store is required by " + forecastMode + " forecast mode");
+        tptopEngine = candleStore != null ? new TPTOPEngine(candleStore) : null;
+        this.candleStore = candleStore;
+    }
+
+    /**
+     * Method to get {@link #candleStore} instance <br>
+     * Any params required
+     * @return {@link #candleStore} instance as {@link CandleStore}, null if is not set
+     * **/
+    public CandleStore getCandleStore() {
+        return candleStore;
+    }
+
+    /**
+     * Method to set {@link #forecastMode} instance
+     * @param forecastMode: mode used to compute the forecasts
+     * @throws IllegalStateException if the mode requires the {@link #candleStore} and it is not set
+     * @implNote forecasts computed in {@link ForecastMode#LOCAL} mode are cached separately from the forecasts of the
+     * exchange in the {@link #forecastCache}
+     * **/
+    public void setForecastMode(ForecastMode forecastMode) {
+        if (forecastMode != REMOTE && candleStore == null)
+            throw new IllegalStateException("Candle store is required by " + forecastMode + " forecast mode");
+        this.forecastMode = forecastMode;
+    }
+
+    /**
+     * Method to get {@link #forecastMode} instance <br>
+     * Any params required
+     * @return {@link #forecastMode} instance as {@link ForecastMode}
+     * **/
+    public ForecastMode getForecastMode() {
+        return forecastMode;
+    }
+
+    /**
+     * Method to get {@link #tptopEngine} instance <br>
+     * Any params required
+     * @return {@link #tptopEngine} instance as {@link TPTOPEngine}, null if any {@link #candleStore} is set
+     * @implNote in {@link ForecastMode#SHADOW} mode the engine memorizes the deviations from the forecasts of the exchange
+     * **/
+    public TPTOPEngine getTptopEngine() {
+        return tptopEngine;
+    }
+
+    /**
+     * This method is used to get the drift of the last execution of each trading routine <br>
+     * Any params required
+     * @return map that contains the name of the routine as key and its last drift in millis as value
+     * **/
+    public HashMap<String, Long> getRoutinesDrift() {
+        return routineScheduler.getRoutinesDrift();
+    }
+
     /**
      * This method is used to disable running mode of bot
      * **/
     @Override
     public void disableBot() {
         runningTrader = false;
+        routineScheduler.pause();
     }
 
     /**
@@ -825,6 +1208,7 @@ public class CoinbaseAutoTraderBot extends CoinbaseTraderBot implements AutoTrad
     @Override
     public void enableBot() {
         runningTrader = true;
+        routineScheduler.resume();
     }
 
     /**
@@ -1,6 +1,7 @@
 package com.tecknobit.traderbot.traders.interfaces;
 
 import com.tecknobit.apimanager.annotations.Wrapper;
+import com.tecknobit.apimanager.apis.APIRequest.Params;
 import com.tecknobit.binancemanager.managers.BinanceManager;
 import com.tecknobit.binancemanager.managers.BinanceManager.BinanceEndpoint;
 import com.tecknobit.binancemanager.managers.market.BinanceMarketManager;
@@ -13,28 +14,34 @@ import com.tecknobit.binancemanager.managers.signedmanagers.trade.spot.BinanceSp
 import com.tecknobit.binancemanager.managers.signedmanagers.trade.spot.records.orders.response.SpotOrderStatus;
 import com.tecknobit.binancemanager.managers.signedmanagers.wallet.BinanceWalletManager;
 import com.tecknobit.binancemanager.managers.signedmanagers.wallet.records.asset.CoinInformation;
+import com.tecknobit.traderbot.feeds.MarketDataFeed;
 import com.tecknobit.traderbot.records.portfolio.Asset;
 import com.tecknobit.traderbot.records.portfolio.Coin;
 import com.tecknobit.traderbot.records.portfolio.MarketCoin;
+import com.tecknobit.traderbot.records.portfolio.MarketSnapshot;
+import com.tecknobit.traderbot.records.portfolio.OrderHistory;
+import com.tecknobit.traderbot.records.portfolio.PriceBook;
+import com.tecknobit.traderbot.records.portfolio.SymbolRules;
 import com.tecknobit.traderbot.records.portfolio.Transaction;
+import com.tecknobit.traderbot.routines.interfaces.SingleFlightRefresh;
 import com.tecknobit.traderbot.routines.interfaces.TraderCoreRoutines;
-import org.json.JSONException;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 
 import static com.tecknobit.apimanager.trading.TradingTools.roundValue;
 import static com.tecknobit.binancemanager.managers.BinanceManager.ReturnFormat.STRING;
 import static com.tecknobit.binancemanager.managers.market.records.stats.ExchangeInformation.Filter.FilterType.LOT_SIZE;
 import static com.tecknobit.binancemanager.managers.market.records.stats.ExchangeInformation.Filter.FilterType.MIN_NOTIONAL;
-import static com.tecknobit.binancemanager.managers.signedmanagers.trade.commons.Order.Status.FILLED;
+import static com.tecknobit.binancemanager.managers.market.records.stats.ExchangeInformation.Filter.FilterType.PRICE_FILTER;
+import static com.tecknobit.traderbot.records.portfolio.Transaction.DATE_TO_STRING_PATTERN;
 import static com.tecknobit.traderbot.routines.interfaces.TraderBotConstants.*;
 import static com.tecknobit.traderbot.routines.interfaces.TraderBotConstants.Side.BUY;
 import static com.tecknobit.traderbot.routines.interfaces.TraderBotConstants.Side.SELL;
-import static java.lang.Math.ceil;
-import static java.lang.Math.floor;
 
 /**
  * The {@code BinanceTraderBot} class is trader for {@link BinanceManager} library.<br>
@@ -81,7 +88,7 @@ public class BinanceTraderBot extends TraderCoreRoutines {
      * @implSpec this map has as key the asset index (es. BTC) as {@link String} and has as value custom object
      * {@link Symbol} give by {@link BinanceManager} library.
      * **/
-    protected HashMap<String, Symbol> tradingPairsList;
+    protected volatile HashMap<String, Symbol> tradingPairsList;
 
     /**
      * {@code lastPrices} is a map that contains asset index (es. BTC) as key {@link String} and last ticker as {@link TickerPriceChange}
@@ -89,7 +96,88 @@ public class BinanceTraderBot extends TraderCoreRoutines {
      * @implNote refresh of last prices, by default, is every 10 seconds, but you can set programmatically
      * {@link #refreshTime} to customize refresh time.
      * **/
-    protected HashMap<String, TickerPriceChange> lastPrices;
+    protected volatile HashMap<String, TickerPriceChange> lastPrices;
+
+    /**
+     * {@code marketSnapshot} is instance that memorizes last snapshot of {@link #lastPrices}, {@link #coins} and
+     * {@link #tradingPairsList} published by the refreshes
+     * @implNote each refresh builds new maps and publishes them with a single swap, so the maps of a snapshot are never
+     * modified and can be read without any lock
+     * **/
+    protected volatile MarketSnapshot<TickerPriceChange, Symbol> marketSnapshot;
+
+    /**
+     * {@code priceBook} is instance that memorizes last prices of {@link #lastPrices} in primitive arrays to make
+     * allocation-free price lookups
+     * **/
+    protected final PriceBook priceBook = new PriceBook();
+
+    /**
+     * {@code latestPriceRefresh} is instance that memorizes refresh of {@link #refreshLatestPrice()} shared by the
+     * routines that request it at the same time
+     * **/
+    protected final SingleFlightRefresh latestPriceRefresh = new SingleFlightRefresh();
+
+    /**
+     * {@code marketDataFeed} is instance that memorizes feed that pushes the prices between the refreshes of the
+     * prices, null if the prices are only polled
+     * **/
+    protected volatile MarketDataFeed marketDataFeed;
+
+    /**
+     * {@code EXCHANGE_INFORMATION_TTL} is time to live of exchange information before being refreshed
+     **/
+    public static final long EXCHANGE_INFORMATION_TTL = 3600 * 1000L;
+
+    /**
+     * {@code symbolsFingerprints} is a map that contains symbol (es. BTCBUSD) as key {@link String} and its fingerprint
+     * as value, used to detect changed symbols between exchange information refreshes
+     **/
+    protected final HashMap<String, Integer> symbolsFingerprints = new HashMap<>();
+
+    /**
+     * {@code symbolRules} is instance that memorizes trading rules of the symbols of {@link #tradingPairsList} parsed
+     * once at each exchange information refresh
+     * **/
+    protected final SymbolRules symbolRules = new SymbolRules();
+
+    /**
+     * {@code lastExchangeInformationRefresh} is instance that memorizes last time that exchange information are updated
+     **/
+    protected long lastExchangeInformationRefresh;
+
+    /**
+     * {@code balancesOutdated} is instance that memorizes flag that indicates if balances have to be refreshed
+     **/
+    protected volatile boolean balancesOutdated = true;
+
+    /**
+     * {@code skippedBalancesRefreshes} is instance that memorizes number of balances refreshes skipped
+     **/
+    protected long skippedBalancesRefreshes;
+
+    /**
+     * {@code skippedExchangeInformationRefreshes} is instance that memorizes number of exchange information refreshes skipped
+     **/
+    protected long skippedExchangeInformationRefreshes;
+
+    /**
+     * {@code reusedCoins} is instance that memorizes number of {@link Coin} objects reused because not changed between
+     * balances refreshes
+     **/
+    protected long reusedCoins;
+
+    /**
+     * {@code unchangedSymbols} is instance that memorizes number of {@link Symbol} objects not replaced between exchange
+     * information refreshes
+     **/
+    protected long unchangedSymbols;
+
+    /**
+     * {@code orderHistory} is instance that memorizes filled orders fetched for each symbol, used to fetch only the new
+     * orders at each transactions refresh
+     **/
+    protected final OrderHistory orderHistory = new OrderHistory(this::fetchOrders);
 
     /** Constructor to init {@link BinanceTraderBot}
      * @param apiKey: your Binance's api key
@@ -208,6 +296,25 @@ public class BinanceTraderBot extends TraderCoreRoutines {
         this.quoteCurrencies = quoteCurrencies;
     }
 
+    /**
+     * Constructor to init {@link BinanceTraderBot} with managers already created, without refreshing any data from
+     * the exchange
+     *
+     * @param binanceWalletManager: manager used to fetch the balances
+     * @param binanceSpotManager:   manager used to send the orders
+     * @param binanceMarketManager: manager used to fetch the prices and the exchange information
+     * @implNote is useful to benchmark the routines of the trader on data inserted offline in {@link #coins},
+     * {@link #priceBook} and {@link #symbolRules}
+     **/
+    protected BinanceTraderBot(BinanceWalletManager binanceWalletManager, BinanceSpotManager binanceSpotManager,
+                               BinanceMarketManager binanceMarketManager) {
+        this.binanceWalletManager = binanceWalletManager;
+        this.binanceSpotManager = binanceSpotManager;
+        this.binanceMarketManager = binanceMarketManager;
+        refreshTime = 10000;
+        initInstances();
+    }
+
     /**
      * This method init all instances that {@link BinanceTraderBot}'s routine need. <br>
      * Any params required <br>
@@ -215,6 +322,15 @@ public class BinanceTraderBot extends TraderCoreRoutines {
     @Override
     protected void initTrader() throws Exception {
         printCredentialsDisclaimer();
+        initInstances();
+        refreshLatestPrice();
+    }
+
+    /**
+     * This method is used to create the containers of the data of the trader, empty <br>
+     * Any params required
+     **/
+    private void initInstances() {
         tradingPairsList = new HashMap<>();
         allTransactions = new ArrayList<>();
         if(quoteCurrencies == null)
@@ -226,7 +342,7 @@ public class BinanceTraderBot extends TraderCoreRoutines {
         lastPrices = new HashMap<>();
         assets = new ArrayList<>();
         coins = new HashMap<>();
-        refreshLatestPrice();
+        publishMarketSnapshot(lastPrices, coins, tradingPairsList, 0);
     }
 
     /**
@@ -252,29 +368,42 @@ public class BinanceTraderBot extends TraderCoreRoutines {
     @Override
     public double getWalletBalance(String currency, boolean forceRefresh) throws Exception {
         if (isRefreshTime() || !lastBalanceCurrency.equals(currency) || forceRefresh) {
+            invalidateBalances();
             refreshLatestPrice();
             lastBalanceCurrency = currency;
-            balance = 0;
-            for (Coin coin : coins.values())
-                if (coin.isTradingEnabled()) {
-                    String assetIndex = coin.getAssetIndex();
-                    double lastPrice;
-                    if (assetIndex.equals(BUSD_CURRENCY)) {
-                        try {
-                            lastPrice = binanceMarketManager.getCurrentAveragePriceValue(BUSD_CURRENCY + USDT_CURRENCY);
-                        } catch (IOException e) {
-                            return 0;
-                        }
-                    } else
-                        lastPrice = lastPrices.get(assetIndex + BUSD_CURRENCY).getLastPrice();
-                    balance += coin.getQuantity() * lastPrice;
-                }
+            balance = computeWalletBalance();
             if (!currency.contains(USD_CURRENCY))
                 balance = convertFromUsd(currency, balance, 8);
         }
         return balance;
     }
 
+    /**
+     * This method is used to compute the wallet balance in USD with the coins and the prices currently stored,
+     * without refreshing them <br>
+     * Any params required
+     *
+     * @return wallet balance in USD value, 0 if the price of BUSD cannot be fetched
+     **/
+    protected double computeWalletBalance() throws Exception {
+        double walletBalance = 0;
+        for (Coin coin : coins.values())
+            if (coin.isTradingEnabled()) {
+                String assetIndex = coin.getAssetIndex();
+                double lastPrice;
+                if (assetIndex.equals(BUSD_CURRENCY)) {
+                    try {
+                        lastPrice = binanceMarketManager.getCurrentAveragePriceValue(BUSD_CURRENCY + USDT_CURRENCY);
+                    } catch (IOException e) {
+                        return 0;
+                    }
+                } else
+                    lastPrice = priceBook.getLastPrice(assetIndex, BUSD_CURRENCY);
+                walletBalance += coin.getQuantity() * lastPrice;
+            }
+        return walletBalance;
+    }
+
     /**
      * This method is used to get asset list of Binance's user wallet.<br>
      * @param currency: currency of asset balance value es. EUR will return asset balance in EUR currency.
@@ -284,6 +413,7 @@ public class BinanceTraderBot extends TraderCoreRoutines {
     @Override
     public ArrayList<Asset> getAssetsList(String currency, boolean forceRefresh) throws Exception {
         if(isRefreshTime() || !lastAssetCurrency.equals(currency) || forceRefresh){
+            invalidateBalances();
             refreshLatestPrice();
             assets.clear();
             lastAssetCurrency = currency;
@@ -293,7 +423,7 @@ public class BinanceTraderBot extends TraderCoreRoutines {
                     String asset = coin.getAssetIndex();
                     if (asset.equals(BUSD_CURRENCY))
                         asset = BUSD_CURRENCY;
-                    double value = free * lastPrices.get(asset + BUSD_CURRENCY).getLastPrice();
+                    double value = free * priceBook.getLastPrice(asset, BUSD_CURRENCY);
                     if (!currency.contains(USD_CURRENCY))
                         value = convertFromUsd(currency, value, 8);
                     assets.add(new Asset(asset,
@@ -330,9 +460,15 @@ public class BinanceTraderBot extends TraderCoreRoutines {
     @Override
     public ArrayList<Transaction> getAllTransactions(String dateFormat, boolean forceRefresh) throws Exception {
         if (isRefreshTime() || allTransactions.isEmpty() || forceRefresh) {
+            invalidateBalances();
+            refreshLatestPrice();
+            ArrayList<String> symbols = new ArrayList<>();
+            for (String quoteCurrency : quoteCurrencies)
+                symbols.addAll(getTradingSymbols(quoteCurrency).keySet());
+            orderHistory.sync(symbols);
             allTransactions.clear();
             for (String quoteCurrency : quoteCurrencies)
-                allTransactions.addAll(getTransactionsList(quoteCurrency, dateFormat, forceRefresh));
+                allTransactions.addAll(assembleTransactions(quoteCurrency, dateFormat));
             transactions.clear();
         }
         return allTransactions;
@@ -363,41 +499,86 @@ public class BinanceTraderBot extends TraderCoreRoutines {
     public ArrayList<Transaction> getTransactionsList(String quoteCurrency, String dateFormat,
                                                       boolean forceRefresh) throws Exception {
         if (isRefreshTime() || !lastTransactionCurrency.equals(quoteCurrency) || forceRefresh) {
+            invalidateBalances();
             refreshLatestPrice();
             lastTransactionCurrency = quoteCurrency;
+            orderHistory.sync(getTradingSymbols(quoteCurrency).keySet());
             transactions.clear();
-            for (Coin coin : coins.values()) {
-                if (coin.isTradingEnabled()) {
-                    String baseAsset = coin.getAssetIndex();
-                    String symbol = baseAsset + lastTransactionCurrency;
-                    if (!symbol.startsWith(lastTransactionCurrency)) {
-                        try {
-                            for (SpotOrderStatus order : binanceSpotManager.getAllOrders(symbol)) {
-                                if (order.getStatus().equals(FILLED)) {
-                                    String date;
-                                    if (dateFormat != null)
-                                        date = Transaction.getDate(order.getTime(), dateFormat);
-                                    else
-                                        date = new Date(order.getTime()).toString();
-                                    transactions.add(new Transaction(symbol,
-                                            Side.valueOf(order.getSide().name()),
-                                            date,
-                                            order.getCummulativeQuoteQty(),
-                                            order.getOrigQty(),
-                                            lastTransactionCurrency,
-                                            baseAsset
-                                    ));
-                                }
-                            }
-                        }catch (JSONException ignored){
-                        }
-                    }
-                }
+            transactions.addAll(assembleTransactions(quoteCurrency, dateFormat));
+        }
+        return transactions;
+    }
+
+    /**
+     * This method is used to get the symbols of the trading enabled coins paired with a quote currency
+     *
+     * @param quoteCurrency: quote currency of the symbols es. BUSD
+     * @return map that contains symbol as key {@link String} and its base asset as value
+     **/
+    private HashMap<String, String> getTradingSymbols(String quoteCurrency) {
+        HashMap<String, String> symbols = new HashMap<>();
+        for (Coin coin : coins.values()) {
+            if (coin.isTradingEnabled()) {
+                String baseAsset = coin.getAssetIndex();
+                String symbol = baseAsset + quoteCurrency;
+                if (!symbol.startsWith(quoteCurrency))
+                    symbols.put(symbol, baseAsset);
+            }
+        }
+        return symbols;
+    }
+
+    /**
+     * This method is used to assemble the transactions of the filled orders stored in the {@link #orderHistory}
+     *
+     * @param quoteCurrency: quote currency of the transactions es. BUSD
+     * @param dateFormat:    this indicates the format of date that you want to have es. HH:mm:ss -> 21:22:08
+     * @return list of custom object {@link Transaction} as {@link ArrayList}
+     **/
+    private ArrayList<Transaction> assembleTransactions(String quoteCurrency, String dateFormat) {
+        ArrayList<Transaction> transactions = new ArrayList<>();
+        String datePattern = dateFormat != null ? dateFormat : DATE_TO_STRING_PATTERN;
+        for (Map.Entry<String, String> symbol : getTradingSymbols(quoteCurrency).entrySet()) {
+            for (SpotOrderStatus order : orderHistory.getFilledOrders(symbol.getKey())) {
+                transactions.add(new Transaction(symbol.getKey(),
+                        Side.valueOf(order.getSide().name()),
+                        order.getTime(),
+                        datePattern,
+                        order.getCummulativeQuoteQty(),
+                        order.getOrigQty(),
+                        quoteCurrency,
+                        symbol.getValue()
+                ));
             }
         }
         return transactions;
     }
 
+    /**
+     * This method is used to fetch the orders of a symbol for the {@link #orderHistory}
+     *
+     * @param symbol:      symbol of the orders es. BTCBUSD
+     * @param fromOrderId: id of the first order to fetch
+     * @param limit:       max number of orders to fetch
+     * @return orders sorted by order id as {@link ArrayList} of {@link SpotOrderStatus}
+     **/
+    private ArrayList<SpotOrderStatus> fetchOrders(String symbol, long fromOrderId, int limit) throws Exception {
+        Params params = new Params();
+        params.addParam("orderId", fromOrderId);
+        params.addParam("limit", limit);
+        return binanceSpotManager.getAllOrders(symbol, params);
+    }
+
+    /**
+     * This method is used to get the order history of the trader <br>
+     * Any params required
+     *
+     * @return order history as {@link OrderHistory}
+     **/
+    public OrderHistory getOrderHistory() {
+        return orderHistory;
+    }
+
     /**
      * This method is used to send a buy market order from a Binance SPOT account.<br>
      * @param symbol: this indicates the symbol for the order es. BTCBUSD
@@ -413,6 +594,7 @@ public class BinanceTraderBot extends TraderCoreRoutines {
             String baseAsset = coinSymbol.getBaseAsset();
             Coin coin = coins.get(baseAsset);
             insertCoin(baseAsset, coin.getAssetName(), coin.getQuantity() + quantity);
+            invalidateBalances();
         }else {
             throw new Exception("Error during buy order status code: [" + statusCode + "]" +
                     " error message: [" + binanceSpotManager.getErrorResponse() + "]");
@@ -432,9 +614,10 @@ public class BinanceTraderBot extends TraderCoreRoutines {
         if (coin != null && coin.isTradingEnabled()) {
             placeAnOrder(symbol, quantity, SELL);
             int statusCode = binanceSpotManager.getStatusResponse();
-            if (statusCode == 200)
+            if (statusCode == 200) {
                 insertCoin(baseAsset, coin.getAssetName(), coin.getQuantity() - quantity);
-            else {
+                invalidateBalances();
+            } else {
                 throw new Exception("Error during sell order status code: [" + statusCode + "]" +
                         " error message: [" + binanceSpotManager.getErrorResponse() + "]");
             }
@@ -476,32 +659,255 @@ public class BinanceTraderBot extends TraderCoreRoutines {
     /**
      * This method is used to refresh latest prices<br>
      * Any params required
+     * @implNote the refresh is tiered: prices are refreshed at every call, balances only when are outdated
+     * (on demand or after an order is filled) and exchange information only when {@link #EXCHANGE_INFORMATION_TTL}
+     * is expired
      **/
     @Override
-    public synchronized void refreshLatestPrice() throws Exception {
-        lastPricesRefresh = System.currentTimeMillis();
-        for (CoinInformation coin : binanceWalletManager.getAllCoins()) {
-            double free = coin.getFree();
-            boolean isTradingEnable = true;
-            String index = coin.getCoin();
-            if (free == 0 || !coin.canTrading())
-                isTradingEnable = false;
-            coins.put(index, new Coin(index,
-                    coin.getName(),
-                    free,
-                    isTradingEnable
-            ));
-        }
-        for (Symbol symbol : binanceMarketManager.getExchangeInformation().getSymbols())
-            tradingPairsList.put(symbol.getSymbol(), symbol);
+    public void refreshLatestPrice() throws Exception {
+        latestPriceRefresh.execute(this::executeLatestPriceRefresh);
+    }
+
+    /**
+     * This method is used to execute the refresh of the latest prices requested with {@link #refreshLatestPrice()}<br>
+     * Any params required
+     * @implNote the routines that call {@link #refreshLatestPrice()} while this refresh is executing wait for it
+     * instead of executing another refresh
+     **/
+    protected synchronized void executeLatestPriceRefresh() throws Exception {
+        long fetchTime = System.currentTimeMillis();
+        lastPricesRefresh = fetchTime;
+        HashMap<String, Coin> refreshedCoins = coins;
+        if (balancesOutdated)
+            refreshedCoins = fetchBalances();
+        else
+            skippedBalancesRefreshes++;
+        HashMap<String, Symbol> refreshedTradingPairs = tradingPairsList;
+        if ((lastPricesRefresh - lastExchangeInformationRefresh) >= EXCHANGE_INFORMATION_TTL)
+            refreshedTradingPairs = fetchExchangeInformation();
+        else
+            skippedExchangeInformationRefreshes++;
+        HashMap<String, TickerPriceChange> refreshedPrices = new HashMap<>(lastPrices);
         for (TickerPriceChange tickerPriceChange : binanceMarketManager.getTickersPriceChangeList()) {
             String symbol = tickerPriceChange.getSymbol();
             try {
-                if (coins.get(tradingPairsList.get(symbol).getBaseAsset()).isTradingEnabled() || symbol.endsWith(BUSD_CURRENCY))
-                    lastPrices.put(symbol, tickerPriceChange);
+                Symbol tradingPair = refreshedTradingPairs.get(symbol);
+                String baseAsset = tradingPair.getBaseAsset();
+                if (refreshedCoins.get(baseAsset).isTradingEnabled() || symbol.endsWith(BUSD_CURRENCY)) {
+                    refreshedPrices.put(symbol, tickerPriceChange);
+                    priceBook.putPrice(symbol, baseAsset, tradingPair.getQuoteAsset(), tickerPriceChange.getLastPrice(),
+                            tickerPriceChange.getPriceChangePercent());
+                }
             } catch (NullPointerException ignored) {
             }
         }
+        publishMarketSnapshot(refreshedPrices, refreshedCoins, refreshedTradingPairs, fetchTime);
+    }
+
+    /**
+     * This method is used to publish a new {@link #marketSnapshot} and to swap {@link #lastPrices}, {@link #coins}
+     * and {@link #tradingPairsList} with its maps
+     * @param prices: map of the last prices
+     * @param coins: map of the coins
+     * @param tradingPairs: map of the trading pairs
+     * @param fetchTime: time when the data are fetched
+     * @implNote maps inserted must not be modified after this call
+     **/
+    protected synchronized void publishMarketSnapshot(HashMap<String, TickerPriceChange> prices,
+                                                      HashMap<String, Coin> coins,
+                                                      HashMap<String, Symbol> tradingPairs, long fetchTime) {
+        MarketSnapshot<TickerPriceChange, Symbol> previousSnapshot = marketSnapshot;
+        long epoch = previousSnapshot != null ? previousSnapshot.getEpoch() + 1 : 0;
+        lastPrices = prices;
+        this.coins = coins;
+        tradingPairsList = tradingPairs;
+        marketSnapshot = new MarketSnapshot<>(prices, coins, tradingPairs, epoch, fetchTime);
+    }
+
+    /**
+     * This method is used to insert or update a coin in {@link #coins} list and to publish a new {@link #marketSnapshot}
+     * with it
+     * @param index: index of the coin es. BTC
+     * @param name: name of the coin es Bitcoin
+     * @param quantity: quantity of that coin es. 0.28
+     * **/
+    @Override
+    protected synchronized void insertCoin(String index, String name, double quantity) {
+        super.insertCoin(index, name, quantity);
+        publishMarketSnapshot(lastPrices, coins, tradingPairsList, marketSnapshot.getFetchTime());
+    }
+
+    /**
+     * This method is used to refresh balances of the {@link #coins} list<br>
+     * Any params required
+     * @implNote coins not changed from the previous refresh are reused and not allocated again
+     **/
+    public synchronized void refreshBalances() throws Exception {
+        publishMarketSnapshot(lastPrices, fetchBalances(), tradingPairsList, System.currentTimeMillis());
+    }
+
+    /**
+     * This method is used to fetch the balances of the coins in a new map built from {@link #coins} list<br>
+     * Any params required
+     * @return balances of the coins as {@link HashMap} of {@link Coin}
+     * @implNote balances are marked as updated before the request, so an invalidation received while the request is in
+     * flight is not lost
+     **/
+    private HashMap<String, Coin> fetchBalances() throws Exception {
+        HashMap<String, Coin> refreshedCoins = new HashMap<>(coins);
+        balancesOutdated = false;
+        try {
+            for (CoinInformation coin : binanceWalletManager.getAllCoins()) {
+                double free = coin.getFree();
+                boolean isTradingEnable = true;
+                String index = coin.getCoin();
+                if (free == 0 || !coin.canTrading())
+                    isTradingEnable = false;
+                Coin currentCoin = refreshedCoins.get(index);
+                if (currentCoin != null && currentCoin.getQuantity() == free
+                        && currentCoin.isTradingEnabled() == isTradingEnable) {
+                    reusedCoins++;
+                } else {
+                    refreshedCoins.put(index, new Coin(index,
+                            coin.getName(),
+                            free,
+                            isTradingEnable
+                    ));
+                }
+            }
+        } catch (Exception e) {
+            balancesOutdated = true;
+            throw e;
+        }
+        return refreshedCoins;
+    }
+
+    /**
+     * This method is used to refresh exchange information of the {@link #tradingPairsList} list<br>
+     * Any params required
+     * @implNote only symbols changed from the previous refresh are updated and symbols not more listed are removed
+     **/
+    public synchronized void refreshExchangeInformation() throws Exception {
+        publishMarketSnapshot(lastPrices, coins, fetchExchangeInformation(), System.currentTimeMillis());
+    }
+
+    /**
+     * This method is used to fetch the exchange information in a new map built from {@link #tradingPairsList} list<br>
+     * Any params required
+     * @return trading pairs listed as {@link HashMap} of {@link Symbol}
+     **/
+    private HashMap<String, Symbol> fetchExchangeInformation() throws Exception {
+        lastExchangeInformationRefresh = System.currentTimeMillis();
+        HashMap<String, Symbol> refreshedTradingPairs = new HashMap<>(tradingPairsList);
+        HashSet<String> listedSymbols = new HashSet<>();
+        for (Symbol symbol : binanceMarketManager.getExchangeInformation().getSymbols()) {
+            String index = symbol.getSymbol();
+            listedSymbols.add(index);
+            int fingerprint = getSymbolFingerprint(symbol);
+            Integer previousFingerprint = symbolsFingerprints.put(index, fingerprint);
+            if (previousFingerprint == null || previousFingerprint != fingerprint) {
+                refreshedTradingPairs.put(index, symbol);
+                putSymbolRules(symbol);
+            } else
+                unchangedSymbols++;
+        }
+        for (String index : symbolsFingerprints.keySet())
+            if (!listedSymbols.contains(index))
+                symbolRules.removeRules(index);
+        refreshedTradingPairs.keySet().retainAll(listedSymbols);
+        symbolsFingerprints.keySet().retainAll(listedSymbols);
+        return refreshedTradingPairs;
+    }
+
+    /**
+     * This method is used to parse the filters of a symbol and insert its rules in the {@link #symbolRules}
+     * @param symbol: symbol from parse the rules
+     **/
+    private void putSymbolRules(Symbol symbol) {
+        double stepSize = 0, maxQty = 0, minQty = 0, minNotional = 0, tickSize = 0;
+        for (Filter filter : symbol.getFiltersList()) {
+            HashMap<String, FilterDetails> filters = filter.getFilterDetails();
+            if (filter.getFilterType().equals(LOT_SIZE)) {
+                stepSize = Double.parseDouble(filters.get("stepSize").getValue());
+                maxQty = Double.parseDouble(filters.get("maxQty").getValue());
+                minQty = Double.parseDouble(filters.get("minQty").getValue());
+            } else if (filter.getFilterType().equals(MIN_NOTIONAL))
+                minNotional = Double.parseDouble(filters.get("minNotional").getValue());
+            else if (filter.getFilterType().equals(PRICE_FILTER))
+                tickSize = Double.parseDouble(filters.get("tickSize").getValue());
+        }
+        symbolRules.putRules(symbol.getSymbol(), stepSize, minQty, maxQty, minNotional, tickSize);
+    }
+
+    /**
+     * This method is used to compute fingerprint of a symbol to detect its changes between exchange information refreshes
+     * @param symbol: symbol from compute the fingerprint
+     * @return fingerprint of the symbol as int
+     **/
+    private int getSymbolFingerprint(Symbol symbol) {
+        int fingerprint = Objects.hash(symbol.getBaseAsset(), symbol.getQuoteAsset());
+        for (Filter filter : symbol.getFiltersList()) {
+            fingerprint = 31 * fingerprint + filter.getFilterType().name().hashCode();
+            for (Map.Entry<String, FilterDetails> detail : filter.getFilterDetails().entrySet())
+                fingerprint = 31 * fingerprint + Objects.hash(detail.getKey(), detail.getValue().getValue());
+        }
+        return fingerprint;
+    }
+
+    /**
+     * This method is used to mark balances as outdated, so they will be refreshed with the next prices refresh<br>
+     * Any params required
+     **/
+    public void invalidateBalances() {
+        balancesOutdated = true;
+    }
+
+    /**
+     * This method is used to get number of balances refreshes skipped because balances were not outdated<br>
+     * Any params required
+     * @return number of balances refreshes skipped as long
+     **/
+    public long getSkippedBalancesRefreshes() {
+        return skippedBalancesRefreshes;
+    }
+
+    /**
+     * This method is used to get number of calls of {@link #refreshLatestPrice()} that shared a refresh already in
+     * flight instead of executing another one<br>
+     * Any params required
+     * @return number of latest prices refreshes coalesced as long
+     **/
+    public long getCoalescedPriceRefreshes() {
+        return latestPriceRefresh.getCoalescedCalls();
+    }
+
+    /**
+     * This method is used to get number of exchange information refreshes skipped because {@link #EXCHANGE_INFORMATION_TTL}
+     * was not expired<br>
+     * Any params required
+     * @return number of exchange information refreshes skipped as long
+     **/
+    public long getSkippedExchangeInformationRefreshes() {
+        return skippedExchangeInformationRefreshes;
+    }
+
+    /**
+     * This method is used to get number of {@link Coin} objects reused because not changed between balances refreshes<br>
+     * Any params required
+     * @return number of coins reused as long
+     **/
+    public long getReusedCoins() {
+        return reusedCoins;
+    }
+
+    /**
+     * This method is used to get number of {@link Symbol} objects not replaced because not changed between exchange
+     * information refreshes<br>
+     * Any params required
+     * @return number of symbols unchanged as long
+     **/
+    public long getUnchangedSymbols() {
+        return unchangedSymbols;
     }
 
     /**
@@ -519,42 +925,17 @@ public class BinanceTraderBot extends TraderCoreRoutines {
     /**
      * This method is to compute suggested quantity for an order
      * @param symbol: symbol of cryptocurrency for the order
-     * @param testQuantity: quantity to test
-     * @return suggested quantity value computed from exchange's limits as double
+     * @param testQuantity: quantity of base asset to test
+     * @return suggested quantity value computed from exchange's limits as double, -1 if the quantity rounded to the
+     * lot size rules does not respect the min notional value
      * **/
     @Override
     public double getSuggestedOrderQuantity(String symbol, double testQuantity) throws Exception {
-        Symbol exchangeInformation = tradingPairsList.get(symbol);
-        if(exchangeInformation != null){
-            double stepSize = 0, maxQty = 0, minQty = 0, minNotional = 0, quantity = -1;
-            double lastPrice = lastPrices.get(symbol).getLastPrice();
-            double balance = lastPrice * testQuantity;
-            for (Filter filter : exchangeInformation.getFiltersList()) {
-                HashMap<String, FilterDetails> filters = filter.getFilterDetails();
-                if (filter.getFilterType().equals(LOT_SIZE)) {
-                    stepSize = Double.parseDouble(filters.get("stepSize").getValue());
-                    maxQty = Double.parseDouble(filters.get("maxQty").getValue());
-                    minQty = Double.parseDouble(filters.get("minQty").getValue());
-                } else if (filter.getFilterType().equals(MIN_NOTIONAL)) {
-                    minNotional = Double.parseDouble(filters.get("minNotional").getValue());
-                    break;
-                }
-            }
-            double minNotionalQty = minNotional / lastPrice;
-            if(balance == minNotional)
-                quantity = floor(minNotional);
-            else if(balance > minNotional){
-                if(quantity < minQty)
-                    quantity = minQty;
-                else if(quantity > maxQty)
-                    quantity = maxQty;
-                else {
-                    if ((quantity - minQty) % stepSize != 0)
-                        quantity = floor(quantity);
-                    if (quantity < minNotionalQty)
-                        quantity = ceil(minNotionalQty);
-                }
-            }
+        int symbolId = symbolRules.getSymbolId(symbol);
+        if(symbolId != SymbolRules.NOT_FOUND){
+            double quantity = symbolRules.roundQuantity(symbolId, testQuantity);
+            if(quantity <= 0 || !symbolRules.isNotionalValid(symbolId, quantity, priceBook.getLastPrice(symbol)))
+                return -1;
             return quantity;
         }
         throw new Exception("Symbol does not exist");
@@ -565,16 +946,13 @@ public class BinanceTraderBot extends TraderCoreRoutines {
      *
      * @param decimals: number of digits to round final value
      * @return last prices as {@link ArrayList} of {@link MarketCoin} custom object
+     * @implNote the list is shared by the calls made on the same {@link #marketSnapshot}, so it must not be modified
      * @throws IllegalArgumentException if decimal digits are negative
      **/
     @Override
     public ArrayList<MarketCoin> getLatestPrices(int decimals) {
-        ArrayList<MarketCoin> lastPrices = new ArrayList<>();
-        for (TickerPriceChange tickerPriceChange : this.lastPrices.values()) {
-            lastPrices.add(new MarketCoin(tickerPriceChange.getLastPrice(decimals),
-                    tickerPriceChange.getPriceChangePercent(decimals)));
-        }
-        return lastPrices;
+        return marketSnapshot.getLatestPrices(decimals, tickerPriceChange ->
+                new MarketCoin(tickerPriceChange.getLastPrice(decimals), tickerPriceChange.getPriceChangePercent(decimals)));
     }
 
     /**
@@ -582,13 +960,21 @@ public class BinanceTraderBot extends TraderCoreRoutines {
      * Any params required
      *
      * @return last prices as {@link ArrayList} of {@link MarketCoin} custom object
+     * @implNote the list is shared by the calls made on the same {@link #marketSnapshot}, so it must not be modified
      **/
     @Override
     public ArrayList<MarketCoin> getLatestPrices() {
-        ArrayList<MarketCoin> lastPrices = new ArrayList<>();
-        for (TickerPriceChange tickerPriceChange : this.lastPrices.values())
-            lastPrices.add(new MarketCoin(tickerPriceChange.getLastPrice(), tickerPriceChange.getPriceChangePercent()));
-        return lastPrices;
+        return marketSnapshot.getLatestPrices(tickerPriceChange ->
+                new MarketCoin(tickerPriceChange.getLastPrice(), tickerPriceChange.getPriceChangePercent()));
+    }
+
+    /**
+     * This method is used to get last snapshot of the market published by the refreshes<br>
+     * Any params required
+     * @return last snapshot of the market as {@link MarketSnapshot}
+     **/
+    public MarketSnapshot<TickerPriceChange, Symbol> getMarketSnapshot() {
+        return marketSnapshot;
     }
 
     /**
@@ -602,11 +988,11 @@ public class BinanceTraderBot extends TraderCoreRoutines {
      **/
     @Override
     public MarketCoin getLastPrice(String symbol, int decimals) {
-        TickerPriceChange tickerPriceChange = lastPrices.get(symbol);
-        if (tickerPriceChange == null)
+        int symbolId = priceBook.getSymbolId(symbol);
+        if (symbolId == PriceBook.NOT_FOUND)
             return new MarketCoin(0, 0);
-        return new MarketCoin(tickerPriceChange.getLastPrice(decimals),
-                tickerPriceChange.getPriceChangePercent(decimals)
+        return new MarketCoin(roundValue(priceBook.getLastPrice(symbolId), decimals),
+                roundValue(priceBook.getPriceChangePercent(symbolId), decimals)
         );
     }
 
@@ -619,14 +1005,61 @@ public class BinanceTraderBot extends TraderCoreRoutines {
      **/
     @Override
     public MarketCoin getLastPrice(String symbol) {
-        TickerPriceChange tickerPriceChange = lastPrices.get(symbol);
-        if (tickerPriceChange == null)
+        int symbolId = priceBook.getSymbolId(symbol);
+        if (symbolId == PriceBook.NOT_FOUND)
             return new MarketCoin(0, 0);
-        return new MarketCoin(tickerPriceChange.getLastPrice(),
-                tickerPriceChange.getPriceChangePercent()
+        return new MarketCoin(priceBook.getLastPrice(symbolId),
+                priceBook.getPriceChangePercent(symbolId)
         );
     }
 
+    /**
+     * This method is used to start a feed that pushes the prices in the {@link #priceBook} as soon as they change,
+     * between the refreshes of the prices
+     * @param marketDataFeed: feed to start es. {@link com.tecknobit.traderbot.feeds.BinanceTickerFeed}
+     * @implNote only the prices of the symbols already refreshed are updated, the feed previously started is stopped.
+     * The tickers are applied only to the {@link #priceBook}, so the suggested quantities, the wallet balance, the
+     * market coins and the price triggers use them, while {@link #lastPrices}, the {@link #marketSnapshot} and the
+     * latest prices lists keep the values of the last refresh until the next one
+     * **/
+    public synchronized void startMarketDataFeed(MarketDataFeed marketDataFeed) throws Exception {
+        stopMarketDataFeed();
+        marketDataFeed.start(this::applyTicker);
+        this.marketDataFeed = marketDataFeed;
+    }
+
+    /**
+     * This method is used to stop the feed of the prices, if started <br>
+     * Any params required
+     * **/
+    public synchronized void stopMarketDataFeed() {
+        if (marketDataFeed != null) {
+            marketDataFeed.stop();
+            marketDataFeed = null;
+        }
+    }
+
+    /**
+     * This method is used to get the feed of the prices <br>
+     * Any params required
+     * @return feed of the prices as {@link MarketDataFeed}, null if the prices are only polled
+     * **/
+    public MarketDataFeed getMarketDataFeed() {
+        return marketDataFeed;
+    }
+
+    /**
+     * This method is used to apply a ticker pushed by the {@link #marketDataFeed} to the {@link #priceBook}
+     * @param symbol: symbol of the ticker
+     * @param lastPrice: last price of the symbol
+     * @param priceChangePercent: price change percent of the symbol
+     * @implNote {@link #lastPrices} and the {@link #marketSnapshot} are not updated, the snapshot is published only by
+     * the refreshes of the prices
+     * **/
+    protected void applyTicker(String symbol, double lastPrice, double priceChangePercent) {
+        priceBook.applyTicker(symbol, lastPrice, priceChangePercent);
+    }
+
     /**
      * This method is used to get coin balance
      *
@@ -646,7 +1079,7 @@ public class BinanceTraderBot extends TraderCoreRoutines {
                 return -1;
             }
         }
-        return roundValue(quantity * lastPrices.get(assetIndex + BUSD_CURRENCY).getLastPrice(), 8);
+        return roundValue(quantity * priceBook.getLastPrice(assetIndex, BUSD_CURRENCY), 8);
     }
 
     /**
@@ -660,7 +1093,7 @@ public class BinanceTraderBot extends TraderCoreRoutines {
      **/
     @Override
     protected double convertFromUsd(String currency, double valueToConvert, int decimals) {
-        double usdValue = lastPrices.get(currency + BUSD_CURRENCY).getLastPrice();
+        double usdValue = priceBook.getLastPrice(currency, BUSD_CURRENCY);
         if (usdValue < 1)
             return roundValue(valueToConvert * usdValue, 8);
         return roundValue(valueToConvert / usdValue, 8);
@@ -1,6 +1,7 @@
 package com.tecknobit.traderbot.traders.interfaces;
 
 import com.tecknobit.apimanager.annotations.Wrapper;
+import com.tecknobit.apimanager.apis.APIRequest.Params;
 import com.tecknobit.coinbasemanager.exchangepro.CoinbaseManager;
 import com.tecknobit.coinbasemanager.exchangepro.account.CoinbaseAccountManager;
 import com.tecknobit.coinbasemanager.exchangepro.account.records.CoinbaseAccount;
@@ -11,17 +12,25 @@ import com.tecknobit.coinbasemanager.exchangepro.orders.records.Order;
 import com.tecknobit.coinbasemanager.exchangepro.products.CoinbaseProductsManager;
 import com.tecknobit.coinbasemanager.exchangepro.products.records.Ticker;
 import com.tecknobit.coinbasemanager.exchangepro.products.records.TradingPair;
+import com.tecknobit.traderbot.feeds.MarketDataFeed;
 import com.tecknobit.traderbot.records.portfolio.Asset;
 import com.tecknobit.traderbot.records.portfolio.Coin;
+import com.tecknobit.traderbot.records.portfolio.CurrenciesCache;
 import com.tecknobit.traderbot.records.portfolio.MarketCoin;
+import com.tecknobit.traderbot.records.portfolio.MarketSnapshot;
+import com.tecknobit.traderbot.records.portfolio.PriceBook;
+import com.tecknobit.traderbot.records.portfolio.SymbolRegistry;
+import com.tecknobit.traderbot.records.portfolio.SymbolRegistry.SymbolPair;
 import com.tecknobit.traderbot.records.portfolio.Transaction;
-import com.tecknobit.traderbot.routines.interfaces.TraderBotConstants;
+import com.tecknobit.traderbot.routines.interfaces.SingleFlightRefresh;
 import com.tecknobit.traderbot.routines.interfaces.TraderCoreRoutines;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 
 import static com.tecknobit.apimanager.trading.CryptocurrencyTool.getCryptocurrencyName;
 import static com.tecknobit.apimanager.trading.TradingTools.roundValue;
@@ -30,8 +39,7 @@ import static com.tecknobit.coinbasemanager.exchangepro.orders.records.Order.Sor
 import static com.tecknobit.coinbasemanager.exchangepro.orders.records.Order.SortingOrder.asc;
 import static com.tecknobit.coinbasemanager.exchangepro.orders.records.Order.Status.done;
 import static com.tecknobit.coinbasemanager.exchangepro.orders.records.OrderDetails.Side.valueOf;
-import static com.tecknobit.traderbot.records.portfolio.Transaction.getDate;
-import static com.tecknobit.traderbot.records.portfolio.Transaction.getDateTimestamp;
+import static com.tecknobit.traderbot.records.portfolio.SymbolRegistry.SYMBOL_SEPARATOR;
 import static com.tecknobit.traderbot.routines.interfaces.TraderBotConstants.*;
 import static com.tecknobit.traderbot.routines.interfaces.TraderBotConstants.Side.BUY;
 import static com.tecknobit.traderbot.routines.interfaces.TraderBotConstants.Side.SELL;
@@ -65,7 +73,13 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
      * @implSpec this map has as key the asset index (es. BTC) as {@link String} and has as value custom object
      * {@link TradingPair} give by {@link CoinbaseManager} library.
      * **/
-    protected HashMap<String, TradingPair> tradingPairsList;
+    protected volatile HashMap<String, TradingPair> tradingPairsList;
+
+    /**
+     * {@code symbolRegistry} is instance that memorizes symbols of {@link #tradingPairsList} decomposed in base and
+     * quote asset, used to normalize the symbols in constant time
+     * **/
+    protected final SymbolRegistry symbolRegistry = new SymbolRegistry();
 
     /**
      * {@code lastPrices} is a map that contains asset index (es. BTC) as key {@link String} and last ticker as {@link Ticker}
@@ -73,7 +87,33 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
      * @implNote refresh of last prices, by default, is every 10 seconds, but you can set programmatically
      * {@link #refreshTime} to customize refresh time.
      * **/
-    protected HashMap<String, Ticker> lastPrices;
+    protected volatile HashMap<String, Ticker> lastPrices;
+
+    /**
+     * {@code marketSnapshot} is instance that memorizes last snapshot of {@link #lastPrices}, {@link #coins} and
+     * {@link #tradingPairsList} published by the refreshes
+     * @implNote each refresh builds new maps and publishes them with a single swap, so the maps of a snapshot are never
+     * modified and can be read without any lock
+     * **/
+    protected volatile MarketSnapshot<Ticker, TradingPair> marketSnapshot;
+
+    /**
+     * {@code priceBook} is instance that memorizes last prices of {@link #lastPrices} in primitive arrays to make
+     * allocation-free price lookups
+     * **/
+    protected final PriceBook priceBook = new PriceBook();
+
+    /**
+     * {@code latestPriceRefresh} is instance that memorizes refresh of {@link #refreshLatestPrice()} shared by the
+     * routines that request it at the same time
+     * **/
+    protected final SingleFlightRefresh latestPriceRefresh = new SingleFlightRefresh();
+
+    /**
+     * {@code marketDataFeed} is instance that memorizes feed that pushes the prices between the refreshes of the
+     * prices, null if the prices are only polled
+     * **/
+    protected volatile MarketDataFeed marketDataFeed;
 
     /**
      * {@code coinbaseCurrenciesManager} is instance of {@link CoinbaseCurrenciesManager} helpful to fetch details about
@@ -81,6 +121,34 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
      * **/
     protected final CoinbaseCurrenciesManager coinbaseCurrenciesManager;
 
+    /**
+     * {@code currenciesCache} is instance that memorizes details of the currencies used to compute the order quantities
+     * without requesting them at each order
+     * **/
+    protected CurrenciesCache currenciesCache;
+
+    /**
+     * {@code ORDERS_PAGE_LIMIT} is the max number of orders fetched with a single request
+     **/
+    public static final int ORDERS_PAGE_LIMIT = 1000;
+
+    /**
+     * {@code ordersIndex} is a map that contains product id (es. BTC-USD) as key {@link String} and the list of its
+     * done orders sorted by creation date as value
+     **/
+    protected final HashMap<String, ArrayList<Order>> ordersIndex = new HashMap<>();
+
+    /**
+     * {@code ordersCursor} is instance that memorizes creation date of the last order inserted in the {@link #ordersIndex}
+     **/
+    protected String ordersCursor;
+
+    /**
+     * {@code cursorOrders} is a set of the ids of the orders created at {@link #ordersCursor}, used to skip them when
+     * the next page starts from the same creation date
+     **/
+    protected final HashSet<String> cursorOrders = new HashSet<>();
+
     /** Constructor to init {@link CoinbaseTraderBot}
      * @param apiKey: your Coinbase's api key
      * @param apiSecret: your Coinbase's secret key
@@ -372,6 +440,13 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
         lastPrices = new HashMap<>();
         assets = new ArrayList<>();
         coins = new HashMap<>();
+        publishMarketSnapshot(lastPrices, coins, tradingPairsList, 0);
+        currenciesCache = new CurrenciesCache(coinbaseCurrenciesManager);
+        try {
+            currenciesCache.reload();
+        } catch (Exception e) {
+            System.out.println("Currencies not loaded, they will be requested one by one: " + e.getMessage());
+        }
         refreshLatestPrice();
     }
 
@@ -389,7 +464,7 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
             balance = 0;
             for (Coin coin : coins.values())
                 if (coin.isTradingEnabled())
-                    balance += coin.getQuantity() * lastPrices.get(coin.getAssetIndex() + "-" + USD_CURRENCY).getPrice();
+                    balance += coin.getQuantity() * priceBook.getLastPrice(coin.getAssetIndex(), USD_CURRENCY);
             if (!currency.contains(USD_CURRENCY))
                 balance = convertFromUsd(currency, balance, 8);
         }
@@ -424,7 +499,7 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
                 if(coin.isTradingEnabled()) {
                     String index = coin.getAssetIndex();
                     double quantity = coin.getQuantity();
-                    double balance = quantity * lastPrices.get(index).getPrice();
+                    double balance = quantity * priceBook.getLastPrice(index, USD_CURRENCY);
                     if (!currency.contains(USD_CURRENCY))
                         balance = convertFromUsd(currency, balance, 8);
                     assets.add(new Asset(index,
@@ -461,9 +536,10 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
     @Override
     public ArrayList<Transaction> getAllTransactions(String dateFormat, boolean forceRefresh) throws Exception {
         if (isRefreshTime() || forceRefresh) {
+            refreshOrdersIndex();
             allTransactions.clear();
             for (String quoteCurrency : quoteCurrencies)
-                allTransactions.addAll(getTransactionsList(quoteCurrency, dateFormat, forceRefresh));
+                allTransactions.addAll(assembleTransactions(quoteCurrency, dateFormat));
             transactions.clear();
         }
         return allTransactions;
@@ -494,29 +570,77 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
     public ArrayList<Transaction> getTransactionsList(String quoteCurrency, String dateFormat,
                                                       boolean forceRefresh) throws Exception {
         if (isRefreshTime() || !lastTransactionCurrency.equals(quoteCurrency) || forceRefresh) {
-            transactions.clear();
             lastTransactionCurrency = quoteCurrency;
-            ArrayList<Order> orders = coinbaseOrdersManager.getAllOrders(1000, created_at, asc, done);
-            String date;
-            for (Coin coin : coins.values()) {
-                if (coin.isTradingEnabled()) {
-                    String baseAsset = coin.getAssetIndex();
-                    String symbol = baseAsset + "-" + lastTransactionCurrency;
+            refreshOrdersIndex();
+            transactions.clear();
+            transactions.addAll(assembleTransactions(quoteCurrency, dateFormat));
+        }
+        return transactions;
+    }
+
+    /**
+     * This method is used to fetch the done orders created after {@link #ordersCursor} and insert them in the
+     * {@link #ordersIndex}, fetching all the pages available <br>
+     * Any params required
+     **/
+    protected void refreshOrdersIndex() throws Exception {
+        ArrayList<Order> orders;
+        int indexedOrders;
+        do {
+            Params queryParams = new Params();
+            if (ordersCursor != null)
+                queryParams.addParam("start_date", ordersCursor);
+            orders = coinbaseOrdersManager.getAllOrders(ORDERS_PAGE_LIMIT, created_at, asc, done, queryParams);
+            indexedOrders = 0;
+            for (Order order : orders) {
+                String createdAt = order.getCreatedAt();
+                if (!createdAt.equals(ordersCursor)) {
+                    ordersCursor = createdAt;
+                    cursorOrders.clear();
+                }
+                if (cursorOrders.add(order.getId())) {
+                    ordersIndex.computeIfAbsent(order.getProductId(), productId -> new ArrayList<>()).add(order);
+                    indexedOrders++;
+                }
+            }
+        } while (orders.size() == ORDERS_PAGE_LIMIT && indexedOrders > 0);
+    }
+
+    /**
+     * This method is used to assemble the transactions of the orders inserted in the {@link #ordersIndex}
+     *
+     * @param quoteCurrency: quote currency of the transactions es. USD
+     * @param dateFormat:    this indicates the format of date that you want to have es. HH:mm:ss -> 21:22:08
+     * @return list of custom object {@link Transaction} as {@link ArrayList}
+     **/
+    private ArrayList<Transaction> assembleTransactions(String quoteCurrency, String dateFormat) {
+        ArrayList<Transaction> transactions = new ArrayList<>();
+        for (Coin coin : coins.values()) {
+            if (coin.isTradingEnabled()) {
+                String baseAsset = coin.getAssetIndex();
+                String symbol = baseAsset + "-" + quoteCurrency;
+                ArrayList<Order> orders = ordersIndex.get(symbol);
+                if (orders != null) {
                     for (Order order : orders) {
-                        if (order.getProductId().equals(symbol)) {
-                            String createdAt = order.getCreatedAt();
-                            if (dateFormat != null)
-                                date = getDate(getDateTimestamp(createdAt, "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'"),
-                                        dateFormat);
-                            else
-                                date = createdAt;
-                            double size = order.getSize();
+                        double size = order.getSize();
+                        Side side = Side.valueOf(order.getSide().name().toUpperCase());
+                        if (dateFormat != null) {
+                            transactions.add(new Transaction(symbol,
+                                    side,
+                                    Instant.parse(order.getCreatedAt()).toEpochMilli(),
+                                    dateFormat,
+                                    size * order.getPrice(),
+                                    size,
+                                    quoteCurrency,
+                                    baseAsset
+                            ));
+                        } else {
                             transactions.add(new Transaction(symbol,
-                                    Side.valueOf(order.getSide().name().toUpperCase()),
-                                    date,
+                                    side,
+                                    order.getCreatedAt(),
                                     size * order.getPrice(),
                                     size,
-                                    lastTransactionCurrency,
+                                    quoteCurrency,
                                     baseAsset
                             ));
                         }
@@ -534,15 +658,17 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
      * **/
     @Override
     public void buyMarket(String symbol, double quantity) throws Exception {
-        if(!symbol.contains("-"))
-            symbol = getOrderSymbol(symbol);
+        SymbolPair pair = getSymbolPair(symbol);
+        if (pair == null)
+            throw new Exception("Symbol does not exist [" + symbol + "]");
+        symbol = pair.getSymbol();
         placeAnOrder(symbol, quantity, BUY);
         int statusCode = coinbaseOrdersManager.getStatusResponse();
         if(statusCode == 200){
-            String[] index = symbol.split("-");
-            Coin coin = coins.get(index[0]);
-            insertQuoteCurrency(index[1]);
-            insertCoin(index[0], coin.getAssetName(), coin.getQuantity() + quantity);
+            String baseAsset = pair.getBaseAsset();
+            Coin coin = coins.get(baseAsset);
+            insertQuoteCurrency(pair.getQuoteAsset());
+            insertCoin(baseAsset, coin.getAssetName(), coin.getQuantity() + quantity);
         }else{
             throw new Exception("Error during buy order status code: [" + statusCode + "]" +
                     " error message: [" + coinbaseOrdersManager.getErrorResponse() + "]");
@@ -556,15 +682,14 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
      * **/
     @Override
     public void sellMarket(String symbol, double quantity) throws Exception {
-        if (!symbol.contains("-"))
-            symbol = getOrderSymbol(symbol);
-        String[] index = symbol.split("-");
-        Coin coin = coins.get(index[0]);
+        SymbolPair pair = getSymbolPair(symbol);
+        Coin coin = pair != null ? coins.get(pair.getBaseAsset()) : null;
         if (coin != null) {
+            symbol = pair.getSymbol();
             placeAnOrder(symbol, quantity, SELL);
             int statusCode = coinbaseOrdersManager.getStatusResponse();
             if (statusCode == 200)
-                insertCoin(index[0], coin.getAssetName(), coin.getQuantity() - quantity);
+                insertCoin(pair.getBaseAsset(), coin.getAssetName(), coin.getQuantity() - quantity);
             else {
                 throw new Exception("Error during sell order status code: [" + statusCode + "]" +
                         " error message: [" + coinbaseOrdersManager.getErrorResponse() + "]");
@@ -580,14 +705,25 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
      * @implSpec if symbol is wrong and not exists in Coinbase listing order request will throw an {@link Exception}
      * **/
     protected String getOrderSymbol(String actualSymbol){
-        for (TradingPair tradingPair : tradingPairsList.values()) {
-            String id = tradingPair.getId();
-            if(id.replace("-", "").equals(actualSymbol))
-                return id;
-        }
+        SymbolPair pair = symbolRegistry.getPair(actualSymbol);
+        if (pair != null)
+            return pair.getSymbol();
         return actualSymbol;
     }
 
+    /**
+     * This method is used to get the pair of a symbol from the {@link #symbolRegistry}
+     * @param symbol: symbol in the form base-quote es. BTC-USDT or basequote es. BTCUSDT
+     * @return pair of the symbol as {@link SymbolPair}, null if the symbol is in the form basequote and is not listed
+     * @implNote symbols in the form base-quote not listed yet are registered
+     * **/
+    protected SymbolPair getSymbolPair(String symbol) {
+        SymbolPair pair = symbolRegistry.getPair(symbol);
+        if (pair == null && symbol.contains(SYMBOL_SEPARATOR))
+            pair = symbolRegistry.register(symbol);
+        return pair;
+    }
+
     /**
      * This method is used to place an order
      *
@@ -637,34 +773,90 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
     /**
      * This method is used to refresh latest prices<br>
      * Any params required
+     * @implNote prices are fetched with a single tickers snapshot and {@link #lastPrices} is replaced in one pass
      **/
     @Override
-    public synchronized void refreshLatestPrice() {
-        lastPricesRefresh = System.currentTimeMillis();
+    public void refreshLatestPrice() {
         try {
-            for (CoinbaseAccount coin : coinbaseAccountManager.getCoinbaseWallets()) {
-                double balance = coin.getBalance();
-                String index = coin.getCurrency();
-                coins.put(index, new Coin(index,
-                        getCryptocurrencyName(index),
-                        balance,
-                        balance != 0
-                ));
-            }
-            for (TradingPair tradingPair : coinbaseProductsManager.getAllTradingPairs())
-                tradingPairsList.put(tradingPair.getId(), tradingPair);
-            for (String productId : tradingPairsList.keySet()) {
-                try {
-                    if (coins.get(productId.split("-")[0]).isTradingEnabled() || productId.endsWith(USD_CURRENCY))
-                        lastPrices.put(productId, coinbaseProductsManager.getProductTicker(productId));
-                } catch (Exception ignored) {
-                }
-            }
+            latestPriceRefresh.execute(this::executeLatestPriceRefresh);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * This method is used to execute the refresh of the latest prices requested with {@link #refreshLatestPrice()}<br>
+     * Any params required
+     * @implNote the routines that call {@link #refreshLatestPrice()} while this refresh is executing wait for it
+     * instead of executing another refresh
+     **/
+    protected synchronized void executeLatestPriceRefresh() throws Exception {
+        long fetchTime = System.currentTimeMillis();
+        lastPricesRefresh = fetchTime;
+        HashMap<String, Coin> refreshedCoins = new HashMap<>(coins);
+        for (CoinbaseAccount coin : coinbaseAccountManager.getCoinbaseWallets()) {
+            double balance = coin.getBalance();
+            String index = coin.getCurrency();
+            refreshedCoins.put(index, new Coin(index,
+                    getCryptocurrencyName(index),
+                    balance,
+                    balance != 0
+            ));
+        }
+        HashMap<String, TradingPair> refreshedTradingPairs = new HashMap<>(tradingPairsList);
+        for (TradingPair tradingPair : coinbaseProductsManager.getAllTradingPairs()) {
+            String id = tradingPair.getId();
+            refreshedTradingPairs.put(id, tradingPair);
+            symbolRegistry.register(id);
+        }
+        HashMap<String, Ticker> refreshedPrices = new HashMap<>();
+        for (Ticker ticker : coinbaseProductsManager.getAllTickers()) {
+            String productId = ticker.getProductId();
+            SymbolPair pair = symbolRegistry.getPair(productId);
+            if (pair != null && refreshedTradingPairs.containsKey(productId)) {
+                Coin coin = refreshedCoins.get(pair.getBaseAsset());
+                if ((coin != null && coin.isTradingEnabled()) || productId.endsWith(USD_CURRENCY)) {
+                    refreshedPrices.put(productId, ticker);
+                    priceBook.putPrice(productId, pair.getBaseAsset(), pair.getQuoteAsset(), ticker.getPrice(),
+                            ticker.getPriceChangePercent());
+                }
+            }
+        }
+        publishMarketSnapshot(refreshedPrices, refreshedCoins, refreshedTradingPairs, fetchTime);
+    }
+
+    /**
+     * This method is used to publish a new {@link #marketSnapshot} and to swap {@link #lastPrices}, {@link #coins}
+     * and {@link #tradingPairsList} with its maps
+     * @param prices: map of the last prices
+     * @param coins: map of the coins
+     * @param tradingPairs: map of the trading pairs
+     * @param fetchTime: time when the data are fetched
+     * @implNote maps inserted must not be modified after this call
+     **/
+    protected synchronized void publishMarketSnapshot(HashMap<String, Ticker> prices, HashMap<String, Coin> coins,
+                                                      HashMap<String, TradingPair> tradingPairs, long fetchTime) {
+        MarketSnapshot<Ticker, TradingPair> previousSnapshot = marketSnapshot;
+        long epoch = previousSnapshot != null ? previousSnapshot.getEpoch() + 1 : 0;
+        lastPrices = prices;
+        this.coins = coins;
+        tradingPairsList = tradingPairs;
+        marketSnapshot = new MarketSnapshot<>(prices, coins, tradingPairs, epoch, fetchTime);
+    }
+
+    /**
+     * This method is used to insert or update a coin in {@link #coins} list and to publish a new {@link #marketSnapshot}
+     * with it
+     * @param index: index of the coin es. BTC
+     * @param name: name of the coin es Bitcoin
+     * @param quantity: quantity of that coin es. 0.28
+     * **/
+    @Override
+    protected synchronized void insertCoin(String index, String name, double quantity) {
+        super.insertCoin(index, name, quantity);
+        publishMarketSnapshot(lastPrices, coins, tradingPairsList, marketSnapshot.getFetchTime());
+    }
+
     /**
      * This method is used print error when request is made, if error is not in request
      * will print {@link Exception} error message
@@ -683,29 +875,52 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
      * @param symbol:       symbol of cryptocurrency for the order
      * @param testQuantity: quantity to test
      * @return suggested quantity value computed from exchange's limits as double
+     * @implNote the limits are the ones of the base asset of the symbol, looked up in the {@link #currenciesCache}
      **/
     @Override
     public double getSuggestedOrderQuantity(String symbol, double testQuantity) throws Exception {
-        Currency currency = coinbaseCurrenciesManager.getCurrency(symbol);
+        SymbolPair pair = getSymbolPair(symbol);
+        Currency currency = currenciesCache.getCurrency(pair != null ? pair.getBaseAsset() : symbol);
+        if (currency == null)
+            return -1;
         if (testQuantity >= currency.getMinSize())
             if (testQuantity % currency.getMaxPrecision() != 0)
                 return ceil(testQuantity);
         return -1;
     }
 
+    /**
+     * This method is used to get the cache of the currencies used to compute the order quantities <br>
+     * Any params required
+     *
+     * @return cache of the currencies as {@link CurrenciesCache}
+     **/
+    public CurrenciesCache getCurrenciesCache() {
+        return currenciesCache;
+    }
+
+    /**
+     * This method is used to get number of calls of {@link #refreshLatestPrice()} that shared a refresh already in
+     * flight instead of executing another one<br>
+     * Any params required
+     * @return number of latest prices refreshes coalesced as long
+     **/
+    public long getCoalescedPriceRefreshes() {
+        return latestPriceRefresh.getCoalescedCalls();
+    }
+
     /**
      * This method is to get list of the latest prices
      *
      * @param decimals: number of digits to round final value
      * @return last prices as {@link ArrayList} of {@link MarketCoin} custom object
+     * @implNote the list is shared by the calls made on the same {@link #marketSnapshot}, so it must not be modified
      * @throws IllegalArgumentException if decimal digits are negative
      **/
     @Override
     public ArrayList<MarketCoin> getLatestPrices(int decimals) {
-        ArrayList<MarketCoin> lastPrices = new ArrayList<>();
-        for (Ticker ticker : this.lastPrices.values())
-            lastPrices.add(new MarketCoin(ticker.getPrice(decimals), ticker.getPriceChangePercent(decimals)));
-        return lastPrices;
+        return marketSnapshot.getLatestPrices(decimals, ticker ->
+                new MarketCoin(ticker.getPrice(decimals), ticker.getPriceChangePercent(decimals)));
     }
 
     /**
@@ -713,13 +928,20 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
      * Any params required
      *
      * @return last prices as {@link ArrayList} of {@link MarketCoin} custom object
+     * @implNote the list is shared by the calls made on the same {@link #marketSnapshot}, so it must not be modified
      **/
     @Override
     public ArrayList<MarketCoin> getLatestPrices() {
-        ArrayList<MarketCoin> lastPrices = new ArrayList<>();
-        for (Ticker ticker : this.lastPrices.values())
-            lastPrices.add(new MarketCoin(ticker.getPrice(), ticker.getPriceChangePercent()));
-        return lastPrices;
+        return marketSnapshot.getLatestPrices(ticker -> new MarketCoin(ticker.getPrice(), ticker.getPriceChangePercent()));
+    }
+
+    /**
+     * This method is used to get last snapshot of the market published by the refreshes<br>
+     * Any params required
+     * @return last snapshot of the market as {@link MarketSnapshot}
+     **/
+    public MarketSnapshot<Ticker, TradingPair> getMarketSnapshot() {
+        return marketSnapshot;
     }
 
     /**
@@ -733,11 +955,11 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
      **/
     @Override
     public MarketCoin getLastPrice(String symbol, int decimals) {
-        Ticker ticker = lastPrices.get(symbol);
-        if (ticker == null)
+        int symbolId = priceBook.getSymbolId(symbol);
+        if (symbolId == PriceBook.NOT_FOUND)
             return new MarketCoin(0, 0);
-        return new MarketCoin(ticker.getPrice(decimals),
-                ticker.getPriceChangePercent(decimals)
+        return new MarketCoin(roundValue(priceBook.getLastPrice(symbolId), decimals),
+                roundValue(priceBook.getPriceChangePercent(symbolId), decimals)
         );
     }
 
@@ -750,14 +972,61 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
      **/
     @Override
     public MarketCoin getLastPrice(String symbol) {
-        Ticker ticker = lastPrices.get(symbol);
-        if (ticker == null)
+        int symbolId = priceBook.getSymbolId(symbol);
+        if (symbolId == PriceBook.NOT_FOUND)
             return new MarketCoin(0, 0);
-        return new MarketCoin(ticker.getPrice(),
-                ticker.getPriceChangePercent()
+        return new MarketCoin(priceBook.getLastPrice(symbolId),
+                priceBook.getPriceChangePercent(symbolId)
         );
     }
 
+    /**
+     * This method is used to start a feed that pushes the prices in the {@link #priceBook} as soon as they change,
+     * between the refreshes of the prices
+     * @param marketDataFeed: feed to start es. {@link com.tecknobit.traderbot.feeds.CoinbaseTickerFeed}
+     * @implNote only the prices of the symbols already refreshed are updated, the feed previously started is stopped.
+     * The tickers are applied only to the {@link #priceBook}, so the wallet balance, the market coins and the price
+     * triggers use them, while {@link #lastPrices}, the {@link #marketSnapshot} and the latest prices lists keep the
+     * values of the last refresh until the next one
+     * **/
+    public synchronized void startMarketDataFeed(MarketDataFeed marketDataFeed) throws Exception {
+        stopMarketDataFeed();
+        marketDataFeed.start(this::applyTicker);
+        this.marketDataFeed = marketDataFeed;
+    }
+
+    /**
+     * This method is used to stop the feed of the prices, if started <br>
+     * Any params required
+     * **/
+    public synchronized void stopMarketDataFeed() {
+        if (marketDataFeed != null) {
+            marketDataFeed.stop();
+            marketDataFeed = null;
+        }
+    }
+
+    /**
+     * This method is used to get the feed of the prices <br>
+     * Any params required
+     * @return feed of the prices as {@link MarketDataFeed}, null if the prices are only polled
+     * **/
+    public MarketDataFeed getMarketDataFeed() {
+        return marketDataFeed;
+    }
+
+    /**
+     * This method is used to apply a ticker pushed by the {@link #marketDataFeed} to the {@link #priceBook}
+     * @param symbol: symbol of the ticker
+     * @param lastPrice: last price of the symbol
+     * @param priceChangePercent: price change percent of the symbol
+     * @implNote {@link #lastPrices} and the {@link #marketSnapshot} are not updated, the snapshot is published only by
+     * the refreshes of the prices
+     * **/
+    protected void applyTicker(String symbol, double lastPrice, double priceChangePercent) {
+        priceBook.applyTicker(symbol, lastPrice, priceChangePercent);
+    }
+
     /**
      * This method is used to get coin balance
      *
@@ -767,7 +1036,7 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
     public double getCoinBalance(String quote) {
         Coin coin = coins.get(quote);
         return coinbaseAccountManager.roundValue(coin.getQuantity() *
-                lastPrices.get(coin.getAssetIndex() + "-" + USD_CURRENCY).getPrice(), 8);
+                priceBook.getLastPrice(coin.getAssetIndex(), USD_CURRENCY), 8);
     }
 
     /**
@@ -781,20 +1050,10 @@ public class CoinbaseTraderBot extends TraderCoreRoutines {
      **/
     @Override
     protected double convertFromUsd(String currency, double valueToConvert, int decimals) {
-        double usdValue = lastPrices.get(getUSDTSymbol(currency)).getPrice();
+        double usdValue = priceBook.getLastPrice(USDT_CURRENCY, currency);
         if (usdValue < 1)
             return roundValue(valueToConvert * usdValue, 8);
         return roundValue(valueToConvert / usdValue, 8);
     }
 
-    /**
-     * This method is used to assemble right symbol with {@link TraderBotConstants#USDT_CURRENCY} combination.
-     *
-     * @param currency: currency for the request es. EUR
-     * @return currency inserted es. USDT-EUR.
-     **/
-    private String getUSDTSymbol(String currency) {
-        return USDT_CURRENCY + "-" + currency;
-    }
-
 }
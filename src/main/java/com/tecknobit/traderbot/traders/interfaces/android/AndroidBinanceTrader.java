@@ -2,12 +2,14 @@ package com.tecknobit.traderbot.traders.interfaces.android;
 
 import com.tecknobit.apimanager.annotations.Wrapper;
 import com.tecknobit.binancemanager.managers.BinanceManager;
+import com.tecknobit.binancemanager.managers.market.records.stats.ExchangeInformation.Symbol;
 import com.tecknobit.binancemanager.managers.market.records.tickers.TickerPriceChange;
 import com.tecknobit.traderbot.records.account.BotDetails;
 import com.tecknobit.traderbot.records.account.TraderAccount;
 import com.tecknobit.traderbot.records.portfolio.Asset;
 import com.tecknobit.traderbot.records.portfolio.Coin;
 import com.tecknobit.traderbot.records.portfolio.Cryptocurrency;
+import com.tecknobit.traderbot.records.portfolio.MarketSnapshot;
 import com.tecknobit.traderbot.records.portfolio.Transaction;
 import com.tecknobit.traderbot.routines.android.AndroidBotController;
 import com.tecknobit.traderbot.routines.android.AndroidCoreRoutines;
@@ -228,9 +230,9 @@ public class AndroidBinanceTrader extends BinanceTraderBot implements AndroidCor
                                 refreshLatestPrice();
                             for (Cryptocurrency cryptocurrency : walletList.values()){
                                 String assetIndex = cryptocurrency.getAssetIndex();
-                                TickerPriceChange ticker = lastPrices.get(assetIndex + BUSD_CURRENCY);
-                                double lastPrice = ticker.getLastPrice();
-                                double priceChangePercent = ticker.getPriceChangePercent();
+                                int symbolId = priceBook.getSymbolId(assetIndex, BUSD_CURRENCY);
+                                double lastPrice = priceBook.getLastPrice(symbolId);
+                                double priceChangePercent = priceBook.getPriceChangePercent(symbolId);
                                 cryptocurrency.setLastPrice(lastPrice);
                                 cryptocurrency.setPriceChangePercent(priceChangePercent);
                                 walletList.put(assetIndex, cryptocurrency);
@@ -406,11 +408,12 @@ public class AndroidBinanceTrader extends BinanceTraderBot implements AndroidCor
     @Override
     protected void insertCoin(String index, String name, double quantity) {
         super.insertCoin(index, name, quantity);
-        String quoteAsset = tradingPairsList.get(symbol).getQuoteAsset();
+        MarketSnapshot<TickerPriceChange, Symbol> snapshot = marketSnapshot;
+        String quoteAsset = snapshot.getTradingPairs().get(symbol).getQuoteAsset();
         Cryptocurrency cryptocurrency = walletList.get(index);
-        TickerPriceChange ticker = lastPrices.get(symbol);
+        TickerPriceChange ticker = snapshot.getPrices().get(symbol);
         double lastPrice = ticker.getLastPrice();
-        Coin coin = coins.get(index);
+        Coin coin = snapshot.getCoins().get(index);
         int sales = 0;
         Transaction transaction = new Transaction(symbol, side, transactionDateFormat.format(new Date(currentTimeMillis())),
                 binanceMarketManager.roundValue(quantity * lastPrice, 2), quantity, quoteAsset, index);
@@ -3,11 +3,13 @@ package com.tecknobit.traderbot.traders.interfaces.android;
 import com.tecknobit.apimanager.annotations.Wrapper;
 import com.tecknobit.coinbasemanager.exchangepro.CoinbaseManager;
 import com.tecknobit.coinbasemanager.exchangepro.products.records.Ticker;
+import com.tecknobit.coinbasemanager.exchangepro.products.records.TradingPair;
 import com.tecknobit.traderbot.records.account.BotDetails;
 import com.tecknobit.traderbot.records.account.TraderAccount;
 import com.tecknobit.traderbot.records.portfolio.Asset;
 import com.tecknobit.traderbot.records.portfolio.Coin;
 import com.tecknobit.traderbot.records.portfolio.Cryptocurrency;
+import com.tecknobit.traderbot.records.portfolio.MarketSnapshot;
 import com.tecknobit.traderbot.records.portfolio.Transaction;
 import com.tecknobit.traderbot.routines.android.AndroidBotController;
 import com.tecknobit.traderbot.routines.android.AndroidCoreRoutines;
@@ -334,8 +336,7 @@ public class AndroidCoinbaseTrader extends CoinbaseTraderBot implements AndroidC
                             for (Cryptocurrency cryptocurrency : walletList.values()){
                                 String assetIndex = cryptocurrency.getAssetIndex();
                                 symbol = assetIndex + "-" + USD_CURRENCY;
-                                Ticker ticker = lastPrices.get(symbol);
-                                double lastPrice = ticker.getPrice();
+                                double lastPrice = priceBook.getLastPrice(symbol);
                                 double priceChangePercent = coinbaseAccountManager.getTrendPercent(coinbaseProductsManager.
                                         getProductStats(symbol).getLow(), lastPrice);
                                 cryptocurrency.setLastPrice(lastPrice);
@@ -513,11 +514,12 @@ public class AndroidCoinbaseTrader extends CoinbaseTraderBot implements AndroidC
     @Override
     protected void insertCoin(String index, String name, double quantity) {
         super.insertCoin(index, name, quantity);
-        String quoteAsset = tradingPairsList.get(symbol).getQuoteCurrency();
+        MarketSnapshot<Ticker, TradingPair> snapshot = marketSnapshot;
+        String quoteAsset = snapshot.getTradingPairs().get(symbol).getQuoteCurrency();
         Cryptocurrency cryptocurrency = walletList.get(index);
-        Ticker ticker = lastPrices.get(symbol);
+        Ticker ticker = snapshot.getPrices().get(symbol);
         double lastPrice = ticker.getPrice();
-        Coin coin = coins.get(index);
+        Coin coin = snapshot.getCoins().get(index);
         double priceChangePercent;
         int sales = 0;
         try {
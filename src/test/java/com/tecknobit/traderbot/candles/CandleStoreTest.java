@@ -0,0 +1,193 @@
+package com.tecknobit.traderbot.candles;
+
+import com.tecknobit.traderbot.candles.CandleSeries.Column;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.tecknobit.traderbot.candles.CandleStore.*;
+import static com.tecknobit.traderbot.routines.autonomous.ForecastCache.ONE_DAY;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code CandleStoreTest} class is useful to check the candles seeded, synced and derived by {@link CandleStore}
+ * and the recovery of a {@link CandleSeries} after an append partially written
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the fixture holds the daily candles of BTCBUSD from 2022-01-29 to 2022-03-02 in UTC, so the January,
+ * the March and the first and last three-days candles are not complete
+ **/
+class CandleStoreTest {
+
+    /**
+     * {@code SYMBOL} is the symbol of the candles of the fixture
+     **/
+    private static final String SYMBOL = "BTCBUSD";
+
+    /**
+     * {@code FIXTURE} is the resource of the daily candles of the fixture
+     **/
+    private static final String FIXTURE = "/candles/BTCBUSD-1d.csv";
+
+    /**
+     * {@code FIXTURE_CANDLES} is the number of daily candles of the fixture
+     **/
+    private static final int FIXTURE_CANDLES = 33;
+
+    /**
+     * {@code directory} is the temporary directory of the candles
+     **/
+    @TempDir
+    Path directory;
+
+    /**
+     * {@code candleStore} is the store of the candles checked
+     **/
+    private CandleStore candleStore;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        candleStore = new CandleStore(directory);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        candleStore.close();
+    }
+
+    @Test
+    void seedDerivesOnlyCompleteBuckets() throws Exception {
+        assertEquals(FIXTURE_CANDLES, candleStore.seed(SYMBOL, DAILY_INTERVAL, getFixture()));
+        CandleSeries threeDays = candleStore.getSeries(SYMBOL, THREE_DAYS_INTERVAL);
+        assertEquals(10, threeDays.size());
+        long firstOpen = threeDays.getOpenTimes(0, 1).get(0);
+        assertEquals(getTime(2022, 1, 31), firstOpen);
+        assertEquals(0, firstOpen % (3 * ONE_DAY));
+        assertEquals(getTime(2022, 2, 27), threeDays.getLastOpenTime());
+        assertEquals(102, threeDays.getValues(Column.OPEN, 0, 1).get(0));
+        assertEquals(106, threeDays.getValues(Column.HIGH, 0, 1).get(0));
+        assertEquals(100, threeDays.getValues(Column.LOW, 0, 1).get(0));
+        assertEquals(105, threeDays.getValues(Column.CLOSE, 0, 1).get(0));
+        assertEquals(30, threeDays.getValues(Column.VOLUME, 0, 1).get(0));
+        CandleSeries monthly = candleStore.getSeries(SYMBOL, MONTHLY_INTERVAL);
+        assertEquals(1, monthly.size());
+        assertEquals(getTime(2022, 2, 1), monthly.getLastOpenTime());
+        assertEquals(103, monthly.getValues(Column.OPEN, 0, 1).get(0));
+        assertEquals(132, monthly.getValues(Column.HIGH, 0, 1).get(0));
+        assertEquals(101, monthly.getValues(Column.LOW, 0, 1).get(0));
+        assertEquals(131, monthly.getValues(Column.CLOSE, 0, 1).get(0));
+        assertEquals(280, monthly.getValues(Column.VOLUME, 0, 1).get(0));
+    }
+
+    @Test
+    void deriveAppendsOnlyBucketsClosedAfterTheLastDerived() throws Exception {
+        candleStore.seed(SYMBOL, DAILY_INTERVAL, getFixture());
+        assertEquals(0, candleStore.derive(SYMBOL, THREE_DAYS_INTERVAL));
+        assertEquals(0, candleStore.derive(SYMBOL, MONTHLY_INTERVAL));
+        CandleSeries daily = candleStore.getSeries(SYMBOL, DAILY_INTERVAL);
+        for (int j = 0; j < 3; j++) {
+            long openTime = getTime(2022, 3, 3) + j * ONE_DAY;
+            daily.append(openTime, 133 + j, 135 + j, 131 + j, 134 + j, 10);
+        }
+        assertEquals(1, candleStore.derive(SYMBOL, THREE_DAYS_INTERVAL));
+        assertEquals(getTime(2022, 3, 2), candleStore.getSeries(SYMBOL, THREE_DAYS_INTERVAL).getLastOpenTime());
+        assertEquals(0, candleStore.derive(SYMBOL, MONTHLY_INTERVAL));
+    }
+
+    @Test
+    void syncDropsTheDailyCandleStillOpen() throws Exception {
+        long today = System.currentTimeMillis() / ONE_DAY * ONE_DAY;
+        ArrayList<Long> startTimes = new ArrayList<>();
+        List<double[]> candles = new ArrayList<>();
+        candles.add(new double[]{today - ONE_DAY, 1, 3, 0.5, 2, 10});
+        candles.add(new double[]{today, 2, 4, 1.5, 3, 10});
+        assertEquals(1, candleStore.sync(SYMBOL, (symbol, startTime) -> {
+            startTimes.add(startTime);
+            return candles;
+        }));
+        CandleSeries daily = candleStore.getSeries(SYMBOL, DAILY_INTERVAL);
+        assertEquals(1, daily.size());
+        assertEquals(today - ONE_DAY, daily.getLastOpenTime());
+        AtomicInteger fetches = new AtomicInteger();
+        assertEquals(0, candleStore.sync(SYMBOL, (symbol, startTime) -> {
+            fetches.incrementAndGet();
+            return candles;
+        }));
+        assertEquals(0, fetches.get());
+        assertEquals(List.of(0L), startTimes);
+        assertEquals(1, daily.size());
+    }
+
+    @Test
+    void tornAppendIsTruncatedOnReopen() throws Exception {
+        candleStore.seed(SYMBOL, DAILY_INTERVAL, getFixture());
+        candleStore.close();
+        Path dailyDirectory = directory.resolve(SYMBOL).resolve(DAILY_INTERVAL);
+        for (Column column : Column.values())
+            writeBytes(dailyDirectory.resolve(column.name().toLowerCase() + ".bin"), Long.BYTES);
+        writeBytes(dailyDirectory.resolve("open_time.bin"), Long.BYTES / 2);
+        candleStore = new CandleStore(directory);
+        CandleSeries daily = candleStore.getSeries(SYMBOL, DAILY_INTERVAL);
+        assertEquals(FIXTURE_CANDLES, daily.size());
+        assertEquals(getTime(2022, 3, 2), daily.getLastOpenTime());
+        for (Column column : Column.values()) {
+            try (FileChannel channel = FileChannel.open(dailyDirectory.resolve(column.name().toLowerCase() + ".bin"))) {
+                assertEquals((long) FIXTURE_CANDLES * Long.BYTES, channel.size());
+            }
+        }
+        assertTrue(daily.append(getTime(2022, 3, 3), 133, 135, 131, 134, 10));
+        assertEquals(FIXTURE_CANDLES + 1, daily.size());
+        assertEquals(getTime(2022, 3, 3), daily.getOpenTimes(FIXTURE_CANDLES, FIXTURE_CANDLES + 1).get(0));
+        assertEquals(134, daily.getValues(Column.CLOSE, FIXTURE_CANDLES, FIXTURE_CANDLES + 1).get(0));
+        assertEquals(132, daily.getValues(Column.OPEN, FIXTURE_CANDLES - 1, FIXTURE_CANDLES).get(0));
+    }
+
+    /**
+     * This method is used to get the path of the fixture <br>
+     * Any params required
+     *
+     * @return path of the fixture as {@link Path}
+     **/
+    private Path getFixture() throws URISyntaxException {
+        return Path.of(getClass().getResource(FIXTURE).toURI());
+    }
+
+    /**
+     * This method is used to get the start of a day in UTC
+     *
+     * @param year:  year of the day
+     * @param month: month of the day
+     * @param day:   day of the month
+     * @return start of the day in millis as long
+     **/
+    private static long getTime(int year, int month, int day) {
+        return LocalDate.of(year, month, day).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    /**
+     * This method is used to append garbage bytes to a column file, as an append interrupted before its end
+     *
+     * @param file:  file of the column
+     * @param bytes: number of bytes to append
+     **/
+    private static void writeBytes(Path file, int bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, WRITE, APPEND)) {
+            channel.write(ByteBuffer.allocate(bytes));
+        }
+    }
+
+}
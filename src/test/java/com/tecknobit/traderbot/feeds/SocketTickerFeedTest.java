@@ -0,0 +1,135 @@
+package com.tecknobit.traderbot.feeds;
+
+import com.tecknobit.traderbot.records.portfolio.PriceBook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code SocketTickerFeedTest} class is useful to check the tickers replayed by a {@link TickerReplayServer} and
+ * applied to a {@link PriceBook} through a {@link SocketTickerFeed}, as the traders do with their feed
+ *
+ * @author Tecknobit N7ghtm4r3
+ **/
+class SocketTickerFeedTest {
+
+    /**
+     * {@code TIMEOUT} is the max time to wait the replay of the tickers
+     **/
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * {@code directory} is the temporary directory of the recording
+     **/
+    @TempDir
+    Path directory;
+
+    /**
+     * {@code priceBook} is the price book where the tickers are applied
+     **/
+    private PriceBook priceBook;
+
+    /**
+     * {@code replayServer} is the server that replays the recording
+     **/
+    private TickerReplayServer replayServer;
+
+    /**
+     * {@code tickerFeed} is the feed checked
+     **/
+    private SocketTickerFeed tickerFeed;
+
+    @BeforeEach
+    void setUp() {
+        priceBook = new PriceBook();
+        priceBook.putPrice("BTCBUSD", "BTC", "BUSD", 20000, 0);
+        priceBook.putPrice("ETHBUSD", "ETH", "BUSD", 1500, 0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (tickerFeed != null)
+            tickerFeed.stop();
+        if (replayServer != null)
+            replayServer.close();
+    }
+
+    @Test
+    void replayedTickersUpdateThePriceBook() throws Exception {
+        startFeed(List.of(
+                "{\"t\":1000,\"s\":\"BTCBUSD\",\"c\":20100.5,\"P\":0.5}",
+                "{\"t\":1001,\"s\":\"ETHBUSD\",\"c\":1490,\"P\":-0.66}",
+                "{\"t\":1002,\"s\":\"BTCBUSD\",\"c\":20200,\"P\":1}"
+        ));
+        awaitTickers(3);
+        assertEquals(20200, priceBook.getLastPrice("BTCBUSD"));
+        assertEquals(1, priceBook.getPriceChangePercent("BTCBUSD"));
+        assertEquals(1490, priceBook.getLastPrice("ETH", "BUSD"));
+        assertEquals(-0.66, priceBook.getPriceChangePercent("ETHBUSD"));
+        assertEquals(0, tickerFeed.getFailedTickers());
+    }
+
+    @Test
+    void tickersOfSymbolsNotRefreshedAreIgnored() throws Exception {
+        startFeed(List.of(
+                "{\"t\":1000,\"s\":\"DOGEBUSD\",\"c\":0.06,\"P\":2}",
+                "{\"t\":1001,\"s\":\"BTCBUSD\",\"c\":19900,\"P\":-0.5}"
+        ));
+        awaitTickers(2);
+        assertEquals(2, priceBook.size());
+        assertEquals(PriceBook.NOT_FOUND, priceBook.getSymbolId("DOGEBUSD"));
+        assertEquals(19900, priceBook.getLastPrice("BTCBUSD"));
+    }
+
+    @Test
+    void tickersNotValidAreSkipped() throws Exception {
+        startFeed(List.of(
+                "{\"t\":1000,\"s\":\"BTCBUSD\"}",
+                "not a ticker",
+                "{\"t\":1001,\"s\":\"ETHBUSD\",\"c\":1510,\"P\":0.66}"
+        ));
+        awaitTickers(1);
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            while (tickerFeed.getFailedTickers() < 2)
+                Thread.sleep(10);
+        });
+        assertEquals(1510, priceBook.getLastPrice("ETHBUSD"));
+        assertEquals(20000, priceBook.getLastPrice("BTCBUSD"));
+    }
+
+    /**
+     * This method is used to record the tickers and to start the feed that replays them in the {@link #priceBook}
+     *
+     * @param tickers: tickers to replay, one per line
+     **/
+    private void startFeed(List<String> tickers) throws Exception {
+        Path recording = Files.write(directory.resolve("tickers.jsonl"), tickers);
+        replayServer = new TickerReplayServer(recording, 0);
+        int port = replayServer.start(0);
+        tickerFeed = new SocketTickerFeed(InetAddress.getLoopbackAddress().getHostAddress(), port);
+        tickerFeed.start(priceBook::applyTicker);
+    }
+
+    /**
+     * This method is used to wait until the feed has received a number of tickers
+     *
+     * @param tickers: number of tickers to wait
+     **/
+    private void awaitTickers(int tickers) {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            while (tickerFeed.getReceivedTickers() < tickers)
+                Thread.sleep(10);
+        });
+    }
+
+}
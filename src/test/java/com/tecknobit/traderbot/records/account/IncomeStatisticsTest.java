@@ -0,0 +1,97 @@
+package com.tecknobit.traderbot.records.account;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code IncomeStatisticsTest} class is useful to check the statistics saved, restored and updated by more threads
+ * of {@link IncomeStatistics}
+ *
+ * @author Tecknobit N7ghtm4r3
+ **/
+class IncomeStatisticsTest {
+
+    /**
+     * {@code INCOMES} are the incomes inserted in the statistics checked
+     **/
+    private static final double[] INCOMES = {1.5, -2, 0, 3.25, -0.75, 8, -4.5, 0.1};
+
+    /**
+     * {@code DELTA} is the max difference allowed between the statistics, for the different order of the sums
+     **/
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void restoredStatisticsMatchTheSavedOnes() {
+        IncomeStatistics statistics = new IncomeStatistics();
+        for (double income : INCOMES)
+            statistics.addIncome(income);
+        IncomeStatistics restored = new IncomeStatistics(new JSONObject(statistics.toJSON().toString()));
+        assertStatisticsEquals(statistics, restored);
+        statistics.addIncome(-1);
+        restored.addIncome(-1);
+        assertStatisticsEquals(statistics, restored);
+    }
+
+    @Test
+    void emptyStatisticsAreRestored() {
+        IncomeStatistics restored = new IncomeStatistics(new JSONObject(new IncomeStatistics().toJSON().toString()));
+        assertEquals(0, restored.getCount());
+        assertTrue(Double.isNaN(restored.getMin()));
+        assertTrue(Double.isNaN(restored.getQuantile(0.5)));
+        restored.addIncome(2);
+        assertEquals(2, restored.getMin());
+        assertEquals(2, restored.getMax());
+    }
+
+    @Test
+    void incomesInsertedByMoreThreadsAreAllCounted() throws InterruptedException {
+        IncomeStatistics statistics = new IncomeStatistics();
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> threads = new ArrayList<>();
+        for (int j = 0; j < 4; j++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int k = 0; k < 10000; k++)
+                    statistics.addIncome(k % 2 == 0 ? 1 : -1);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+        assertEquals(40000, statistics.getCount());
+        assertEquals(0, statistics.getSum(), DELTA);
+        assertEquals(50, statistics.getWinRate(), DELTA);
+    }
+
+    /**
+     * This method is used to check that two statistics have the same values
+     *
+     * @param expected: statistics expected
+     * @param actual:   statistics to check
+     **/
+    private static void assertStatisticsEquals(IncomeStatistics expected, IncomeStatistics actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getSum(), actual.getSum(), DELTA);
+        assertEquals(expected.getMean(), actual.getMean(), DELTA);
+        assertEquals(expected.getVariance(), actual.getVariance(), DELTA);
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        assertEquals(expected.getWinRate(), actual.getWinRate(), DELTA);
+        assertEquals(expected.getMaxDrawdown(), actual.getMaxDrawdown(), DELTA);
+        for (double quantile : new double[]{0, 0.25, 0.5, 0.75, 1})
+            assertEquals(expected.getQuantile(quantile), actual.getQuantile(quantile));
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.tecknobit.traderbot.records.portfolio;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code SymbolRulesTest} class is useful to check the quantities and the prices rounded by {@link SymbolRules}
+ *
+ * @author Tecknobit N7ghtm4r3
+ **/
+class SymbolRulesTest {
+
+    /**
+     * {@code symbolRules} is the rules checked
+     **/
+    private SymbolRules symbolRules;
+
+    /**
+     * {@code symbolId} is the identifier of the symbol inserted in the {@link #symbolRules}
+     **/
+    private int symbolId;
+
+    @BeforeEach
+    void setUp() {
+        symbolRules = new SymbolRules();
+        symbolId = symbolRules.putRules("BTCBUSD", 0.1, 0.1, 1000, 10, 0.01);
+    }
+
+    @Test
+    void quantityIsQuantizedToTheStepSize() {
+        assertEquals("0.3", String.valueOf(symbolRules.roundQuantity(symbolId, 0.35)));
+        assertEquals("0.7", String.valueOf(symbolRules.roundQuantity(symbolId, 0.7)));
+        assertEquals("12.3", String.valueOf(symbolRules.roundQuantity(symbolId, 12.399999)));
+        for (int j = 1; j < 10000; j++) {
+            double quantity = symbolRules.roundQuantity(symbolId, j * 0.1);
+            assertEquals(Math.round(quantity * 10) / 10.0, quantity, 0);
+        }
+    }
+
+    @Test
+    void quantityIsBoundedToTheLotSize() {
+        assertEquals(0, symbolRules.roundQuantity(symbolId, 0.05));
+        assertEquals(1000, symbolRules.roundQuantity(symbolId, 5000));
+    }
+
+    @Test
+    void priceIsQuantizedToTheTickSize() {
+        assertEquals("0.29", String.valueOf(symbolRules.roundPrice(symbolId, 0.299)));
+        assertEquals("1234.56", String.valueOf(symbolRules.roundPrice(symbolId, 1234.567)));
+    }
+
+    @Test
+    void notionalIsChecked() {
+        assertTrue(symbolRules.isNotionalValid(symbolId, 0.5, 20));
+        assertFalse(symbolRules.isNotionalValid(symbolId, 0.4, 20));
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.tecknobit.traderbot.routines.android;
+
+import com.tecknobit.traderbot.routines.android.OutboundQueue.DropPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code OutboundQueueTest} class is useful to check the events coalesced, dropped and retried by
+ * {@link OutboundQueue}
+ *
+ * @author Tecknobit N7ghtm4r3
+ **/
+class OutboundQueueTest {
+
+    /**
+     * {@code TIMEOUT} is the max time to wait the sender thread
+     **/
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * {@code outboundQueue} is the queue checked
+     **/
+    private OutboundQueue outboundQueue;
+
+    @AfterEach
+    void tearDown() {
+        if (outboundQueue != null)
+            outboundQueue.shutdown();
+    }
+
+    @Test
+    void eventsNotCoalescedAreNeverDropped() throws Exception {
+        outboundQueue = new OutboundQueue(1, DropPolicy.DROP_OLDEST);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> sent = new CopyOnWriteArrayList<>();
+        outboundQueue.enqueue(() -> {
+            blocked.countDown();
+            release.await();
+            return true;
+        });
+        assertTrue(blocked.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        for (int j = 0; j < 10; j++) {
+            String event = "trade" + j;
+            assertTrue(outboundQueue.enqueue(() -> sent.add(event)));
+        }
+        for (int j = 0; j < 3; j++) {
+            String event = "balance" + j;
+            outboundQueue.enqueue("balance" + j, () -> sent.add(event));
+        }
+        assertEquals(2, outboundQueue.getDroppedEvents());
+        release.countDown();
+        awaitSentEvents(12);
+        assertEquals(List.of("trade0", "trade1", "trade2", "trade3", "trade4", "trade5", "trade6", "trade7",
+                "trade8", "trade9", "balance2"), sent);
+    }
+
+    @Test
+    void eventsAreSentInTheOrderOfInsertion() throws Exception {
+        outboundQueue = new OutboundQueue();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> sent = new CopyOnWriteArrayList<>();
+        outboundQueue.enqueue(() -> {
+            blocked.countDown();
+            release.await();
+            return true;
+        });
+        assertTrue(blocked.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        outboundQueue.enqueue("balance", () -> sent.add("balance0"));
+        outboundQueue.enqueue(() -> sent.add("insert"));
+        outboundQueue.enqueue("balance", () -> sent.add("balance1"));
+        outboundQueue.enqueue(() -> sent.add("delete"));
+        release.countDown();
+        awaitSentEvents(4);
+        assertEquals(List.of("balance1", "insert", "delete"), sent);
+        assertEquals(1, outboundQueue.getCoalescedEvents());
+    }
+
+    @Test
+    void coalescedEventIsDiscardedAndReportedAfterMaxAttempts() throws Exception {
+        outboundQueue = new OutboundQueue();
+        outboundQueue.setMaxAttempts(1);
+        List<String> failures = new CopyOnWriteArrayList<>();
+        outboundQueue.setFailureListener((key, attempts, discarded) -> failures.add(key + "|" + attempts + "|"
+                + discarded));
+        outboundQueue.enqueue("balance", () -> false);
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            while (outboundQueue.getFailedEvents() == 0)
+                Thread.sleep(10);
+        });
+        assertEquals(List.of("balance|1|true"), failures);
+    }
+
+    @Test
+    void eventNotCoalescedIsRetriedAfterMaxAttemptsUntilDelivered() throws Exception {
+        outboundQueue = new OutboundQueue();
+        outboundQueue.setMaxAttempts(1);
+        List<String> failures = new CopyOnWriteArrayList<>();
+        outboundQueue.setFailureListener((key, attempts, discarded) -> failures.add(attempts + "|" + discarded));
+        AtomicInteger attempts = new AtomicInteger();
+        outboundQueue.enqueue(() -> {
+            if (attempts.incrementAndGet() == 1)
+                throw new IllegalStateException("Server not available");
+            return true;
+        });
+        awaitSentEvents(1);
+        assertEquals(2, attempts.get());
+        assertEquals(List.of("1|false"), failures);
+        assertEquals(0, outboundQueue.getFailedEvents());
+    }
+
+    /**
+     * This method is used to wait that the sender thread sends a number of events
+     *
+     * @param events: number of events to wait
+     **/
+    private void awaitSentEvents(int events) {
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            while (outboundQueue.getSentEvents() < events || outboundQueue.getPendingEvents() > 0)
+                Thread.sleep(10);
+        });
+    }
+
+}
@@ -0,0 +1,303 @@
+package com.tecknobit.traderbot.routines.android;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.tecknobit.traderbot.routines.android.ServerRequest.MAX_FRAME_LENGTH;
+import static com.tecknobit.traderbot.routines.android.ServerRequest.NO_REQUEST_ID;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code ServerRequestTest} class is useful to check the frames and the lines exchanged by {@link ServerRequest}
+ * with a local stub server
+ *
+ * @author Tecknobit N7ghtm4r3
+ **/
+class ServerRequestTest {
+
+    /**
+     * {@code TIMEOUT} is the max time to wait the stub server
+     **/
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * {@code serverSocket} is the socket of the stub server
+     **/
+    private ServerSocket serverSocket;
+
+    /**
+     * {@code serverRequest} is the request connected to the stub server
+     **/
+    private ServerRequest serverRequest;
+
+    /**
+     * {@code connectionsClosed} is the number of connections closed by the client seen by the stub server
+     **/
+    private AtomicInteger connectionsClosed;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        serverRequest = new ServerRequest(InetAddress.getLoopbackAddress().getHostAddress(), serverSocket.getLocalPort());
+        connectionsClosed = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        serverRequest.close();
+        serverSocket.close();
+    }
+
+    @Test
+    void framedRequestRoundTrips() throws Exception {
+        CopyOnWriteArrayList<int[]> receivedHeaders = new CopyOnWriteArrayList<>();
+        startFramedServer(frames -> {
+            int[] header = frames.readHeader();
+            receivedHeaders.add(header);
+            String operation = new JSONObject(frames.readPayload(header[1])).getString("ope");
+            frames.write(header[0], new JSONObject().put("ope", operation).toString());
+        });
+        serverRequest.setKeepAlive(true);
+        JSONObject request = new JSONObject().put("value", "1");
+        int requestId = serverRequest.pipelineRequest(request, "ping");
+        assertNotEquals(NO_REQUEST_ID, requestId);
+        JSONObject response = assertTimeoutPreemptively(TIMEOUT, () -> serverRequest.readResponse(requestId));
+        assertNotNull(response);
+        assertEquals("ping", response.getString("ope"));
+        assertEquals(requestId, receivedHeaders.get(0)[0]);
+        assertEquals(request.toString().getBytes(UTF_8).length, receivedHeaders.get(0)[1]);
+    }
+
+    @Test
+    void outOfOrderResponsesAreBufferedById() throws Exception {
+        startFramedServer(frames -> {
+            ArrayList<int[]> headers = new ArrayList<>();
+            ArrayList<String> operations = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                int[] header = frames.readHeader();
+                headers.add(header);
+                operations.add(new JSONObject(frames.readPayload(header[1])).getString("ope"));
+            }
+            for (int j = 2; j >= 0; j--)
+                frames.write(headers.get(j)[0], new JSONObject().put("ope", operations.get(j)).toString());
+        });
+        serverRequest.setKeepAlive(true);
+        int firstId = serverRequest.pipelineRequest(new JSONObject(), "first");
+        int secondId = serverRequest.pipelineRequest(new JSONObject(), "second");
+        int thirdId = serverRequest.pipelineRequest(new JSONObject(), "third");
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            assertEquals("first", serverRequest.readResponse(firstId).getString("ope"));
+            assertEquals("third", serverRequest.readResponse(thirdId).getString("ope"));
+            assertEquals("second", serverRequest.readResponse(secondId).getString("ope"));
+        });
+    }
+
+    @Test
+    void frameLargerThanMaxLengthIsRejected() throws Exception {
+        startFramedServer(frames -> {
+            int[] header = frames.readHeader();
+            frames.readPayload(header[1]);
+            frames.output.writeInt(header[0]);
+            frames.output.writeInt(MAX_FRAME_LENGTH + 1);
+            frames.output.flush();
+        });
+        serverRequest.setKeepAlive(true);
+        int requestId = serverRequest.pipelineRequest(new JSONObject(), "oversized");
+        assertNull(assertTimeoutPreemptively(TIMEOUT, () -> serverRequest.readResponse(requestId)));
+        awaitClosedConnections(1);
+    }
+
+    @Test
+    void lineModeClosesSocketAndReleasesPermit() throws Exception {
+        startServer(connection -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), UTF_8));
+            PrintWriter writer = new PrintWriter(new OutputStreamWriter(connection.getOutputStream(), UTF_8), true);
+            String operation = new JSONObject(reader.readLine()).getString("ope");
+            writer.println(new JSONObject().put("ope", operation));
+            if (reader.readLine() == null)
+                connectionsClosed.incrementAndGet();
+        });
+        assertFalse(serverRequest.isKeepAlive());
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            serverRequest.sendRequest(new JSONObject(), "first");
+            assertEquals("first", serverRequest.readResponse().getString("ope"));
+            awaitClosedConnections(1);
+            serverRequest.sendRequest(new JSONObject(), "second");
+            assertEquals("second", serverRequest.readResponse().getString("ope"));
+            awaitClosedConnections(2);
+        });
+    }
+
+    @Test
+    void lineModeResponseIsNotReadByAnotherThread() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        startServer(connection -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), UTF_8));
+            PrintWriter writer = new PrintWriter(new OutputStreamWriter(connection.getOutputStream(), UTF_8), true);
+            String operation = new JSONObject(reader.readLine()).getString("ope");
+            received.countDown();
+            release.await();
+            writer.println(new JSONObject().put("ope", operation));
+        });
+        AtomicReference<JSONObject> response = new AtomicReference<>();
+        Thread sender = new Thread(() -> {
+            try {
+                serverRequest.sendRequest(new JSONObject(), "owned");
+                response.set(serverRequest.readResponse());
+            } catch (Exception ignored) {
+            }
+        });
+        sender.start();
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            received.await();
+            assertNull(serverRequest.readResponse());
+            release.countDown();
+            sender.join();
+        });
+        assertEquals("owned", response.get().getString("ope"));
+    }
+
+    @Test
+    void lineModeFailedSendDoesNotReadResponse() throws Exception {
+        ServerSocket closedSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        int closedPort = closedSocket.getLocalPort();
+        closedSocket.close();
+        ServerRequest unreachableRequest = new ServerRequest(InetAddress.getLoopbackAddress().getHostAddress(),
+                closedPort);
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            for (int j = 0; j < 2; j++) {
+                unreachableRequest.sendRequest(new JSONObject(), "unreachable");
+                assertNull(unreachableRequest.readResponse());
+            }
+        });
+    }
+
+    /**
+     * This method is used to start a stub server that serves the framed requests of each connection
+     *
+     * @param handler: handler of the frames of a connection
+     **/
+    private void startFramedServer(FramesHandler handler) {
+        startServer(connection -> {
+            Frames frames = new Frames(connection);
+            handler.handle(frames);
+            if (frames.input.read() == -1)
+                connectionsClosed.incrementAndGet();
+        });
+    }
+
+    /**
+     * This method is used to start a stub server that handles each connection accepted in a new thread
+     *
+     * @param handler: handler of a connection
+     **/
+    private void startServer(ConnectionHandler handler) {
+        Thread acceptor = new Thread(() -> {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket connection = serverSocket.accept();
+                    Thread worker = new Thread(() -> {
+                        try (connection) {
+                            handler.handle(connection);
+                        } catch (Exception ignored) {
+                        }
+                    });
+                    worker.setDaemon(true);
+                    worker.start();
+                } catch (IOException ignored) {
+                }
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * This method is used to wait until the stub server has seen a number of connections closed by the client
+     *
+     * @param expected: number of connections closed expected
+     **/
+    private void awaitClosedConnections(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (connectionsClosed.get() < expected && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        assertEquals(expected, connectionsClosed.get());
+    }
+
+    /**
+     * The {@code ConnectionHandler} interface defines the handler of a connection of the stub server
+     **/
+    @FunctionalInterface
+    private interface ConnectionHandler {
+
+        void handle(Socket connection) throws Exception;
+
+    }
+
+    /**
+     * The {@code FramesHandler} interface defines the handler of the frames of a connection of the stub server
+     **/
+    @FunctionalInterface
+    private interface FramesHandler {
+
+        void handle(Frames frames) throws Exception;
+
+    }
+
+    /**
+     * The {@code Frames} class defines the streams of the frames of a connection of the stub server
+     **/
+    private static final class Frames {
+
+        /**
+         * {@code input} is the stream to read the frames
+         **/
+        private final DataInputStream input;
+
+        /**
+         * {@code output} is the stream to write the frames
+         **/
+        private final DataOutputStream output;
+
+        private Frames(Socket connection) throws IOException {
+            input = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+            output = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+        }
+
+        private int[] readHeader() throws IOException {
+            return new int[]{input.readInt(), input.readInt()};
+        }
+
+        private String readPayload(int length) throws IOException {
+            byte[] payload = new byte[length];
+            input.readFully(payload);
+            return new String(payload, UTF_8);
+        }
+
+        private void write(int requestId, String payload) throws IOException {
+            byte[] bytes = payload.getBytes(UTF_8);
+            output.writeInt(requestId);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+            output.flush();
+        }
+
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.tecknobit.traderbot.routines.autonomous;
+
+import com.tecknobit.traderbot.candles.CandleSeries;
+import com.tecknobit.traderbot.candles.CandleSeries.Column;
+import com.tecknobit.traderbot.candles.CandleStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.file.Path;
+
+import static com.tecknobit.traderbot.candles.CandleStore.DAILY_INTERVAL;
+import static com.tecknobit.traderbot.routines.autonomous.ForecastCache.ONE_DAY;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The {@code TPTOPEngineTest} class is useful to check that the tptop indexes computed incrementally by
+ * {@link TPTOPEngine} are the same of the reference that scans all the closes of the history
+ *
+ * @author Tecknobit N7ghtm4r3
+ * @implNote the fixture holds 120 daily candles of ETHBUSD from 2022-01-01 in UTC
+ **/
+class TPTOPEngineTest {
+
+    /**
+     * {@code SYMBOL} is the symbol of the candles of the fixture
+     **/
+    private static final String SYMBOL = "ETHBUSD";
+
+    /**
+     * {@code FIXTURE} is the resource of the daily candles of the fixture
+     **/
+    private static final String FIXTURE = "/candles/ETHBUSD-1d.csv";
+
+    /**
+     * {@code DAYS_GAPS} are the days gaps of the forecasts checked
+     **/
+    private static final int[] DAYS_GAPS = {1, 3, 7, 30};
+
+    /**
+     * {@code WASTE_RANGES} are the waste ranges of the forecasts checked
+     **/
+    private static final double[] WASTE_RANGES = {0.5, 1, 3, 10};
+
+    /**
+     * {@code DELTA} is the max difference allowed between the indexes, for the different order of the sums
+     **/
+    private static final double DELTA = 1e-9;
+
+    /**
+     * {@code directory} is the temporary directory of the candles
+     **/
+    @TempDir
+    Path directory;
+
+    /**
+     * {@code candleStore} is the store of the candles of the fixture
+     **/
+    private CandleStore candleStore;
+
+    /**
+     * {@code tptopEngine} is the engine checked
+     **/
+    private TPTOPEngine tptopEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        candleStore = new CandleStore(directory);
+        candleStore.seed(SYMBOL, DAILY_INTERVAL, Path.of(getClass().getResource(FIXTURE).toURI()));
+        tptopEngine = new TPTOPEngine(candleStore);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        candleStore.close();
+    }
+
+    @Test
+    void incrementalIndexMatchesReference() throws IOException {
+        assertIndexesMatchReference();
+    }
+
+    @Test
+    void incrementalIndexMatchesReferenceAfterAppends() throws IOException {
+        assertIndexesMatchReference();
+        CandleSeries candleSeries = candleStore.getSeries(SYMBOL, DAILY_INTERVAL);
+        for (int j = 0; j < 3; j++) {
+            for (int k = 0; k < 15; k++) {
+                int candles = candleSeries.size();
+                double close = candleSeries.getValues(Column.CLOSE, candles - 1, candles).get(0);
+                double nextClose = close * (1 + Math.sin(candles * 0.7) * 0.04);
+                assertTrue(candleSeries.append(candleSeries.getLastOpenTime() + ONE_DAY, close,
+                        Math.max(close, nextClose), Math.min(close, nextClose), nextClose, 1000));
+            }
+            assertIndexesMatchReference();
+        }
+    }
+
+    @Test
+    void daysGapNotCoveredByHistoryIsRejected() throws IOException {
+        int candles = candleStore.getSeries(SYMBOL, DAILY_INTERVAL).size();
+        DoubleBuffer closes = candleStore.getSeries(SYMBOL, DAILY_INTERVAL).getValues(Column.CLOSE, 0, candles);
+        assertThrows(IllegalArgumentException.class, () -> TPTOPEngine.computeTPTOPIndex(closes, candles, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> TPTOPEngine.computeTPTOPIndex(closes, candles + 1, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> tptopEngine.computeTPTOPIndex(SYMBOL, DAILY_INTERVAL, candles, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> tptopEngine.computeTPTOPIndex(SYMBOL, DAILY_INTERVAL, 0, 1));
+        assertDoesNotThrow(() -> tptopEngine.computeTPTOPIndex(SYMBOL, DAILY_INTERVAL, candles - 1, 1));
+    }
+
+    /**
+     * This method is used to check that the indexes computed by the {@link #tptopEngine} for each days gap and waste
+     * range are the same of the reference on the candles stored <br>
+     * Any params required
+     **/
+    private void assertIndexesMatchReference() throws IOException {
+        CandleSeries candleSeries = candleStore.getSeries(SYMBOL, DAILY_INTERVAL);
+        int candles = candleSeries.size();
+        DoubleBuffer closes = candleSeries.getValues(Column.CLOSE, 0, candles);
+        double lastPercent = (closes.get(candles - 1) - closes.get(candles - 2)) / closes.get(candles - 2) * 100;
+        int matched = 0;
+        for (int daysGap : DAYS_GAPS) {
+            for (double wasteRange : WASTE_RANGES) {
+                double reference = TPTOPEngine.computeTPTOPIndex(closes, daysGap, lastPercent, wasteRange);
+                assertEquals(reference, tptopEngine.computeTPTOPIndex(SYMBOL, DAILY_INTERVAL, daysGap, wasteRange),
+                        DELTA, "days gap " + daysGap + ", waste range " + wasteRange);
+                for (double percentChange : new double[]{-4, 0, 2.5}) {
+                    assertEquals(TPTOPEngine.computeTPTOPIndex(closes, daysGap, percentChange, wasteRange),
+                            tptopEngine.computeTPTOPIndex(SYMBOL, DAILY_INTERVAL, daysGap, percentChange, wasteRange),
+                            DELTA, "days gap " + daysGap + ", percent change " + percentChange);
+                }
+                if (reference != 0)
+                    matched++;
+            }
+        }
+        assertTrue(matched > 0);
+    }
+
+}